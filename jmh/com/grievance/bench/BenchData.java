@@ -0,0 +1,85 @@
+package com.grievance.bench;
+
+import com.grievance.dao.GrievanceRepository;
+import com.grievance.dao.UserRepository;
+import com.grievance.model.Grievance;
+import com.grievance.model.GrievanceStatus;
+import com.grievance.model.User;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generated grievances for the benchmarks, spread over the past year. Existing rows are kept, so
+ * repeated runs against the same store reuse the data.
+ */
+public final class BenchData {
+
+    static final String[] WORDS = {
+        "salary", "delayed", "hostel", "water", "leak", "network", "outage", "library", "fees", "refund",
+        "canteen", "hygiene", "parking", "security", "exam", "results", "transport", "bus", "wifi", "laptop",
+        "harassment", "noise", "maintenance", "elevator", "heating", "cooling", "payroll", "leave", "portal", "login"
+    };
+    static final long YEAR_MILLIS = TimeUnit.DAYS.toMillis(365);
+    private static final int SEED_CHUNK = 10_000;
+
+    private BenchData() {}
+
+    /** @return IDs of regular users to own the generated grievances, creating one if there are none. */
+    public static int[] users(UserRepository users) {
+        List<User> all = users.getAllUsers();
+        int[] ids = all.stream().filter(u -> "USER".equals(u.getRole())).mapToInt(User::getId).limit(1000).toArray();
+        if (ids.length > 0) return ids;
+        User created = users.register("bench_user", "bench_user_password");
+        if (created == null) throw new IllegalStateException("Could not create a user to own benchmark grievances");
+        return new int[] { created.getId() };
+    }
+
+    /** Tops the store up to {@code volume} grievances, moving a share of them along the workflow. */
+    public static void seed(GrievanceRepository grievances, int[] userIds, int volume) {
+        int existing = 0;
+        for (int n : grievances.getStatusSummary().values()) existing += n;
+        if (existing >= volume) return;
+
+        System.out.printf("Seeding %,d grievances...%n", volume - existing);
+        SplittableRandom random = new SplittableRandom(42 + existing);
+        long now = System.currentTimeMillis();
+        long start = System.nanoTime();
+        List<Grievance> chunk = new ArrayList<>(SEED_CHUNK);
+        int remaining = volume - existing;
+        while (remaining > 0) {
+            chunk.clear();
+            for (int i = 0, n = Math.min(SEED_CHUNK, remaining); i < n; i++) {
+                Grievance g = new Grievance(userIds[random.nextInt(userIds.length)], words(random, 3, 6), words(random, 20, 60));
+                g.setCreatedAt(new Timestamp(now - random.nextLong(YEAR_MILLIS)));
+                chunk.add(g);
+            }
+            int[] ids = grievances.createGrievances(chunk);
+            if (ids.length < chunk.size()) throw new IllegalStateException("Seeding failed after " + ids.length + " rows of a chunk");
+            remaining -= ids.length;
+
+            // Move a share of each chunk along the workflow so every status has rows
+            int[] started = new int[(ids.length + 9) / 10];
+            int[] resolved = new int[started.length / 2];
+            for (int i = 0, n = 0; i < ids.length; i += 10, n++) {
+                started[n] = ids[i];
+                if (n % 2 == 1) resolved[n / 2] = ids[i];
+            }
+            grievances.transitionStatuses(started, null, GrievanceStatus.IN_PROGRESS);
+            grievances.transitionStatuses(resolved, null, GrievanceStatus.RESOLVED);
+        }
+        System.out.printf("Seeded in %.1fs%n", (System.nanoTime() - start) / 1e9);
+    }
+
+    private static String words(SplittableRandom random, int min, int max) {
+        int n = min + random.nextInt(max - min + 1);
+        StringBuilder sb = new StringBuilder(n * 8);
+        for (int i = 0; i < n; i++) {
+            if (i > 0) sb.append(' ');
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+}
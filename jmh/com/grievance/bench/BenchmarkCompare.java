@@ -0,0 +1,89 @@
+package com.grievance.bench;
+
+import com.grievance.util.Json;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files ({@code -rf json}) from the sample-time benchmarks.
+ * <pre>
+ * java com.grievance.bench.BenchmarkCompare baseline.json current.json [tolerancePercent]
+ * </pre>
+ * Lists every benchmark in both files and fails, naming them, if any got slower on average or at
+ * p99 by more than the tolerance (default 10%), so it can gate a CI job ({@code gradle jmhCompare}).
+ */
+public class BenchmarkCompare {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) throw new IllegalArgumentException("Usage: BenchmarkCompare baseline.json current.json [tolerancePercent]");
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+        List<String> regressed = compare(Paths.get(args[0]), Paths.get(args[1]), tolerance);
+        if (!regressed.isEmpty()) {
+            throw new IllegalStateException(regressed.size() + " benchmark(s) regressed: " + String.join(", ", regressed));
+        }
+    }
+
+    /** @return names of the benchmarks whose mean or p99 time rose by more than {@code tolerancePercent}. */
+    static List<String> compare(Path baselineFile, Path currentFile, double tolerancePercent) throws IOException {
+        Map<String, Map<String, Object>> baseline = byName(baselineFile);
+        Map<String, Map<String, Object>> current = byName(currentFile);
+
+        System.out.printf("%-56s %12s %12s %8s %12s %12s %8s%n",
+                "benchmark", "base mean", "mean", "change", "base p99", "p99", "change");
+        List<String> regressed = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Object>> e : current.entrySet()) {
+            Map<String, Object> before = baseline.get(e.getKey());
+            if (before == null) continue;
+            double meanBefore = number(before, "score");
+            double meanNow = number(e.getValue(), "score");
+            double p99Before = p99(before);
+            double p99Now = p99(e.getValue());
+            double meanChange = percentChange(meanBefore, meanNow);
+            double p99Change = percentChange(p99Before, p99Now);
+            boolean worse = meanChange > tolerancePercent || p99Change > tolerancePercent;
+            if (worse) regressed.add(e.getKey());
+            System.out.printf("%-56s %12.2f %12.2f %+7.1f%% %12.2f %12.2f %+7.1f%%%s%n", e.getKey(),
+                    meanBefore, meanNow, meanChange, p99Before, p99Now, p99Change, worse ? "  REGRESSION" : "");
+        }
+        return regressed;
+    }
+
+    /** @return each result's primary metric, keyed by class.method and any parameters. */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Map<String, Object>> byName(Path file) throws IOException {
+        Object parsed = Json.parse(Files.readString(file));
+        if (!(parsed instanceof List)) throw new IOException(file + " is not a JMH JSON result file");
+        Map<String, Map<String, Object>> out = new LinkedHashMap<>();
+        for (Object o : (List<Object>) parsed) {
+            Map<String, Object> result = (Map<String, Object>) o;
+            String name = (String) result.get("benchmark");
+            name = name.substring(name.lastIndexOf('.', name.lastIndexOf('.') - 1) + 1);
+            Object params = result.get("params");
+            if (params instanceof Map) name += new TreeMap<>((Map<String, Object>) params);
+            out.put(name, (Map<String, Object>) result.get("primaryMetric"));
+        }
+        return out;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static double p99(Map<String, Object> metric) {
+        Object percentiles = metric.get("scorePercentiles");
+        return percentiles instanceof Map ? number((Map<String, Object>) percentiles, "99.0") : 0;
+    }
+
+    private static double number(Map<String, Object> m, String key) {
+        Object v = m.get(key);
+        return v instanceof Number ? ((Number) v).doubleValue() : 0;
+    }
+
+    private static double percentChange(double before, double after) {
+        return before == 0 ? 0 : (after - before) / before * 100;
+    }
+}
@@ -0,0 +1,111 @@
+package com.grievance.bench;
+
+import com.grievance.dao.GrievanceRepository;
+import com.grievance.dao.Storage;
+import com.grievance.model.Grievance;
+import com.grievance.model.GrievanceStatus;
+import com.grievance.model.GrievanceSummary;
+import com.grievance.model.Page;
+import com.grievance.model.PageCursor;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The repository operations behind the CLI and server screens, against whichever engine
+ * {@code storage.engine} selects. The store is topped up to {@code volume} grievances before the
+ * first iteration. Run with {@code gradle jmh}; add {@code -t 8} for concurrent callers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param("10000")
+    public int volume;
+
+    private GrievanceRepository grievances;
+    private int[] userIds;
+    private int maxId;
+    private long now;
+    private Grievance sample;
+
+    /** Each benchmark thread draws its own arguments. */
+    @State(Scope.Thread)
+    public static class Args {
+        SplittableRandom random = new SplittableRandom(ThreadLocalRandom.current().nextLong());
+    }
+
+    @Setup
+    public void setUp() {
+        grievances = Storage.grievances();
+        userIds = BenchData.users(Storage.users());
+        BenchData.seed(grievances, userIds, volume);
+
+        Page<GrievanceSummary> newest = grievances.getGrievancesPage(null, 1);
+        maxId = newest.getItems().isEmpty() ? 1 : newest.getItems().get(0).getId();
+        sample = grievances.getGrievanceById(maxId);
+        if (sample == null) throw new IllegalStateException("No grievance to benchmark with");
+        now = System.currentTimeMillis();
+    }
+
+    @Benchmark
+    public Grievance getGrievanceById(Args args) {
+        return grievances.getGrievanceById(1 + args.random.nextInt(maxId));
+    }
+
+    @Benchmark
+    public Page<GrievanceSummary> getGrievancesPageFirst() {
+        return grievances.getGrievancesPage(null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Page<GrievanceSummary> getGrievancesPageDeep(Args args) {
+        return grievances.getGrievancesPage(
+                new PageCursor(new Timestamp(now - args.random.nextLong(BenchData.YEAR_MILLIS)), Integer.MAX_VALUE), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Page<GrievanceSummary> getGrievancesPageByUserId(Args args) {
+        return grievances.getGrievancesPageByUserId(userIds[args.random.nextInt(userIds.length)], null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<GrievanceSummary> searchGrievances(Args args) {
+        return grievances.searchGrievances(BenchData.WORDS[args.random.nextInt(BenchData.WORDS.length)], 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public int countByStatus(Args args) {
+        return grievances.countByStatus(GrievanceStatus.values()[args.random.nextInt(3)].name());
+    }
+
+    @Benchmark
+    public Map<GrievanceStatus, Integer> getStatusSummary() {
+        return grievances.getStatusSummary();
+    }
+
+    @Benchmark
+    public String grievanceToString() {
+        return sample.toString();
+    }
+}
@@ -0,0 +1,89 @@
+package com.grievance.dao;
+
+import com.grievance.bench.BenchData;
+import com.grievance.model.Grievance;
+import com.grievance.util.DBUtil;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Connection pool checkout and row mapping on the MySQL engine; with {@code storage.engine=embedded}
+ * the setup fails and JMH moves on to the other benchmarks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JdbcBenchmark {
+
+    private static final int ROWS = 1000;
+
+    @Param("10000")
+    public int volume;
+
+    private GrievanceDAO dao;
+
+    /** A buffered result set per thread, read round and round so each call maps one row. */
+    @State(Scope.Thread)
+    public static class Rows {
+        private Connection conn;
+        private PreparedStatement ps;
+        ResultSet rs;
+
+        // Takes the benchmark state so that the table is seeded first
+        @Setup
+        public void open(JdbcBenchmark benchmark) throws SQLException {
+            conn = DBUtil.getConnection();
+            ps = conn.prepareStatement("SELECT * FROM grievances ORDER BY id DESC LIMIT " + ROWS,
+                    ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+            rs = ps.executeQuery();
+        }
+
+        @TearDown
+        public void close() throws SQLException {
+            rs.close();
+            ps.close();
+            conn.close();
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        dao = Storage.jdbcGrievances();
+        if (dao == null) throw new IllegalStateException("JdbcBenchmark needs storage.engine=mysql");
+        BenchData.seed(dao, BenchData.users(Storage.users()), volume);
+    }
+
+    @Benchmark
+    public boolean getConnection() throws SQLException {
+        try (Connection c = DBUtil.getConnection()) {
+            return c.isClosed();
+        }
+    }
+
+    @Benchmark
+    public Grievance extractGrievanceFromResultSet(Rows rows) throws SQLException {
+        if (!rows.rs.next()) {
+            rows.rs.beforeFirst();
+            rows.rs.next();
+        }
+        return dao.extractGrievanceFromResultSet(rows.rs);
+    }
+}
@@ -0,0 +1,291 @@
+package com.grievance.analytics;
+
+import com.grievance.dao.GrievanceRepository;
+import com.grievance.model.GrievanceStatus;
+import com.grievance.model.GrievanceSummary;
+import com.grievance.util.LogHistogram;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Time-to-resolution and throughput analytics computed from {@code created_at}/{@code resolved_at}.
+ * <p>
+ * {@link #refresh()} first runs one streaming pass over the narrow timeline columns of every
+ * grievance. After that it only reads what changed: rows inserted after the highest ID seen, rows
+ * resolved since the {@code resolved_at} watermark, and the unresolved backlog. Resolution times go
+ * into a fixed-size {@link LogHistogram}, so memory stays bounded regardless of table size; per-day
+ * and per-user aggregates hold a few counters per key.
+ */
+public class ResolutionAnalytics {
+
+    /** Upper bounds (exclusive, in days) of the backlog age buckets; the last bucket is open-ended. */
+    private static final int[] BACKLOG_BUCKET_DAYS = { 1, 3, 7, 14, 30 };
+
+    public enum Granularity { DAY, WEEK }
+
+    private final GrievanceRepository dao;
+    private final ZoneId zone;
+
+    private final LogHistogram resolutionSeconds = new LogHistogram();
+    private final Map<Integer, UserStats> byUser = new HashMap<>();
+    private final TreeMap<LocalDate, Throughput> byDay = new TreeMap<>();
+    private long[] backlogBuckets = new long[BACKLOG_BUCKET_DAYS.length + 1];
+    private long backlogTotal = 0;
+
+    // Watermarks for incremental refresh
+    private int maxSeenId = 0;
+    private Timestamp resolvedWatermark = null;
+    // IDs already counted whose resolved_at equals the watermark; rows in the same second may commit later
+    private Set<Integer> idsAtWatermark = new HashSet<>();
+    private boolean initialised = false;
+    private long lastRefreshMillis = 0;
+
+    public ResolutionAnalytics(GrievanceRepository dao) {
+        this(dao, ZoneId.systemDefault());
+    }
+
+    public ResolutionAnalytics(GrievanceRepository dao, ZoneId zone) {
+        this.dao = dao;
+        this.zone = zone;
+    }
+
+    /**
+     * Brings the analytics up to date: a full pass the first time, incremental afterwards.
+     * @throws SQLException if the grievances could not be read.
+     */
+    public synchronized void refresh() throws SQLException {
+        long start = System.currentTimeMillis();
+        if (!initialised) {
+            long[] backlog = new long[backlogBuckets.length];
+            long[] backlogCount = new long[1];
+            long now = System.currentTimeMillis();
+            try (Stream<GrievanceSummary> rows = dao.streamTimeline()) {
+                rows.forEach(g -> {
+                    countOpened(g);
+                    if (g.getResolvedAt() != null) {
+                        countResolved(g, false);
+                    } else if (!GrievanceStatus.RESOLVED.name().equals(g.getStatus())) {
+                        addToBacklog(g, now, backlog);
+                        backlogCount[0]++;
+                    }
+                });
+            }
+            backlogBuckets = backlog;
+            backlogTotal = backlogCount[0];
+            initialised = true;
+        } else {
+            try (Stream<GrievanceSummary> rows = dao.streamTimelineAfterId(maxSeenId)) {
+                rows.forEach(this::countOpened);
+            }
+            Timestamp since = resolvedWatermark != null ? resolvedWatermark : new Timestamp(0);
+            try (Stream<GrievanceSummary> rows = dao.streamTimelineResolvedSince(since)) {
+                rows.forEach(g -> countResolved(g, true));
+            }
+            recomputeBacklog();
+        }
+        lastRefreshMillis = System.currentTimeMillis() - start;
+    }
+
+    private void recomputeBacklog() throws SQLException {
+        long[] backlog = new long[backlogBuckets.length];
+        long[] count = new long[1];
+        long now = System.currentTimeMillis();
+        try (Stream<GrievanceSummary> rows = dao.streamTimelineUnresolved()) {
+            rows.forEach(g -> {
+                addToBacklog(g, now, backlog);
+                count[0]++;
+            });
+        }
+        backlogBuckets = backlog;
+        backlogTotal = count[0];
+    }
+
+    private void countOpened(GrievanceSummary g) {
+        if (g.getId() <= maxSeenId && initialised) return;
+        maxSeenId = Math.max(maxSeenId, g.getId());
+        if (g.getCreatedAt() == null) return;
+        byDay.computeIfAbsent(toDate(g.getCreatedAt()), d -> new Throughput()).opened++;
+        byUser.computeIfAbsent(g.getUserId(), u -> new UserStats()).opened++;
+    }
+
+    /**
+     * @param incremental true when reading rows resolved since the watermark, to skip ones already counted.
+     */
+    private void countResolved(GrievanceSummary g, boolean incremental) {
+        Timestamp resolvedAt = g.getResolvedAt();
+        if (resolvedAt == null) return;
+
+        int cmp = resolvedWatermark == null ? 1 : resolvedAt.compareTo(resolvedWatermark);
+        if (incremental && (cmp < 0 || (cmp == 0 && idsAtWatermark.contains(g.getId())))) return;
+        if (cmp > 0) {
+            resolvedWatermark = resolvedAt;
+            idsAtWatermark = new HashSet<>();
+        }
+        if (cmp >= 0) idsAtWatermark.add(g.getId());
+
+        byDay.computeIfAbsent(toDate(resolvedAt), d -> new Throughput()).resolved++;
+        if (g.getCreatedAt() == null) return;
+
+        long seconds = Math.max(0, (resolvedAt.getTime() - g.getCreatedAt().getTime()) / 1000);
+        resolutionSeconds.record(seconds);
+        UserStats user = byUser.computeIfAbsent(g.getUserId(), u -> new UserStats());
+        user.resolved++;
+        user.totalResolutionSeconds += seconds;
+        user.maxResolutionSeconds = Math.max(user.maxResolutionSeconds, seconds);
+    }
+
+    private void addToBacklog(GrievanceSummary g, long now, long[] buckets) {
+        if (g.getCreatedAt() == null) return;
+        double ageDays = (now - g.getCreatedAt().getTime()) / 86_400_000.0;
+        int i = 0;
+        while (i < BACKLOG_BUCKET_DAYS.length && ageDays >= BACKLOG_BUCKET_DAYS[i]) i++;
+        buckets[i]++;
+    }
+
+    private LocalDate toDate(Timestamp ts) {
+        return Instant.ofEpochMilli(ts.getTime()).atZone(zone).toLocalDate();
+    }
+
+    // --- Results ---
+
+    /**
+     * @return time-to-resolution statistics over every resolved grievance.
+     */
+    public synchronized ResolutionStats getResolutionStats() {
+        return new ResolutionStats(resolutionSeconds.getCount(), resolutionSeconds.getMean(),
+                resolutionSeconds.getValueAtPercentile(50), resolutionSeconds.getValueAtPercentile(90),
+                resolutionSeconds.getValueAtPercentile(99), resolutionSeconds.getMax());
+    }
+
+    /**
+     * @return number of unresolved grievances per age bucket, labelled e.g. "1-3 days".
+     */
+    public synchronized Map<String, Long> getBacklogAgeHistogram() {
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        int lower = 0;
+        for (int i = 0; i < BACKLOG_BUCKET_DAYS.length; i++) {
+            histogram.put(lower + "-" + BACKLOG_BUCKET_DAYS[i] + " days", backlogBuckets[i]);
+            lower = BACKLOG_BUCKET_DAYS[i];
+        }
+        histogram.put(lower + "+ days", backlogBuckets[BACKLOG_BUCKET_DAYS.length]);
+        return histogram;
+    }
+
+    public synchronized long getBacklogTotal() { return backlogTotal; }
+
+    /**
+     * @param granularity DAY, or WEEK (weeks start on Monday and are keyed by that Monday).
+     * @return opened and resolved counts per period, oldest first.
+     */
+    public synchronized SortedMap<LocalDate, Throughput> getThroughput(Granularity granularity) {
+        TreeMap<LocalDate, Throughput> result = new TreeMap<>();
+        for (Map.Entry<LocalDate, Throughput> e : byDay.entrySet()) {
+            LocalDate key = granularity == Granularity.WEEK
+                    ? e.getKey().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                    : e.getKey();
+            Throughput t = result.computeIfAbsent(key, k -> new Throughput());
+            t.opened += e.getValue().opened;
+            t.resolved += e.getValue().resolved;
+        }
+        return Collections.unmodifiableSortedMap(result);
+    }
+
+    /**
+     * @return per-user opened/resolved counts and resolution times, keyed by user ID.
+     */
+    public synchronized Map<Integer, UserStats> getUserStats() {
+        Map<Integer, UserStats> copy = new TreeMap<>();
+        for (Map.Entry<Integer, UserStats> e : byUser.entrySet()) {
+            copy.put(e.getKey(), e.getValue().copy());
+        }
+        return copy;
+    }
+
+    /** @return the resolved_at up to which resolutions have been counted, or null before the first refresh. */
+    public synchronized Timestamp getResolvedWatermark() { return resolvedWatermark; }
+
+    public synchronized long getLastRefreshMillis() { return lastRefreshMillis; }
+
+    // --- Result types ---
+
+    /**
+     * Time-to-resolution statistics, in seconds.
+     */
+    public static class ResolutionStats {
+        private final long count;
+        private final double meanSeconds;
+        private final long medianSeconds;
+        private final long p90Seconds;
+        private final long p99Seconds;
+        private final long maxSeconds;
+
+        public ResolutionStats(long count, double meanSeconds, long medianSeconds, long p90Seconds,
+                               long p99Seconds, long maxSeconds) {
+            this.count = count;
+            this.meanSeconds = meanSeconds;
+            this.medianSeconds = medianSeconds;
+            this.p90Seconds = p90Seconds;
+            this.p99Seconds = p99Seconds;
+            this.maxSeconds = maxSeconds;
+        }
+
+        public long getCount() { return count; }
+        public double getMeanSeconds() { return meanSeconds; }
+        public long getMedianSeconds() { return medianSeconds; }
+        public long getP90Seconds() { return p90Seconds; }
+        public long getP99Seconds() { return p99Seconds; }
+        public long getMaxSeconds() { return maxSeconds; }
+    }
+
+    /**
+     * Grievances opened and resolved in one period.
+     */
+    public static class Throughput {
+        private long opened;
+        private long resolved;
+
+        public long getOpened() { return opened; }
+        public long getResolved() { return resolved; }
+    }
+
+    /**
+     * Per-user counters. Kept to a few fields so memory grows only with the number of users.
+     */
+    public static class UserStats {
+        private long opened;
+        private long resolved;
+        private long totalResolutionSeconds;
+        private long maxResolutionSeconds;
+
+        public long getOpened() { return opened; }
+        public long getResolved() { return resolved; }
+        public long getMaxResolutionSeconds() { return maxResolutionSeconds; }
+
+        public double getMeanResolutionSeconds() {
+            return resolved == 0 ? 0 : (double) totalResolutionSeconds / resolved;
+        }
+
+        private UserStats copy() {
+            UserStats c = new UserStats();
+            c.opened = opened;
+            c.resolved = resolved;
+            c.totalResolutionSeconds = totalResolutionSeconds;
+            c.maxResolutionSeconds = maxResolutionSeconds;
+            return c;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.grievance.archive;
+
+import com.grievance.dao.GrievanceDAO;
+import com.grievance.util.AppConfig;
+import java.io.Closeable;
+import java.sql.Timestamp;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves old RESOLVED grievances from the live {@code grievances} table to {@code grievances_archive}
+ * on a background thread, so the live table and its indexes only hold the working set.
+ * <p>
+ * Every {@code archive.intervalMinutes} it adds any archive partitions that are due and then moves
+ * batches of {@code archive.batchSize} rows, each in its own short transaction, until nothing is left
+ * to move. Between batches it pauses for {@code archive.pauseMillis} or for as long as the batch took,
+ * whichever is longer, so archiving never takes more than half of the database's time.
+ * <p>
+ * Which rows are old enough is decided by the DAO ({@code archive.afterDays}); reads are routed to
+ * the live table, the archive or both by {@link GrievanceDAO}.
+ */
+public class GrievanceArchiver implements Closeable {
+
+    private final GrievanceDAO dao;
+    private final int batchSize;
+    private final long pauseMillis;
+    private final long intervalMillis;
+    private final Thread thread;
+
+    private final Object lock = new Object();
+    private boolean closed;            // guarded by lock
+    private volatile long archived;
+    private volatile long failedBatches;
+    private volatile long lastRunAt;
+    private volatile long lastRunArchived;
+    private volatile long lastBatchMillis;
+
+    public GrievanceArchiver(GrievanceDAO dao, int batchSize, long pauseMillis, long intervalMillis) {
+        if (batchSize < 1) throw new IllegalArgumentException("batchSize must be at least 1");
+        this.dao = dao;
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+        this.intervalMillis = intervalMillis;
+        this.thread = new Thread(this::run, "grievance-archiver");
+        this.thread.setDaemon(true);
+    }
+
+    public static GrievanceArchiver fromConfig(GrievanceDAO dao) {
+        return new GrievanceArchiver(dao,
+                AppConfig.getInt("archive.batchSize", 1000),
+                AppConfig.getLong("archive.pauseMillis", 200),
+                Math.max(1, AppConfig.getLong("archive.intervalMinutes", 60)) * 60_000);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    private void run() {
+        while (true) {
+            runOnce();
+            synchronized (lock) {
+                try {
+                    if (!closed) lock.wait(intervalMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (closed) return;
+            }
+        }
+    }
+
+    /**
+     * Archives everything that is due, in throttled batches.
+     * @return how many grievances were moved.
+     */
+    public long runOnce() {
+        dao.ensureArchivePartitions();
+        long moved = 0;
+        while (!isClosed()) {
+            long start = System.currentTimeMillis();
+            int n = dao.archiveResolved(batchSize);
+            lastBatchMillis = System.currentTimeMillis() - start;
+            if (n < 0) {
+                failedBatches++;
+                break; // try again next interval
+            }
+            moved += n;
+            archived += n;
+            if (n < batchSize) break;
+            if (!pause(Math.max(pauseMillis, lastBatchMillis))) break;
+        }
+        lastRunAt = System.currentTimeMillis();
+        lastRunArchived = moved;
+        return moved;
+    }
+
+    /** @return false if the archiver was closed while pausing. */
+    private boolean pause(long millis) {
+        synchronized (lock) {
+            long until = System.currentTimeMillis() + millis;
+            try {
+                for (long left = millis; !closed && left > 0; left = until - System.currentTimeMillis()) {
+                    lock.wait(left);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            return !closed;
+        }
+    }
+
+    private boolean isClosed() {
+        synchronized (lock) {
+            return closed;
+        }
+    }
+
+    /** Stops the archiver after the batch in progress. */
+    public void close(long timeout, TimeUnit unit) {
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            thread.join(unit.toMillis(timeout));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        close(10, TimeUnit.SECONDS);
+    }
+
+    // --- Metrics ---
+    public Map<String, Object> getStats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("archived", archived);
+        m.put("failedBatches", failedBatches);
+        m.put("lastRunAt", lastRunAt == 0 ? null : new Timestamp(lastRunAt));
+        m.put("lastRunArchived", lastRunArchived);
+        m.put("lastBatchMillis", lastBatchMillis);
+        return m;
+    }
+}
@@ -0,0 +1,105 @@
+package com.grievance.bench;
+
+import com.grievance.cache.UserCache;
+import com.grievance.dao.UserDAO;
+import com.grievance.model.User;
+import com.grievance.util.PasswordHasher;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Measures {@link UserDAO#login} throughput at several hash costs.
+ * <p>
+ * The user row is served from a warm {@link UserCache}, as it is for repeat logins, so no database
+ * is needed and the figures show the cost of verifying the password in-process.
+ * <pre>
+ * java com.grievance.bench.LoginBenchmark [threads] [secondsPerCost] [iterations...]
+ * </pre>
+ */
+public class LoginBenchmark {
+
+    private static final int[] DEFAULT_COSTS = { 10_000, 100_000, 310_000, 600_000, 1_000_000 };
+    private static final String USERNAME = "bench";
+    private static final String PASSWORD = "correct horse battery staple";
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int[] costs = DEFAULT_COSTS;
+        if (args.length > 2) {
+            costs = new int[args.length - 2];
+            for (int i = 2; i < args.length; i++) costs[i - 2] = Integer.parseInt(args[i]);
+        }
+
+        System.out.printf("Login throughput, %d thread(s), %ds per cost%n", threads, seconds);
+        System.out.printf("%12s %12s %14s%n", "iterations", "logins/sec", "ms/login");
+        for (int cost : costs) {
+            Result r = run(cost, threads, seconds);
+            System.out.printf("%,12d %12.1f %14.2f%n", cost, r.perSecond(), r.millisPerLogin(threads));
+        }
+    }
+
+    static Result run(int iterations, int threads, int seconds) throws Exception {
+        PasswordHasher hasher = new PasswordHasher(iterations);
+        UserCache cache = new UserCache(TimeUnit.DAYS.toSeconds(1), 16);
+        User user = new User();
+        user.setId(1);
+        user.setUsername(USERNAME);
+        user.setRole("USER");
+        cache.put(user, hasher.hash(PASSWORD), cache.version());
+        UserDAO dao = new UserDAO(cache, hasher);
+
+        // Warm up the JIT and the PBKDF2 provider before timing
+        for (int i = 0; i < 3; i++) check(dao.login(USERNAME, PASSWORD));
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        AtomicBoolean stop = new AtomicBoolean(false);
+        List<Future<Long>> workers = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            workers.add(pool.submit(() -> {
+                long n = 0;
+                while (!stop.get()) {
+                    check(dao.login(USERNAME, PASSWORD));
+                    n++;
+                }
+                return n;
+            }));
+        }
+        Thread.sleep(TimeUnit.SECONDS.toMillis(seconds));
+        stop.set(true);
+        long total = 0;
+        for (Future<Long> f : workers) total += f.get();
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+        return new Result(total, elapsed);
+    }
+
+    private static void check(User user) {
+        if (user == null) throw new IllegalStateException("login failed during benchmark");
+    }
+
+    static final class Result {
+        final long logins;
+        final long elapsedNanos;
+
+        Result(long logins, long elapsedNanos) {
+            this.logins = logins;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        double perSecond() {
+            return logins / (elapsedNanos / 1e9);
+        }
+
+        /** Latency of one login as seen by a single thread. */
+        double millisPerLogin(int threads) {
+            return logins == 0 ? 0 : elapsedNanos / 1e6 * threads / logins;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.grievance.bench;
+
+import com.grievance.util.Json;
+import com.grievance.util.LogHistogram;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drives a running {@link com.grievance.server.GrievanceServer} with many concurrent clients.
+ * <p>
+ * Logs in once, then keeps {@code clients} requests for the first page of {@code GET /api/grievances}
+ * in flight for the given duration, and reports throughput, latency percentiles and how many
+ * requests were shed with 503.
+ * <pre>
+ * java com.grievance.bench.ServerLoadBenchmark [baseUrl] [clients] [seconds] [username] [password]
+ * </pre>
+ */
+public class ServerLoadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        String username = args.length > 3 ? args[3] : "admin";
+        String password = args.length > 4 ? args[4] : "admin123";
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        HttpResponse<String> login = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/login"))
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\":" + Json.quote(username) + ",\"password\":" + Json.quote(password) + "}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (login.statusCode() != 200) {
+            System.err.println("Login failed (" + login.statusCode() + "): " + login.body());
+            return;
+        }
+        String token = (String) Json.parseObject(login.body()).get("token");
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/grievances?limit=20"))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .build();
+
+        LogHistogram latencyMicros = new LogHistogram();
+        LongAdder ok = new LongAdder();
+        LongAdder shed = new LongAdder();
+        LongAdder failed = new LongAdder();
+        Semaphore inFlight = new Semaphore(clients);
+
+        System.out.printf("%d concurrent clients against %s for %ds...%n", clients, baseUrl, seconds);
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        while (System.nanoTime() < end) {
+            if (!inFlight.tryAcquire(100, TimeUnit.MILLISECONDS)) continue;
+            long sent = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                latencyMicros.record((System.nanoTime() - sent) / 1_000);
+                if (error != null) {
+                    failed.increment();
+                } else if (response.statusCode() == 200) {
+                    ok.increment();
+                } else if (response.statusCode() == 503) {
+                    shed.increment();
+                } else {
+                    failed.increment();
+                }
+                inFlight.release();
+            });
+        }
+        // Let the requests still in flight finish
+        inFlight.acquire(clients);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("clients", clients);
+        report.put("seconds", elapsed);
+        report.put("ok", ok.sum());
+        report.put("shed503", shed.sum());
+        report.put("failed", failed.sum());
+        report.put("okPerSecond", ok.sum() / elapsed);
+        report.put("p50Millis", latencyMicros.getValueAtPercentile(50) / 1000.0);
+        report.put("p99Millis", latencyMicros.getValueAtPercentile(99) / 1000.0);
+        report.put("maxMillis", latencyMicros.getMax() / 1000.0);
+        System.out.println(Json.write(report));
+    }
+}
@@ -0,0 +1,489 @@
+package com.grievance.cache;
+
+import com.grievance.dao.GrievanceListener;
+import com.grievance.dao.GrievanceRepository;
+import com.grievance.model.Grievance;
+import com.grievance.model.GrievanceStatus;
+import com.grievance.model.GrievanceSummary;
+import com.grievance.model.Page;
+import com.grievance.model.PageCursor;
+import com.grievance.query.QueryDataset;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * In-memory copy of the summary columns of every grievance, for answering status counts, per-user
+ * listings and status/age filters without a database round trip.
+ * <p>
+ * Rows are not objects: each column is a primitive array indexed by {@code id - 1} (AUTO_INCREMENT
+ * IDs are dense, so gaps cost little). Times are whole epoch seconds in an {@code int} read as
+ * unsigned, statuses and priorities are bytes, and titles are interned UTF-8 in one shared byte
+ * array, so a row costs about 26 bytes however many grievances there are. Each user's grievances
+ * are chained through a {@code prevByUser} column, newest ID first.
+ * <p>
+ * The cache is built by streaming the table once and kept current by listening to the repository,
+ * like {@link com.grievance.search.InvertedIndex}. Writes made by other processes are not seen.
+ */
+public class GrievanceColumnCache implements GrievanceListener {
+
+    private static final GrievanceStatus[] STATUSES = GrievanceStatus.values();
+    /** Status code of an ID with no grievance. */
+    private static final byte ABSENT = -1;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // --- Columns, indexed by id - 1 ---
+    private byte[] statuses = new byte[0];
+    private int[] userIds = new int[0];
+    private int[] createdAt = new int[0];   // unsigned epoch seconds
+    private int[] resolvedAt = new int[0];  // unsigned epoch seconds, 0 if unresolved
+    private int[] versions = new int[0];
+    private byte[] priorities = new byte[0];
+    private int[] titles = new int[0];      // codes into titleStore
+    private int[] prevByUser = new int[0];  // the user's next lower grievance ID, or 0
+
+    private int maxId = 0;
+    private int rowCount = 0;
+    private final int[] statusCounts = new int[STATUSES.length];
+    private final IntIntMap latestByUser = new IntIntMap();
+    private final TitleStore titleStore = new TitleStore();
+
+    /**
+     * Builds a cache of every grievance and registers it with the repository so that later writes
+     * are applied as they happen.
+     * @throws SQLException if the grievances could not be read.
+     */
+    public static GrievanceColumnCache build(GrievanceRepository dao) throws SQLException {
+        GrievanceColumnCache cache = new GrievanceColumnCache();
+        // Listen first so nothing written while we stream is missed; rows seen twice merge harmlessly
+        dao.addListener(cache);
+        try (Stream<GrievanceSummary> all = dao.streamSummaries()) {
+            all.forEach(cache::put);
+        } catch (SQLException | RuntimeException e) {
+            dao.removeListener(cache);
+            throw e;
+        }
+        return cache;
+    }
+
+    // --- GrievanceListener ---
+    @Override
+    public void onCreated(Grievance grievance) {
+        GrievanceSummary s = new GrievanceSummary();
+        s.setId(grievance.getId());
+        s.setUserId(grievance.getUserId());
+        s.setTitle(grievance.getTitle());
+        s.setStatus(grievance.getStatus() == null ? GrievanceStatus.OPEN.name() : grievance.getStatus());
+        s.setCreatedAt(grievance.getCreatedAt());
+        s.setResolvedAt(grievance.getResolvedAt());
+        s.setVersion(grievance.getVersion());
+        s.setPriority(grievance.getPriority());
+        put(s);
+    }
+
+    @Override
+    public void onStatusChanged(int grievanceId, String oldStatus, String newStatus) {
+        byte status = (byte) GrievanceStatus.fromString(newStatus).ordinal();
+        lock.writeLock().lock();
+        try {
+            int i = grievanceId - 1;
+            // Statuses only move forward, so an older status arriving late is ignored
+            if (grievanceId > maxId || statuses[i] == ABSENT || statuses[i] >= status) return;
+            statusCounts[statuses[i]]--;
+            statusCounts[status]++;
+            versions[i] += status - statuses[i];
+            statuses[i] = status;
+            if (status == GrievanceStatus.RESOLVED.ordinal()) resolvedAt[i] = seconds(System.currentTimeMillis());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onPriorityChanged(int grievanceId, int priority) {
+        lock.writeLock().lock();
+        try {
+            if (grievanceId <= maxId && statuses[grievanceId - 1] != ABSENT) priorities[grievanceId - 1] = (byte) priority;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Adds a row, or merges it into the cached one keeping the further-along status. */
+    void put(GrievanceSummary g) {
+        int id = g.getId();
+        if (id <= 0) return;
+        byte status = (byte) GrievanceStatus.fromString(g.getStatus()).ordinal();
+        int title = titleStore.intern(g.getTitle());
+        lock.writeLock().lock();
+        try {
+            ensureCapacity(id);
+            int i = id - 1;
+            if (statuses[i] != ABSENT) {
+                if (statuses[i] >= status) return;
+                statusCounts[statuses[i]]--;
+            } else {
+                rowCount++;
+                userIds[i] = g.getUserId();
+                createdAt[i] = g.getCreatedAt() != null ? seconds(g.getCreatedAt().getTime()) : seconds(System.currentTimeMillis());
+                priorities[i] = (byte) g.getPriority();
+                titles[i] = title;
+                link(id, g.getUserId());
+            }
+            statuses[i] = status;
+            statusCounts[status]++;
+            versions[i] = g.getVersion();
+            resolvedAt[i] = g.getResolvedAt() != null ? seconds(g.getResolvedAt().getTime()) : 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Caller holds the write lock. Inserts the ID into the user's chain, which is in descending ID order. */
+    private void link(int id, int userId) {
+        int head = latestByUser.get(userId);
+        if (head < id) {
+            prevByUser[id - 1] = head;
+            latestByUser.put(userId, id);
+            return;
+        }
+        // Arrived out of order (concurrent inserts); walk to the slot
+        int at = head;
+        while (prevByUser[at - 1] > id) at = prevByUser[at - 1];
+        prevByUser[id - 1] = prevByUser[at - 1];
+        prevByUser[at - 1] = id;
+    }
+
+    /** Caller holds the write lock. */
+    private void ensureCapacity(int id) {
+        if (id > statuses.length) {
+            int capacity = Math.max(id, statuses.length + (statuses.length >> 1) + 16);
+            int old = statuses.length;
+            statuses = Arrays.copyOf(statuses, capacity);
+            Arrays.fill(statuses, old, capacity, ABSENT);
+            userIds = Arrays.copyOf(userIds, capacity);
+            createdAt = Arrays.copyOf(createdAt, capacity);
+            resolvedAt = Arrays.copyOf(resolvedAt, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+            priorities = Arrays.copyOf(priorities, capacity);
+            titles = Arrays.copyOf(titles, capacity);
+            prevByUser = Arrays.copyOf(prevByUser, capacity);
+        }
+        maxId = Math.max(maxId, id);
+    }
+
+    // --- Queries ---
+    public int countByStatus(GrievanceStatus status) {
+        lock.readLock().lock();
+        try {
+            return statusCounts[status.ordinal()];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** @return counts keyed by status; statuses with no grievances are present with 0. */
+    public Map<GrievanceStatus, Integer> getStatusSummary() {
+        Map<GrievanceStatus, Integer> summary = new EnumMap<>(GrievanceStatus.class);
+        lock.readLock().lock();
+        try {
+            for (GrievanceStatus status : STATUSES) summary.put(status, statusCounts[status.ordinal()]);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return summary;
+    }
+
+    /** @return every grievance raised by the user, ordered by (created_at, id) descending. */
+    public List<GrievanceSummary> getByUser(int userId) {
+        return getPageByUser(userId, null, Integer.MAX_VALUE - 1).getItems();
+    }
+
+    /** One page of the user's grievances, ordered by (created_at, id) descending. */
+    public Page<GrievanceSummary> getPageByUser(int userId, PageCursor after, int pageSize) {
+        if (pageSize < 1) throw new IllegalArgumentException("pageSize must be at least 1");
+        long afterKey = after == null ? Long.MAX_VALUE : key(seconds(after.getCreatedAt().getTime()), after.getId());
+        lock.readLock().lock();
+        try {
+            // Keys pack (created_at, id) so one sort orders by both
+            long[] keys = new long[16];
+            int n = 0;
+            for (int id = latestByUser.get(userId); id > 0; id = prevByUser[id - 1]) {
+                long k = key(createdAt[id - 1], id);
+                if (k >= afterKey) continue;
+                if (n == keys.length) keys = Arrays.copyOf(keys, n * 2);
+                keys[n++] = k;
+            }
+            Arrays.sort(keys, 0, n);
+            int take = Math.min(n, pageSize);
+            List<GrievanceSummary> items = new ArrayList<>(take);
+            for (int j = n - 1; j >= n - take; j--) items.add(summary((int) keys[j]));
+            PageCursor next = null;
+            if (n > pageSize) {
+                GrievanceSummary last = items.get(take - 1);
+                next = new PageCursor(last.getCreatedAt(), last.getId());
+            }
+            return new Page<>(items, next);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param createdBefore only grievances created before this time, or null for all.
+     * @return up to {@code limit} grievances in the status, oldest first.
+     */
+    public List<GrievanceSummary> getByStatus(GrievanceStatus status, Timestamp createdBefore, int limit) {
+        if (limit < 1) return new ArrayList<>();
+        byte code = (byte) status.ordinal();
+        long cutoff = createdBefore == null ? Long.MAX_VALUE : Integer.toUnsignedLong(seconds(createdBefore.getTime() + 999));
+        lock.readLock().lock();
+        try {
+            // Keep the {@code limit} oldest matches in a max-heap of packed (created_at, id) keys
+            PriorityQueue<Long> oldest = new PriorityQueue<>(Math.min(limit, 1024) + 1, (a, b) -> Long.compare(b, a));
+            for (int i = 0; i < maxId; i++) {
+                if (statuses[i] != code || Integer.toUnsignedLong(createdAt[i]) >= cutoff) continue;
+                long k = key(createdAt[i], i + 1);
+                if (oldest.size() < limit) {
+                    oldest.add(k);
+                } else if (k < oldest.peek()) {
+                    oldest.poll();
+                    oldest.add(k);
+                }
+            }
+            long[] keys = new long[oldest.size()];
+            for (int j = keys.length - 1; j >= 0; j--) keys[j] = oldest.poll();
+            List<GrievanceSummary> items = new ArrayList<>(keys.length);
+            for (long k : keys) items.add(summary((int) k));
+            return items;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Runs {@code body} (e.g. a {@link com.grievance.query.QueryEngine} scan) over the cached rows,
+     * reading the columns in place. Writes wait until it returns.
+     */
+    public <R> R query(Function<QueryDataset, R> body) {
+        lock.readLock().lock();
+        try {
+            return body.apply(new Columns());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Caller holds the read lock. */
+    private GrievanceSummary summary(int id) {
+        int i = id - 1;
+        GrievanceSummary s = new GrievanceSummary();
+        s.setId(id);
+        s.setUserId(userIds[i]);
+        s.setTitle(titleStore.get(titles[i]));
+        s.setStatus(STATUSES[statuses[i]].name());
+        s.setCreatedAt(new Timestamp(Integer.toUnsignedLong(createdAt[i]) * 1000));
+        s.setResolvedAt(resolvedAt[i] == 0 ? null : new Timestamp(Integer.toUnsignedLong(resolvedAt[i]) * 1000));
+        s.setVersion(versions[i]);
+        s.setPriority(priorities[i]);
+        return s;
+    }
+
+    // --- Metrics ---
+    /** Row count and the bytes held by the columns, the user chain heads and the title store. */
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            long columns = (long) statuses.length * (1 + 4 + 4 + 4 + 4 + 1 + 4 + 4);
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("rows", rowCount);
+            m.put("maxId", maxId);
+            m.put("users", latestByUser.size());
+            m.put("titles", titleStore.size());
+            m.put("bytes", columns + latestByUser.bytes() + titleStore.bytes());
+            return m;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rowCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** The columns as they are while the read lock is held; position is {@code id - 1}. */
+    private final class Columns implements QueryDataset {
+        private final int size = maxId;
+        private final byte[] statuses = GrievanceColumnCache.this.statuses;
+        private final int[] userIds = GrievanceColumnCache.this.userIds;
+        private final int[] createdAt = GrievanceColumnCache.this.createdAt;
+        private final int[] resolvedAt = GrievanceColumnCache.this.resolvedAt;
+        private final byte[] priorities = GrievanceColumnCache.this.priorities;
+        private final int[] titles = GrievanceColumnCache.this.titles;
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Cursor cursor() {
+            return new Cursor() {
+                private int i;
+
+                @Override
+                public boolean moveTo(int position) {
+                    i = position;
+                    return statuses[i] != ABSENT;
+                }
+
+                @Override public int id() { return i + 1; }
+                @Override public int userId() { return userIds[i]; }
+                @Override public GrievanceStatus status() { return STATUSES[statuses[i]]; }
+                @Override public int priority() { return priorities[i]; }
+                @Override public long createdAtMillis() { return Integer.toUnsignedLong(createdAt[i]) * 1000; }
+
+                @Override
+                public long resolvedAtMillis() {
+                    return resolvedAt[i] == 0 ? NO_TIME : Integer.toUnsignedLong(resolvedAt[i]) * 1000;
+                }
+
+                @Override public String title() { return titleStore.get(titles[i]); }
+            };
+        }
+    }
+
+    private static int seconds(long millis) {
+        return (int) Math.floorDiv(millis, 1000);
+    }
+
+    private static long key(int createdSeconds, int id) {
+        return Integer.toUnsignedLong(createdSeconds) << 32 | id;
+    }
+
+    /** Open-addressing int to int map; 0 is returned for a missing key. */
+    private static final class IntIntMap {
+        private int[] keys = new int[64];
+        private int[] values = new int[64];
+        private boolean[] used = new boolean[64];
+        private int size;
+
+        int get(int key) {
+            int mask = keys.length - 1;
+            for (int i = mix(key) & mask; used[i]; i = (i + 1) & mask) {
+                if (keys[i] == key) return values[i];
+            }
+            return 0;
+        }
+
+        void put(int key, int value) {
+            if ((size + 1) * 4 > keys.length * 3) grow();
+            int mask = keys.length - 1;
+            int i = mix(key) & mask;
+            while (used[i] && keys[i] != key) i = (i + 1) & mask;
+            if (!used[i]) size++;
+            used[i] = true;
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+            boolean[] oldUsed = used;
+            keys = new int[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+            used = new boolean[oldKeys.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) put(oldKeys[i], oldValues[i]);
+            }
+        }
+
+        int size() { return size; }
+
+        long bytes() { return (long) keys.length * 9; }
+
+        private static int mix(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+
+    /**
+     * Interned titles stored back to back as UTF-8; a title is referred to by its code. Lookups go
+     * through an open-addressing table of codes, so no {@code String} is kept per title.
+     */
+    private static final class TitleStore {
+        private byte[] data = new byte[4096];
+        private int dataLength;
+        private int[] starts = new int[] { 0 };  // title code i spans starts[i]..starts[i + 1]
+        private int count;
+        private int[] table = new int[256];      // code + 1, or 0 if the slot is free
+
+        synchronized int intern(String title) {
+            byte[] bytes = (title == null ? "" : title).getBytes(StandardCharsets.UTF_8);
+            int hash = Arrays.hashCode(bytes);
+            int mask = table.length - 1;
+            int slot = hash & mask;
+            for (; table[slot] != 0; slot = (slot + 1) & mask) {
+                int code = table[slot] - 1;
+                if (Arrays.equals(data, starts[code], starts[code + 1], bytes, 0, bytes.length)) return code;
+            }
+            if (dataLength + bytes.length > data.length) {
+                data = Arrays.copyOf(data, Math.max(dataLength + bytes.length, data.length * 2));
+            }
+            System.arraycopy(bytes, 0, data, dataLength, bytes.length);
+            dataLength += bytes.length;
+            if (count + 2 > starts.length) starts = Arrays.copyOf(starts, starts.length * 2 + 2);
+            int code = count++;
+            starts[count] = dataLength;
+            table[slot] = code + 1;
+            if (count * 2 > table.length) rehash();
+            return code;
+        }
+
+        synchronized String get(int code) {
+            return new String(data, starts[code], starts[code + 1] - starts[code], StandardCharsets.UTF_8);
+        }
+
+        private void rehash() {
+            table = new int[table.length * 2];
+            int mask = table.length - 1;
+            for (int code = 0; code < count; code++) {
+                int hash = hash(starts[code], starts[code + 1]);
+                int slot = hash & mask;
+                while (table[slot] != 0) slot = (slot + 1) & mask;
+                table[slot] = code + 1;
+            }
+        }
+
+        /** Same value as {@link Arrays#hashCode(byte[])} over the range. */
+        private int hash(int from, int to) {
+            int h = 1;
+            for (int i = from; i < to; i++) h = 31 * h + data[i];
+            return h;
+        }
+
+        synchronized int size() { return count; }
+
+        synchronized long bytes() { return data.length + (long) starts.length * 4 + (long) table.length * 4; }
+    }
+}
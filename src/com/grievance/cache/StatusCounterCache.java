@@ -0,0 +1,129 @@
+package com.grievance.cache;
+
+import com.grievance.dao.GrievanceListener;
+import com.grievance.dao.GrievanceRepository;
+import com.grievance.model.Grievance;
+import com.grievance.model.GrievanceStatus;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-process per-status grievance counters for dashboards.
+ * <p>
+ * The counters are seeded from {@link GrievanceRepository#getStatusSummary()}, adjusted by the DAO's
+ * create and status-change callbacks, and periodically reconciled against the database to correct
+ * drift from writes made by other processes. Reading the summary never touches the database.
+ * <p>
+ * Local writes keep arriving while the reconcile query runs. Their adjustments are also recorded
+ * separately for the duration of the query and replayed on top of the snapshot, so a reconcile
+ * always applies, however busy the system. The replay assumes the snapshot missed those writes; one
+ * that committed just before the query but whose callback ran after it started is counted twice
+ * until the next reconcile.
+ */
+public class StatusCounterCache implements GrievanceListener {
+
+    private final GrievanceRepository dao;
+    private final AtomicLongArray counts = new AtomicLongArray(GrievanceStatus.values().length);
+    // Adjustments made while a reconcile query runs, replayed onto its snapshot; null otherwise. Guarded by counts
+    private long[] sinceSnapshot;
+    private final Object reconcileLock = new Object();
+    private volatile long lastReconciledAt = 0;
+    private ScheduledExecutorService scheduler;
+
+    public StatusCounterCache(GrievanceRepository dao) {
+        this.dao = dao;
+    }
+
+    /**
+     * Seeds the counters, starts listening to the DAO and schedules reconciliation.
+     * @param reconcileSeconds how often to re-read the counts from the database (0 disables).
+     */
+    public synchronized void start(long reconcileSeconds) {
+        dao.addListener(this);
+        reconcile();
+        if (reconcileSeconds > 0 && scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "status-counter-reconciler");
+                t.setDaemon(true);
+                return t;
+            });
+            scheduler.scheduleWithFixedDelay(this::reconcile, reconcileSeconds, reconcileSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    public synchronized void stop() {
+        dao.removeListener(this);
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Replaces the counters with the database's current counts plus the local writes made while
+     * they were read.
+     */
+    public void reconcile() {
+        synchronized (reconcileLock) {
+            synchronized (counts) {
+                sinceSnapshot = new long[counts.length()];
+            }
+            Map<GrievanceStatus, Integer> fresh;
+            try {
+                fresh = dao.getStatusSummary();
+            } catch (RuntimeException e) {
+                synchronized (counts) {
+                    sinceSnapshot = null;
+                }
+                System.err.println("Error reconciling status counters: " + e.getMessage());
+                return;
+            }
+            synchronized (counts) {
+                for (GrievanceStatus status : GrievanceStatus.values()) {
+                    int i = status.ordinal();
+                    counts.set(i, fresh.get(status) + sinceSnapshot[i]);
+                }
+                sinceSnapshot = null;
+            }
+            lastReconciledAt = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * @return the cached count for every status.
+     */
+    public Map<GrievanceStatus, Integer> getStatusSummary() {
+        Map<GrievanceStatus, Integer> summary = new EnumMap<>(GrievanceStatus.class);
+        for (GrievanceStatus status : GrievanceStatus.values()) {
+            summary.put(status, (int) Math.max(0, counts.get(status.ordinal())));
+        }
+        return summary;
+    }
+
+    public long getLastReconciledAt() { return lastReconciledAt; }
+
+    @Override
+    public void onCreated(Grievance grievance) {
+        String status = grievance.getStatus() == null ? GrievanceStatus.OPEN.name() : grievance.getStatus();
+        adjust(status, 1);
+    }
+
+    @Override
+    public void onStatusChanged(int grievanceId, String oldStatus, String newStatus) {
+        if (oldStatus != null && oldStatus.equalsIgnoreCase(newStatus)) return;
+        if (oldStatus != null) adjust(oldStatus, -1);
+        adjust(newStatus, 1);
+    }
+
+    private void adjust(String status, int delta) {
+        int i = GrievanceStatus.fromString(status).ordinal();
+        synchronized (counts) {
+            counts.addAndGet(i, delta);
+            if (sinceSnapshot != null) sinceSnapshot[i] += delta;
+        }
+    }
+}
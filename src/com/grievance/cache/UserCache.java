@@ -0,0 +1,152 @@
+package com.grievance.cache;
+
+import com.grievance.model.User;
+import com.grievance.util.AppConfig;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read-through cache of user rows, keyed by both username and id, with a time-to-live.
+ * <p>
+ * {@link com.grievance.dao.UserDAO} fills it on lookups and invalidates an entry whenever the user's
+ * role changes or the user is deleted. Entries also carry the stored password hash so a login can be
+ * verified without a query. Usernames are matched case-insensitively, like the column's collation.
+ * <p>
+ * Loads race with invalidation: a loader takes {@link #version()} before querying and passes it to
+ * {@link #put}, which drops the row if anything was invalidated in between.
+ */
+public class UserCache {
+
+    private final long ttlNanos;
+    private final int maxSize;
+    private final ConcurrentHashMap<String, Entry> byUsername = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Entry> byId = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param ttlSeconds how long an entry is served before it is re-read (0 disables caching).
+     * @param maxSize    upper bound on cached users.
+     */
+    public UserCache(long ttlSeconds, int maxSize) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(0, ttlSeconds));
+        this.maxSize = Math.max(1, maxSize);
+    }
+
+    /** A cache sized from {@code auth.userCache.*} in grievance.properties. */
+    public static UserCache fromConfig() {
+        return new UserCache(AppConfig.getLong("auth.userCache.ttlSeconds", 300),
+                AppConfig.getInt("auth.userCache.maxSize", 10_000));
+    }
+
+    public Entry getByUsername(String username) {
+        return username == null ? null : live(byUsername.get(key(username)));
+    }
+
+    public Entry getById(int id) {
+        return live(byId.get(id));
+    }
+
+    /** @return the invalidation version to pass to {@link #put} after loading a row. */
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * Caches a row loaded from the database, unless an invalidation happened since {@code loadVersion}.
+     * @return the entry for the row, whether or not it was kept.
+     */
+    public Entry put(User user, String passwordHash, long loadVersion) {
+        Entry entry = new Entry(copy(user), passwordHash, System.nanoTime() + ttlNanos);
+        if (ttlNanos == 0 || user.getUsername() == null) return entry;
+        if (byId.size() >= maxSize) {
+            evictExpired();
+            if (byId.size() >= maxSize) clear();
+        }
+        byId.put(user.getId(), entry);
+        byUsername.put(key(user.getUsername()), entry);
+        if (version.get() != loadVersion) {
+            // Invalidated while the row was being loaded; it may already be stale
+            remove(entry);
+        }
+        return entry;
+    }
+
+    /** Drops a user from the cache (role changed, password changed or user deleted). */
+    public void invalidate(int id) {
+        version.incrementAndGet();
+        Entry entry = byId.get(id);
+        if (entry != null) remove(entry);
+    }
+
+    public void clear() {
+        version.incrementAndGet();
+        byId.clear();
+        byUsername.clear();
+    }
+
+    public long getHits() { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+    public int size() { return byId.size(); }
+
+    private Entry live(Entry entry) {
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (System.nanoTime() - entry.expiresAt > 0) {
+            remove(entry);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry;
+    }
+
+    private void remove(Entry entry) {
+        byId.remove(entry.user.getId(), entry);
+        byUsername.remove(key(entry.user.getUsername()), entry);
+    }
+
+    private void evictExpired() {
+        long now = System.nanoTime();
+        for (Entry entry : byId.values()) {
+            if (now - entry.expiresAt > 0) remove(entry);
+        }
+    }
+
+    private static String key(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    private static User copy(User user) {
+        User copy = new User();
+        copy.setId(user.getId());
+        copy.setUsername(user.getUsername());
+        copy.setRole(user.getRole());
+        copy.setCreatedAt(user.getCreatedAt());
+        return copy;
+    }
+
+    /**
+     * A cached user row. {@link #getUser()} returns a fresh copy so callers cannot alter the cache.
+     */
+    public static final class Entry {
+        private final User user;
+        private final String passwordHash;
+        private final long expiresAt;
+
+        private Entry(User user, String passwordHash, long expiresAt) {
+            this.user = user;
+            this.passwordHash = passwordHash;
+            this.expiresAt = expiresAt;
+        }
+
+        public User getUser() { return copy(user); }
+        public String getPasswordHash() { return passwordHash; }
+    }
+}
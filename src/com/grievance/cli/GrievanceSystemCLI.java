@@ -1,13 +1,51 @@
 package com.grievance.cli;
 
+import com.grievance.analytics.ResolutionAnalytics;
+import com.grievance.archive.GrievanceArchiver;
+import com.grievance.cache.GrievanceColumnCache;
+import com.grievance.cache.StatusCounterCache;
 import com.grievance.dao.GrievanceDAO;
-import com.grievance.dao.UserDAO;
+import com.grievance.dao.GrievanceRepository;
+import com.grievance.dao.QueryPlans;
+import com.grievance.dao.Storage;
+import com.grievance.dao.UserRepository;
+import com.grievance.export.ReportExporter;
+import com.grievance.ingest.GrievanceImporter;
+import com.grievance.model.ClaimOrder;
 import com.grievance.model.Grievance;
+import com.grievance.model.GrievanceStatus;
+import com.grievance.model.GrievanceSummary;
+import com.grievance.model.Page;
+import com.grievance.model.PageCursor;
+import com.grievance.model.StatusTransition;
 import com.grievance.model.User;
-
+import com.grievance.query.Filters;
+import com.grievance.query.GrievanceQuery;
+import com.grievance.query.QueryEngine;
+import com.grievance.query.QueryResult;
+import com.grievance.query.QueryRow;
+import com.grievance.search.InvertedIndex;
+import com.grievance.util.AppConfig;
+import com.grievance.util.DBUtil;
+import com.grievance.util.SchemaMigrator;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.InputMismatchException;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * Main application class for the Grievance Handling System (Command Line Interface).
@@ -16,13 +54,173 @@ public class GrievanceSystemCLI {
 
     private static User currentUser = null;
     private static Scanner scanner = new Scanner(System.in);
-    private static UserDAO userDAO = new UserDAO();
-    private static GrievanceDAO grievanceDAO = new GrievanceDAO();
+    // MySQL DAOs or the embedded store, per storage.engine
+    private static UserRepository userDAO = Storage.users();
+    private static GrievanceRepository grievanceDAO = Storage.grievances();
+    private static StatusCounterCache statusCounters = null;
+    private static ResolutionAnalytics analytics = null;
+    private static GrievanceColumnCache columnCache = null;
+    private static QueryEngine queryEngine = null;
+    private static final int PAGE_SIZE = Math.max(1, AppConfig.getInt("cli.page.size", 20));
+    private static final int LEASE_SECONDS = Math.max(1, AppConfig.getInt("queue.leaseSeconds", 900));
+    private static final int MAX_CLAIM = Math.max(1, AppConfig.getInt("queue.maxClaim", 50));
 
     public static void main(String[] args) {
+        if (args.length > 0 && "--import".equals(args[0])) {
+            runImport(args);
+            return;
+        }
+        if (args.length > 0 && "--export".equals(args[0])) {
+            runExport(args);
+            return;
+        }
+        if (args.length > 0 && "--migrate".equals(args[0])) {
+            runMigrate();
+            return;
+        }
+        if (args.length > 0 && "--explain".equals(args[0])) {
+            if (Storage.jdbcGrievances() == null) {
+                System.out.println("--explain needs the MySQL engine (storage.engine=mysql).");
+                return;
+            }
+            QueryPlans.print(System.out);
+            return;
+        }
+        // The embedded engine always searches from memory
+        if (AppConfig.getBoolean("search.index.enabled", false) && Storage.jdbcGrievances() != null) {
+            loadSearchIndex(Storage.jdbcGrievances());
+        }
+        if (AppConfig.getBoolean("reports.columnCache.enabled", false) && Storage.jdbcGrievances() != null) {
+            loadColumnCache(Storage.jdbcGrievances());
+        }
+        if (AppConfig.getBoolean("reports.counterCache.enabled", false)) {
+            statusCounters = new StatusCounterCache(grievanceDAO);
+            statusCounters.start(AppConfig.getLong("reports.counterCache.reconcileSeconds", 60));
+        }
+        if (GrievanceDAO.isArchiveEnabled() && Storage.jdbcGrievances() != null) {
+            GrievanceArchiver.fromConfig(Storage.jdbcGrievances()).start();
+        }
         showWelcomeScreen();
     }
 
+    /**
+     * Command-line import mode: {@code --import <file.csv|file.jsonl> [batchSize]}.
+     */
+    private static void runImport(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: GrievanceSystemCLI --import <file.csv|file.jsonl> [batchSize]");
+            return;
+        }
+        int batchSize = AppConfig.getInt("db.batch.size", 500);
+        if (args.length > 2) {
+            try {
+                batchSize = Integer.parseInt(args[2]);
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid batch size: " + args[2]);
+                return;
+            }
+        }
+
+        System.out.println("Importing " + args[1] + " in batches of " + batchSize + "...");
+        try {
+            GrievanceImporter importer = new GrievanceImporter(grievanceDAO, batchSize);
+            System.out.println(importer.importFile(Paths.get(args[1])));
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Import failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Command-line migration mode: {@code --migrate} applies pending schema scripts and lists them all.
+     */
+    private static void runMigrate() {
+        try (Connection conn = DBUtil.getConnection()) {
+            List<Integer> applied = SchemaMigrator.migrate(conn);
+            System.out.println(applied.isEmpty() ? "Schema is up to date." : "Applied migrations " + applied + ".");
+            for (Map.Entry<String, Boolean> e : SchemaMigrator.status(conn).entrySet()) {
+                System.out.println((e.getValue() ? "  applied  " : "  pending  ") + e.getKey());
+            }
+        } catch (SQLException | IOException e) {
+            System.out.println("Migration failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Command-line export mode:
+     * {@code --export <grievances|users> <file.csv|file.jsonl>[.gz] [--status S] [--from yyyy-mm-dd] [--to yyyy-mm-dd]}.
+     */
+    private static void runExport(String[] args) {
+        if (args.length < 3 || args.length % 2 == 0) {
+            System.out.println("Usage: GrievanceSystemCLI --export <grievances|users> <file.csv|file.jsonl>[.gz]"
+                    + " [--status S] [--from yyyy-mm-dd] [--to yyyy-mm-dd]");
+            return;
+        }
+        String status = "", from = "", to = "";
+        for (int i = 3; i < args.length; i += 2) {
+            switch (args[i]) {
+                case "--status": status = args[i + 1]; break;
+                case "--from": from = args[i + 1]; break;
+                case "--to": to = args[i + 1]; break;
+                default:
+                    System.out.println("Unknown option: " + args[i]);
+                    return;
+            }
+        }
+        export(args[1], args[2], status, from, to);
+    }
+
+    /**
+     * Runs an export and prints the outcome. Blank filters mean any; {@code to} is the last day included.
+     */
+    private static void export(String what, String file, String status, String from, String to) {
+        ReportExporter exporter = new ReportExporter(grievanceDAO, userDAO);
+        try {
+            ReportExporter.ExportResult result;
+            if ("users".equalsIgnoreCase(what)) {
+                result = exporter.exportUsers(Paths.get(file));
+            } else if ("grievances".equalsIgnoreCase(what)) {
+                result = exporter.exportGrievances(Paths.get(file),
+                        status.isEmpty() ? null : GrievanceStatus.fromString(status),
+                        from.isEmpty() ? null : Timestamp.valueOf(LocalDate.parse(from).atStartOfDay()),
+                        to.isEmpty() ? null : Timestamp.valueOf(LocalDate.parse(to).plusDays(1).atStartOfDay()));
+            } else {
+                System.out.println("Nothing to export called '" + what + "' (expected grievances or users).");
+                return;
+            }
+            System.out.println(result);
+        } catch (DateTimeParseException e) {
+            System.out.println("Invalid date (expected yyyy-mm-dd): " + e.getParsedString());
+        } catch (IOException | SQLException | RuntimeException e) {
+            System.out.println("Export failed: " + e.getMessage());
+        }
+    }
+
+    private static void loadSearchIndex(GrievanceDAO dao) {
+        System.out.println("Building search index...");
+        long start = System.currentTimeMillis();
+        try {
+            InvertedIndex index = InvertedIndex.build(dao);
+            dao.setSearchIndex(index);
+            System.out.println("Indexed " + index.getDocumentCount() + " grievances (" + index.getTermCount()
+                    + " terms) in " + (System.currentTimeMillis() - start) + "ms.");
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Could not build search index, searching the database instead: " + e.getMessage());
+        }
+    }
+
+    private static void loadColumnCache(GrievanceDAO dao) {
+        System.out.println("Loading grievance column cache...");
+        long start = System.currentTimeMillis();
+        try {
+            GrievanceColumnCache cache = GrievanceColumnCache.build(dao);
+            dao.setColumnCache(cache);
+            columnCache = cache;
+            System.out.println("Cached " + cache.size() + " grievances in " + (System.currentTimeMillis() - start) + "ms.");
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Could not load column cache, querying the database instead: " + e.getMessage());
+        }
+    }
+
     // --- Main Flow & Menus ---
     private static void showWelcomeScreen() {
         int choice = -1;
@@ -55,6 +253,10 @@ public class GrievanceSystemCLI {
         int choice = -1;
 
         while (currentUser != null) {
+            // Cached lookup; picks up role changes made by an administrator since login
+            User refreshed = userDAO.getUserById(currentUser.getId());
+            if (refreshed != null) currentUser = refreshed;
+
             System.out.println("\nWelcome, " + currentUser.getUsername() + " (" + currentUser.getRole() + ")");
             System.out.println("\n===== Main Menu =====");
 
@@ -70,6 +272,8 @@ public class GrievanceSystemCLI {
                     System.out.println("2. Update Grievance Status");
                     System.out.println("3. Search Grievances");
                     System.out.println("4. Reports (Open/Resolved)");
+                    System.out.println("5. My Work Queue (Claim Next Grievances)");
+                    System.out.println("6. Ad-hoc Query (Filter & Group)");
                     break; 
                 case "ADMINISTRATOR":
                     System.out.println("1. View All Grievances (All Roles)");
@@ -77,6 +281,7 @@ public class GrievanceSystemCLI {
                     System.out.println("3. Administration (User/Role Management)");
                     System.out.println("4. Search Grievances");
                     System.out.println("5. Reports (Open/Resolved)");
+                    System.out.println("6. Ad-hoc Query (Filter & Group)");
                     break; 
                 default:
                     System.out.println("Unknown role.");
@@ -135,7 +340,7 @@ public class GrievanceSystemCLI {
             return;
         }
 
-        if (userDAO.register(username, password)) {
+        if (userDAO.register(username, password) != null) {
             System.out.println("Registration successful! You can now log in.");
         }
     }
@@ -173,6 +378,12 @@ public class GrievanceSystemCLI {
                 case 4: 
                 	showReports(); 
                 	break;
+                case 5:
+                    showWorkQueue();
+                    break;
+                case 6:
+                    runAdHocQuery();
+                    break;
                 default:
                     System.out.println("Invalid choice for your role.");
             }
@@ -193,6 +404,9 @@ public class GrievanceSystemCLI {
                 case 5: 
                 	showReports(); 
                 	break;
+                case 6:
+                    runAdHocQuery();
+                    break;
                 default:
                     System.out.println("Invalid choice for your role.");
             }
@@ -201,6 +415,7 @@ public class GrievanceSystemCLI {
 
 
     private static void searchGrievancesCLI() {
+        System.out.println("Tip: use \"exact phrase\", +required, -excluded or prefix* for advanced searches.");
         System.out.print("Enter keyword to search (title/description): ");
         String keyword = scanner.nextLine().trim();
 
@@ -209,17 +424,26 @@ public class GrievanceSystemCLI {
             return;
         }
 
-        List<Grievance> results = grievanceDAO.searchGrievances(keyword);
+        int offset = 0;
+        while (true) {
+            List<GrievanceSummary> results = grievanceDAO.searchGrievances(keyword, offset, PAGE_SIZE);
+
+            if (results.isEmpty()) {
+                System.out.println(offset == 0 ? "No grievances found matching the keyword." : "No more results.");
+                break;
+            }
 
-        if (results.isEmpty()) {
-            System.out.println("No grievances found matching the keyword.");
-            return;
-        }
+            if (offset == 0) System.out.println("\n--- Search Results (best matches first) ---");
+            for (GrievanceSummary g : results) {
+                System.out.println(g);
+            }
+            offset += results.size();
+            if (results.size() < PAGE_SIZE) break;
 
-        System.out.println("\n--- Search Results ---");
-        for (Grievance g : results) {
-            System.out.println(g);
+            System.out.print("Press Enter for more results or Q to stop: ");
+            if (scanner.nextLine().trim().equalsIgnoreCase("Q")) break;
         }
+        if (offset > 0) promptForDetails();
     }
 
     
@@ -237,8 +461,9 @@ public class GrievanceSystemCLI {
         }
 
         Grievance newGrievance = new Grievance(currentUser.getId(), title, description);
-        if (grievanceDAO.createGrievance(newGrievance)) {
-            System.out.println("\n✅ Grievance submitted successfully! Status: OPEN");
+        Grievance created = grievanceDAO.createGrievance(newGrievance);
+        if (created != null) {
+            System.out.println("\n✅ Grievance #" + created.getId() + " submitted successfully! Status: " + created.getStatus());
         } else {
             System.out.println("\n❌ Failed to submit grievance. Check database connection.");
         }
@@ -246,48 +471,103 @@ public class GrievanceSystemCLI {
 
     private static void viewAllGrievances() {
         System.out.println("\n--- All System Grievances ---");
-        List<Grievance> grievances = grievanceDAO.getAllGrievances();
-        if (grievances.isEmpty()) {
-            System.out.println("No grievances found in the system.");
-            return;
-        }
-        System.out.println("Total Grievances: " + grievances.size());
-        System.out.println("----------------------------------------------------------------------------------------------------");
-        for (Grievance g : grievances) {
-            System.out.println(g);
-        }
-        System.out.println("----------------------------------------------------------------------------------------------------");
+        printGrievancePages(after -> grievanceDAO.getGrievancesPage(after, PAGE_SIZE),
+                "No grievances found in the system.",
+                "----------------------------------------------------------------------------------------------------");
+        promptForDetails();
     }
     
     private static void viewMyGrievances() {
         System.out.println("\n--- My Grievances ---");
-        List<Grievance> grievances = grievanceDAO.getGrievancesByUserId(currentUser.getId());
+        printGrievancePages(after -> grievanceDAO.getGrievancesPageByUserId(currentUser.getId(), after, PAGE_SIZE),
+                "You have not submitted any grievances yet.",
+                "------------------------------------------------------------------------------------------------");
+        promptForDetails();
+    }
+
+    /**
+     * Prints a listing one page at a time, fetching the next page only when asked for.
+     */
+    private static void printGrievancePages(Function<PageCursor, Page<GrievanceSummary>> fetchPage,
+                                            String emptyMessage, String separator) {
+        Page<GrievanceSummary> page = fetchPage.apply(null);
+        if (page.isEmpty()) {
+            System.out.println(emptyMessage);
+            return;
+        }
+
+        int shown = 0;
+        System.out.println(separator);
+        while (true) {
+            for (GrievanceSummary g : page.getItems()) {
+                System.out.println(g);
+            }
+            shown += page.getItems().size();
+            if (!page.hasMore()) break;
+
+            System.out.print("Showing " + shown + " so far. Press Enter for the next page or Q to stop: ");
+            if (scanner.nextLine().trim().equalsIgnoreCase("Q")) break;
+            page = fetchPage.apply(page.getNextCursor());
+        }
+        System.out.println(separator);
+        System.out.println("Grievances shown: " + shown);
+    }
 
-        if (grievances.isEmpty()) {
-            System.out.println("You have not submitted any grievances yet.");
+    /**
+     * Listings only carry summaries; the description is loaded here, for one grievance, when asked for.
+     */
+    private static void promptForDetails() {
+        System.out.print("Enter a grievance ID to view its details, or press Enter to go back: ");
+        String input = scanner.nextLine().trim();
+        if (input.isEmpty()) return;
+
+        int id;
+        try {
+            id = Integer.parseInt(input);
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid ID.");
             return;
         }
 
-        System.out.println("Total Grievances: " + grievances.size());
-        System.out.println("------------------------------------------------------------------------------------------------");
-        for (Grievance g : grievances) {
-            System.out.println(g);
+        Grievance g = grievanceDAO.getGrievanceById(id);
+        // Regular users may only read the full text of their own grievances
+        if (g == null || ("USER".equals(currentUser.getRole()) && g.getUserId() != currentUser.getId())) {
+            System.out.println("No grievance found with ID " + id + ".");
+            return;
         }
-        System.out.println("------------------------------------------------------------------------------------------------");
+
+        System.out.println("\n--- Grievance #" + g.getId() + " ---");
+        System.out.println("Title      : " + g.getTitle());
+        System.out.println("Status     : " + g.getStatus());
+        System.out.println("Raised By  : User ID " + g.getUserId());
+        System.out.println("Created    : " + g.getCreatedAt());
+        System.out.println("Resolved   : " + (g.getResolvedAt() == null ? "-" : g.getResolvedAt()));
+        System.out.println("Description:");
+        System.out.println(g.getDescription());
     }
 
 
     private static void updateGrievanceStatus() {
         System.out.println("\n--- Update Grievance Status ---");
-        viewAllGrievances();
+        printGrievancePages(after -> grievanceDAO.getGrievancesPage(after, PAGE_SIZE),
+                "No grievances found in the system.",
+                "----------------------------------------------------------------------------------------------------");
 
-        System.out.print("Enter the ID of the Grievance to update: ");
-        int id;
-        try { id = scanner.nextInt(); scanner.nextLine(); } 
-        catch (InputMismatchException e) { System.out.println("Invalid ID."); scanner.nextLine(); return; }
+        System.out.print("Enter the ID(s) of the Grievance(s) to update (comma-separated): ");
+        int[] ids;
+        try {
+            ids = Arrays.stream(scanner.nextLine().split("[,\\s]+"))
+                    .filter(part -> !part.isEmpty())
+                    .mapToInt(Integer::parseInt)
+                    .toArray();
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid ID.");
+            return;
+        }
+        if (ids.length == 0) { System.out.println("Invalid ID."); return; }
 
         System.out.println("Choose new status:");
-        System.out.print("1. IN_PROGRESS\n2. RESOLVED\nEnter choice: ");  // Use print instead of println
+        System.out.print("1. IN_PROGRESS (from OPEN)\n2. RESOLVED (from IN_PROGRESS)\nEnter choice: ");  // Use print instead of println
         int statusChoice = -1;
         try {
             statusChoice = scanner.nextInt();
@@ -297,33 +577,235 @@ public class GrievanceSystemCLI {
             scanner.nextLine();
             return;
         }
-        
-        
 
-
-        String newStatus = null;
+        GrievanceStatus newStatus;
         switch (statusChoice) {
-            case 1: newStatus = "IN_PROGRESS"; break;
-            case 2: newStatus = "RESOLVED"; break;
+            case 1: newStatus = GrievanceStatus.IN_PROGRESS; break;
+            case 2: newStatus = GrievanceStatus.RESOLVED; break;
             default: System.out.println("Invalid status choice."); return;
         }
 
-        if (grievanceDAO.updateGrievanceStatus(id, newStatus)) {
-            System.out.println("✅ Grievance ID " + id + " status updated to " + newStatus);
-        } else {
-            System.out.println("❌ Failed to update grievance ID " + id);
+        for (StatusTransition result : grievanceDAO.transitionStatuses(ids, null, newStatus)) {
+            int id = result.getGrievanceId();
+            switch (result.getOutcome()) {
+                case APPLIED:
+                    System.out.println("✅ Grievance ID " + id + " status updated to " + newStatus);
+                    break;
+                case NOT_FOUND:
+                    System.out.println("❌ No grievance found with ID " + id);
+                    break;
+                case ILLEGAL_TRANSITION:
+                    System.out.println("❌ Grievance ID " + id + " is " + result.getStatus() + " and cannot move to " + newStatus);
+                    break;
+                default:
+                    System.out.println("❌ Failed to update grievance ID " + id);
+                    break;
+            }
         }
     }
     
+    private static void showWorkQueue() {
+        int choice = -1;
+        while (true) {
+            List<GrievanceSummary> claimed = grievanceDAO.getClaimedBy(currentUser.getId());
+            System.out.println("\n===== MY WORK QUEUE =====");
+            if (claimed.isEmpty()) {
+                System.out.println("You have no claimed grievances.");
+            } else {
+                for (GrievanceSummary g : claimed) System.out.println(g);
+                System.out.println("Claims last " + LEASE_SECONDS / 60 + " minutes; move a grievance to IN_PROGRESS to keep it.");
+            }
+            System.out.println("1. Claim Next (Oldest First)");
+            System.out.println("2. Claim Next (Highest Priority First)");
+            System.out.println("3. Renew My Claims");
+            System.out.println("4. Release My Claims");
+            System.out.println("0. Back to Main Menu");
+            System.out.print("Enter choice: ");
+
+            try {
+                choice = scanner.nextInt(); scanner.nextLine();
+                if (choice == 0) return;
+                int[] ids = claimed.stream().mapToInt(GrievanceSummary::getId).toArray();
+                switch (choice) {
+                    case 1:
+                    case 2:
+                        int count;
+                        while (true) {
+                            System.out.print("How many? ");
+                            count = scanner.nextInt(); scanner.nextLine();
+                            if (count >= 1 && count <= MAX_CLAIM) break;
+                            System.out.println("Count must be between 1 and " + MAX_CLAIM + ".");
+                        }
+                        List<GrievanceSummary> taken = grievanceDAO.claimNext(currentUser.getId(), count,
+                                choice == 1 ? ClaimOrder.OLDEST_FIRST : ClaimOrder.PRIORITY, LEASE_SECONDS);
+                        System.out.println(taken.isEmpty() ? "No unclaimed OPEN grievances." : "Claimed " + taken.size() + " grievance(s).");
+                        break;
+                    case 3:
+                        System.out.println("Renewed " + grievanceDAO.renewClaims(currentUser.getId(), ids, LEASE_SECONDS) + " claim(s).");
+                        break;
+                    case 4:
+                        System.out.println("Released " + grievanceDAO.releaseClaims(currentUser.getId(), ids) + " claim(s).");
+                        break;
+                    default: System.out.println("Invalid choice.");
+                }
+            } catch (InputMismatchException e) {
+                System.out.println("Invalid input. Please enter a number.");
+                scanner.nextLine();
+            }
+        }
+    }
+
     private static void showReports() {
         System.out.println("\n--- Grievance Reports ---");
-        int open = grievanceDAO.countByStatus("OPEN");
-        int inProgress = grievanceDAO.countByStatus("IN_PROGRESS");
-        int resolved = grievanceDAO.countByStatus("RESOLVED");
+        Map<GrievanceStatus, Integer> summary = statusCounters != null
+                ? statusCounters.getStatusSummary()
+                : grievanceDAO.getStatusSummary();
+
+        System.out.println("OPEN Complaints      : " + summary.get(GrievanceStatus.OPEN));
+        System.out.println("IN_PROGRESS Complaints: " + summary.get(GrievanceStatus.IN_PROGRESS));
+        System.out.println("RESOLVED Complaints  : " + summary.get(GrievanceStatus.RESOLVED));
 
-        System.out.println("OPEN Complaints      : " + open);
-        System.out.println("IN_PROGRESS Complaints: " + inProgress);
-        System.out.println("RESOLVED Complaints  : " + resolved);
+        System.out.print("\nShow resolution-time analytics? (Y/N): ");
+        if (scanner.nextLine().trim().equalsIgnoreCase("Y")) {
+            showResolutionAnalytics();
+        }
+    }
+
+    private static void showResolutionAnalytics() {
+        if (analytics == null) analytics = new ResolutionAnalytics(grievanceDAO);
+        try {
+            analytics.refresh();
+        } catch (SQLException | RuntimeException e) {
+            System.out.println("Could not compute analytics: " + e.getMessage());
+            return;
+        }
+
+        ResolutionAnalytics.ResolutionStats stats = analytics.getResolutionStats();
+        System.out.println("\n--- Time to Resolution (" + stats.getCount() + " resolved) ---");
+        System.out.println("Mean   : " + formatDuration((long) stats.getMeanSeconds()));
+        System.out.println("Median : " + formatDuration(stats.getMedianSeconds()));
+        System.out.println("p90    : " + formatDuration(stats.getP90Seconds()));
+        System.out.println("p99    : " + formatDuration(stats.getP99Seconds()));
+        System.out.println("Max    : " + formatDuration(stats.getMaxSeconds()));
+
+        System.out.println("\n--- Open Backlog by Age (" + analytics.getBacklogTotal() + " unresolved) ---");
+        for (Map.Entry<String, Long> e : analytics.getBacklogAgeHistogram().entrySet()) {
+            System.out.printf("%-12s: %d%n", e.getKey(), e.getValue());
+        }
+
+        System.out.print("\nGroup throughput by (D)ay or (W)eek? ");
+        ResolutionAnalytics.Granularity granularity = scanner.nextLine().trim().equalsIgnoreCase("D")
+                ? ResolutionAnalytics.Granularity.DAY : ResolutionAnalytics.Granularity.WEEK;
+        System.out.println("\n--- Opened vs Resolved per " + granularity.name().toLowerCase() + " ---");
+        System.out.println("Period     | Opened | Resolved");
+        for (Map.Entry<LocalDate, ResolutionAnalytics.Throughput> e : analytics.getThroughput(granularity).entrySet()) {
+            System.out.printf("%-11s| %-7d| %d%n", e.getKey(), e.getValue().getOpened(), e.getValue().getResolved());
+        }
+
+        System.out.println("\n--- By User ---");
+        System.out.println("User ID | Opened | Resolved | Mean Resolution");
+        for (Map.Entry<Integer, ResolutionAnalytics.UserStats> e : analytics.getUserStats().entrySet()) {
+            ResolutionAnalytics.UserStats u = e.getValue();
+            System.out.printf("%-8d| %-7d| %-9d| %s%n", e.getKey(), u.getOpened(), u.getResolved(),
+                    u.getResolved() == 0 ? "-" : formatDuration((long) u.getMeanResolutionSeconds()));
+        }
+        System.out.println("(computed in " + analytics.getLastRefreshMillis() + "ms)");
+    }
+
+    private static void runAdHocQuery() {
+        System.out.println("\n--- Ad-hoc Query (leave blank for any) ---");
+        Predicate<QueryRow> filter = Filters.all();
+
+        System.out.print("Statuses (comma-separated, e.g. OPEN,IN_PROGRESS): ");
+        String statuses = scanner.nextLine().trim();
+        System.out.print("Older than (days): ");
+        String olderThan = scanner.nextLine().trim();
+        System.out.print("User ID range (e.g. 10-20): ");
+        String users = scanner.nextLine().trim();
+        System.out.print("Title containing: ");
+        String text = scanner.nextLine().trim();
+        try {
+            if (!statuses.isEmpty()) {
+                Set<GrievanceStatus> set = EnumSet.noneOf(GrievanceStatus.class);
+                for (String s : statuses.split(",")) set.add(GrievanceStatus.fromString(s.trim()));
+                filter = filter.and(Filters.status(set));
+            }
+            if (!olderThan.isEmpty()) {
+                long days = Long.parseLong(olderThan);
+                filter = filter.and(Filters.createdBefore(System.currentTimeMillis() - days * 86_400_000L));
+            }
+            if (!users.isEmpty()) {
+                String[] range = users.split("-", 2);
+                int from = Integer.parseInt(range[0].trim());
+                int to = range.length > 1 ? Integer.parseInt(range[1].trim()) : from;
+                filter = filter.and(Filters.userBetween(from, to));
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid filter: " + e.getMessage());
+            return;
+        }
+        if (!text.isEmpty()) filter = filter.and(Filters.titleContains(text));
+
+        System.out.print("Group by (N)one, (S)tatus, (U)ser, (P)riority, (D)ay, (W)eek, (M)onth: ");
+        GrievanceQuery.GroupBy groupBy;
+        switch (scanner.nextLine().trim().toUpperCase()) {
+            case "S": groupBy = GrievanceQuery.GroupBy.STATUS; break;
+            case "U": groupBy = GrievanceQuery.GroupBy.USER; break;
+            case "P": groupBy = GrievanceQuery.GroupBy.PRIORITY; break;
+            case "D": groupBy = GrievanceQuery.GroupBy.DAY; break;
+            case "W": groupBy = GrievanceQuery.GroupBy.WEEK; break;
+            case "M": groupBy = GrievanceQuery.GroupBy.MONTH; break;
+            default: groupBy = GrievanceQuery.GroupBy.NONE;
+        }
+        System.out.print("Measure (A)ge, (R)esolution time, or (N)othing: ");
+        GrievanceQuery.Measure measure;
+        switch (scanner.nextLine().trim().toUpperCase()) {
+            case "A": measure = GrievanceQuery.Measure.AGE; break;
+            case "R": measure = GrievanceQuery.Measure.RESOLUTION_TIME; break;
+            default: measure = GrievanceQuery.Measure.NONE;
+        }
+
+        GrievanceQuery query = new GrievanceQuery(filter, groupBy, measure);
+        if (queryEngine == null) queryEngine = new QueryEngine();
+        QueryResult result;
+        try {
+            if (columnCache != null) {
+                result = columnCache.query(data -> queryEngine.run(query, data));
+            } else {
+                try (Stream<GrievanceSummary> all = grievanceDAO.streamSummaries()) {
+                    result = queryEngine.run(query, all);
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            System.out.println("Could not run query: " + e.getMessage());
+            return;
+        }
+
+        boolean measured = measure != GrievanceQuery.Measure.NONE;
+        System.out.println();
+        System.out.println(measured
+                ? String.format("%-12s| %-8s| %-10s| %-10s| %-10s| %-10s| %s", "Group", "Count", "Min", "p50", "p90", "p99", "Max")
+                : String.format("%-12s| %s", "Group", "Count"));
+        for (QueryResult.Group g : result.getGroups()) {
+            if (!measured) {
+                System.out.printf("%-12s| %d%n", g.getKey(), g.getCount());
+            } else if (g.getMeasured() == 0) {
+                System.out.printf("%-12s| %-8d| -%n", g.getKey(), g.getCount());
+            } else {
+                System.out.printf("%-12s| %-8d| %-10s| %-10s| %-10s| %-10s| %s%n", g.getKey(), g.getCount(),
+                        formatDuration(g.getMin()), formatDuration(g.getP50()), formatDuration(g.getP90()),
+                        formatDuration(g.getP99()), formatDuration(g.getMax()));
+            }
+        }
+        System.out.println("(" + result.getMatched() + " of " + result.getScanned() + " grievances matched, "
+                + result.getElapsedMillis() + "ms on " + result.getParallelism() + " threads"
+                + (columnCache != null ? ", from the column cache)" : ")"));
+    }
+
+    private static String formatDuration(long seconds) {
+        if (seconds < 3600) return String.format("%.1f min", seconds / 60.0);
+        if (seconds < 86_400) return String.format("%.1f h", seconds / 3600.0);
+        return String.format("%.1f days", seconds / 86_400.0);
     }
 
     
@@ -338,6 +820,7 @@ public class GrievanceSystemCLI {
             System.out.println("2. Add New User");
             System.out.println("3. Update User Role");
             System.out.println("4. Delete User");
+            System.out.println("5. Export Grievances/Users");
             System.out.println("0. Back to Main Menu");
             System.out.print("Enter choice: ");
 
@@ -348,6 +831,7 @@ public class GrievanceSystemCLI {
                     case 2: addNewUser(); break;
                     case 3: updateUserRole(); break;
                     case 4: deleteUser(); break;
+                    case 5: exportReport(); break;
                     case 0: return;
                     default: System.out.println("Invalid choice.");
                 }
@@ -359,6 +843,23 @@ public class GrievanceSystemCLI {
     }
 
  // --- Admin Helper Methods ---
+    private static void exportReport() {
+        System.out.print("Export (G)rievances or (U)sers? ");
+        boolean users = scanner.nextLine().trim().equalsIgnoreCase("U");
+        System.out.print("File (.csv or .jsonl, add .gz to compress): ");
+        String file = scanner.nextLine().trim();
+        String status = "", from = "", to = "";
+        if (!users) {
+            System.out.print("Status (blank for any): ");
+            status = scanner.nextLine().trim();
+            System.out.print("Created from (yyyy-mm-dd, blank for any): ");
+            from = scanner.nextLine().trim();
+            System.out.print("Created to, inclusive (yyyy-mm-dd, blank for any): ");
+            to = scanner.nextLine().trim();
+        }
+        export(users ? "users" : "grievances", file, status, from, to);
+    }
+
     private static void viewAllUsers() {
         List<User> users = userDAO.getAllUsers();
         System.out.println("\n--- ALL USERS ---");
@@ -376,8 +877,9 @@ public class GrievanceSystemCLI {
         System.out.print("Enter role (USER / GRIEVANCE_MANAGER / ADMINISTRATOR): ");
         String role = scanner.nextLine().toUpperCase();
 
-        if (userDAO.registerWithRole(username, password, role)) {
-            System.out.println("User created successfully!");
+        User created = userDAO.registerWithRole(username, password, role);
+        if (created != null) {
+            System.out.println("User created successfully! ID: " + created.getId());
         } else { System.out.println("Failed to create user."); }
     }
 
@@ -0,0 +1,127 @@
+package com.grievance.dao;
+
+import com.grievance.model.ClaimOrder;
+import com.grievance.model.Grievance;
+import com.grievance.model.GrievanceStatus;
+import com.grievance.model.GrievanceSummary;
+import com.grievance.model.Page;
+import com.grievance.model.PageCursor;
+import com.grievance.model.StatusTransition;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link GrievanceRepository} operations as {@link CompletableFuture}s, run on a {@link DaoExecutor},
+ * so a screen can issue independent queries at once and combine the results.
+ * <p>
+ * Results and failure values are those of the wrapped repository (e.g. a null grievance when the
+ * lookup failed). The future itself fails only on timeout, cancellation, rejection by a full
+ * executor, or an unchecked exception. The lazy {@code stream*} methods are not offered here;
+ * use them from the blocking repository.
+ */
+public class AsyncGrievanceRepository {
+
+    private final GrievanceRepository repository;
+    private final DaoExecutor executor;
+
+    public AsyncGrievanceRepository(GrievanceRepository repository, DaoExecutor executor) {
+        this.repository = repository;
+        this.executor = executor;
+    }
+
+    /** @return the blocking repository the calls run against. */
+    public GrievanceRepository blocking() {
+        return repository;
+    }
+
+    // --- CREATE ---
+    public CompletableFuture<Grievance> createGrievance(Grievance grievance) {
+        return executor.submit(() -> repository.createGrievance(grievance));
+    }
+
+    public CompletableFuture<int[]> createGrievances(Collection<Grievance> grievances) {
+        return executor.submit(() -> repository.createGrievances(grievances));
+    }
+
+    // --- READ ---
+    public CompletableFuture<Grievance> getGrievanceById(int grievanceId) {
+        return executor.submit(() -> repository.getGrievanceById(grievanceId));
+    }
+
+    public CompletableFuture<List<GrievanceSummary>> getGrievanceSummariesByIds(int[] ids) {
+        return executor.submit(() -> repository.getGrievanceSummariesByIds(ids));
+    }
+
+    public CompletableFuture<List<GrievanceSummary>> getAllGrievances() {
+        return executor.submit(repository::getAllGrievances);
+    }
+
+    public CompletableFuture<List<GrievanceSummary>> getGrievancesByUserId(int userId) {
+        return executor.submit(() -> repository.getGrievancesByUserId(userId));
+    }
+
+    public CompletableFuture<Page<GrievanceSummary>> getGrievancesPage(PageCursor after, int pageSize) {
+        return executor.submit(() -> repository.getGrievancesPage(after, pageSize));
+    }
+
+    public CompletableFuture<Page<GrievanceSummary>> getGrievancesPageByUserId(int userId, PageCursor after, int pageSize) {
+        return executor.submit(() -> repository.getGrievancesPageByUserId(userId, after, pageSize));
+    }
+
+    public CompletableFuture<List<GrievanceSummary>> getGrievancesByStatus(GrievanceStatus status, Timestamp createdBefore,
+                                                                            int limit) {
+        return executor.submit(() -> repository.getGrievancesByStatus(status, createdBefore, limit));
+    }
+
+    // --- SEARCH ---
+    public CompletableFuture<List<GrievanceSummary>> searchGrievances(String query, int offset, int limit) {
+        return executor.submit(() -> repository.searchGrievances(query, offset, limit));
+    }
+
+    // --- COUNTS ---
+    public CompletableFuture<Integer> countByStatus(String status) {
+        return executor.submit(() -> repository.countByStatus(status));
+    }
+
+    public CompletableFuture<Map<GrievanceStatus, Integer>> getStatusSummary() {
+        return executor.submit(repository::getStatusSummary);
+    }
+
+    // --- UPDATE ---
+    public CompletableFuture<Boolean> updateGrievanceStatus(int grievanceId, String newStatus) {
+        return executor.submit(() -> repository.updateGrievanceStatus(grievanceId, newStatus));
+    }
+
+    public CompletableFuture<StatusTransition> transitionStatus(int grievanceId, GrievanceStatus target, int expectedVersion) {
+        return executor.submit(() -> repository.transitionStatus(grievanceId, target, expectedVersion));
+    }
+
+    public CompletableFuture<List<StatusTransition>> transitionStatuses(int[] ids, int[] expectedVersions,
+            GrievanceStatus target) {
+        return executor.submit(() -> repository.transitionStatuses(ids, expectedVersions, target));
+    }
+
+    public CompletableFuture<Boolean> setPriority(int grievanceId, int priority) {
+        return executor.submit(() -> repository.setPriority(grievanceId, priority));
+    }
+
+    // --- WORK QUEUE ---
+    public CompletableFuture<List<GrievanceSummary>> claimNext(int managerId, int count, ClaimOrder order, int leaseSeconds) {
+        return executor.submit(() -> repository.claimNext(managerId, count, order, leaseSeconds));
+    }
+
+    public CompletableFuture<Integer> renewClaims(int managerId, int[] ids, int leaseSeconds) {
+        return executor.submit(() -> repository.renewClaims(managerId, ids, leaseSeconds));
+    }
+
+    public CompletableFuture<Integer> releaseClaims(int managerId, int[] ids) {
+        return executor.submit(() -> repository.releaseClaims(managerId, ids));
+    }
+
+    public CompletableFuture<List<GrievanceSummary>> getClaimedBy(int managerId) {
+        return executor.submit(() -> repository.getClaimedBy(managerId));
+    }
+}
@@ -0,0 +1,52 @@
+package com.grievance.dao;
+
+import com.grievance.model.User;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link UserRepository} operations as {@link CompletableFuture}s, run on a {@link DaoExecutor}.
+ * Results are those of the wrapped repository, as in {@link AsyncGrievanceRepository}.
+ */
+public class AsyncUserRepository {
+
+    private final UserRepository repository;
+    private final DaoExecutor executor;
+
+    public AsyncUserRepository(UserRepository repository, DaoExecutor executor) {
+        this.repository = repository;
+        this.executor = executor;
+    }
+
+    public UserRepository blocking() {
+        return repository;
+    }
+
+    public CompletableFuture<User> login(String username, String password) {
+        return executor.submit(() -> repository.login(username, password));
+    }
+
+    public CompletableFuture<User> register(String username, String password) {
+        return executor.submit(() -> repository.register(username, password));
+    }
+
+    public CompletableFuture<User> registerWithRole(String username, String password, String role) {
+        return executor.submit(() -> repository.registerWithRole(username, password, role));
+    }
+
+    public CompletableFuture<User> getUserById(int userId) {
+        return executor.submit(() -> repository.getUserById(userId));
+    }
+
+    public CompletableFuture<List<User>> getAllUsers() {
+        return executor.submit(repository::getAllUsers);
+    }
+
+    public CompletableFuture<Boolean> updateUserRole(int userId, String newRole) {
+        return executor.submit(() -> repository.updateUserRole(userId, newRole));
+    }
+
+    public CompletableFuture<Boolean> deleteUser(int userId) {
+        return executor.submit(() -> repository.deleteUser(userId));
+    }
+}
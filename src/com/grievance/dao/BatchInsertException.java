@@ -0,0 +1,40 @@
+package com.grievance.dao;
+
+import java.sql.SQLException;
+
+/**
+ * Thrown by {@link GrievanceRepository#insertGrievances} when a chunk could not be committed.
+ * Chunks before it stay committed; their IDs are in {@link #getCommittedIds()}.
+ */
+public class BatchInsertException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int[] committedIds;
+    private final boolean permanent;
+
+    public BatchInsertException(int[] committedIds, Exception cause, boolean permanent) {
+        super(cause.getMessage(), cause);
+        this.committedIds = committedIds;
+        this.permanent = permanent;
+    }
+
+    /** @return generated IDs of the rows committed before the failure, in input order. */
+    public int[] getCommittedIds() {
+        return committedIds;
+    }
+
+    /**
+     * @return true if retrying the same rows cannot succeed: the database rejected their data
+     * (SQLSTATE class 22) or they break a constraint (class 23), e.g. a user deleted since submission.
+     */
+    public boolean isPermanent() {
+        return permanent;
+    }
+
+    /** @return whether the error is about the rows themselves rather than the connection or server. */
+    static boolean isPermanent(SQLException e) {
+        String state = e.getSQLState();
+        return state != null && (state.startsWith("22") || state.startsWith("23"));
+    }
+}
@@ -0,0 +1,116 @@
+package com.grievance.dao;
+
+import com.grievance.util.AppConfig;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded thread pool that runs blocking repository calls for the async facades
+ * ({@link AsyncGrievanceRepository}, {@link AsyncUserRepository}).
+ * <p>
+ * It has as many threads as the connection pool has connections ({@code db.pool.maxSize}, or
+ * {@code async.threads}): more would only queue up inside the pool. Work beyond
+ * {@code async.queueCapacity} waiting calls is refused, and the future fails with
+ * {@link RejectedExecutionException}.
+ * <p>
+ * Cancelling a future, or letting it time out, removes the call from the queue if it has not
+ * started, and otherwise interrupts the thread running it. An interrupted thread gives up
+ * waiting for a pooled connection, but a statement already executing on the server still
+ * runs to completion.
+ */
+public final class DaoExecutor {
+
+    private static DaoExecutor shared;
+
+    private final ThreadPoolExecutor executor;
+    private final long defaultTimeoutMillis;
+
+    /**
+     * @param defaultTimeoutMillis timeout applied by {@link #submit(Supplier)}; 0 for none.
+     */
+    public DaoExecutor(int threads, int queueCapacity, long defaultTimeoutMillis) {
+        AtomicInteger threadId = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread t = new Thread(r, "dao-io-" + threadId.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+        this.defaultTimeoutMillis = defaultTimeoutMillis;
+    }
+
+    /** @return the executor configured by the {@code async.*} settings, created on first use. */
+    public static synchronized DaoExecutor shared() {
+        if (shared == null) {
+            int threads = AppConfig.getInt("async.threads", AppConfig.getInt("db.pool.maxSize", 10));
+            shared = new DaoExecutor(Math.max(1, threads),
+                    AppConfig.getInt("async.queueCapacity", 1000),
+                    AppConfig.getLong("async.timeoutMs", 10_000));
+        }
+        return shared;
+    }
+
+    /** Runs the call with the default timeout. */
+    public <T> CompletableFuture<T> submit(Supplier<T> call) {
+        return submit(call, defaultTimeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs the call on a pool thread.
+     * @param timeout the future fails with {@link TimeoutException} after this long; 0 for no timeout.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> call, long timeout, TimeUnit unit) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        FutureTask<Void> task = new FutureTask<>(() -> {
+            if (result.isDone()) return; // cancelled or timed out while queued
+            try {
+                result.complete(call.get());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        }, null);
+
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+        if (timeout > 0) result.orTimeout(timeout, unit);
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled() || error instanceof TimeoutException) {
+                task.cancel(true);
+                executor.remove(task);
+            }
+        });
+        return result;
+    }
+
+    /** @return calls waiting for a thread. */
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    /** Stops taking new calls and waits up to {@code timeout} for running ones. */
+    public void shutdown(long timeout, TimeUnit unit) {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.grievance.dao;
+
+import com.grievance.util.DBUtil;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A unit of work that pins one pooled connection to the current thread.
+ * <p>
+ * While a session is open, every {@link GrievanceDAO} and {@link UserDAO} call made on this thread
+ * runs on the same connection, and therefore reuses that connection's cached prepared statements
+ * instead of borrowing (and re-preparing on) whichever connection the pool hands out next.
+ * Each DAO call still commits its own work; the session only shares the connection. DAO methods
+ * that run a transaction end it before returning (see {@link DBUtil#beginTransaction}), so the
+ * shared connection is back in autocommit mode for the next call.
+ * <pre>
+ * try (DaoSession session = DaoSession.open()) {
+ *     User user = userDAO.login(name, password);
+ *     grievanceDAO.getGrievancesPageByUserId(user.getId(), null, 20);
+ * }
+ * </pre>
+ * Streaming reads ({@code stream*} methods) always use a connection of their own. The HTTP server
+ * opens one session per request ({@code server.daoSessions}).
+ */
+public class DaoSession implements AutoCloseable {
+
+    private final Connection connection;
+    private boolean closed = false;
+
+    private DaoSession(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Borrows a connection and binds it to the current thread.
+     * @throws SQLException if no connection is available.
+     * @throws IllegalStateException if a session is already open on this thread.
+     */
+    public static DaoSession open() throws SQLException {
+        Connection connection = DBUtil.getDedicatedConnection();
+        try {
+            DBUtil.bindSession(connection);
+        } catch (IllegalStateException e) {
+            DBUtil.closeConnection(connection);
+            throw e;
+        }
+        return new DaoSession(connection);
+    }
+
+    /**
+     * Unbinds the connection from the thread and returns it to the pool.
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        DBUtil.unbindSession();
+        DBUtil.closeConnection(connection);
+    }
+}
@@ -0,0 +1,123 @@
+package com.grievance.dao;
+
+import com.grievance.events.EventOutbox;
+import com.grievance.model.GrievanceEvent;
+import com.grievance.util.DBUtil;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link EventOutbox} over the {@code grievance_events} and {@code event_offsets} tables.
+ * {@link GrievanceDAO} adds events with {@link #insertEvents} on the connection of the change itself.
+ */
+public class EventOutboxDAO implements EventOutbox {
+
+    private static final String INSERT_EVENT = "INSERT INTO grievance_events"
+            + " (event_type, grievance_id, user_id, old_status, new_status, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_AFTER = "SELECT id, event_type, grievance_id, user_id, old_status, new_status, created_at"
+            + " FROM grievance_events WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String SELECT_LAST_ID = "SELECT COALESCE(MAX(id), 0) FROM grievance_events";
+    private static final String SELECT_OFFSET = "SELECT last_event_id FROM event_offsets WHERE consumer = ?";
+    private static final String UPSERT_OFFSET = "INSERT INTO event_offsets (consumer, last_event_id) VALUES (?, ?)"
+            + " ON DUPLICATE KEY UPDATE last_event_id = GREATEST(last_event_id, VALUES(last_event_id))";
+    // Deleted in chunks so a large backlog does not hold locks for long
+    private static final String PURGE = "DELETE FROM grievance_events WHERE id <= ? ORDER BY id LIMIT 5000";
+
+    /** Adds the events as part of the caller's transaction, in one batch. */
+    static void insertEvents(Connection conn, List<GrievanceEvent> events) throws SQLException {
+        if (events.isEmpty()) return;
+        try (PreparedStatement ps = conn.prepareStatement(INSERT_EVENT)) {
+            for (GrievanceEvent e : events) {
+                ps.setString(1, e.getType().name());
+                ps.setInt(2, e.getGrievanceId());
+                ps.setInt(3, e.getUserId());
+                ps.setString(4, e.getOldStatus());
+                ps.setString(5, e.getNewStatus());
+                ps.setTimestamp(6, e.getCreatedAt());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    @Override
+    public List<GrievanceEvent> readAfter(long afterId, int limit) {
+        List<GrievanceEvent> events = new ArrayList<>();
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SELECT_AFTER)) {
+            ps.setLong(1, afterId);
+            ps.setInt(2, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    events.add(new GrievanceEvent(rs.getLong("id"), GrievanceEvent.Type.valueOf(rs.getString("event_type")),
+                            rs.getInt("grievance_id"), rs.getInt("user_id"), rs.getString("old_status"),
+                            rs.getString("new_status"), rs.getTimestamp("created_at")));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Database error reading grievance events: " + e.getMessage());
+        }
+        return events;
+    }
+
+    @Override
+    public long getLastEventId() {
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SELECT_LAST_ID);
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        } catch (SQLException e) {
+            System.err.println("Database error reading the last grievance event: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    @Override
+    public long getOffset(String consumer) {
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SELECT_OFFSET)) {
+            ps.setString(1, consumer);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        } catch (SQLException e) {
+            System.err.println("Database error reading event offset: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    @Override
+    public boolean saveOffset(String consumer, long eventId) {
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(UPSERT_OFFSET)) {
+            ps.setString(1, consumer);
+            ps.setLong(2, eventId);
+            ps.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Database error saving event offset: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public int purgeUpTo(long eventId) {
+        int total = 0;
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(PURGE)) {
+            ps.setLong(1, eventId);
+            int deleted;
+            do {
+                deleted = ps.executeUpdate();
+                total += deleted;
+            } while (deleted > 0);
+        } catch (SQLException e) {
+            System.err.println("Database error purging grievance events: " + e.getMessage());
+        }
+        return total;
+    }
+}
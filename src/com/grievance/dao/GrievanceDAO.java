@@ -1,113 +1,803 @@
 package com.grievance.dao;
 
+import com.grievance.cache.GrievanceColumnCache;
+import com.grievance.model.ClaimOrder;
 import com.grievance.model.Grievance;
+import com.grievance.model.GrievanceEvent;
+import com.grievance.model.GrievanceStatus;
+import com.grievance.model.GrievanceSummary;
+import com.grievance.model.Page;
+import com.grievance.model.PageCursor;
+import com.grievance.model.StatusTransition;
+import com.grievance.model.StatusTransition.Outcome;
+import com.grievance.search.InvertedIndex;
+import com.grievance.util.AppConfig;
 import com.grievance.util.DBUtil;
 import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 /**
  * Data Access Object for Grievance-related database operations (CRUD).
  */
-public class GrievanceDAO {
+public class GrievanceDAO implements GrievanceRepository {
 
     // SQL Statements
-    private static final String INSERT_GRIEVANCE = "INSERT INTO grievances (user_id, title, description) VALUES (?, ?, ?)";
-    private static final String SELECT_ALL_GRIEVANCES = "SELECT * FROM grievances ORDER BY created_at DESC";
-    private static final String UPDATE_STATUS = "UPDATE grievances SET status = ?, resolved_at = ? WHERE id = ?";
+    // status and created_at are bound explicitly (to their column defaults) so the caller gets the
+    // complete row back from the insert without a follow-up SELECT
+    private static final String INSERT_GRIEVANCE = "INSERT INTO grievances (user_id, title, description, status, created_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String SELECT_GRIEVANCE_BY_ID = "SELECT * FROM grievances WHERE id = ?";
 
+    // List screens never print the description, so they select only the summary columns
+    private static final String SUMMARY_COLUMNS = "id, user_id, title, status, created_at, resolved_at, version, priority";
+    private static final String SELECT_ALL_GRIEVANCES = "SELECT " + SUMMARY_COLUMNS + " FROM grievances ORDER BY created_at DESC, id DESC";
+    private static final String SELECT_BY_USER = "SELECT " + SUMMARY_COLUMNS + " FROM grievances WHERE user_id = ? ORDER BY created_at DESC, id DESC";
+    // The workflow and the optimistic lock are both enforced by the WHERE clause; a version of -1 skips the lock
+    private static final String TRANSITION_STATUS = "UPDATE grievances SET status = ?, resolved_at = ?, version = version + 1"
+            + " WHERE id = ? AND status = ? AND (? < 0 OR version = ?)";
+    private static final String UPDATE_PRIORITY = "UPDATE grievances SET priority = ? WHERE id = ?";
+    private static final String UPDATE_ARCHIVED_PRIORITY = "UPDATE grievances_archive SET priority = ? WHERE id = ?";
+    // Work queue. Leases are computed on the database clock so application servers need not agree on the time
+    private static final String CLAIMABLE = " FROM grievances WHERE status = 'OPEN'"
+            + " AND (lease_expires_at IS NULL OR lease_expires_at < CURRENT_TIMESTAMP)";
+    private static final String SELECT_CLAIMABLE_OLDEST = "SELECT " + SUMMARY_COLUMNS + CLAIMABLE
+            + " ORDER BY created_at, id LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String SELECT_CLAIMABLE_PRIORITY = "SELECT " + SUMMARY_COLUMNS + CLAIMABLE
+            + " ORDER BY priority DESC, created_at, id LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String SELECT_CLAIMED_BY = "SELECT " + SUMMARY_COLUMNS + " FROM grievances"
+            + " WHERE assigned_to = ? AND status = 'OPEN' AND lease_expires_at >= CURRENT_TIMESTAMP ORDER BY created_at, id";
+    private static final String SET_LEASE = "UPDATE grievances SET assigned_to = ?,"
+            + " lease_expires_at = CURRENT_TIMESTAMP + INTERVAL ? SECOND WHERE id IN ";
+    private static final String RENEW_LEASE = "UPDATE grievances SET lease_expires_at = CURRENT_TIMESTAMP + INTERVAL ? SECOND"
+            + " WHERE assigned_to = ? AND status = 'OPEN' AND id IN ";
+    private static final String RELEASE_LEASE = "UPDATE grievances SET assigned_to = NULL, lease_expires_at = NULL"
+            + " WHERE assigned_to = ? AND status = 'OPEN' AND id IN ";
+    private static final String SELECT_STATUS_SUMMARY = "SELECT status, COUNT(*) AS total FROM grievances GROUP BY status";
+    // Both served by idx_queue_oldest (status, created_at)
+    private static final String SELECT_BY_STATUS = "SELECT " + SUMMARY_COLUMNS + " FROM grievances"
+            + " WHERE status = ? ORDER BY created_at, id LIMIT ?";
+    private static final String SELECT_BY_STATUS_BEFORE = "SELECT " + SUMMARY_COLUMNS + " FROM grievances"
+            + " WHERE status = ? AND created_at < ? ORDER BY created_at, id LIMIT ?";
+
+    // Timeline projection for analytics: no text columns at all
+    private static final String TIMELINE_COLUMNS = "id, user_id, status, created_at, resolved_at";
+    private static final String SELECT_TIMELINE = "SELECT " + TIMELINE_COLUMNS + " FROM grievances ORDER BY id";
+    private static final String SELECT_SUMMARIES = "SELECT " + SUMMARY_COLUMNS + " FROM grievances ORDER BY id";
+    private static final String SELECT_TIMELINE_AFTER_ID = "SELECT " + TIMELINE_COLUMNS + " FROM grievances WHERE id > ? ORDER BY id";
+    private static final String SELECT_TIMELINE_RESOLVED_SINCE = "SELECT " + TIMELINE_COLUMNS
+            + " FROM grievances WHERE resolved_at >= ? ORDER BY resolved_at, id";
+    private static final String SELECT_TIMELINE_UNRESOLVED = "SELECT " + TIMELINE_COLUMNS
+            + " FROM grievances WHERE status <> 'RESOLVED'";
+
+    // Search: MATCH ... AGAINST uses the ft_title_description FULLTEXT index, LIKE is the fallback
+    private static final String MATCH_EXPR = "MATCH(title, description) AGAINST (? IN BOOLEAN MODE)";
+    private static final String SEARCH_FULLTEXT = "SELECT " + SUMMARY_COLUMNS + ", " + MATCH_EXPR + " AS relevance"
+            + " FROM grievances WHERE " + MATCH_EXPR
+            + " ORDER BY relevance DESC, created_at DESC, id DESC LIMIT ? OFFSET ?";
+    private static final String SEARCH_LIKE = "SELECT " + SUMMARY_COLUMNS
+            + " FROM grievances WHERE title LIKE ? OR description LIKE ?"
+            + " ORDER BY created_at DESC, id DESC LIMIT ? OFFSET ?";
+    // MySQL error 1191: Can't find FULLTEXT index matching the column list
+    private static final int ER_FT_MATCHING_KEY_NOT_FOUND = 1191;
+    // innodb_ft_min_token_size default; shorter words are never indexed
+    private static final int FT_MIN_TOKEN_LENGTH = AppConfig.getInt("search.fulltext.minTokenLength", 3);
+
+    // An operator at the start of a word, a quoted phrase or a trailing wildcard
+    private static final Pattern BOOLEAN_SYNTAX = Pattern.compile("(^|\\s)[+\\-~<>(]|\"|\\w\\*(\\s|$)");
+
+    private volatile boolean fullTextAvailable = true;
+
+    // Keyset pagination on (created_at, id); id breaks ties between rows created in the same second.
+    // Served in order by idx_created (created_at, id) and idx_user_created (user_id, created_at)
+    private static final String KEYSET_AFTER = "(created_at < ? OR (created_at = ? AND id < ?))";
+    private static final String KEYSET_ORDER = " ORDER BY created_at DESC, id DESC";
+    private static final String SELECT_ALL_GRIEVANCES_KEYSET = "SELECT * FROM grievances" + KEYSET_ORDER;
+    private static final String SELECT_PAGE_FIRST = "SELECT " + SUMMARY_COLUMNS + " FROM grievances" + KEYSET_ORDER + " LIMIT ?";
+    private static final String SELECT_PAGE_AFTER = "SELECT " + SUMMARY_COLUMNS + " FROM grievances WHERE " + KEYSET_AFTER + KEYSET_ORDER + " LIMIT ?";
+    private static final String SELECT_USER_PAGE_FIRST = "SELECT " + SUMMARY_COLUMNS + " FROM grievances WHERE user_id = ?" + KEYSET_ORDER + " LIMIT ?";
+    private static final String SELECT_USER_PAGE_AFTER = "SELECT " + SUMMARY_COLUMNS + " FROM grievances WHERE user_id = ? AND " + KEYSET_AFTER + KEYSET_ORDER + " LIMIT ?";
+
+
+    private static final int BATCH_SIZE = AppConfig.getInt("db.batch.size", 500);
+    // Caps the lease UPDATE's IN list, whatever count a caller asks for
+    private static final int MAX_CLAIM = Math.max(1, AppConfig.getInt("queue.maxClaim", 50));
+    // Writes a grievance_events row in the same transaction as each create and status change
+    private static final boolean OUTBOX_ENABLED = AppConfig.getBoolean("events.outbox.enabled", true);
+
+    // Archive: RESOLVED rows older than archive.afterDays are moved to grievances_archive, which is
+    // range-partitioned on resolved_at. Only rows created before the horizon (now - afterDays) are ever
+    // moved, so reads that stay above the horizon, or ask only for live statuses, skip the archive.
+    private static final boolean ARCHIVE_ENABLED = AppConfig.getBoolean("archive.enabled", false);
+    private static final long ARCHIVE_AFTER_MILLIS = Math.max(1, AppConfig.getLong("archive.afterDays", 365)) * 86_400_000L;
+    private static final long ARCHIVE_COUNT_TTL_MILLIS = AppConfig.getLong("archive.countCacheSeconds", 60) * 1000;
+    private static final String ARCHIVE_TABLE = "grievances_archive";
+    private static final String ARCHIVE_COLUMNS = "id, user_id, title, description, status, created_at, resolved_at, version, priority, assigned_to";
+    private static final String SELECT_ARCHIVABLE = "SELECT id FROM grievances WHERE status = 'RESOLVED' AND resolved_at < ?"
+            + " AND created_at < ? ORDER BY resolved_at, id LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String COUNT_ARCHIVED = "SELECT COUNT(*) FROM " + ARCHIVE_TABLE;
+    private static final String SELECT_ARCHIVE_PARTITIONS = "SELECT PARTITION_DESCRIPTION FROM information_schema.PARTITIONS"
+            + " WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = '" + ARCHIVE_TABLE + "' AND PARTITION_NAME IS NOT NULL";
+
+    // Orders of the merged hot and archive reads; each matches the ORDER BY of the queries merged
+    private static final Comparator<GrievanceSummary> BY_ID = Comparator.comparingInt(GrievanceSummary::getId);
+    private static final Comparator<GrievanceSummary> NEWEST_FIRST = Comparator
+            .comparing(GrievanceSummary::getCreatedAt, Comparator.nullsLast(Comparator.<Timestamp>reverseOrder()))
+            .thenComparing(BY_ID.reversed());
+    private static final Comparator<GrievanceSummary> OLDEST_FIRST = NEWEST_FIRST.reversed();
+    private static final Comparator<GrievanceSummary> BY_RESOLVED_AT = Comparator
+            .comparing(GrievanceSummary::getResolvedAt).thenComparing(BY_ID);
+    private static final Comparator<Grievance> GRIEVANCE_BY_ID = Comparator.comparingInt(Grievance::getId);
+    private static final Comparator<Grievance> GRIEVANCE_NEWEST_FIRST = Comparator
+            .comparing(Grievance::getCreatedAt, Comparator.nullsLast(Comparator.<Timestamp>reverseOrder()))
+            .thenComparing(GRIEVANCE_BY_ID.reversed());
+
+    private final Object archiveCountLock = new Object();
+    private long archivedCount = -1;   // guarded by archiveCountLock; -1 until counted
+    private long archivedCountAt;      // guarded by archiveCountLock
+
+    private final List<GrievanceListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile InvertedIndex searchIndex;
+    private volatile GrievanceColumnCache columnCache;
+
+    // --- LISTENERS ---
+    /**
+     * Registers a component to be told about committed grievance writes.
+     */
+    @Override
+    public void addListener(GrievanceListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(GrievanceListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Answers searches from an in-memory index instead of the database.
+     * Only the matched rows are then loaded from the database.
+     * @param index a populated index that is listening to this DAO, or null to search the database again.
+     */
+    public void setSearchIndex(InvertedIndex index) {
+        this.searchIndex = index;
+    }
+
+    /**
+     * Answers status counts, per-user listings and status filters from an in-memory column cache.
+     * @param cache a populated cache that is listening to this DAO, or null to query the database again.
+     */
+    public void setColumnCache(GrievanceColumnCache cache) {
+        this.columnCache = cache;
+    }
 
     // --- CREATE ---
-    public boolean createGrievance(Grievance grievance) {
+    /**
+     * Inserts a grievance.
+     * @param grievance the grievance to insert; its ID, status and created_at are filled in.
+     * @return the same grievance, now matching the stored row, or null if the insert failed.
+     */
+    @Override
+    public Grievance createGrievance(Grievance grievance) {
         Connection conn = null;
         PreparedStatement ps = null;
+        ResultSet keys = null;
+        boolean autoCommit = true;
         try {
             conn = DBUtil.getConnection();
-            ps = conn.prepareStatement(INSERT_GRIEVANCE);
-            ps.setInt(1, grievance.getUserId());
-            ps.setString(2, grievance.getTitle());
-            ps.setString(3, grievance.getDescription());
+            if (OUTBOX_ENABLED) autoCommit = DBUtil.beginTransaction(conn);
+            ps = conn.prepareStatement(INSERT_GRIEVANCE, Statement.RETURN_GENERATED_KEYS);
+            bindInsert(ps, grievance);
 
             int rowsAffected = ps.executeUpdate();
-            return rowsAffected > 0;
+            if (rowsAffected == 0) return null;
+
+            keys = ps.getGeneratedKeys();
+            if (!keys.next()) return null;
+            grievance.setId(keys.getInt(1));
+            if (OUTBOX_ENABLED) {
+                // Left uncommitted on failure; endTransaction below rolls the insert back
+                EventOutboxDAO.insertEvents(conn, Collections.singletonList(GrievanceEvent.created(grievance)));
+                conn.commit();
+            }
         } catch (SQLException e) {
             System.err.println("Database error creating grievance: " + e.getMessage());
-            return false;
+            return null;
         } finally {
-            closeResources(null, ps, conn);
+            if (conn != null) DBUtil.endTransaction(conn, autoCommit);
+            closeResources(keys, ps, conn);
+        }
+
+        for (GrievanceListener listener : listeners) {
+            listener.onCreated(grievance);
         }
+        return grievance;
     }
 
-    // --- READ ---
-    public List<Grievance> getAllGrievances() {
-        List<Grievance> grievances = new ArrayList<>();
-        Connection conn = null;
-        PreparedStatement ps = null;
-        ResultSet rs = null;
+    /**
+     * Binds an insert and stamps the grievance with the status and creation time being stored.
+     * A creation time already set on the grievance (e.g. when it was accepted by an
+     * {@link com.grievance.ingest.IngestBuffer}) is kept; otherwise the current time is used.
+     */
+    private void bindInsert(PreparedStatement ps, Grievance grievance) throws SQLException {
+        long createdAt = grievance.getCreatedAt() != null ? grievance.getCreatedAt().getTime() : System.currentTimeMillis();
+        // TIMESTAMP columns keep whole seconds; truncate so the object matches the stored value
+        grievance.setStatus(GrievanceStatus.OPEN.name());
+        grievance.setCreatedAt(new Timestamp(createdAt / 1000 * 1000));
+        grievance.setResolvedAt(null);
+
+        ps.setInt(1, grievance.getUserId());
+        ps.setString(2, grievance.getTitle());
+        ps.setString(3, grievance.getDescription());
+        ps.setString(4, grievance.getStatus());
+        ps.setTimestamp(5, grievance.getCreatedAt());
+    }
 
+    /**
+     * Inserts many grievances using JDBC batching, one transaction per chunk.
+     * @see #createGrievances(Collection, int)
+     */
+    @Override
+    public int[] createGrievances(Collection<Grievance> grievances) {
+        return createGrievances(grievances, BATCH_SIZE);
+    }
+
+    /**
+     * Inserts many grievances using JDBC batching. With {@code rewriteBatchedStatements=true} on the
+     * connection URL, the driver sends each chunk as multi-row INSERT statements.
+     * <p>
+     * Every chunk of {@code batchSize} rows is committed as its own transaction, so a failure only
+     * rolls back the chunk it happened in. Processing stops at the first failed chunk.
+     *
+     * @param grievances rows to insert; their generated IDs, status and created_at are set on them.
+     * @param batchSize number of rows per batch and per transaction.
+     * @return generated IDs of the committed rows, in input order (shorter than the input if a chunk failed).
+     */
+    @Override
+    public int[] createGrievances(Collection<Grievance> grievances, int batchSize) {
         try {
-            conn = DBUtil.getConnection();
-            ps = conn.prepareStatement(SELECT_ALL_GRIEVANCES);
-            rs = ps.executeQuery();
+            return insertGrievances(grievances, batchSize);
+        } catch (BatchInsertException e) {
+            System.err.println("Database error in bulk insert after " + e.getCommittedIds().length + " rows: " + e.getMessage());
+            return e.getCommittedIds();
+        }
+    }
 
-            while (rs.next()) {
-                grievances.add(extractGrievanceFromResultSet(rs));
+    @Override
+    public int[] insertGrievances(Collection<Grievance> grievances, int batchSize) throws BatchInsertException {
+        if (batchSize < 1) throw new IllegalArgumentException("batchSize must be at least 1");
+        int[] ids = new int[grievances.size()];
+        int committed = 0;
+
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(INSERT_GRIEVANCE, Statement.RETURN_GENERATED_KEYS)) {
+
+            boolean autoCommit = DBUtil.beginTransaction(conn);
+            try {
+                List<Grievance> chunk = new ArrayList<>(Math.min(batchSize, grievances.size()));
+                Iterator<Grievance> it = grievances.iterator();
+                while (it.hasNext()) {
+                    Grievance g = it.next();
+                    bindInsert(ps, g);
+                    ps.addBatch();
+                    chunk.add(g);
+
+                    if (chunk.size() == batchSize || !it.hasNext()) {
+                        try {
+                            ps.executeBatch();
+                            try (ResultSet keys = ps.getGeneratedKeys()) {
+                                for (Grievance inserted : chunk) {
+                                    if (!keys.next()) break;
+                                    inserted.setId(keys.getInt(1));
+                                }
+                            }
+                            if (OUTBOX_ENABLED) {
+                                List<GrievanceEvent> events = new ArrayList<>(chunk.size());
+                                for (Grievance inserted : chunk) events.add(GrievanceEvent.created(inserted));
+                                EventOutboxDAO.insertEvents(conn, events);
+                            }
+                            conn.commit();
+                        } catch (SQLException e) {
+                            conn.rollback();
+                            throw new BatchInsertException(Arrays.copyOf(ids, committed), e, BatchInsertException.isPermanent(e));
+                        }
+
+                        for (Grievance inserted : chunk) {
+                            ids[committed++] = inserted.getId();
+                            for (GrievanceListener listener : listeners) {
+                                listener.onCreated(inserted);
+                            }
+                        }
+                        chunk.clear();
+                    }
+                }
+            } finally {
+                DBUtil.endTransaction(conn, autoCommit);
             }
         } catch (SQLException e) {
-            System.err.println("Database error retrieving all grievances: " + e.getMessage());
-        } finally {
-            closeResources(rs, ps, conn);
+            throw new BatchInsertException(Arrays.copyOf(ids, committed), e, false);
+        }
+        return ids;
+    }
+
+    // --- READ ---
+    /**
+     * Loads the full grievance, including its description.
+     * @param grievanceId The ID of the grievance.
+     * @return the grievance, or null if it does not exist or the lookup failed.
+     */
+    @Override
+    public Grievance getGrievanceById(int grievanceId) {
+        Grievance grievance = selectGrievance(SELECT_GRIEVANCE_BY_ID, grievanceId);
+        return grievance == null && ARCHIVE_ENABLED ? selectGrievance(archived(SELECT_GRIEVANCE_BY_ID), grievanceId) : grievance;
+    }
+
+    private Grievance selectGrievance(String sql, int grievanceId) {
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, grievanceId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return extractGrievanceFromResultSet(rs);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Database error retrieving grievance: " + e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Loads summaries for the given IDs in a single query.
+     * @param ids grievance IDs; missing IDs are skipped.
+     * @return summaries in the same order as {@code ids}.
+     */
+    @Override
+    public List<GrievanceSummary> getGrievanceSummariesByIds(int[] ids) {
+        if (ids.length == 0) return new ArrayList<>();
+
+        String sql = "SELECT " + SUMMARY_COLUMNS + " FROM grievances WHERE id IN " + placeholders(ids.length);
+        Map<Integer, GrievanceSummary> byId = new HashMap<>(ids.length * 2);
+        selectSummariesByIds(sql, ids, byId);
+        // IDs not found live may have been archived
+        if (ARCHIVE_ENABLED && byId.size() < ids.length) selectSummariesByIds(archived(sql), ids, byId);
+
+        List<GrievanceSummary> grievances = new ArrayList<>(byId.size());
+        for (int id : ids) {
+            GrievanceSummary summary = byId.get(id);
+            if (summary != null) grievances.add(summary);
         }
         return grievances;
     }
+
+    private void selectSummariesByIds(String sql, int[] ids, Map<Integer, GrievanceSummary> byId) {
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            for (int i = 0; i < ids.length; i++) {
+                ps.setInt(i + 1, ids[i]);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    GrievanceSummary summary = extractSummaryFromResultSet(rs);
+                    byId.putIfAbsent(summary.getId(), summary);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Database error retrieving grievances by id: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Loads a summary of every grievance into memory. Prefer {@link #getGrievancesPage(PageCursor, int)}
+     * or {@link #streamAllGrievances()} for anything that may run against a large table.
+     */
+    @Override
+    public List<GrievanceSummary> getAllGrievances() {
+        String error = "Database error retrieving all grievances: ";
+        List<GrievanceSummary> grievances = querySummaries(SELECT_ALL_GRIEVANCES, null, error);
+        if (!ARCHIVE_ENABLED) return grievances;
+        return mergeSorted(grievances, querySummaries(archived(SELECT_ALL_GRIEVANCES), null, error), NEWEST_FIRST, Integer.MAX_VALUE);
+    }
     
  // --- READ grievances by user ---
-    public List<Grievance> getGrievancesByUserId(int userId) {
-        List<Grievance> grievances = new ArrayList<>();
-        String sql = "SELECT * FROM grievances WHERE user_id = ? ORDER BY created_at DESC";
+    @Override
+    public List<GrievanceSummary> getGrievancesByUserId(int userId) {
+        GrievanceColumnCache cache = columnCache;
+        if (cache != null) return cache.getByUser(userId);
+
+        String error = "Database error retrieving user grievances: ";
+        JdbcStreams.Binder binder = ps -> ps.setInt(1, userId);
+        List<GrievanceSummary> grievances = querySummaries(SELECT_BY_USER, binder, error);
+        if (!ARCHIVE_ENABLED) return grievances;
+        return mergeSorted(grievances, querySummaries(archived(SELECT_BY_USER), binder, error), NEWEST_FIRST, Integer.MAX_VALUE);
+    }
+    
+    // --- PAGINATED READS ---
+    /**
+     * Returns one page of all grievances, newest first, using keyset pagination on (created_at, id).
+     * Unlike OFFSET paging, the cost of a page does not grow with how far into the list it is.
+     * @param after cursor from the previous page, or null for the first page.
+     * @param pageSize maximum number of rows on the page.
+     * @return the page; {@link Page#getNextCursor()} is null when there are no more rows.
+     */
+    @Override
+    public Page<GrievanceSummary> getGrievancesPage(PageCursor after, int pageSize) {
+        String sql = after == null ? SELECT_PAGE_FIRST : SELECT_PAGE_AFTER;
+        return queryPage(sql, pageSize, ps -> {
+            int i = 1;
+            if (after != null) i = bindCursor(ps, i, after);
+            ps.setInt(i, pageSize + 1);
+        }, "Database error retrieving grievances page: ");
+    }
+
+    /**
+     * Returns one page of a user's grievances, newest first.
+     * @see #getGrievancesPage(PageCursor, int)
+     */
+    @Override
+    public Page<GrievanceSummary> getGrievancesPageByUserId(int userId, PageCursor after, int pageSize) {
+        GrievanceColumnCache cache = columnCache;
+        if (cache != null) return cache.getPageByUser(userId, after, pageSize);
+
+        String sql = after == null ? SELECT_USER_PAGE_FIRST : SELECT_USER_PAGE_AFTER;
+        return queryPage(sql, pageSize, ps -> {
+            ps.setInt(1, userId);
+            int i = 2;
+            if (after != null) i = bindCursor(ps, i, after);
+            ps.setInt(i, pageSize + 1);
+        }, "Database error retrieving user grievances page: ");
+    }
+
+    /**
+     * Grievances in one status, oldest first; uses the column cache when one is set.
+     */
+    @Override
+    public List<GrievanceSummary> getGrievancesByStatus(GrievanceStatus status, Timestamp createdBefore, int limit) {
+        GrievanceColumnCache cache = columnCache;
+        if (cache != null) return cache.getByStatus(status, createdBefore, limit);
+
+        String sql = createdBefore == null ? SELECT_BY_STATUS : SELECT_BY_STATUS_BEFORE;
+        String error = "Database error retrieving grievances by status: ";
+        JdbcStreams.Binder binder = ps -> {
+            int i = 1;
+            ps.setString(i++, status.name());
+            if (createdBefore != null) ps.setTimestamp(i++, createdBefore);
+            ps.setInt(i, limit);
+        };
+        List<GrievanceSummary> grievances = querySummaries(sql, binder, error);
+        if (!ARCHIVE_ENABLED || status != GrievanceStatus.RESOLVED) return grievances;
+        return mergeSorted(grievances, querySummaries(archived(sql), binder, error), OLDEST_FIRST, limit);
+    }
 
+    /**
+     * Streams every grievance (including its description), newest first, fetching rows from the
+     * driver as the stream is consumed.
+     * The stream holds a pooled connection until it is closed, so use try-with-resources.
+     * @return a lazily-populated stream of grievances.
+     * @throws SQLException if the query cannot be started.
+     */
+    @Override
+    public Stream<Grievance> streamAllGrievances() throws SQLException {
+        return streamWithArchive(SELECT_ALL_GRIEVANCES_KEYSET, null, this::extractGrievanceFromResultSet,
+                GRIEVANCE_NEWEST_FIRST, true);
+    }
+
+    /**
+     * Streams grievances (including descriptions) in ID order, optionally limited to one status and
+     * a created_at range. Only the filters that are set become part of the WHERE clause.
+     * Close the stream when done.
+     */
+    @Override
+    public Stream<Grievance> streamGrievances(GrievanceStatus status, Timestamp createdFrom, Timestamp createdTo)
+            throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT * FROM grievances WHERE 1 = 1");
+        if (status != null) sql.append(" AND status = ?");
+        if (createdFrom != null) sql.append(" AND created_at >= ?");
+        if (createdTo != null) sql.append(" AND created_at < ?");
+        sql.append(" ORDER BY id");
+        boolean archive = (status == null || status == GrievanceStatus.RESOLVED)
+                && (createdFrom == null || createdFrom.getTime() < archiveHorizon());
+        return streamWithArchive(sql.toString(), ps -> {
+            int i = 1;
+            if (status != null) ps.setString(i++, status.name());
+            if (createdFrom != null) ps.setTimestamp(i++, createdFrom);
+            if (createdTo != null) ps.setTimestamp(i, createdTo);
+        }, this::extractGrievanceFromResultSet, GRIEVANCE_BY_ID, archive);
+    }
+
+    /**
+     * Streams the summary columns of every grievance in ID order. Close the stream when done.
+     */
+    @Override
+    public Stream<GrievanceSummary> streamSummaries() throws SQLException {
+        return streamWithArchive(SELECT_SUMMARIES, null, this::extractSummaryFromResultSet, BY_ID, true);
+    }
+
+    // --- TIMELINE STREAMS (analytics) ---
+    /**
+     * Streams the timeline columns (no title or description) of every grievance in ID order.
+     * Title is left null on the returned summaries. Close the stream when done.
+     */
+    @Override
+    public Stream<GrievanceSummary> streamTimeline() throws SQLException {
+        return streamWithArchive(SELECT_TIMELINE, null, this::extractTimelineFromResultSet, BY_ID, true);
+    }
+
+    /**
+     * Streams the timeline of grievances inserted after the given ID, in ID order.
+     */
+    @Override
+    public Stream<GrievanceSummary> streamTimelineAfterId(int afterId) throws SQLException {
+        return streamWithArchive(SELECT_TIMELINE_AFTER_ID, ps -> ps.setInt(1, afterId),
+                this::extractTimelineFromResultSet, BY_ID, true);
+    }
+
+    /**
+     * Streams the timeline of grievances resolved at or after the given time, oldest resolution first.
+     */
+    @Override
+    public Stream<GrievanceSummary> streamTimelineResolvedSince(Timestamp since) throws SQLException {
+        return streamWithArchive(SELECT_TIMELINE_RESOLVED_SINCE, ps -> ps.setTimestamp(1, since),
+                this::extractTimelineFromResultSet, BY_RESOLVED_AT, since.getTime() < archiveHorizon());
+    }
+
+    /**
+     * Streams the timeline of every grievance that is not yet resolved.
+     */
+    @Override
+    public Stream<GrievanceSummary> streamTimelineUnresolved() throws SQLException {
+        return JdbcStreams.stream(SELECT_TIMELINE_UNRESOLVED, null, this::extractTimelineFromResultSet);
+    }
+
+    /**
+     * Streams the query from the live table and, when {@code withArchive} is set and archiving is on,
+     * merges in the same query against the archive. Both must be ordered by {@code order}.
+     */
+    private <T> Stream<T> streamWithArchive(String sql, JdbcStreams.Binder binder, RowMapper<T> mapper,
+                                            Comparator<? super T> order, boolean withArchive) throws SQLException {
+        Stream<T> live = JdbcStreams.stream(sql, binder, mapper);
+        if (!ARCHIVE_ENABLED || !withArchive) return live;
+        try {
+            return JdbcStreams.merge(live, JdbcStreams.stream(archived(sql), binder, mapper), order);
+        } catch (SQLException | RuntimeException e) {
+            live.close();
+            throw e;
+        }
+    }
+
+    private GrievanceSummary extractTimelineFromResultSet(ResultSet rs) throws SQLException {
+        GrievanceSummary summary = new GrievanceSummary();
+        summary.setId(rs.getInt("id"));
+        summary.setUserId(rs.getInt("user_id"));
+        summary.setStatus(rs.getString("status"));
+        summary.setCreatedAt(rs.getTimestamp("created_at"));
+        summary.setResolvedAt(rs.getTimestamp("resolved_at"));
+        return summary;
+    }
+
+    /**
+     * Runs a newest-first page query. The archive is only read as well when the live rows do not
+     * fill the page down to the archive horizon.
+     */
+    private Page<GrievanceSummary> queryPage(String sql, int pageSize, JdbcStreams.Binder binder, String errorMessage) {
+        if (pageSize < 1) throw new IllegalArgumentException("pageSize must be at least 1");
+        List<GrievanceSummary> grievances = querySummaries(sql, binder, errorMessage);
+        if (ARCHIVE_ENABLED && (grievances.size() <= pageSize
+                || grievances.get(pageSize).getCreatedAt().getTime() < archiveHorizon())) {
+            grievances = mergeSorted(grievances, querySummaries(archived(sql), binder, errorMessage), NEWEST_FIRST, pageSize + 1);
+        }
+
+        PageCursor next = null;
+        if (grievances.size() > pageSize) {
+            grievances.remove(pageSize);
+            GrievanceSummary last = grievances.get(pageSize - 1);
+            next = new PageCursor(last.getCreatedAt(), last.getId());
+        }
+        return new Page<>(grievances, next);
+    }
+
+    private List<GrievanceSummary> querySummaries(String sql, JdbcStreams.Binder binder, String errorMessage) {
+        List<GrievanceSummary> grievances = new ArrayList<>();
         try (Connection conn = DBUtil.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            ps.setInt(1, userId);
+            if (binder != null) binder.bind(ps);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    grievances.add(extractGrievanceFromResultSet(rs));
+                    grievances.add(extractSummaryFromResultSet(rs));
                 }
             }
-
         } catch (SQLException e) {
-            System.err.println("Database error retrieving user grievances: " + e.getMessage());
+            System.err.println(errorMessage + e.getMessage());
+        }
+        return grievances;
+    }
+
+    private int bindCursor(PreparedStatement ps, int index, PageCursor cursor) throws SQLException {
+        ps.setTimestamp(index, cursor.getCreatedAt());
+        ps.setTimestamp(index + 1, cursor.getCreatedAt());
+        ps.setInt(index + 2, cursor.getId());
+        return index + 3;
+    }
+
+    // --- SEARCH ---
+    /**
+     * Search grievances by title or description (case-insensitive), best matches first.
+     * @see #searchGrievances(String, int, int)
+     */
+    @Override
+    public List<GrievanceSummary> searchGrievances(String keyword) {
+        return searchGrievances(keyword, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Searches title and description through the FULLTEXT index, ranked by relevance.
+     * <p>
+     * Plain words are all required and prefix-matched ({@code salary delay} becomes
+     * {@code +salary* +delay*}). Input that already uses MySQL boolean syntax, such as
+     * {@code "exact phrase"}, {@code +must -exclude} or {@code pay*}, is passed through unchanged.
+     * Falls back to a LIKE scan when the index is missing or every word is shorter than
+     * the server's minimum indexed token length.
+     * <p>
+     * When an {@link InvertedIndex} is set, the query is answered by the index instead (newest
+     * matches first) and only the matched rows are read from the database.
+     * <p>
+     * With archiving on, archived matches follow all live ones. Partitioned tables cannot have a
+     * FULLTEXT index, so the archive is searched with LIKE, and only once the live matches run out.
+     *
+     * @param query the search text.
+     * @param offset number of ranked results to skip.
+     * @param limit maximum number of results to return.
+     * @return matching grievances, most relevant first.
+     */
+    @Override
+    public List<GrievanceSummary> searchGrievances(String query, int offset, int limit) {
+        InvertedIndex index = searchIndex;
+        if (index != null) {
+            int[] ids = index.search(query);
+            int from = Math.min(offset, ids.length);
+            int to = (int) Math.min((long) from + limit, ids.length);
+            return getGrievanceSummariesByIds(Arrays.copyOfRange(ids, from, to));
         }
 
+        List<GrievanceSummary> grievances = searchLive(query, offset, limit);
+        if (!ARCHIVE_ENABLED || grievances.size() >= limit) return grievances;
+        // The page runs past the live matches; work out how far past to start in the archive
+        int liveTotal = grievances.isEmpty() && offset > 0 ? countLiveMatches(query) : offset + grievances.size();
+        if (liveTotal < 0) return grievances;
+        grievances.addAll(searchWithLike(archived(SEARCH_LIKE), query, Math.max(0, offset - liveTotal),
+                limit - grievances.size()));
         return grievances;
     }
-    
- // Search grievances by title or description (case-insensitive)
-    public List<Grievance> searchGrievances(String keyword) {
-        List<Grievance> grievances = new ArrayList<>();
-        String sql = "SELECT * FROM grievances WHERE title LIKE ? OR description LIKE ? ORDER BY created_at DESC";
-        
+
+    private List<GrievanceSummary> searchLive(String query, int offset, int limit) {
+        List<GrievanceSummary> grievances = new ArrayList<>();
+        String booleanQuery = toBooleanQuery(query);
+        if (!fullTextAvailable || booleanQuery == null) {
+            return searchWithLike(SEARCH_LIKE, query, offset, limit);
+        }
+
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SEARCH_FULLTEXT)) {
+
+            ps.setString(1, booleanQuery);
+            ps.setString(2, booleanQuery);
+            ps.setInt(3, limit);
+            ps.setInt(4, offset);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    grievances.add(extractSummaryFromResultSet(rs));
+                }
+            }
+        } catch (SQLException e) {
+            if (e.getErrorCode() == ER_FT_MATCHING_KEY_NOT_FOUND) {
+                fullTextAvailable = false;
+                System.err.println("FULLTEXT index on grievances(title, description) not found; falling back to LIKE search.");
+                return searchWithLike(SEARCH_LIKE, query, offset, limit);
+            }
+            System.err.println("Database error during search: " + e.getMessage());
+        }
+        return grievances;
+    }
+
+    /** @return how many live grievances {@link #searchLive} would match in total, or -1 if the count failed. */
+    private int countLiveMatches(String query) {
+        String booleanQuery = toBooleanQuery(query);
+        boolean fullText = fullTextAvailable && booleanQuery != null;
+        String sql = fullText ? "SELECT COUNT(*) FROM grievances WHERE " + MATCH_EXPR
+                : "SELECT COUNT(*) FROM grievances WHERE title LIKE ? OR description LIKE ?";
         try (Connection conn = DBUtil.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
-            
-            String searchPattern = "%" + keyword + "%";
+            if (fullText) {
+                ps.setString(1, booleanQuery);
+            } else {
+                String searchPattern = "%" + escapeLike(query) + "%";
+                ps.setString(1, searchPattern);
+                ps.setString(2, searchPattern);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            System.err.println("Database error during search: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    private List<GrievanceSummary> searchWithLike(String sql, String keyword, int offset, int limit) {
+        List<GrievanceSummary> grievances = new ArrayList<>();
+
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            String searchPattern = "%" + escapeLike(keyword) + "%";
             ps.setString(1, searchPattern);
             ps.setString(2, searchPattern);
-            
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                grievances.add(extractGrievanceFromResultSet(rs));
+            ps.setInt(3, limit);
+            ps.setInt(4, offset);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    grievances.add(extractSummaryFromResultSet(rs));
+                }
             }
-            rs.close();
         } catch (SQLException e) {
             System.err.println("Database error during search: " + e.getMessage());
         }
-        
+
         return grievances;
     }
-    
+
+    /**
+     * Converts user input to a boolean-mode MATCH expression.
+     * @return the expression, or null if no word is long enough to be in the index.
+     */
+    static String toBooleanQuery(String input) {
+        String trimmed = input == null ? "" : input.trim();
+        if (trimmed.isEmpty()) return null;
+
+        // Respect explicit boolean syntax
+        if (BOOLEAN_SYNTAX.matcher(trimmed).find()) return trimmed;
+
+        StringBuilder sb = new StringBuilder();
+        for (String word : trimmed.split("[^\\p{L}\\p{N}_]+")) {
+            if (word.length() < FT_MIN_TOKEN_LENGTH) continue;
+            if (sb.length() > 0) sb.append(' ');
+            sb.append('+').append(word).append('*');
+        }
+        return sb.length() == 0 ? null : sb.toString();
+    }
+
+    private static String escapeLike(String keyword) {
+        return keyword.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    @Override
     public int countByStatus(String status) {
+        GrievanceColumnCache cache = columnCache;
+        if (cache != null) {
+            try {
+                return cache.countByStatus(GrievanceStatus.fromString(status));
+            } catch (IllegalArgumentException e) {
+                return 0; // no row can have an unknown status
+            }
+        }
+
         String sql = "SELECT COUNT(*) AS total FROM grievances WHERE status = ?";
         int count = 0;
 
@@ -124,51 +814,514 @@ public class GrievanceDAO {
             System.err.println("Database error counting grievances by status: " + e.getMessage());
         }
 
+        if (ARCHIVE_ENABLED && GrievanceStatus.RESOLVED.name().equalsIgnoreCase(status)) count += archivedCount();
         return count;
     }
 
+    /**
+     * Counts grievances in every status with a single GROUP BY query.
+     * @return counts keyed by status; statuses with no grievances are present with 0.
+     */
+    @Override
+    public Map<GrievanceStatus, Integer> getStatusSummary() {
+        GrievanceColumnCache cache = columnCache;
+        if (cache != null) return cache.getStatusSummary();
+
+        Map<GrievanceStatus, Integer> summary = emptyStatusSummary();
+
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SELECT_STATUS_SUMMARY);
+             ResultSet rs = ps.executeQuery()) {
 
+            while (rs.next()) {
+                String status = rs.getString("status");
+                if (status != null) {
+                    summary.put(GrievanceStatus.fromString(status), rs.getInt("total"));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Database error summarising grievances by status: " + e.getMessage());
+        }
+        if (ARCHIVE_ENABLED) summary.merge(GrievanceStatus.RESOLVED, archivedCount(), Integer::sum);
+        return summary;
+    }
 
+    public static Map<GrievanceStatus, Integer> emptyStatusSummary() {
+        Map<GrievanceStatus, Integer> summary = new EnumMap<>(GrievanceStatus.class);
+        for (GrievanceStatus status : GrievanceStatus.values()) {
+            summary.put(status, 0);
+        }
+        return summary;
+    }
 
 
     // --- UPDATE ---
     /**
-     * Updates the status of a specific grievance.
+     * Moves a grievance to the next status in its workflow, without a version check.
      * @param grievanceId The ID of the grievance to update.
-     * @param newStatus The new status (OPEN, IN_PROGRESS, RESOLVED).
-     * @return true if update was successful, false otherwise.
+     * @param newStatus IN_PROGRESS (from OPEN) or RESOLVED (from IN_PROGRESS).
+     * @return true if the status was changed, false otherwise.
      */
+    @Override
     public boolean updateGrievanceStatus(int grievanceId, String newStatus) {
-        Connection conn = null;
-        PreparedStatement ps = null;
+        GrievanceStatus target;
         try {
-            conn = DBUtil.getConnection();
-            ps = conn.prepareStatement(UPDATE_STATUS);
-            ps.setString(1, newStatus);
+            target = GrievanceStatus.fromString(newStatus);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown grievance status '" + newStatus + "'");
+            return false;
+        }
+        return transitionStatus(grievanceId, target, StatusTransition.ANY_VERSION).isApplied();
+    }
+
+    @Override
+    public StatusTransition transitionStatus(int grievanceId, GrievanceStatus target, int expectedVersion) {
+        return transitionStatuses(new int[] { grievanceId }, new int[] { expectedVersion }, target).get(0);
+    }
+
+    /**
+     * Runs one conditional UPDATE per ID as a JDBC batch (a single round trip per
+     * {@code db.batch.size} IDs) and then reads back the status and version of every ID to
+     * classify the ones that did not apply, all in one transaction. The outbox events for the
+     * applied IDs are written in that transaction too.
+     */
+    @Override
+    public List<StatusTransition> transitionStatuses(int[] ids, int[] expectedVersions, GrievanceStatus target) {
+        if (expectedVersions != null && expectedVersions.length != ids.length) {
+            throw new IllegalArgumentException("expectedVersions must be parallel to ids");
+        }
+        List<StatusTransition> results = new ArrayList<>(ids.length);
+        if (ids.length == 0) return results;
 
-            // Set resolved_at only if the status is RESOLVED
-            if ("RESOLVED".equalsIgnoreCase(newStatus)) {
-                ps.setTimestamp(2, new Timestamp(System.currentTimeMillis()));
+        GrievanceStatus from = target.predecessor();
+        Timestamp resolvedAt = target == GrievanceStatus.RESOLVED ? new Timestamp(System.currentTimeMillis()) : null;
+        int[] counts = new int[ids.length];
+
+        // Lock rows in ID order so two overlapping batches cannot deadlock each other
+        Integer[] order = new Integer[ids.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Integer.compare(ids[a], ids[b]));
+
+        try (Connection conn = DBUtil.getConnection()) {
+            boolean autoCommit = DBUtil.beginTransaction(conn);
+            try {
+                if (from != null) {
+                    try (PreparedStatement ps = conn.prepareStatement(TRANSITION_STATUS)) {
+                        for (int start = 0; start < order.length; start += BATCH_SIZE) {
+                            int end = Math.min(order.length, start + BATCH_SIZE);
+                            for (int k = start; k < end; k++) {
+                                int i = order[k];
+                                int expected = expectedVersions != null ? expectedVersions[i] : StatusTransition.ANY_VERSION;
+                                ps.setString(1, target.name());
+                                ps.setTimestamp(2, resolvedAt);
+                                ps.setInt(3, ids[i]);
+                                ps.setString(4, from.name());
+                                ps.setInt(5, expected);
+                                ps.setInt(6, expected);
+                                ps.addBatch();
+                            }
+                            int[] batch = ps.executeBatch();
+                            for (int k = start; k < end; k++) counts[order[k]] = batch[k - start];
+                        }
+                    }
+                }
+                Map<Integer, GrievanceSummary> current = selectVersions(conn, ids);
+                classify(ids, expectedVersions, target, counts, current, results);
+                if (OUTBOX_ENABLED) {
+                    Timestamp at = resolvedAt != null ? resolvedAt : new Timestamp(System.currentTimeMillis());
+                    List<GrievanceEvent> events = new ArrayList<>();
+                    for (StatusTransition result : results) {
+                        if (!result.isApplied()) continue;
+                        int owner = current.get(result.getGrievanceId()).getUserId();
+                        events.add(GrievanceEvent.statusChanged(result.getGrievanceId(), owner, from.name(), target.name(), at));
+                    }
+                    EventOutboxDAO.insertEvents(conn, events);
+                }
+                conn.commit();
+            } finally {
+                DBUtil.endTransaction(conn, autoCommit);
+            }
+        } catch (SQLException e) {
+            System.err.println("Database error changing grievance status: " + e.getMessage());
+            results.clear();
+            for (int id : ids) results.add(StatusTransition.failed(id));
+            return results;
+        }
+
+        for (StatusTransition result : results) {
+            if (!result.isApplied()) continue;
+            for (GrievanceListener listener : listeners) {
+                listener.onStatusChanged(result.getGrievanceId(), from.name(), target.name());
+            }
+        }
+        return results;
+    }
+
+    /** Works out each ID's outcome from its batch update count and the row as it is now. */
+    private static void classify(int[] ids, int[] expectedVersions, GrievanceStatus target, int[] counts,
+                                 Map<Integer, GrievanceSummary> current, List<StatusTransition> results) {
+        GrievanceStatus from = target.predecessor();
+        for (int i = 0; i < ids.length; i++) {
+            GrievanceSummary row = current.get(ids[i]);
+            int expected = expectedVersions != null ? expectedVersions[i] : StatusTransition.ANY_VERSION;
+            if (row == null) {
+                results.add(StatusTransition.notFound(ids[i]));
+                continue;
+            }
+            Outcome outcome;
+            if (counts[i] > 0 || (counts[i] == Statement.SUCCESS_NO_INFO && target.name().equals(row.getStatus()))) {
+                outcome = Outcome.APPLIED;
+            } else if (from != null && from.name().equals(row.getStatus()) && expected >= 0 && row.getVersion() != expected) {
+                outcome = Outcome.VERSION_CONFLICT;
             } else {
-                 ps.setTimestamp(2, null); // Set to null for OPEN or IN_PROGRESS
+                outcome = Outcome.ILLEGAL_TRANSITION;
             }
+            results.add(new StatusTransition(ids[i], outcome, row.getStatus(), row.getVersion()));
+        }
+    }
 
-            ps.setInt(3, grievanceId);
+    /**
+     * @return owner, status and version (in a summary) of each of the IDs that exists, keyed by ID.
+     * Archived grievances are included, so a transition on one is reported as illegal rather than not found.
+     */
+    private static Map<Integer, GrievanceSummary> selectVersions(Connection conn, int[] ids) throws SQLException {
+        Map<Integer, GrievanceSummary> byId = new HashMap<>(ids.length * 2);
+        selectVersions(conn, "grievances", ids, byId);
+        if (ARCHIVE_ENABLED && byId.size() < ids.length) selectVersions(conn, ARCHIVE_TABLE, ids, byId);
+        return byId;
+    }
 
-            int rowsAffected = ps.executeUpdate();
-            return rowsAffected > 0;
+    private static void selectVersions(Connection conn, String table, int[] ids, Map<Integer, GrievanceSummary> byId)
+            throws SQLException {
+        for (int start = 0; start < ids.length; start += BATCH_SIZE) {
+            int end = Math.min(ids.length, start + BATCH_SIZE);
+            String sql = "SELECT id, user_id, status, version FROM " + table + " WHERE id IN " + placeholders(end - start);
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                for (int i = start; i < end; i++) {
+                    ps.setInt(i - start + 1, ids[i]);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        GrievanceSummary row = new GrievanceSummary();
+                        row.setId(rs.getInt("id"));
+                        row.setUserId(rs.getInt("user_id"));
+                        row.setStatus(rs.getString("status"));
+                        row.setVersion(rs.getInt("version"));
+                        byId.putIfAbsent(row.getId(), row);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean setPriority(int grievanceId, int priority) {
+        try (Connection conn = DBUtil.getConnection()) {
+            boolean updated = updatePriority(conn, UPDATE_PRIORITY, grievanceId, priority)
+                    || (ARCHIVE_ENABLED && updatePriority(conn, UPDATE_ARCHIVED_PRIORITY, grievanceId, priority));
+            if (!updated) return false;
         } catch (SQLException e) {
-            System.err.println("Database error updating grievance status: " + e.getMessage());
+            System.err.println("Database error setting grievance priority: " + e.getMessage());
             return false;
-        } finally {
-            closeResources(null, ps, conn);
         }
+        for (GrievanceListener listener : listeners) {
+            listener.onPriorityChanged(grievanceId, priority);
+        }
+        return true;
+    }
+
+    private static boolean updatePriority(Connection conn, String sql, int grievanceId, int priority) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, priority);
+            ps.setInt(2, grievanceId);
+            return ps.executeUpdate() > 0;
+        }
+    }
+
+    // --- ARCHIVE ---
+    /** @return whether reads include {@code grievances_archive} ({@code archive.enabled}). */
+    public static boolean isArchiveEnabled() {
+        return ARCHIVE_ENABLED;
+    }
+
+    /** @return the archive horizon in epoch millis: nothing created or resolved after it is ever archived. */
+    private static long archiveHorizon() {
+        return System.currentTimeMillis() - ARCHIVE_AFTER_MILLIS;
+    }
+
+    /**
+     * Moves up to {@code limit} grievances resolved before the archive horizon into the archive,
+     * oldest resolution first, in one transaction. Rows locked by other transactions are skipped
+     * and picked up by a later batch.
+     * @return how many grievances were moved, or -1 if the move failed and was rolled back.
+     */
+    public int archiveResolved(int limit) {
+        Timestamp cutoff = new Timestamp(archiveHorizon());
+        try (Connection conn = DBUtil.getConnection()) {
+            boolean autoCommit = DBUtil.beginTransaction(conn);
+            try {
+                List<Integer> ids = new ArrayList<>(limit);
+                try (PreparedStatement ps = conn.prepareStatement(SELECT_ARCHIVABLE)) {
+                    ps.setTimestamp(1, cutoff);
+                    ps.setTimestamp(2, cutoff);
+                    ps.setInt(3, limit);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) ids.add(rs.getInt(1));
+                    }
+                }
+                int moved = 0;
+                if (!ids.isEmpty()) {
+                    String in = placeholders(ids.size());
+                    try (PreparedStatement copy = conn.prepareStatement("INSERT INTO " + ARCHIVE_TABLE + " (" + ARCHIVE_COLUMNS
+                                + ") SELECT " + ARCHIVE_COLUMNS + " FROM grievances WHERE id IN " + in);
+                         PreparedStatement delete = conn.prepareStatement("DELETE FROM grievances WHERE id IN " + in)) {
+                        for (int i = 0; i < ids.size(); i++) {
+                            copy.setInt(i + 1, ids.get(i));
+                            delete.setInt(i + 1, ids.get(i));
+                        }
+                        copy.executeUpdate();
+                        moved = delete.executeUpdate();
+                    }
+                }
+                conn.commit();
+                synchronized (archiveCountLock) {
+                    if (archivedCount >= 0) archivedCount += moved;
+                }
+                return moved;
+            } finally {
+                DBUtil.endTransaction(conn, autoCommit);
+            }
+        } catch (SQLException e) {
+            System.err.println("Database error archiving grievances: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Splits yearly partitions off the archive's catch-all {@code p_future} partition until there is
+     * one for the year the archive horizon is in, so archived rows never pile up in {@code p_future}.
+     * Partition bounds are UTC year starts. Does nothing if the archive table is not partitioned.
+     * @return how many partitions were added.
+     */
+    public int ensureArchivePartitions() {
+        long horizonSeconds = archiveHorizon() / 1000;
+        int added = 0;
+        try (Connection conn = DBUtil.getConnection()) {
+            long bound = -1;
+            boolean catchAll = false;
+            try (PreparedStatement ps = conn.prepareStatement(SELECT_ARCHIVE_PARTITIONS);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String description = rs.getString(1);
+                    if ("MAXVALUE".equalsIgnoreCase(description)) {
+                        catchAll = true;
+                    } else {
+                        bound = Math.max(bound, Long.parseLong(description));
+                    }
+                }
+            }
+            if (!catchAll || bound < 0) return 0;
+
+            try (Statement st = conn.createStatement()) {
+                while (bound <= horizonSeconds) {
+                    int year = LocalDateTime.ofEpochSecond(bound, 0, ZoneOffset.UTC).getYear();
+                    long next = LocalDate.of(year + 1, 1, 1).atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+                    st.executeUpdate("ALTER TABLE " + ARCHIVE_TABLE + " REORGANIZE PARTITION p_future INTO ("
+                            + "PARTITION p" + year + " VALUES LESS THAN (" + next + "),"
+                            + " PARTITION p_future VALUES LESS THAN MAXVALUE)");
+                    bound = next;
+                    added++;
+                }
+            }
+        } catch (SQLException | NumberFormatException e) {
+            System.err.println("Database error adding archive partitions: " + e.getMessage());
+        }
+        return added;
+    }
+
+    /**
+     * @return grievances in the archive. The count is re-read at most every {@code archive.countCacheSeconds};
+     * in between, batches archived by this process keep it current.
+     */
+    private int archivedCount() {
+        long now = System.currentTimeMillis();
+        synchronized (archiveCountLock) {
+            if (archivedCount >= 0 && now - archivedCountAt < ARCHIVE_COUNT_TTL_MILLIS) return (int) archivedCount;
+        }
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(COUNT_ARCHIVED);
+             ResultSet rs = ps.executeQuery()) {
+            long count = rs.next() ? rs.getLong(1) : 0;
+            synchronized (archiveCountLock) {
+                archivedCount = count;
+                archivedCountAt = now;
+            }
+            return (int) count;
+        } catch (SQLException e) {
+            System.err.println("Database error counting archived grievances: " + e.getMessage());
+            synchronized (archiveCountLock) {
+                return (int) Math.max(0, archivedCount);
+            }
+        }
+    }
+
+    // --- WORK QUEUE ---
+    /**
+     * Picks the rows with {@code SELECT ... FOR UPDATE SKIP LOCKED} and stamps them in the same
+     * transaction, so concurrent managers each get different rows without waiting on one another.
+     */
+    @Override
+    public List<GrievanceSummary> claimNext(int managerId, int count, ClaimOrder order, int leaseSeconds) {
+        List<GrievanceSummary> claimed = new ArrayList<>();
+        if (count <= 0) return claimed;
+        count = Math.min(count, MAX_CLAIM);
+
+        try (Connection conn = DBUtil.getConnection()) {
+            boolean autoCommit = DBUtil.beginTransaction(conn);
+            try {
+                try (PreparedStatement ps = conn.prepareStatement(
+                        order == ClaimOrder.PRIORITY ? SELECT_CLAIMABLE_PRIORITY : SELECT_CLAIMABLE_OLDEST)) {
+                    ps.setInt(1, count);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            claimed.add(extractSummaryFromResultSet(rs));
+                        }
+                    }
+                }
+                if (!claimed.isEmpty()) {
+                    try (PreparedStatement ps = conn.prepareStatement(SET_LEASE + placeholders(claimed.size()))) {
+                        ps.setInt(1, managerId);
+                        ps.setInt(2, leaseSeconds);
+                        for (int i = 0; i < claimed.size(); i++) {
+                            ps.setInt(i + 3, claimed.get(i).getId());
+                        }
+                        ps.executeUpdate();
+                    }
+                }
+                conn.commit();
+            } finally {
+                DBUtil.endTransaction(conn, autoCommit);
+            }
+        } catch (SQLException e) {
+            System.err.println("Database error claiming grievances: " + e.getMessage());
+            return new ArrayList<>();
+        }
+        return claimed;
+    }
+
+    @Override
+    public int renewClaims(int managerId, int[] ids, int leaseSeconds) {
+        if (ids.length == 0) return 0;
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(RENEW_LEASE + placeholders(ids.length))) {
+            ps.setInt(1, leaseSeconds);
+            ps.setInt(2, managerId);
+            for (int i = 0; i < ids.length; i++) {
+                ps.setInt(i + 3, ids[i]);
+            }
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Database error renewing grievance claims: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    @Override
+    public int releaseClaims(int managerId, int[] ids) {
+        if (ids.length == 0) return 0;
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(RELEASE_LEASE + placeholders(ids.length))) {
+            ps.setInt(1, managerId);
+            for (int i = 0; i < ids.length; i++) {
+                ps.setInt(i + 2, ids[i]);
+            }
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Database error releasing grievance claims: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    @Override
+    public List<GrievanceSummary> getClaimedBy(int managerId) {
+        List<GrievanceSummary> grievances = new ArrayList<>();
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SELECT_CLAIMED_BY)) {
+            ps.setInt(1, managerId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    grievances.add(extractSummaryFromResultSet(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Database error retrieving claimed grievances: " + e.getMessage());
+        }
+        return grievances;
     }
 
 
     // --- Utility Methods ---
 
-    private Grievance extractGrievanceFromResultSet(ResultSet rs) throws SQLException {
+    /** @return the read queries with representative parameters, for {@link QueryPlans}. */
+    static List<QueryPlans.Sample> explainSamples() {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        Timestamp monthAgo = new Timestamp(now.getTime() - 30L * 24 * 60 * 60 * 1000);
+        Timestamp horizon = new Timestamp(archiveHorizon());
+        return Arrays.asList(
+                new QueryPlans.Sample("Grievance by ID", SELECT_GRIEVANCE_BY_ID, 1),
+                new QueryPlans.Sample("All grievances, first page", SELECT_PAGE_FIRST, 20),
+                new QueryPlans.Sample("All grievances, next page", SELECT_PAGE_AFTER, now, now, Integer.MAX_VALUE, 20),
+                new QueryPlans.Sample("All grievances, unpaged", SELECT_ALL_GRIEVANCES),
+                new QueryPlans.Sample("User's grievances", SELECT_BY_USER, 2),
+                new QueryPlans.Sample("User's grievances, first page", SELECT_USER_PAGE_FIRST, 2, 20),
+                new QueryPlans.Sample("User's grievances, next page", SELECT_USER_PAGE_AFTER, 2, now, now, Integer.MAX_VALUE, 20),
+                new QueryPlans.Sample("By status", SELECT_BY_STATUS, "OPEN", 20),
+                new QueryPlans.Sample("By status, before", SELECT_BY_STATUS_BEFORE, "OPEN", now, 20),
+                new QueryPlans.Sample("Status counts", SELECT_STATUS_SUMMARY),
+                new QueryPlans.Sample("Queue, oldest first", SELECT_CLAIMABLE_OLDEST, 10),
+                new QueryPlans.Sample("Queue, by priority", SELECT_CLAIMABLE_PRIORITY, 10),
+                new QueryPlans.Sample("Claimed by manager", SELECT_CLAIMED_BY, 3),
+                new QueryPlans.Sample("Timeline after ID", SELECT_TIMELINE_AFTER_ID, 0),
+                new QueryPlans.Sample("Timeline resolved since", SELECT_TIMELINE_RESOLVED_SINCE, monthAgo),
+                new QueryPlans.Sample("Timeline unresolved", SELECT_TIMELINE_UNRESOLVED),
+                new QueryPlans.Sample("Search (FULLTEXT)", SEARCH_FULLTEXT, "salary", "salary", 20, 0),
+                new QueryPlans.Sample("Archivable", SELECT_ARCHIVABLE, horizon, horizon, 1000),
+                new QueryPlans.Sample("Archive: grievance by ID", archived(SELECT_GRIEVANCE_BY_ID), 1),
+                new QueryPlans.Sample("Archive: user's grievances", archived(SELECT_BY_USER), 2));
+    }
+
+    /** @return the same SELECT against the archive, which has every column the read paths use. */
+    private static String archived(String sql) {
+        return sql.replace(" FROM grievances ", " FROM " + ARCHIVE_TABLE + " ");
+    }
+
+    /**
+     * Merges two lists sorted by {@code order}, keeping at most {@code limit} rows. A row in both
+     * (moved to the archive between the two reads) is kept once.
+     */
+    private static <T> List<T> mergeSorted(List<T> a, List<T> b, Comparator<? super T> order, int limit) {
+        if (b.isEmpty()) return a.size() > limit ? new ArrayList<>(a.subList(0, limit)) : a;
+        List<T> merged = new ArrayList<>(Math.min(limit, a.size() + b.size()));
+        int i = 0, j = 0;
+        while (merged.size() < limit && (i < a.size() || j < b.size())) {
+            int c = i == a.size() ? 1 : j == b.size() ? -1 : order.compare(a.get(i), b.get(j));
+            merged.add(c <= 0 ? a.get(i) : b.get(j));
+            if (c <= 0) i++;
+            if (c >= 0) j++;
+        }
+        return merged;
+    }
+
+    /** @return {@code (?, ?, ...)} with {@code count} placeholders, for an IN list. */
+    private static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder(count * 3 + 2).append('(');
+        for (int i = 0; i < count; i++) {
+            sb.append(i == 0 ? "?" : ", ?");
+        }
+        return sb.append(')').toString();
+    }
+
+    Grievance extractGrievanceFromResultSet(ResultSet rs) throws SQLException {
         Grievance grievance = new Grievance();
         grievance.setId(rs.getInt("id"));
         grievance.setUserId(rs.getInt("user_id"));
@@ -177,9 +1330,24 @@ public class GrievanceDAO {
         grievance.setStatus(rs.getString("status"));
         grievance.setCreatedAt(rs.getTimestamp("created_at"));
         grievance.setResolvedAt(rs.getTimestamp("resolved_at"));
+        grievance.setVersion(rs.getInt("version"));
+        grievance.setPriority(rs.getInt("priority"));
         return grievance;
     }
 
+    private GrievanceSummary extractSummaryFromResultSet(ResultSet rs) throws SQLException {
+        GrievanceSummary summary = new GrievanceSummary();
+        summary.setId(rs.getInt("id"));
+        summary.setUserId(rs.getInt("user_id"));
+        summary.setTitle(rs.getString("title"));
+        summary.setStatus(rs.getString("status"));
+        summary.setCreatedAt(rs.getTimestamp("created_at"));
+        summary.setResolvedAt(rs.getTimestamp("resolved_at"));
+        summary.setVersion(rs.getInt("version"));
+        summary.setPriority(rs.getInt("priority"));
+        return summary;
+    }
+
     private void closeResources(ResultSet rs, PreparedStatement ps, Connection conn) {
         try {
             if (rs != null) rs.close();
@@ -0,0 +1,29 @@
+package com.grievance.dao;
+
+import com.grievance.model.Grievance;
+
+/**
+ * Callback for in-process components (indexes, caches) that must follow grievance writes.
+ * Listeners run on the writing thread after the change has been committed, so they should be quick.
+ */
+public interface GrievanceListener {
+
+    /**
+     * Called after a grievance has been inserted.
+     * @param grievance the new grievance, with its generated ID set.
+     */
+    default void onCreated(Grievance grievance) {}
+
+    /**
+     * Called after a grievance's status has been changed.
+     * @param grievanceId the grievance that changed.
+     * @param oldStatus the status before the update.
+     * @param newStatus the status after the update.
+     */
+    default void onStatusChanged(int grievanceId, String oldStatus, String newStatus) {}
+
+    /**
+     * Called after a grievance's work-queue priority has been set.
+     */
+    default void onPriorityChanged(int grievanceId, int priority) {}
+}
@@ -0,0 +1,169 @@
+package com.grievance.dao;
+
+import com.grievance.model.ClaimOrder;
+import com.grievance.model.Grievance;
+import com.grievance.model.GrievanceStatus;
+import com.grievance.model.GrievanceSummary;
+import com.grievance.model.Page;
+import com.grievance.model.PageCursor;
+import com.grievance.model.StatusTransition;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Grievance storage operations, independent of where the rows live.
+ * <p>
+ * {@link GrievanceDAO} implements this over MySQL; {@code com.grievance.embedded} provides an
+ * in-process implementation. {@link Storage#grievances()} returns the configured one.
+ * Failures are reported the way the DAO always has: a message on stderr and a null, false or empty result.
+ */
+public interface GrievanceRepository {
+
+    // --- LISTENERS ---
+    /** Registers a component to be told about committed grievance writes. */
+    void addListener(GrievanceListener listener);
+
+    void removeListener(GrievanceListener listener);
+
+    // --- CREATE ---
+    /**
+     * @param grievance the grievance to store; its ID, status and created_at are filled in.
+     * @return the same grievance, now matching the stored row, or null if the insert failed.
+     */
+    Grievance createGrievance(Grievance grievance);
+
+    /** Inserts many grievances with the configured batch size. */
+    int[] createGrievances(Collection<Grievance> grievances);
+
+    /**
+     * Inserts many grievances, committing every {@code batchSize} rows together.
+     * @return generated IDs of the committed rows, in input order (shorter than the input if a chunk failed).
+     */
+    int[] createGrievances(Collection<Grievance> grievances, int batchSize);
+
+    /**
+     * Same as {@link #createGrievances(Collection, int)}, but a failed chunk is reported rather than printed.
+     * @return generated IDs of all rows, in input order.
+     * @throws BatchInsertException if a chunk failed; it carries the IDs committed before it and whether
+     *         the failure is permanent for those rows.
+     */
+    int[] insertGrievances(Collection<Grievance> grievances, int batchSize) throws BatchInsertException;
+
+    // --- READ ---
+    /** @return the full grievance, including its description, or null. */
+    Grievance getGrievanceById(int grievanceId);
+
+    /** @return summaries in the same order as {@code ids}; missing IDs are skipped. */
+    List<GrievanceSummary> getGrievanceSummariesByIds(int[] ids);
+
+    /** @return a summary of every grievance, newest first. */
+    List<GrievanceSummary> getAllGrievances();
+
+    /** @return a summary of every grievance raised by the user, newest first. */
+    List<GrievanceSummary> getGrievancesByUserId(int userId);
+
+    /**
+     * One page of all grievances ordered by (created_at, id) descending.
+     * @param after cursor from the previous page, or null for the first page.
+     */
+    Page<GrievanceSummary> getGrievancesPage(PageCursor after, int pageSize);
+
+    /** One page of a user's grievances, newest first. */
+    Page<GrievanceSummary> getGrievancesPageByUserId(int userId, PageCursor after, int pageSize);
+
+    /**
+     * Grievances in one status, oldest first, for aging reports.
+     * @param createdBefore only grievances created before this time, or null for any age.
+     */
+    List<GrievanceSummary> getGrievancesByStatus(GrievanceStatus status, Timestamp createdBefore, int limit);
+
+    // --- STREAMS ---
+    /** Every grievance including its description, newest first. Close the stream when done. */
+    Stream<Grievance> streamAllGrievances() throws SQLException;
+
+    /**
+     * Grievances including descriptions, in ID order, for exports.
+     * @param status only grievances in this status, or null for any.
+     * @param createdFrom only grievances created at or after this time, or null.
+     * @param createdTo only grievances created before this time, or null.
+     */
+    Stream<Grievance> streamGrievances(GrievanceStatus status, Timestamp createdFrom, Timestamp createdTo)
+            throws SQLException;
+
+    /** Summary columns of every grievance in ID order. */
+    Stream<GrievanceSummary> streamSummaries() throws SQLException;
+
+    /** Timeline columns (title left null) of every grievance in ID order. */
+    Stream<GrievanceSummary> streamTimeline() throws SQLException;
+
+    /** Timeline of grievances inserted after the given ID, in ID order. */
+    Stream<GrievanceSummary> streamTimelineAfterId(int afterId) throws SQLException;
+
+    /** Timeline of grievances resolved at or after the given time, oldest resolution first. */
+    Stream<GrievanceSummary> streamTimelineResolvedSince(Timestamp since) throws SQLException;
+
+    /** Timeline of every grievance not yet resolved. */
+    Stream<GrievanceSummary> streamTimelineUnresolved() throws SQLException;
+
+    // --- SEARCH ---
+    List<GrievanceSummary> searchGrievances(String keyword);
+
+    /**
+     * Searches title and description. Plain words are all required; {@code prefix*} and
+     * {@code -excluded} work everywhere, and MySQL also understands {@code "phrases"} and {@code +required}.
+     */
+    List<GrievanceSummary> searchGrievances(String query, int offset, int limit);
+
+    // --- COUNTS ---
+    int countByStatus(String status);
+
+    /** @return counts keyed by status; statuses with no grievances are present with 0. */
+    Map<GrievanceStatus, Integer> getStatusSummary();
+
+    // --- UPDATE ---
+    /**
+     * Moves a grievance to {@code newStatus} if that is the next step in its workflow, without a version check.
+     * @return true if the status was changed.
+     */
+    boolean updateGrievanceStatus(int grievanceId, String newStatus);
+
+    /**
+     * Moves a grievance one step along OPEN, IN_PROGRESS, RESOLVED.
+     * @param expectedVersion the version the caller last read, or {@link StatusTransition#ANY_VERSION}.
+     */
+    StatusTransition transitionStatus(int grievanceId, GrievanceStatus target, int expectedVersion);
+
+    /**
+     * Moves many grievances to {@code target} in one transaction. Each ID succeeds or fails on its own;
+     * the rest are still applied.
+     * @param expectedVersions versions parallel to {@code ids}, or null to skip the version check.
+     * @return one outcome per ID, in input order.
+     */
+    List<StatusTransition> transitionStatuses(int[] ids, int[] expectedVersions, GrievanceStatus target);
+
+    /** Sets the priority the work queue orders by; higher is claimed first. @return true if the grievance exists. */
+    boolean setPriority(int grievanceId, int priority);
+
+    // --- WORK QUEUE ---
+    /**
+     * Assigns up to {@code count} unclaimed OPEN grievances to a manager for {@code leaseSeconds}.
+     * Rows another manager is claiming at the same moment are skipped rather than waited for, and a
+     * claim whose lease has run out can be taken by anyone. Claimed grievances stay OPEN until the
+     * manager moves them on. At most {@code queue.maxClaim} are claimed per call, whatever {@code count} is.
+     * @return the claimed grievances in queue order (fewer than {@code count} if the queue ran dry).
+     */
+    List<GrievanceSummary> claimNext(int managerId, int count, ClaimOrder order, int leaseSeconds);
+
+    /** Extends the manager's claims on these OPEN grievances. @return how many were extended. */
+    int renewClaims(int managerId, int[] ids, int leaseSeconds);
+
+    /** Returns the manager's claims on these OPEN grievances to the queue. @return how many were released. */
+    int releaseClaims(int managerId, int[] ids);
+
+    /** @return the OPEN grievances the manager holds an unexpired claim on, oldest first. */
+    List<GrievanceSummary> getClaimedBy(int managerId);
+}
@@ -0,0 +1,120 @@
+package com.grievance.dao;
+
+import com.grievance.util.AppConfig;
+import com.grievance.util.DBUtil;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Turns a forward-only {@link ResultSet} into a lazily-fetched {@link Stream}.
+ * <p>
+ * Rows are pulled from the driver one at a time as the stream is consumed, so memory use does
+ * not depend on the size of the result. The connection, statement and result set stay open until
+ * the stream is closed; always consume these streams in a try-with-resources block.
+ */
+final class JdbcStreams {
+
+    /**
+     * MySQL Connector/J only streams rows one by one when the fetch size is Integer.MIN_VALUE;
+     * any other value buffers the complete result in the client unless useCursorFetch=true is set.
+     */
+    static final int STREAM_FETCH_SIZE = AppConfig.getInt("db.stream.fetchSize", Integer.MIN_VALUE);
+
+    /** Binds parameters onto a prepared statement. */
+    @FunctionalInterface
+    interface Binder {
+        void bind(PreparedStatement ps) throws SQLException;
+    }
+
+    private JdbcStreams() {}
+
+    static <T> Stream<T> stream(String sql, Binder binder, RowMapper<T> mapper) throws SQLException {
+        // Streams keep their result set open, so they never share a session's connection
+        Connection conn = DBUtil.getDedicatedConnection();
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            if (binder != null) binder.bind(ps);
+            rs = ps.executeQuery();
+        } catch (SQLException | RuntimeException e) {
+            close(rs, ps, conn);
+            throw e;
+        }
+
+        final Connection c = conn;
+        final PreparedStatement s = ps;
+        final ResultSet r = rs;
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!r.next()) return false;
+                    action.accept(mapper.map(r));
+                    return true;
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Database error while streaming rows: " + e.getMessage(), e);
+                }
+            }
+        };
+        return StreamSupport.stream(rows, false).onClose(() -> close(r, s, c));
+    }
+
+    /**
+     * Merges two streams that are each sorted by {@code order} into one sorted stream, pulling rows
+     * from whichever side has the next one. Rows that compare equal are the same row read from both
+     * sides (moved between tables while the reads ran) and are returned once. Closing the result
+     * closes both streams.
+     */
+    static <T> Stream<T> merge(Stream<T> first, Stream<T> second, Comparator<? super T> order) {
+        Iterator<T> a = first.iterator();
+        Iterator<T> b = second.iterator();
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            private T nextA;
+            private T nextB;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                if (nextA == null && a.hasNext()) nextA = a.next();
+                if (nextB == null && b.hasNext()) nextB = b.next();
+                if (nextA == null && nextB == null) return false;
+                int c = nextA == null ? 1 : nextB == null ? -1 : order.compare(nextA, nextB);
+                T row = c <= 0 ? nextA : nextB;
+                if (c <= 0) nextA = null;
+                if (c >= 0) nextB = null;
+                action.accept(row);
+                return true;
+            }
+        };
+        return StreamSupport.stream(rows, false).onClose(() -> {
+            try {
+                first.close();
+            } finally {
+                second.close();
+            }
+        });
+    }
+
+    private static void close(ResultSet rs, PreparedStatement ps, Connection conn) {
+        try {
+            if (rs != null) rs.close();
+            if (ps != null) ps.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing resources: " + e.getMessage());
+        } finally {
+            DBUtil.closeConnection(conn);
+        }
+    }
+}
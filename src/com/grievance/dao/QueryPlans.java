@@ -0,0 +1,109 @@
+package com.grievance.dao;
+
+import com.grievance.util.DBUtil;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prints MySQL's {@code EXPLAIN} plan for each read query the DAOs issue, with representative
+ * parameters, to check that the schema's indexes serve them.
+ * <p>
+ * A plan that sorts ({@code Using filesort}) or builds a temporary table is flagged; listings are
+ * expected to read an index range already in order and stop at the page size. Run it with
+ * {@code GrievanceSystemCLI --explain} after changing a query or a migration.
+ */
+public final class QueryPlans {
+
+    private static final String[] COLUMNS = { "table", "type", "key", "rows", "filtered", "Extra" };
+    private static final int[] WIDTHS = { 20, 7, 24, 8, 8, 0 };
+
+    private QueryPlans() {}
+
+    /** A DAO query and sample parameters to explain it with. */
+    static final class Sample {
+        final String name;
+        final String sql;
+        final Object[] params;
+
+        Sample(String name, String sql, Object... params) {
+            this.name = name;
+            this.sql = sql;
+            this.params = params;
+        }
+    }
+
+    /**
+     * Explains every sample query of {@link GrievanceDAO} and {@link UserDAO}.
+     * @return names of the queries whose plan sorts, uses a temporary table, or could not be explained.
+     */
+    public static List<String> print(PrintStream out) {
+        List<Sample> samples = new ArrayList<>(GrievanceDAO.explainSamples());
+        samples.addAll(UserDAO.explainSamples());
+
+        List<String> flagged = new ArrayList<>();
+        for (Sample sample : samples) {
+            out.println(sample.name);
+            out.println("  " + sample.sql);
+            try {
+                if (explain(sample, out)) flagged.add(sample.name);
+            } catch (SQLException e) {
+                out.println("  EXPLAIN failed: " + e.getMessage());
+                flagged.add(sample.name);
+            }
+            out.println();
+        }
+        out.println(samples.size() - flagged.size() + " of " + samples.size() + " queries run without a sort or temporary table.");
+        if (!flagged.isEmpty()) out.println("Check: " + String.join("; ", flagged));
+        return flagged;
+    }
+
+    /** @return true if the plan sorts or uses a temporary table. */
+    private static boolean explain(Sample sample, PrintStream out) throws SQLException {
+        boolean flagged = false;
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement("EXPLAIN " + sample.sql)) {
+            for (int i = 0; i < sample.params.length; i++) {
+                ps.setObject(i + 1, sample.params[i]);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                out.println("  " + row(COLUMNS));
+                while (rs.next()) {
+                    String[] values = new String[COLUMNS.length];
+                    for (int i = 0; i < COLUMNS.length; i++) {
+                        values[i] = value(rs, COLUMNS[i]);
+                    }
+                    String extra = values[COLUMNS.length - 1];
+                    boolean sorts = extra.contains("Using filesort") || extra.contains("Using temporary");
+                    out.println((sorts ? "! " : "  ") + row(values));
+                    flagged |= sorts;
+                }
+            }
+        }
+        return flagged;
+    }
+
+    private static String value(ResultSet rs, String column) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+            if (meta.getColumnLabel(i).equalsIgnoreCase(column)) {
+                String value = rs.getString(i);
+                return value == null ? "" : value;
+            }
+        }
+        return "";
+    }
+
+    private static String row(String[] values) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            sb.append(WIDTHS[i] == 0 ? values[i] : String.format("%-" + WIDTHS[i] + "s ", values[i]));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,133 @@
+package com.grievance.dao;
+
+import com.grievance.embedded.EmbeddedEventOutbox;
+import com.grievance.embedded.EmbeddedGrievanceRepository;
+import com.grievance.embedded.EmbeddedStore;
+import com.grievance.embedded.EmbeddedUserRepository;
+import com.grievance.events.EventOutbox;
+import com.grievance.metrics.DaoMetrics;
+import com.grievance.metrics.MetricsProxy;
+import com.grievance.util.AppConfig;
+import com.grievance.util.PasswordHasher;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * Chooses the storage engine from {@code storage.engine} in grievance.properties.
+ * <ul>
+ *   <li>{@code mysql} (default): {@link GrievanceDAO} and {@link UserDAO} over JDBC.</li>
+ *   <li>{@code embedded}: an in-process store under {@code storage.embedded.dir}, for load tests and
+ *       deployments without a database server. An {@code admin} account is created on first start.</li>
+ * </ul>
+ * The repositories are created once and shared by every caller in the process. Unless
+ * {@code metrics.enabled=false}, they are wrapped in a {@link MetricsProxy} so every call is recorded
+ * in {@link DaoMetrics}.
+ * <p>
+ * Both engines record grievance events in an outbox (see {@link #events()}) unless
+ * {@code events.outbox.enabled=false}.
+ */
+public final class Storage {
+
+    public static final String MYSQL = "mysql";
+    public static final String EMBEDDED = "embedded";
+
+    private static String engine;
+    private static GrievanceRepository grievances;
+    private static UserRepository users;
+    private static EventOutbox events;
+    private static GrievanceDAO jdbcGrievances;
+    private static EmbeddedStore embeddedStore;
+
+    private Storage() {}
+
+    public static synchronized GrievanceRepository grievances() {
+        init();
+        return grievances;
+    }
+
+    public static synchronized UserRepository users() {
+        init();
+        return users;
+    }
+
+    /** @return the outbox that the grievance repository writes its events to. */
+    public static synchronized EventOutbox events() {
+        init();
+        return events;
+    }
+
+    /** @return {@link #MYSQL} or {@link #EMBEDDED}. */
+    public static synchronized String getEngine() {
+        init();
+        return engine;
+    }
+
+    public static boolean isEmbedded() {
+        return EMBEDDED.equals(getEngine());
+    }
+
+    /**
+     * @return the MySQL DAO behind {@link #grievances()}, for setup that only applies to it
+     *         (e.g. attaching a search index), or null when the embedded engine is in use.
+     */
+    public static synchronized GrievanceDAO jdbcGrievances() {
+        init();
+        return jdbcGrievances;
+    }
+
+    private static void init() {
+        if (engine != null) return;
+        String configured = AppConfig.getString("storage.engine", MYSQL).trim().toLowerCase(Locale.ROOT);
+        switch (configured) {
+            case MYSQL:
+                jdbcGrievances = new GrievanceDAO();
+                grievances = jdbcGrievances;
+                users = new UserDAO();
+                events = new EventOutboxDAO();
+                break;
+            case EMBEDDED:
+                openEmbedded();
+                break;
+            default:
+                throw new IllegalStateException("Unknown storage.engine '" + configured + "' (expected mysql or embedded)");
+        }
+        if (DaoMetrics.isEnabled()) {
+            grievances = MetricsProxy.wrap(GrievanceRepository.class, grievances);
+            users = MetricsProxy.wrap(UserRepository.class, users);
+            events = MetricsProxy.wrap(EventOutbox.class, events);
+            DaoMetrics.registerMBean();
+        }
+        engine = configured;
+    }
+
+    private static void openEmbedded() {
+        try {
+            embeddedStore = EmbeddedStore.open(Paths.get(AppConfig.getString("storage.embedded.dir", "data")),
+                    AppConfig.getBoolean("storage.embedded.fsync", true),
+                    AppConfig.getLong("storage.embedded.snapshotBytes", 64L * 1024 * 1024));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open embedded store: " + e.getMessage(), e);
+        }
+        embeddedStore.setEventsEnabled(AppConfig.getBoolean("events.outbox.enabled", true));
+        grievances = new EmbeddedGrievanceRepository(embeddedStore);
+        events = new EmbeddedEventOutbox(embeddedStore);
+        users = new EmbeddedUserRepository(embeddedStore, PasswordHasher.fromConfig());
+
+        if (users.getAllUsers().isEmpty()) {
+            String password = AppConfig.getString("storage.embedded.adminPassword", "admin123");
+            users.registerWithRole("admin", password, "ADMINISTRATOR");
+            System.out.println("Created administrator 'admin' in the new embedded store (password: storage.embedded.adminPassword).");
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(Storage::closeEmbedded, "embedded-store-shutdown"));
+    }
+
+    private static void closeEmbedded() {
+        try {
+            embeddedStore.close();
+        } catch (IOException e) {
+            System.err.println("Error closing embedded store: " + e.getMessage());
+        }
+    }
+}
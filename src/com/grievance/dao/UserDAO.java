@@ -1,81 +1,200 @@
 package com.grievance.dao;
 
+import com.grievance.cache.UserCache;
 import com.grievance.model.User;
 import com.grievance.util.DBUtil;
+import com.grievance.util.PasswordHasher;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Data Access Object for User-related database operations (Login, Register, Admin Management).
+ * <p>
+ * Passwords are stored as salted PBKDF2 hashes (see {@link PasswordHasher}). A login looks the user
+ * up by username, through a {@link UserCache}, and verifies the password in-process. Rows still holding
+ * a plaintext password, or a hash made with a different cost, are re-hashed on their next successful login.
  */
-public class UserDAO {
+public class UserDAO implements UserRepository {
 
-    private static final String SELECT_USER_BY_CREDENTIALS = "SELECT * FROM users WHERE username = ? AND password = ?";
-    private static final String INSERT_USER = "INSERT INTO users (username, password, role) VALUES (?, ?, ?)";
+    // Shared by every UserDAO built with the default constructor, so invalidation reaches all of them
+    private static final UserCache SHARED_CACHE = UserCache.fromConfig();
+
+    private static final String SELECT_USER_BY_USERNAME = "SELECT * FROM users WHERE username = ?";
+    private static final String SELECT_USER_BY_ID = "SELECT * FROM users WHERE id = ?";
+    private static final String UPDATE_PASSWORD = "UPDATE users SET password = ? WHERE id = ?";
+    // created_at is bound explicitly so the inserted row can be returned without a follow-up SELECT
+    private static final String INSERT_USER = "INSERT INTO users (username, password, role, created_at) VALUES (?, ?, ?, ?)";
     private static final String SELECT_ALL_USERS = "SELECT * FROM users ORDER BY id";
+    private static final String STREAM_USERS = "SELECT id, username, role, created_at FROM users ORDER BY id";
     private static final String UPDATE_USER_ROLE = "UPDATE users SET role = ? WHERE id = ?";
     private static final String DELETE_USER = "DELETE FROM users WHERE id = ?";
 
+    private final UserCache cache;
+    private final PasswordHasher hasher;
+    // Hash checked when the username does not exist, so unknown users take as long as wrong passwords
+    private volatile String dummyHash;
+
+    public UserDAO() {
+        this(SHARED_CACHE, PasswordHasher.fromConfig());
+    }
+
+    public UserDAO(UserCache cache, PasswordHasher hasher) {
+        this.cache = cache;
+        this.hasher = hasher;
+    }
+
     // --- LOGIN ---
+    /**
+     * @return the user if the credentials match, otherwise null.
+     */
+    @Override
     public User login(String username, String password) {
+        UserCache.Entry entry = findByUsername(username);
+        if (entry == null) {
+            hasher.verify(password == null ? "" : password, getDummyHash());
+            return null;
+        }
+        String stored = entry.getPasswordHash();
+        if (!hasher.verify(password, stored)) {
+            return null;
+        }
+
+        User user = entry.getUser();
+        if (hasher.needsRehash(stored)) {
+            upgradePassword(user.getId(), password);
+        }
+        return user;
+    }
+
+    // --- LOOKUPS (CACHED) ---
+    /**
+     * @return the user with this ID, or null if there is none.
+     */
+    @Override
+    public User getUserById(int userId) {
+        UserCache.Entry entry = cache.getById(userId);
+        if (entry == null) {
+            entry = loadUser(SELECT_USER_BY_ID, ps -> ps.setInt(1, userId));
+        }
+        return entry == null ? null : entry.getUser();
+    }
+
+    private UserCache.Entry findByUsername(String username) {
+        if (username == null) return null;
+        UserCache.Entry entry = cache.getByUsername(username);
+        if (entry == null) {
+            entry = loadUser(SELECT_USER_BY_USERNAME, ps -> ps.setString(1, username));
+        }
+        return entry;
+    }
+
+    private UserCache.Entry loadUser(String sql, JdbcStreams.Binder binder) {
         Connection conn = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
-        User user = null;
+        long version = cache.version();
 
         try {
             conn = DBUtil.getConnection();
-            ps = conn.prepareStatement(SELECT_USER_BY_CREDENTIALS);
-            ps.setString(1, username);
-            ps.setString(2, password);
-
+            ps = conn.prepareStatement(sql);
+            binder.bind(ps);
             rs = ps.executeQuery();
 
-            if (rs.next()) {
-                user = extractUserFromResultSet(rs);
-            }
+            if (!rs.next()) return null;
+            User user = extractUserFromResultSet(rs);
+            return cache.put(user, rs.getString("password"), version);
         } catch (SQLException e) {
-            System.err.println("Database error during login: " + e.getMessage());
+            System.err.println("Database error looking up user: " + e.getMessage());
+            return null;
         } finally {
             closeResources(rs, ps, conn);
         }
-        return user;
+    }
+
+    /** Replaces a plaintext or outdated hash after the password has been verified. */
+    private void upgradePassword(int userId, String password) {
+        Connection conn = null;
+        PreparedStatement ps = null;
+
+        try {
+            conn = DBUtil.getConnection();
+            ps = conn.prepareStatement(UPDATE_PASSWORD);
+            ps.setString(1, hasher.hash(password));
+            ps.setInt(2, userId);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            // Login still succeeds; the upgrade is retried next time
+            System.err.println("Database error upgrading password hash: " + e.getMessage());
+        } finally {
+            closeResources(null, ps, conn);
+            cache.invalidate(userId);
+        }
+    }
+
+    private String getDummyHash() {
+        String hash = dummyHash;
+        if (hash == null) {
+            hash = hasher.hash("not-a-real-password");
+            dummyHash = hash;
+        }
+        return hash;
     }
 
     // --- REGISTER ---
-    public boolean register(String username, String password) {
+    @Override
+    public User register(String username, String password) {
         return registerWithRole(username, password, "USER"); // Default role
     }
 
     // --- REGISTER WITH ROLE (ADMIN USES THIS) ---
-    public boolean registerWithRole(String username, String password, String role) {
+    /**
+     * Creates a user.
+     * @return the stored user (ID, username, role, created_at), or null if registration failed.
+     */
+    @Override
+    public User registerWithRole(String username, String password, String role) {
         Connection conn = null;
         PreparedStatement ps = null;
+        ResultSet keys = null;
+        // TIMESTAMP columns keep whole seconds; truncate so the object matches the stored value
+        Timestamp createdAt = new Timestamp(System.currentTimeMillis() / 1000 * 1000);
 
         try {
             conn = DBUtil.getConnection();
-            ps = conn.prepareStatement(INSERT_USER);
+            ps = conn.prepareStatement(INSERT_USER, Statement.RETURN_GENERATED_KEYS);
             ps.setString(1, username);
-            ps.setString(2, password);
+            ps.setString(2, hasher.hash(password));
             ps.setString(3, role);
+            ps.setTimestamp(4, createdAt);
 
             int rowsAffected = ps.executeUpdate();
-            return rowsAffected > 0;
+            if (rowsAffected == 0) return null;
+
+            keys = ps.getGeneratedKeys();
+            if (!keys.next()) return null;
 
+            User user = new User();
+            user.setId(keys.getInt(1));
+            user.setUsername(username);
+            user.setRole(role);
+            user.setCreatedAt(createdAt);
+            return user;
         } catch (SQLException e) {
             if (e.getErrorCode() == 1062) {
                 System.err.println("Error: Username '" + username + "' is already taken.");
             } else {
                 System.err.println("Database error during registration: " + e.getMessage());
             }
-            return false;
+            return null;
         } finally {
-            closeResources(null, ps, conn);
+            closeResources(keys, ps, conn);
         }
     }
 
     // --- GET ALL USERS ---
+    @Override
     public List<User> getAllUsers() {
         List<User> users = new ArrayList<>();
         Connection conn = null;
@@ -98,7 +217,17 @@ public class UserDAO {
         return users;
     }
 
+    /**
+     * Streams every user in ID order without reading the password column.
+     * The stream holds a connection until it is closed, so use try-with-resources.
+     */
+    @Override
+    public Stream<User> streamUsers() throws SQLException {
+        return JdbcStreams.stream(STREAM_USERS, null, this::extractUserFromResultSet);
+    }
+
     // --- UPDATE USER ROLE ---
+    @Override
     public boolean updateUserRole(int userId, String newRole) {
         Connection conn = null;
         PreparedStatement ps = null;
@@ -116,10 +245,12 @@ public class UserDAO {
             return false;
         } finally {
             closeResources(null, ps, conn);
+            cache.invalidate(userId);
         }
     }
 
     // --- DELETE USER ---
+    @Override
     public boolean deleteUser(int userId) {
         Connection conn = null;
         PreparedStatement ps = null;
@@ -136,10 +267,20 @@ public class UserDAO {
             return false;
         } finally {
             closeResources(null, ps, conn);
+            cache.invalidate(userId);
         }
     }
 
     // --- HELPER ---
+    /** @return the read queries with representative parameters, for {@link QueryPlans}. */
+    static List<QueryPlans.Sample> explainSamples() {
+        List<QueryPlans.Sample> samples = new ArrayList<>();
+        samples.add(new QueryPlans.Sample("User by username", SELECT_USER_BY_USERNAME, "admin"));
+        samples.add(new QueryPlans.Sample("User by ID", SELECT_USER_BY_ID, 1));
+        samples.add(new QueryPlans.Sample("All users", STREAM_USERS));
+        return samples;
+    }
+
     private User extractUserFromResultSet(ResultSet rs) throws SQLException {
         User user = new User();
         user.setId(rs.getInt("id"));
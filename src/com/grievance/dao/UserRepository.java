@@ -0,0 +1,34 @@
+package com.grievance.dao;
+
+import com.grievance.model.User;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * User storage and credential checks, independent of where the rows live.
+ * {@link UserDAO} implements this over MySQL. {@link Storage#users()} returns the configured implementation.
+ */
+public interface UserRepository {
+
+    /** @return the user if the credentials match, otherwise null. */
+    User login(String username, String password);
+
+    /** Creates a user with the USER role. */
+    User register(String username, String password);
+
+    /** @return the stored user (ID, username, role, created_at), or null if registration failed. */
+    User registerWithRole(String username, String password, String role);
+
+    /** @return the user with this ID, or null if there is none. */
+    User getUserById(int userId);
+
+    List<User> getAllUsers();
+
+    /** Every user (no password hashes) in ID order, fetched as consumed. Close the stream when done. */
+    Stream<User> streamUsers() throws SQLException;
+
+    boolean updateUserRole(int userId, String newRole);
+
+    boolean deleteUser(int userId);
+}
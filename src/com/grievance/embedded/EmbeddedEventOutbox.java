@@ -0,0 +1,55 @@
+package com.grievance.embedded;
+
+import com.grievance.events.EventOutbox;
+import com.grievance.model.GrievanceEvent;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * {@link EventOutbox} over an {@link EmbeddedStore}. The events themselves are appended by the
+ * store in the same journal write as the change they describe.
+ */
+public class EmbeddedEventOutbox implements EventOutbox {
+
+    private final EmbeddedStore store;
+
+    public EmbeddedEventOutbox(EmbeddedStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public List<GrievanceEvent> readAfter(long afterId, int limit) {
+        return store.eventsAfter(afterId, limit);
+    }
+
+    @Override
+    public long getLastEventId() {
+        return store.lastEventId();
+    }
+
+    @Override
+    public long getOffset(String consumer) {
+        return store.eventOffset(consumer);
+    }
+
+    @Override
+    public boolean saveOffset(String consumer, long eventId) {
+        try {
+            store.saveEventOffset(consumer, eventId);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Storage error saving event offset: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public int purgeUpTo(long eventId) {
+        try {
+            return store.purgeEvents(eventId);
+        } catch (IOException e) {
+            System.err.println("Storage error purging grievance events: " + e.getMessage());
+            return 0;
+        }
+    }
+}
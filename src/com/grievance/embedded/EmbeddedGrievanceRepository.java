@@ -0,0 +1,407 @@
+package com.grievance.embedded;
+
+import com.grievance.dao.BatchInsertException;
+import com.grievance.dao.GrievanceDAO;
+import com.grievance.dao.GrievanceListener;
+import com.grievance.dao.GrievanceRepository;
+import com.grievance.embedded.EmbeddedStore.GrievanceRow;
+import com.grievance.model.ClaimOrder;
+import com.grievance.model.Grievance;
+import com.grievance.model.GrievanceStatus;
+import com.grievance.model.GrievanceSummary;
+import com.grievance.model.Page;
+import com.grievance.model.PageCursor;
+import com.grievance.model.StatusTransition;
+import com.grievance.search.InvertedIndex;
+import com.grievance.util.AppConfig;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+/**
+ * {@link GrievanceRepository} over an {@link EmbeddedStore}, for running without a MySQL server.
+ * <p>
+ * Listings and counts come straight from the store's indexes. Search is answered by an
+ * {@link InvertedIndex} built when the repository is created and kept current through the
+ * listener hook, so the {@code "phrase"} and {@code +required} operators of MySQL boolean mode
+ * are not supported here.
+ */
+public class EmbeddedGrievanceRepository implements GrievanceRepository {
+
+    private static final int BATCH_SIZE = AppConfig.getInt("db.batch.size", 500);
+    private static final int MAX_CLAIM = Math.max(1, AppConfig.getInt("queue.maxClaim", 50));
+
+    private final EmbeddedStore store;
+    private final List<GrievanceListener> listeners = new CopyOnWriteArrayList<>();
+    private final InvertedIndex searchIndex;
+
+    public EmbeddedGrievanceRepository(EmbeddedStore store) {
+        this.store = store;
+        try {
+            this.searchIndex = InvertedIndex.build(this);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e); // the embedded streams never throw
+        }
+    }
+
+    // --- LISTENERS ---
+    @Override
+    public void addListener(GrievanceListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(GrievanceListener listener) {
+        listeners.remove(listener);
+    }
+
+    // --- CREATE ---
+    @Override
+    public Grievance createGrievance(Grievance grievance) {
+        try {
+            fill(grievance, store.insertGrievance(grievance, System.currentTimeMillis()));
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Storage error creating grievance: " + e.getMessage());
+            return null;
+        }
+        for (GrievanceListener listener : listeners) {
+            listener.onCreated(grievance);
+        }
+        return grievance;
+    }
+
+    @Override
+    public int[] createGrievances(Collection<Grievance> grievances) {
+        return createGrievances(grievances, BATCH_SIZE);
+    }
+
+    /**
+     * Each chunk of {@code batchSize} rows is written to the journal with a single append and sync.
+     */
+    @Override
+    public int[] createGrievances(Collection<Grievance> grievances, int batchSize) {
+        try {
+            return insertGrievances(grievances, batchSize);
+        } catch (BatchInsertException e) {
+            System.err.println("Storage error in bulk insert after " + e.getCommittedIds().length + " rows: " + e.getMessage());
+            return e.getCommittedIds();
+        }
+    }
+
+    /**
+     * A chunk with a row for a nonexistent user fails permanently, as the MySQL foreign key does. Journal
+     * write failures are never permanent: the same rows can be appended once the disk recovers.
+     */
+    @Override
+    public int[] insertGrievances(Collection<Grievance> grievances, int batchSize) throws BatchInsertException {
+        if (batchSize < 1) throw new IllegalArgumentException("batchSize must be at least 1");
+        int[] ids = new int[grievances.size()];
+        int committed = 0;
+        List<Grievance> chunk = new ArrayList<>(Math.min(batchSize, grievances.size()));
+        Iterator<Grievance> it = grievances.iterator();
+        while (it.hasNext()) {
+            chunk.add(it.next());
+            if (chunk.size() < batchSize && it.hasNext()) continue;
+
+            List<GrievanceRow> rows;
+            try {
+                rows = store.insertGrievances(chunk, System.currentTimeMillis());
+            } catch (IOException e) {
+                throw new BatchInsertException(Arrays.copyOf(ids, committed), e, false);
+            } catch (IllegalArgumentException e) {
+                throw new BatchInsertException(Arrays.copyOf(ids, committed), e, true);
+            }
+            for (int i = 0; i < chunk.size(); i++) {
+                Grievance g = chunk.get(i);
+                fill(g, rows.get(i));
+                ids[committed++] = g.getId();
+                for (GrievanceListener listener : listeners) {
+                    listener.onCreated(g);
+                }
+            }
+            chunk.clear();
+        }
+        return ids;
+    }
+
+    // --- READ ---
+    @Override
+    public Grievance getGrievanceById(int grievanceId) {
+        GrievanceRow row = store.getGrievance(grievanceId);
+        return row == null ? null : toGrievance(row);
+    }
+
+    @Override
+    public List<GrievanceSummary> getGrievanceSummariesByIds(int[] ids) {
+        List<GrievanceSummary> out = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            GrievanceRow row = store.getGrievance(id);
+            if (row != null) out.add(toSummary(row, true));
+        }
+        return out;
+    }
+
+    @Override
+    public List<GrievanceSummary> getAllGrievances() {
+        return summaries(store.newestFirst(-1, false, 0, 0, Integer.MAX_VALUE), true);
+    }
+
+    @Override
+    public List<GrievanceSummary> getGrievancesByUserId(int userId) {
+        return summaries(store.newestFirst(userId, false, 0, 0, Integer.MAX_VALUE), true);
+    }
+
+    @Override
+    public Page<GrievanceSummary> getGrievancesPage(PageCursor after, int pageSize) {
+        return page(-1, after, pageSize);
+    }
+
+    @Override
+    public Page<GrievanceSummary> getGrievancesPageByUserId(int userId, PageCursor after, int pageSize) {
+        return page(userId, after, pageSize);
+    }
+
+    @Override
+    public List<GrievanceSummary> getGrievancesByStatus(GrievanceStatus status, Timestamp createdBefore, int limit) {
+        long before = createdBefore == null ? Long.MAX_VALUE : createdBefore.getTime();
+        return summaries(store.oldestWithStatus(status, before, limit), true);
+    }
+
+    private Page<GrievanceSummary> page(int userId, PageCursor after, int pageSize) {
+        if (pageSize < 1) throw new IllegalArgumentException("pageSize must be at least 1");
+        List<GrievanceRow> rows = after == null
+                ? store.newestFirst(userId, false, 0, 0, pageSize + 1)
+                : store.newestFirst(userId, true, after.getCreatedAt().getTime(), after.getId(), pageSize + 1);
+
+        PageCursor next = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            GrievanceRow last = rows.get(pageSize - 1);
+            next = new PageCursor(new Timestamp(last.createdAt), last.id);
+        }
+        return new Page<>(summaries(rows, true), next);
+    }
+
+    // --- STREAMS ---
+    @Override
+    public Stream<Grievance> streamAllGrievances() {
+        return store.newestFirst(-1, false, 0, 0, Integer.MAX_VALUE).stream().map(EmbeddedGrievanceRepository::toGrievance);
+    }
+
+    @Override
+    public Stream<Grievance> streamGrievances(GrievanceStatus status, Timestamp createdFrom, Timestamp createdTo) {
+        return store.afterId(0).stream()
+                .filter(r -> status == null || r.status() == status)
+                .filter(r -> createdFrom == null || r.createdAt >= createdFrom.getTime())
+                .filter(r -> createdTo == null || r.createdAt < createdTo.getTime())
+                .map(EmbeddedGrievanceRepository::toGrievance);
+    }
+
+    @Override
+    public Stream<GrievanceSummary> streamSummaries() {
+        return store.afterId(0).stream().map(r -> toSummary(r, true));
+    }
+
+    @Override
+    public Stream<GrievanceSummary> streamTimeline() {
+        return streamTimelineAfterId(0);
+    }
+
+    @Override
+    public Stream<GrievanceSummary> streamTimelineAfterId(int afterId) {
+        return store.afterId(afterId).stream().map(r -> toSummary(r, false));
+    }
+
+    @Override
+    public Stream<GrievanceSummary> streamTimelineResolvedSince(Timestamp since) {
+        return store.resolvedSince(since.getTime()).stream().map(r -> toSummary(r, false));
+    }
+
+    @Override
+    public Stream<GrievanceSummary> streamTimelineUnresolved() {
+        return store.withStatus(GrievanceStatus.OPEN, GrievanceStatus.IN_PROGRESS).stream()
+                .map(r -> toSummary(r, false));
+    }
+
+    // --- SEARCH ---
+    @Override
+    public List<GrievanceSummary> searchGrievances(String keyword) {
+        return searchGrievances(keyword, 0, Integer.MAX_VALUE);
+    }
+
+    /** Answered by the in-memory index; results are newest first. */
+    @Override
+    public List<GrievanceSummary> searchGrievances(String query, int offset, int limit) {
+        int[] ids = searchIndex.search(query);
+        int from = Math.min(offset, ids.length);
+        int to = (int) Math.min((long) from + limit, ids.length);
+        return getGrievanceSummariesByIds(Arrays.copyOfRange(ids, from, to));
+    }
+
+    // --- COUNTS ---
+    @Override
+    public int countByStatus(String status) {
+        try {
+            return store.countByStatus(GrievanceStatus.fromString(status));
+        } catch (IllegalArgumentException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public Map<GrievanceStatus, Integer> getStatusSummary() {
+        Map<GrievanceStatus, Integer> summary = GrievanceDAO.emptyStatusSummary();
+        for (GrievanceStatus status : GrievanceStatus.values()) {
+            summary.put(status, store.countByStatus(status));
+        }
+        return summary;
+    }
+
+    // --- UPDATE ---
+    @Override
+    public boolean updateGrievanceStatus(int grievanceId, String newStatus) {
+        GrievanceStatus status;
+        try {
+            status = GrievanceStatus.fromString(newStatus);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Storage error updating grievance status: unknown status '" + newStatus + "'");
+            return false;
+        }
+        return transitionStatus(grievanceId, status, StatusTransition.ANY_VERSION).isApplied();
+    }
+
+    @Override
+    public StatusTransition transitionStatus(int grievanceId, GrievanceStatus target, int expectedVersion) {
+        return transitionStatuses(new int[] { grievanceId }, new int[] { expectedVersion }, target).get(0);
+    }
+
+    @Override
+    public List<StatusTransition> transitionStatuses(int[] ids, int[] expectedVersions, GrievanceStatus target) {
+        if (expectedVersions != null && expectedVersions.length != ids.length) {
+            throw new IllegalArgumentException("expectedVersions must be parallel to ids");
+        }
+        List<StatusTransition> results;
+        try {
+            results = store.transitionStatuses(ids, expectedVersions, target, System.currentTimeMillis());
+        } catch (IOException e) {
+            System.err.println("Storage error changing grievance status: " + e.getMessage());
+            results = new ArrayList<>(ids.length);
+            for (int id : ids) results.add(StatusTransition.failed(id));
+            return results;
+        }
+
+        for (StatusTransition result : results) {
+            if (!result.isApplied()) continue;
+            for (GrievanceListener listener : listeners) {
+                listener.onStatusChanged(result.getGrievanceId(), target.predecessor().name(), target.name());
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public boolean setPriority(int grievanceId, int priority) {
+        try {
+            if (store.setPriority(grievanceId, priority) == null) return false;
+        } catch (IOException e) {
+            System.err.println("Storage error setting grievance priority: " + e.getMessage());
+            return false;
+        }
+        for (GrievanceListener listener : listeners) {
+            listener.onPriorityChanged(grievanceId, priority);
+        }
+        return true;
+    }
+
+    // --- WORK QUEUE ---
+    @Override
+    public List<GrievanceSummary> claimNext(int managerId, int count, ClaimOrder order, int leaseSeconds) {
+        if (count <= 0) return new ArrayList<>();
+        count = Math.min(count, MAX_CLAIM);
+        long now = System.currentTimeMillis();
+        try {
+            return summaries(store.claim(managerId, count, order == ClaimOrder.PRIORITY, now, now + leaseSeconds * 1000L), true);
+        } catch (IOException e) {
+            System.err.println("Storage error claiming grievances: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    @Override
+    public int renewClaims(int managerId, int[] ids, int leaseSeconds) {
+        try {
+            return store.updateClaims(managerId, ids, System.currentTimeMillis() + leaseSeconds * 1000L);
+        } catch (IOException e) {
+            System.err.println("Storage error renewing grievance claims: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    @Override
+    public int releaseClaims(int managerId, int[] ids) {
+        try {
+            return store.updateClaims(managerId, ids, EmbeddedStore.NO_TIME);
+        } catch (IOException e) {
+            System.err.println("Storage error releasing grievance claims: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    @Override
+    public List<GrievanceSummary> getClaimedBy(int managerId) {
+        return summaries(store.claimedBy(managerId, System.currentTimeMillis()), true);
+    }
+
+    // --- Mapping ---
+    private static void fill(Grievance g, GrievanceRow row) {
+        g.setId(row.id);
+        g.setStatus(row.status().name());
+        g.setCreatedAt(new Timestamp(row.createdAt));
+        g.setResolvedAt(null);
+    }
+
+    private static Grievance toGrievance(GrievanceRow row) {
+        Grievance g = new Grievance();
+        g.setId(row.id);
+        g.setUserId(row.userId);
+        g.setTitle(row.title);
+        g.setDescription(row.description);
+        g.setStatus(row.status().name());
+        g.setCreatedAt(new Timestamp(row.createdAt));
+        g.setResolvedAt(timestamp(row.resolvedAt));
+        g.setVersion(row.version);
+        g.setPriority(row.priority);
+        return g;
+    }
+
+    private static GrievanceSummary toSummary(GrievanceRow row, boolean withTitle) {
+        GrievanceSummary s = new GrievanceSummary();
+        s.setId(row.id);
+        s.setUserId(row.userId);
+        if (withTitle) s.setTitle(row.title);
+        s.setStatus(row.status().name());
+        s.setCreatedAt(new Timestamp(row.createdAt));
+        s.setResolvedAt(timestamp(row.resolvedAt));
+        s.setVersion(row.version);
+        s.setPriority(row.priority);
+        return s;
+    }
+
+    private static List<GrievanceSummary> summaries(List<GrievanceRow> rows, boolean withTitle) {
+        List<GrievanceSummary> out = new ArrayList<>(rows.size());
+        for (GrievanceRow row : rows) out.add(toSummary(row, withTitle));
+        return out;
+    }
+
+    private static Timestamp timestamp(long millis) {
+        return millis == EmbeddedStore.NO_TIME ? null : new Timestamp(millis);
+    }
+}
@@ -0,0 +1,953 @@
+package com.grievance.embedded;
+
+import com.grievance.model.Grievance;
+import com.grievance.model.GrievanceEvent;
+import com.grievance.model.GrievanceStatus;
+import com.grievance.model.StatusTransition;
+import com.grievance.model.StatusTransition.Outcome;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process, file-backed storage for grievances and users.
+ * <p>
+ * All rows are held in memory in {@link IntHashMap}s keyed by ID, with secondary indexes on
+ * {@code user_id}, {@code status}, {@code created_at} and {@code resolved_at} kept as sorted sets.
+ * Every change is first appended to {@code journal.log} and only then applied in memory, so a
+ * restart replays exactly what was acknowledged. When the journal grows past a threshold (and on
+ * close) the full state is written to {@code snapshot.dat} and the journal is emptied.
+ * Each journal record sets state rather than modifying it, so replaying a record twice is harmless.
+ * <p>
+ * When events are enabled, every create and status change also appends an outbox event (see
+ * {@link EmbeddedEventOutbox}) in the same journal write as the change, so the two are durable together.
+ * <p>
+ * Reads share a read lock; writes are serialised by a write lock.
+ */
+public final class EmbeddedStore implements Closeable {
+
+    private static final String SNAPSHOT_FILE = "snapshot.dat";
+    private static final String JOURNAL_FILE = "journal.log";
+
+    // Journal record types
+    private static final byte GRIEVANCE = 1;
+    private static final byte STATUS = 2;
+    private static final byte USER = 3;
+    private static final byte USER_ROLE = 4;
+    private static final byte USER_PASSWORD = 5;
+    private static final byte USER_DELETE = 6;
+    private static final byte CLAIM = 7;
+    private static final byte PRIORITY = 8;
+    private static final byte EVENT = 9;
+    private static final byte EVENT_OFFSET = 10;
+    private static final byte EVENT_PURGE = 11;
+
+    /** Stored in place of a missing timestamp. */
+    static final long NO_TIME = Long.MIN_VALUE;
+
+    private static final Comparator<GrievanceRow> BY_CREATED =
+            Comparator.<GrievanceRow>comparingLong(r -> r.createdAt).thenComparingInt(r -> r.id);
+    private static final Comparator<GrievanceRow> BY_RESOLVED =
+            Comparator.<GrievanceRow>comparingLong(r -> r.resolvedAt).thenComparingInt(r -> r.id);
+    private static final GrievanceStatus[] STATUSES = GrievanceStatus.values();
+
+    private final Path dir;
+    private final long snapshotThresholdBytes;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Journal journal;
+
+    // --- Grievances and their indexes ---
+    private final IntHashMap<GrievanceRow> grievances = new IntHashMap<>(1024);
+    private final ArrayList<GrievanceRow> inIdOrder = new ArrayList<>();
+    private final TreeSet<GrievanceRow> byCreated = new TreeSet<>(BY_CREATED);
+    private final IntHashMap<TreeSet<GrievanceRow>> byUser = new IntHashMap<>();
+    private final List<TreeSet<GrievanceRow>> byStatus = new ArrayList<>();
+    private final TreeSet<GrievanceRow> byResolved = new TreeSet<>(BY_RESOLVED);
+    private int nextGrievanceId = 1;
+
+    // --- Users ---
+    private final IntHashMap<UserRow> users = new IntHashMap<>();
+    private final Map<String, UserRow> usersByName = new HashMap<>();
+    private int nextUserId = 1;
+
+    // --- Outbox events, contiguous by ID, and consumer positions ---
+    private final ArrayList<GrievanceEvent> events = new ArrayList<>();
+    private final Map<String, Long> eventOffsets = new HashMap<>();
+    private long nextEventId = 1;
+    private volatile boolean eventsEnabled;
+
+    private EmbeddedStore(Path dir, long snapshotThresholdBytes) {
+        this.dir = dir;
+        this.snapshotThresholdBytes = snapshotThresholdBytes;
+        for (int i = 0; i < STATUSES.length; i++) byStatus.add(new TreeSet<>(BY_CREATED));
+    }
+
+    /**
+     * Loads the snapshot and replays the journal in {@code dir}, creating the directory if needed.
+     * @param fsync force each write to disk before acknowledging it.
+     * @param snapshotThresholdBytes journal size that triggers a snapshot.
+     */
+    public static EmbeddedStore open(Path dir, boolean fsync, long snapshotThresholdBytes) throws IOException {
+        Files.createDirectories(dir);
+        EmbeddedStore store = new EmbeddedStore(dir, snapshotThresholdBytes);
+        Journal.readAll(dir.resolve(SNAPSHOT_FILE), store::apply);
+        store.journal = Journal.open(dir.resolve(JOURNAL_FILE), fsync, store::apply);
+        return store;
+    }
+
+    public Path getDirectory() {
+        return dir;
+    }
+
+    /** Records an outbox event with every create and status change from now on. */
+    public void setEventsEnabled(boolean enabled) {
+        this.eventsEnabled = enabled;
+    }
+
+    // --- Grievance writes ---
+    GrievanceRow insertGrievance(Grievance g, long createdAt) throws IOException {
+        return insertGrievances(List.of(g), createdAt).get(0);
+    }
+
+    /**
+     * Appends all rows to the journal in one write (and one fsync), then applies them.
+     * @param createdAt creation time for rows that do not already have one.
+     * @return the stored rows, in input order.
+     * @throws IllegalArgumentException if a row's user does not exist; nothing is written.
+     */
+    List<GrievanceRow> insertGrievances(Collection<Grievance> batch, long createdAt) throws IOException {
+        lock.writeLock().lock();
+        try {
+            for (Grievance g : batch) {
+                if (users.get(g.getUserId()) == null) {
+                    throw new IllegalArgumentException("No user with ID " + g.getUserId());
+                }
+            }
+            List<byte[]> records = new ArrayList<>(batch.size());
+            List<byte[]> eventRecords = new ArrayList<>();
+            int id = nextGrievanceId;
+            long eventId = nextEventId;
+            for (Grievance g : batch) {
+                GrievanceRow row = new GrievanceRow(id++, g.getUserId(), g.getTitle(), g.getDescription(),
+                        (byte) GrievanceStatus.OPEN.ordinal(),
+                        g.getCreatedAt() != null ? g.getCreatedAt().getTime() : createdAt, NO_TIME, 0);
+                records.add(encodeGrievance(row));
+                if (eventsEnabled) {
+                    eventRecords.add(encodeEvent(eventId++, GrievanceEvent.Type.CREATED, row.id, row.userId, -1,
+                            row.status, row.createdAt));
+                }
+            }
+            if (eventRecords.isEmpty()) return appendAndApply(records, true);
+            int rows = records.size();
+            records.addAll(eventRecords);
+            return new ArrayList<>(appendAndApply(records, true).subList(0, rows));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Moves each grievance to {@code target} if it is in the preceding status and, when an expected
+     * version is given, still at that version. The changes are appended in one journal write.
+     * @param expectedVersions parallel to {@code ids}, or null to skip the version check.
+     * @param resolvedAt resolution time to record when {@code target} is RESOLVED.
+     * @return one outcome per ID, in input order.
+     */
+    List<StatusTransition> transitionStatuses(int[] ids, int[] expectedVersions, GrievanceStatus target,
+            long resolvedAt) throws IOException {
+        GrievanceStatus from = target.predecessor();
+        lock.writeLock().lock();
+        try {
+            List<StatusTransition> results = new ArrayList<>(ids.length);
+            List<byte[]> records = new ArrayList<>();
+            long eventTime = target == GrievanceStatus.RESOLVED ? resolvedAt : System.currentTimeMillis();
+            int eventCount = 0;
+            // Rows as they will be once this call's records apply, so a repeated ID sees its earlier change
+            IntHashMap<GrievanceRow> changed = new IntHashMap<>();
+            for (int i = 0; i < ids.length; i++) {
+                GrievanceRow row = changed.get(ids[i]);
+                if (row == null) row = grievances.get(ids[i]);
+                if (row == null) {
+                    results.add(StatusTransition.notFound(ids[i]));
+                    continue;
+                }
+                int expected = expectedVersions != null ? expectedVersions[i] : StatusTransition.ANY_VERSION;
+                Outcome outcome;
+                if (from == null || row.status != from.ordinal()) {
+                    outcome = Outcome.ILLEGAL_TRANSITION;
+                } else if (expected >= 0 && row.version != expected) {
+                    outcome = Outcome.VERSION_CONFLICT;
+                } else {
+                    row = row.withStatus((byte) target.ordinal(),
+                            target == GrievanceStatus.RESOLVED ? resolvedAt : row.resolvedAt, row.version + 1);
+                    changed.put(row.id, row);
+                    records.add(encodeStatus(row));
+                    if (eventsEnabled) {
+                        records.add(encodeEvent(nextEventId + eventCount, GrievanceEvent.Type.STATUS_CHANGED, row.id,
+                                row.userId, from.ordinal(), row.status, eventTime));
+                        eventCount++;
+                    }
+                    outcome = Outcome.APPLIED;
+                }
+                results.add(new StatusTransition(row.id, outcome, row.status().name(), row.version));
+            }
+            if (!records.isEmpty()) appendAndApply(records, false);
+            return results;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** @return the row with its new priority, or null if there is no such grievance. */
+    GrievanceRow setPriority(int id, int priority) throws IOException {
+        lock.writeLock().lock();
+        try {
+            GrievanceRow row = grievances.get(id);
+            if (row == null) return null;
+            Record r = new Record(PRIORITY);
+            r.out.writeInt(id);
+            r.out.writeInt(priority);
+            appendAndApply(List.of(r.bytes()), false);
+            return grievances.get(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // --- Work queue ---
+    /**
+     * Assigns up to {@code count} OPEN grievances with no live claim to the manager. Priority order
+     * looks at every OPEN grievance; oldest-first stops as soon as it has enough.
+     * @return the claimed rows, in queue order.
+     */
+    List<GrievanceRow> claim(int managerId, int count, boolean byPriority, long now, long leaseExpiresAt)
+            throws IOException {
+        lock.writeLock().lock();
+        try {
+            List<GrievanceRow> picked = new ArrayList<>();
+            for (GrievanceRow row : byStatus.get(GrievanceStatus.OPEN.ordinal())) {
+                if (!byPriority && picked.size() >= count) break;
+                if (row.leaseExpiresAt == NO_TIME || row.leaseExpiresAt < now) picked.add(row);
+            }
+            if (byPriority) {
+                picked.sort(Comparator.<GrievanceRow>comparingInt(r -> -r.priority).thenComparing(BY_CREATED));
+                if (picked.size() > count) picked = new ArrayList<>(picked.subList(0, count));
+            }
+            List<byte[]> records = new ArrayList<>(picked.size());
+            for (GrievanceRow row : picked) {
+                records.add(encodeClaim(row.id, managerId, leaseExpiresAt));
+            }
+            if (records.isEmpty()) return picked;
+            return appendAndApply(records, true);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Re-stamps the manager's claims on the given OPEN grievances.
+     * @param leaseExpiresAt the new expiry, or {@link #NO_TIME} to release the claims.
+     * @return how many claims were changed.
+     */
+    int updateClaims(int managerId, int[] ids, long leaseExpiresAt) throws IOException {
+        lock.writeLock().lock();
+        try {
+            List<byte[]> records = new ArrayList<>();
+            for (int id : ids) {
+                GrievanceRow row = grievances.get(id);
+                if (row == null || row.assignedTo != managerId || row.status != GrievanceStatus.OPEN.ordinal()) continue;
+                records.add(encodeClaim(id, leaseExpiresAt == NO_TIME ? 0 : managerId, leaseExpiresAt));
+            }
+            if (!records.isEmpty()) appendAndApply(records, false);
+            return records.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** @return OPEN rows the manager holds a claim on that expires after {@code now}, oldest first. */
+    List<GrievanceRow> claimedBy(int managerId, long now) {
+        lock.readLock().lock();
+        try {
+            List<GrievanceRow> out = new ArrayList<>();
+            for (GrievanceRow row : byStatus.get(GrievanceStatus.OPEN.ordinal())) {
+                if (row.assignedTo == managerId && row.leaseExpiresAt != NO_TIME && row.leaseExpiresAt >= now) out.add(row);
+            }
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- Grievance reads ---
+    GrievanceRow getGrievance(int id) {
+        lock.readLock().lock();
+        try {
+            return grievances.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rows ordered by (created_at, id) descending, optionally for one user, starting after a cursor.
+     * @param userId a user ID, or -1 for all users.
+     * @param hasCursor whether {@code afterCreated}/{@code afterId} are set.
+     * @param limit maximum rows to return.
+     */
+    List<GrievanceRow> newestFirst(int userId, boolean hasCursor, long afterCreated, int afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<GrievanceRow> set = userId < 0 ? byCreated : byUser.get(userId);
+            if (set == null) return new ArrayList<>();
+            NavigableSet<GrievanceRow> desc = set.descendingSet();
+            if (hasCursor) desc = desc.tailSet(probe(afterCreated, afterId), false);
+            return take(desc, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Rows with an ID greater than {@code afterId}, in ID order. */
+    List<GrievanceRow> afterId(int afterId) {
+        lock.readLock().lock();
+        try {
+            int lo = 0;
+            int hi = inIdOrder.size();
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (inIdOrder.get(mid).id <= afterId) lo = mid + 1; else hi = mid;
+            }
+            return new ArrayList<>(inIdOrder.subList(lo, inIdOrder.size()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Resolved rows with resolved_at at or after {@code since}, oldest resolution first. */
+    List<GrievanceRow> resolvedSince(long since) {
+        lock.readLock().lock();
+        try {
+            GrievanceRow from = new GrievanceRow(Integer.MIN_VALUE, 0, null, null, (byte) 0, 0, since, 0);
+            return take(byResolved.tailSet(from, true), Integer.MAX_VALUE);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Rows in any of the given statuses, newest first within each status. */
+    List<GrievanceRow> withStatus(GrievanceStatus... statuses) {
+        lock.readLock().lock();
+        try {
+            List<GrievanceRow> rows = new ArrayList<>();
+            for (GrievanceStatus s : statuses) rows.addAll(byStatus.get(s.ordinal()).descendingSet());
+            return rows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Rows in the status created before {@code createdBefore}, oldest first. */
+    List<GrievanceRow> oldestWithStatus(GrievanceStatus status, long createdBefore, int limit) {
+        lock.readLock().lock();
+        try {
+            return take(byStatus.get(status.ordinal()).headSet(probe(createdBefore, Integer.MIN_VALUE), false), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int countByStatus(GrievanceStatus status) {
+        lock.readLock().lock();
+        try {
+            return byStatus.get(status.ordinal()).size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int grievanceCount() {
+        lock.readLock().lock();
+        try {
+            return grievances.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- Outbox events ---
+    /** @return up to {@code limit} events with an ID above {@code afterId}, in ID order. */
+    List<GrievanceEvent> eventsAfter(long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            if (events.isEmpty()) return new ArrayList<>();
+            long first = events.get(0).getId();
+            int from = (int) Math.max(0, Math.min(events.size(), afterId + 1 - first));
+            int to = (int) Math.min(events.size(), (long) from + limit);
+            return new ArrayList<>(events.subList(from, to));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** @return the ID of the newest event ever recorded, or 0. */
+    long lastEventId() {
+        lock.readLock().lock();
+        try {
+            return nextEventId - 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long eventOffset(String consumer) {
+        lock.readLock().lock();
+        try {
+            return eventOffsets.getOrDefault(consumer, 0L);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void saveEventOffset(String consumer, long eventId) throws IOException {
+        lock.writeLock().lock();
+        try {
+            Record r = new Record(EVENT_OFFSET);
+            writeString(r.out, consumer);
+            r.out.writeLong(eventId);
+            appendAndApply(List.of(r.bytes()), false);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** @return how many events were dropped. */
+    int purgeEvents(long upTo) throws IOException {
+        lock.writeLock().lock();
+        try {
+            int before = events.size();
+            if (before == 0 || events.get(0).getId() > upTo) return 0;
+            appendAndApply(List.of(encodePurge(Math.min(upTo, nextEventId - 1))), false);
+            return before - events.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // --- Users ---
+    /** @return the new user, or null if the username is taken. */
+    UserRow insertUser(String username, String passwordHash, String role, long createdAt) throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (usersByName.containsKey(nameKey(username))) return null;
+            int id = nextUserId;
+            appendAndApply(List.of(encodeUser(new UserRow(id, username, passwordHash, role, createdAt))), false);
+            return users.get(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    boolean updateUserRole(int id, String role) throws IOException {
+        return updateUser(USER_ROLE, id, role);
+    }
+
+    boolean updateUserPassword(int id, String passwordHash) throws IOException {
+        return updateUser(USER_PASSWORD, id, passwordHash);
+    }
+
+    /**
+     * Deletes a user who owns no grievances and releases any claims they hold, like the MySQL
+     * foreign keys (the claim's lease goes too, so the grievance is back in the queue at once).
+     * @return false if there is no such user or they still own grievances.
+     */
+    boolean deleteUser(int id) throws IOException {
+        lock.writeLock().lock();
+        try {
+            TreeSet<GrievanceRow> owned = byUser.get(id);
+            if (users.get(id) == null || (owned != null && !owned.isEmpty())) return false;
+            List<byte[]> records = new ArrayList<>();
+            for (GrievanceRow row : inIdOrder) {
+                if (row.assignedTo == id) records.add(encodeClaim(row.id, 0, NO_TIME));
+            }
+            Record r = new Record(USER_DELETE);
+            r.out.writeInt(id);
+            records.add(r.bytes());
+            appendAndApply(records, false);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean updateUser(byte type, int id, String value) throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (users.get(id) == null) return false;
+            Record r = new Record(type);
+            r.out.writeInt(id);
+            writeString(r.out, value);
+            appendAndApply(List.of(r.bytes()), false);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    UserRow getUser(int id) {
+        lock.readLock().lock();
+        try {
+            return users.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    UserRow getUserByName(String username) {
+        lock.readLock().lock();
+        try {
+            return usersByName.get(nameKey(username));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** @return every user ordered by ID. */
+    List<UserRow> allUsers() {
+        lock.readLock().lock();
+        try {
+            List<UserRow> all = new ArrayList<>(users.size());
+            users.forEachValue(all::add);
+            all.sort(Comparator.comparingInt(u -> u.id));
+            return all;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- Durability ---
+    /**
+     * Writes the full state to a new snapshot and empties the journal. Writes wait meanwhile.
+     */
+    public void snapshot() throws IOException {
+        lock.writeLock().lock();
+        try {
+            Path tmp = dir.resolve(SNAPSHOT_FILE + ".tmp");
+            Files.deleteIfExists(tmp);
+            try (Journal out = Journal.open(tmp, false, b -> { })) {
+                List<byte[]> chunk = new ArrayList<>();
+                for (UserRow u : allUsers()) {
+                    chunk.add(encodeUser(u));
+                }
+                for (GrievanceRow g : inIdOrder) {
+                    chunk.add(encodeGrievance(g));
+                    if (chunk.size() == 1024) {
+                        out.append(chunk);
+                        chunk.clear();
+                    }
+                }
+                // The purge marker restores the next event ID even when no events are pending
+                chunk.add(encodePurge(events.isEmpty() ? nextEventId - 1 : events.get(0).getId() - 1));
+                for (GrievanceEvent e : events) {
+                    chunk.add(encodeEvent(e.getId(), e.getType(), e.getGrievanceId(), e.getUserId(),
+                            e.getOldStatus() != null ? GrievanceStatus.valueOf(e.getOldStatus()).ordinal() : -1,
+                            (byte) GrievanceStatus.valueOf(e.getNewStatus()).ordinal(), e.getCreatedAt().getTime()));
+                    if (chunk.size() == 1024) {
+                        out.append(chunk);
+                        chunk.clear();
+                    }
+                }
+                for (Map.Entry<String, Long> offset : eventOffsets.entrySet()) {
+                    Record r = new Record(EVENT_OFFSET);
+                    writeString(r.out, offset.getKey());
+                    r.out.writeLong(offset.getValue());
+                    chunk.add(r.bytes());
+                }
+                out.append(chunk);
+                out.sync();
+            }
+            Files.move(tmp, dir.resolve(SNAPSHOT_FILE), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            journal.reset();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Snapshots and closes the journal. */
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (journal == null) return;
+            snapshot();
+            journal.close();
+            journal = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Caller holds the write lock. */
+    private List<GrievanceRow> appendAndApply(List<byte[]> records, boolean collect) throws IOException {
+        if (journal == null) throw new IOException("Embedded store is closed.");
+        journal.append(records);
+        List<GrievanceRow> applied = collect ? new ArrayList<>(records.size()) : null;
+        for (byte[] record : records) {
+            GrievanceRow row = apply(ByteBuffer.wrap(record));
+            if (collect) applied.add(row);
+        }
+        if (journal.size() > snapshotThresholdBytes) snapshot();
+        return applied;
+    }
+
+    // --- Record encoding; apply() is used both for replay and for live writes ---
+    private GrievanceRow apply(ByteBuffer in) {
+        byte type = in.get();
+        switch (type) {
+            case GRIEVANCE: {
+                GrievanceRow row = new GrievanceRow(in.getInt(), in.getInt(), readString(in), readString(in),
+                        in.get(), in.getLong(), in.getLong(), 0);
+                // Files written before versions and claims were stored end early
+                if (in.hasRemaining()) row = row.withStatus(row.status, row.resolvedAt, in.getInt());
+                if (in.hasRemaining()) row = row.withClaim(in.getInt(), in.getLong()).withPriority(in.getInt());
+                putGrievance(row);
+                return row;
+            }
+            case STATUS: {
+                GrievanceRow old = grievances.get(in.getInt());
+                byte status = in.get();
+                long resolvedAt = in.getLong();
+                int version = in.hasRemaining() ? in.getInt() : -1;
+                if (old == null) return null;
+                GrievanceRow row = old.withStatus(status, resolvedAt, version >= 0 ? version : old.version + 1);
+                putGrievance(row);
+                return row;
+            }
+            case CLAIM:
+            case PRIORITY: {
+                GrievanceRow old = grievances.get(in.getInt());
+                if (old == null) return null;
+                GrievanceRow row = type == CLAIM ? old.withClaim(in.getInt(), in.getLong()) : old.withPriority(in.getInt());
+                putGrievance(row);
+                return row;
+            }
+            case USER: {
+                putUser(new UserRow(in.getInt(), readString(in), readString(in), readString(in), in.getLong()));
+                return null;
+            }
+            case USER_ROLE:
+            case USER_PASSWORD: {
+                UserRow old = users.get(in.getInt());
+                String value = readString(in);
+                if (old == null) return null;
+                putUser(type == USER_ROLE
+                        ? new UserRow(old.id, old.username, old.passwordHash, value, old.createdAt)
+                        : new UserRow(old.id, old.username, value, old.role, old.createdAt));
+                return null;
+            }
+            case USER_DELETE: {
+                UserRow old = users.remove(in.getInt());
+                if (old != null) usersByName.remove(nameKey(old.username), old);
+                return null;
+            }
+            case EVENT: {
+                long id = in.getLong();
+                GrievanceEvent.Type eventType = GrievanceEvent.Type.values()[in.get()];
+                int grievanceId = in.getInt();
+                int userId = in.getInt();
+                byte oldStatus = in.get();
+                byte newStatus = in.get();
+                long createdAt = in.getLong();
+                // Already applied (a journal replayed over the snapshot that contains it) or purged
+                if (id < nextEventId) return null;
+                events.add(new GrievanceEvent(id, eventType, grievanceId, userId,
+                        oldStatus >= 0 ? STATUSES[oldStatus].name() : null, STATUSES[newStatus].name(),
+                        new Timestamp(createdAt)));
+                nextEventId = id + 1;
+                return null;
+            }
+            case EVENT_OFFSET: {
+                String consumer = readString(in);
+                eventOffsets.merge(consumer, in.getLong(), Math::max);
+                return null;
+            }
+            case EVENT_PURGE: {
+                long upTo = in.getLong();
+                int drop = 0;
+                while (drop < events.size() && events.get(drop).getId() <= upTo) drop++;
+                events.subList(0, drop).clear();
+                nextEventId = Math.max(nextEventId, upTo + 1);
+                return null;
+            }
+            default:
+                throw new IllegalStateException("Unknown record type " + type + " in embedded store");
+        }
+    }
+
+    private void putGrievance(GrievanceRow row) {
+        GrievanceRow old = grievances.put(row.id, row);
+        if (old != null) {
+            byCreated.remove(old);
+            byUser.get(old.userId).remove(old);
+            byStatus.get(old.status).remove(old);
+            if (old.resolvedAt != NO_TIME) byResolved.remove(old);
+            int index = indexOf(old.id);
+            inIdOrder.set(index, row);
+        } else if (inIdOrder.isEmpty() || inIdOrder.get(inIdOrder.size() - 1).id < row.id) {
+            inIdOrder.add(row);
+        } else {
+            inIdOrder.add(-(indexOf(row.id) + 1), row);
+        }
+        byCreated.add(row);
+        byUser.computeIfAbsent(row.userId, k -> new TreeSet<>(BY_CREATED)).add(row);
+        byStatus.get(row.status).add(row);
+        if (row.resolvedAt != NO_TIME) byResolved.add(row);
+        nextGrievanceId = Math.max(nextGrievanceId, row.id + 1);
+    }
+
+    private int indexOf(int id) {
+        int lo = 0;
+        int hi = inIdOrder.size() - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int midId = inIdOrder.get(mid).id;
+            if (midId < id) lo = mid + 1;
+            else if (midId > id) hi = mid - 1;
+            else return mid;
+        }
+        return -(lo + 1);
+    }
+
+    private void putUser(UserRow row) {
+        UserRow old = users.put(row.id, row);
+        if (old != null) usersByName.remove(nameKey(old.username), old);
+        usersByName.put(nameKey(row.username), row);
+        nextUserId = Math.max(nextUserId, row.id + 1);
+    }
+
+    private static byte[] encodeGrievance(GrievanceRow g) {
+        try {
+            Record r = new Record(GRIEVANCE);
+            r.out.writeInt(g.id);
+            r.out.writeInt(g.userId);
+            writeString(r.out, g.title);
+            writeString(r.out, g.description);
+            r.out.writeByte(g.status);
+            r.out.writeLong(g.createdAt);
+            r.out.writeLong(g.resolvedAt);
+            r.out.writeInt(g.version);
+            r.out.writeInt(g.assignedTo);
+            r.out.writeLong(g.leaseExpiresAt);
+            r.out.writeInt(g.priority);
+            return r.bytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // in-memory stream
+        }
+    }
+
+    /** The record carries the resulting version, so replaying it twice leaves the same row. */
+    private static byte[] encodeStatus(GrievanceRow g) {
+        try {
+            Record r = new Record(STATUS);
+            r.out.writeInt(g.id);
+            r.out.writeByte(g.status);
+            r.out.writeLong(g.resolvedAt);
+            r.out.writeInt(g.version);
+            return r.bytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] encodeClaim(int id, int assignedTo, long leaseExpiresAt) {
+        try {
+            Record r = new Record(CLAIM);
+            r.out.writeInt(id);
+            r.out.writeInt(assignedTo);
+            r.out.writeLong(leaseExpiresAt);
+            return r.bytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] encodeEvent(long id, GrievanceEvent.Type type, int grievanceId, int userId, int oldStatus,
+            byte newStatus, long createdAt) {
+        try {
+            Record r = new Record(EVENT);
+            r.out.writeLong(id);
+            r.out.writeByte(type.ordinal());
+            r.out.writeInt(grievanceId);
+            r.out.writeInt(userId);
+            r.out.writeByte(oldStatus);
+            r.out.writeByte(newStatus);
+            r.out.writeLong(createdAt);
+            return r.bytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] encodePurge(long upTo) {
+        try {
+            Record r = new Record(EVENT_PURGE);
+            r.out.writeLong(upTo);
+            return r.bytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] encodeUser(UserRow u) {
+        try {
+            Record r = new Record(USER);
+            r.out.writeInt(u.id);
+            writeString(r.out, u.username);
+            writeString(r.out, u.passwordHash);
+            writeString(r.out, u.role);
+            r.out.writeLong(u.createdAt);
+            return r.bytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) return null;
+        String s = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return s;
+    }
+
+    private static GrievanceRow probe(long createdAt, int id) {
+        return new GrievanceRow(id, 0, null, null, (byte) 0, createdAt, NO_TIME, 0);
+    }
+
+    private static List<GrievanceRow> take(Iterable<GrievanceRow> rows, int limit) {
+        List<GrievanceRow> out = new ArrayList<>(Math.min(limit, 64));
+        for (GrievanceRow row : rows) {
+            if (out.size() >= limit) break;
+            out.add(row);
+        }
+        return out;
+    }
+
+    private static String nameKey(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Record {
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(128);
+        private final DataOutputStream out = new DataOutputStream(buffer);
+
+        private Record(byte type) throws IOException {
+            out.writeByte(type);
+        }
+
+        private byte[] bytes() {
+            return buffer.toByteArray();
+        }
+    }
+
+    /** An immutable grievance row; every change replaces the row. */
+    static final class GrievanceRow {
+        final int id;
+        final int userId;
+        final String title;
+        final String description;
+        final byte status;
+        final long createdAt;
+        final long resolvedAt;
+        final int version;
+        final int priority;
+        /** Manager holding the work-queue claim, or 0. */
+        final int assignedTo;
+        final long leaseExpiresAt;
+
+        GrievanceRow(int id, int userId, String title, String description, byte status, long createdAt, long resolvedAt,
+                int version) {
+            this(id, userId, title, description, status, createdAt, resolvedAt, version, 0, 0, NO_TIME);
+        }
+
+        private GrievanceRow(int id, int userId, String title, String description, byte status, long createdAt,
+                long resolvedAt, int version, int priority, int assignedTo, long leaseExpiresAt) {
+            this.id = id;
+            this.userId = userId;
+            this.title = title;
+            this.description = description;
+            this.status = status;
+            this.createdAt = createdAt;
+            this.resolvedAt = resolvedAt;
+            this.version = version;
+            this.priority = priority;
+            this.assignedTo = assignedTo;
+            this.leaseExpiresAt = leaseExpiresAt;
+        }
+
+        GrievanceRow withStatus(byte status, long resolvedAt, int version) {
+            return new GrievanceRow(id, userId, title, description, status, createdAt, resolvedAt, version,
+                    priority, assignedTo, leaseExpiresAt);
+        }
+
+        GrievanceRow withPriority(int priority) {
+            return new GrievanceRow(id, userId, title, description, status, createdAt, resolvedAt, version,
+                    priority, assignedTo, leaseExpiresAt);
+        }
+
+        GrievanceRow withClaim(int assignedTo, long leaseExpiresAt) {
+            return new GrievanceRow(id, userId, title, description, status, createdAt, resolvedAt, version,
+                    priority, assignedTo, leaseExpiresAt);
+        }
+
+        GrievanceStatus status() {
+            return STATUSES[status];
+        }
+    }
+
+    /** An immutable user row. */
+    static final class UserRow {
+        final int id;
+        final String username;
+        final String passwordHash;
+        final String role;
+        final long createdAt;
+
+        UserRow(int id, String username, String passwordHash, String role, long createdAt) {
+            this.id = id;
+            this.username = username;
+            this.passwordHash = passwordHash;
+            this.role = role;
+            this.createdAt = createdAt;
+        }
+    }
+}
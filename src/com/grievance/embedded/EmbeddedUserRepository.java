@@ -0,0 +1,140 @@
+package com.grievance.embedded;
+
+import com.grievance.dao.UserRepository;
+import com.grievance.embedded.EmbeddedStore.UserRow;
+import com.grievance.model.User;
+import com.grievance.util.PasswordHasher;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * {@link UserRepository} over an {@link EmbeddedStore}. Users are already in memory, so no cache is needed;
+ * passwords are hashed and verified exactly as in {@link com.grievance.dao.UserDAO}.
+ */
+public class EmbeddedUserRepository implements UserRepository {
+
+    private static final Set<String> ROLES = Set.of("ADMINISTRATOR", "USER", "GRIEVANCE_MANAGER");
+
+    private final EmbeddedStore store;
+    private final PasswordHasher hasher;
+    private volatile String dummyHash;
+
+    public EmbeddedUserRepository(EmbeddedStore store, PasswordHasher hasher) {
+        this.store = store;
+        this.hasher = hasher;
+    }
+
+    // --- LOGIN ---
+    @Override
+    public User login(String username, String password) {
+        UserRow row = username == null ? null : store.getUserByName(username);
+        if (row == null) {
+            // Same cost as a wrong password, so unknown usernames cannot be told apart by timing
+            hasher.verify(password == null ? "" : password, getDummyHash());
+            return null;
+        }
+        if (!hasher.verify(password, row.passwordHash)) return null;
+
+        if (hasher.needsRehash(row.passwordHash)) {
+            try {
+                store.updateUserPassword(row.id, hasher.hash(password));
+            } catch (IOException e) {
+                System.err.println("Storage error upgrading password hash: " + e.getMessage());
+            }
+        }
+        return toUser(row);
+    }
+
+    // --- REGISTER ---
+    @Override
+    public User register(String username, String password) {
+        return registerWithRole(username, password, "USER");
+    }
+
+    @Override
+    public User registerWithRole(String username, String password, String role) {
+        if (!ROLES.contains(role)) {
+            System.err.println("Error: Unknown role '" + role + "'.");
+            return null;
+        }
+        try {
+            // Whole seconds, like the MySQL TIMESTAMP column
+            UserRow row = store.insertUser(username, hasher.hash(password), role,
+                    System.currentTimeMillis() / 1000 * 1000);
+            if (row == null) {
+                System.err.println("Error: Username '" + username + "' is already taken.");
+                return null;
+            }
+            return toUser(row);
+        } catch (IOException e) {
+            System.err.println("Storage error during registration: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // --- LOOKUPS ---
+    @Override
+    public User getUserById(int userId) {
+        UserRow row = store.getUser(userId);
+        return row == null ? null : toUser(row);
+    }
+
+    @Override
+    public List<User> getAllUsers() {
+        List<User> users = new ArrayList<>();
+        for (UserRow row : store.allUsers()) users.add(toUser(row));
+        return users;
+    }
+
+    @Override
+    public Stream<User> streamUsers() {
+        return store.allUsers().stream().map(EmbeddedUserRepository::toUser);
+    }
+
+    // --- ADMIN ---
+    @Override
+    public boolean updateUserRole(int userId, String newRole) {
+        if (!ROLES.contains(newRole)) {
+            System.err.println("Storage error updating user role: unknown role '" + newRole + "'");
+            return false;
+        }
+        try {
+            return store.updateUserRole(userId, newRole);
+        } catch (IOException e) {
+            System.err.println("Storage error updating user role: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public boolean deleteUser(int userId) {
+        try {
+            return store.deleteUser(userId);
+        } catch (IOException e) {
+            System.err.println("Storage error deleting user: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private String getDummyHash() {
+        String hash = dummyHash;
+        if (hash == null) {
+            hash = hasher.hash("not-a-real-password");
+            dummyHash = hash;
+        }
+        return hash;
+    }
+
+    private static User toUser(UserRow row) {
+        User user = new User();
+        user.setId(row.id);
+        user.setUsername(row.username);
+        user.setRole(row.role);
+        user.setCreatedAt(new Timestamp(row.createdAt));
+        return user;
+    }
+}
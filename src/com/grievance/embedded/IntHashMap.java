@@ -0,0 +1,174 @@
+package com.grievance.embedded;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Open-addressing hash map from {@code int} keys to objects.
+ * <p>
+ * Keys live in a plain {@code int[]} next to a value array, so a lookup is a multiply, a mask and
+ * usually one probe, with no {@code Integer} boxing or per-entry node objects. Deletion uses backward
+ * shifting, so there are no tombstones to clean up. Not thread-safe; callers provide the locking.
+ */
+final class IntHashMap<V> {
+
+    private static final int FREE = 0;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    // Key 0 marks a free slot, so a real 0 key is stored on the side
+    private int[] keys;
+    private Object[] values;
+    private int mask;
+    private int shift;
+    private int size;
+    private int resizeAt;
+    private boolean hasZeroKey;
+    private Object zeroValue;
+
+    IntHashMap() {
+        this(16);
+    }
+
+    IntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(int key) {
+        if (key == FREE) return hasZeroKey ? (V) zeroValue : null;
+        int slot = slot(key);
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key) return (V) values[slot];
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /** @return the previous value, or null. */
+    @SuppressWarnings("unchecked")
+    V put(int key, V value) {
+        if (key == FREE) {
+            V previous = (V) zeroValue;
+            if (!hasZeroKey) size++;
+            hasZeroKey = true;
+            zeroValue = value;
+            return previous;
+        }
+        int slot = slot(key);
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key) {
+                V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size >= resizeAt) rehash(keys.length << 1);
+        return null;
+    }
+
+    V computeIfAbsent(int key, IntFunction<V> factory) {
+        V value = get(key);
+        if (value == null) {
+            value = factory.apply(key);
+            put(key, value);
+        }
+        return value;
+    }
+
+    /** @return the removed value, or null. */
+    @SuppressWarnings("unchecked")
+    V remove(int key) {
+        if (key == FREE) {
+            if (!hasZeroKey) return null;
+            V previous = (V) zeroValue;
+            hasZeroKey = false;
+            zeroValue = null;
+            size--;
+            return previous;
+        }
+        int slot = slot(key);
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key) {
+                V previous = (V) values[slot];
+                shiftBack(slot);
+                size--;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /** Calls {@code action} for every value, in no particular order. */
+    @SuppressWarnings("unchecked")
+    void forEachValue(Consumer<? super V> action) {
+        if (hasZeroKey) action.accept((V) zeroValue);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE) action.accept((V) values[i]);
+        }
+    }
+
+    void clear() {
+        Arrays.fill(keys, FREE);
+        Arrays.fill(values, null);
+        hasZeroKey = false;
+        zeroValue = null;
+        size = 0;
+    }
+
+    private int slot(int key) {
+        // Fibonacci hashing spreads sequential IDs across the table
+        return (key * 0x9E3779B9) >>> shift;
+    }
+
+    /** Closes the gap left at {@code free} by moving later entries of the same probe chain back. */
+    private void shiftBack(int free) {
+        int slot = free;
+        while (true) {
+            slot = (slot + 1) & mask;
+            int key = keys[slot];
+            if (key == FREE) break;
+            int home = slot(key);
+            // Move the entry if its home slot is not between the gap and its current slot
+            boolean movable = free <= slot ? (home <= free || home > slot) : (home <= free && home > slot);
+            if (movable) {
+                keys[free] = key;
+                values[free] = values[slot];
+                free = slot;
+            }
+        }
+        keys[free] = FREE;
+        values[free] = null;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        shift = Integer.numberOfLeadingZeros(capacity) + 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            int key = oldKeys[i];
+            if (key == FREE) continue;
+            int slot = slot(key);
+            while (keys[slot] != FREE) slot = (slot + 1) & mask;
+            keys[slot] = key;
+            values[slot] = oldValues[i];
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.grievance.embedded;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file of length- and checksum-framed records.
+ * <p>
+ * Each record is {@code [int length][int crc32][payload]}. On replay, reading stops at the first
+ * short or corrupt record, which is what a crash in the middle of an append leaves behind, and the
+ * file is truncated back to the last complete record.
+ */
+final class Journal implements Closeable {
+
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final boolean fsync;
+
+    private Journal(Path path, FileChannel channel, boolean fsync) {
+        this.path = path;
+        this.channel = channel;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Replays the existing records (if any) and opens the file for appending.
+     * @param fsync force every append to disk before it returns.
+     */
+    static Journal open(Path path, boolean fsync, Consumer<ByteBuffer> replay) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            long end = replay(channel, replay);
+            if (end < channel.size()) {
+                System.err.println("Discarding " + (channel.size() - end) + " bytes of incomplete journal tail in " + path);
+                channel.truncate(end);
+            }
+            channel.position(end);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return new Journal(path, channel, fsync);
+    }
+
+    /** Reads every complete record of a file without opening it for writing. */
+    static void readAll(Path path, Consumer<ByteBuffer> replay) throws IOException {
+        if (!Files.exists(path)) return;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            replay(channel, replay);
+        }
+    }
+
+    /** Appends records as one write, then forces them to disk if configured. */
+    void append(List<byte[]> records) throws IOException {
+        int total = 0;
+        for (byte[] r : records) total += HEADER_BYTES + r.length;
+        ByteBuffer buffer = ByteBuffer.allocate(total);
+        CRC32 crc = new CRC32();
+        for (byte[] r : records) {
+            crc.reset();
+            crc.update(r);
+            buffer.putInt(r.length).putInt((int) crc.getValue()).put(r);
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        if (fsync) channel.force(false);
+    }
+
+    void append(byte[] record) throws IOException {
+        append(List.of(record));
+    }
+
+    /** Forces everything appended so far to disk. */
+    void sync() throws IOException {
+        channel.force(false);
+    }
+
+    long size() throws IOException {
+        return channel.size();
+    }
+
+    /** Drops every record, e.g. after they have been captured in a snapshot. */
+    void reset() throws IOException {
+        channel.truncate(0);
+        channel.position(0);
+        channel.force(true);
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /** @return the offset just past the last complete record. */
+    private static long replay(FileChannel channel, Consumer<ByteBuffer> consumer) throws IOException {
+        long size = channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        CRC32 crc = new CRC32();
+        while (position + HEADER_BYTES <= size) {
+            header.clear();
+            readFully(channel, header, position);
+            header.flip();
+            int length = header.getInt();
+            int checksum = header.getInt();
+            if (length < 0 || length > MAX_RECORD_BYTES || position + HEADER_BYTES + length > size) break;
+
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(channel, payload, position + HEADER_BYTES);
+            crc.reset();
+            crc.update(payload.array());
+            if ((int) crc.getValue() != checksum) break;
+
+            payload.flip();
+            consumer.accept(payload);
+            position += HEADER_BYTES + length;
+        }
+        return position;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position + buffer.position());
+            if (n < 0) throw new IOException("Unexpected end of journal");
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.grievance.events;
+
+import com.grievance.model.GrievanceEvent;
+import java.util.List;
+
+/**
+ * Read side of the event outbox. Events are written by the repositories in the same transaction
+ * as the change they describe; this interface lets an {@link OutboxDispatcher} tail them and keep
+ * a delivery position per subscriber.
+ * <p>
+ * Failures are reported the way the repositories report them: a message on stderr and an empty,
+ * negative or false result.
+ */
+public interface EventOutbox {
+
+    /** @return up to {@code limit} events with an ID above {@code afterId}, in ID order. */
+    List<GrievanceEvent> readAfter(long afterId, int limit);
+
+    /** @return the ID of the newest event recorded, 0 if there are none, or -1 if the lookup failed. */
+    long getLastEventId();
+
+    /** @return the last event ID delivered to the consumer, 0 if it has none, or -1 if the lookup failed. */
+    long getOffset(String consumer);
+
+    /** Records that the consumer has handled every event up to and including {@code eventId}. */
+    boolean saveOffset(String consumer, long eventId);
+
+    /** Deletes events up to and including {@code eventId}. @return how many were deleted. */
+    int purgeUpTo(long eventId);
+}
@@ -0,0 +1,23 @@
+package com.grievance.events;
+
+import com.grievance.model.GrievanceEvent;
+import java.util.List;
+
+/**
+ * Receives grievance events from an {@link OutboxDispatcher}.
+ * <p>
+ * Delivery is at-least-once: a batch that throws is offered again later, and a batch handled just
+ * before a crash may be offered again after the restart. Subscribers should therefore tolerate seeing
+ * an event twice (the event ID identifies it).
+ */
+public interface EventSubscriber {
+
+    /** @return a stable name; the dispatcher stores this subscriber's position under it. */
+    String getName();
+
+    /**
+     * Handles a batch of events in ID order. Runs on the dispatcher thread.
+     * @throws Exception to have the whole batch retried after a back-off.
+     */
+    void onEvents(List<GrievanceEvent> events) throws Exception;
+}
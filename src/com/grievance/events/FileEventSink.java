@@ -0,0 +1,65 @@
+package com.grievance.events;
+
+import com.grievance.model.GrievanceEvent;
+import com.grievance.util.Json;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Appends every event to a JSON-lines file, one object per line, and forces each batch to disk
+ * before acknowledging it. A redelivered batch appears in the file twice; readers can drop repeats
+ * by {@code id}.
+ */
+public class FileEventSink implements EventSubscriber, Closeable {
+
+    private final FileChannel channel;
+
+    public FileEventSink(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public void onEvents(List<GrievanceEvent> events) throws IOException {
+        StringBuilder sb = new StringBuilder(events.size() * 160);
+        for (GrievanceEvent e : events) {
+            Json.appendValue(sb, toJson(e));
+            sb.append('\n');
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+        while (bytes.hasRemaining()) channel.write(bytes);
+        channel.force(false);
+    }
+
+    static Map<String, Object> toJson(GrievanceEvent e) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("id", e.getId());
+        m.put("type", e.getType());
+        m.put("grievanceId", e.getGrievanceId());
+        m.put("userId", e.getUserId());
+        m.put("oldStatus", e.getOldStatus());
+        m.put("newStatus", e.getNewStatus());
+        m.put("at", e.getCreatedAt());
+        return m;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
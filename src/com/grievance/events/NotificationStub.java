@@ -0,0 +1,27 @@
+package com.grievance.events;
+
+import com.grievance.model.GrievanceEvent;
+import java.util.List;
+
+/**
+ * Stand-in for the e-mail/SMS notifier: prints the message each grievance's owner would receive.
+ * A real notifier implements {@link EventSubscriber} the same way and looks up the user's contact
+ * details by {@link GrievanceEvent#getUserId()}.
+ */
+public class NotificationStub implements EventSubscriber {
+
+    @Override
+    public String getName() {
+        return "notify";
+    }
+
+    @Override
+    public void onEvents(List<GrievanceEvent> events) {
+        for (GrievanceEvent e : events) {
+            String message = e.getType() == GrievanceEvent.Type.CREATED
+                    ? "your grievance #" + e.getGrievanceId() + " has been received"
+                    : "your grievance #" + e.getGrievanceId() + " is now " + e.getNewStatus();
+            System.out.println("[notify] user " + e.getUserId() + ": " + message);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.grievance.events;
+
+import com.grievance.dao.GrievanceListener;
+import com.grievance.model.Grievance;
+import com.grievance.model.GrievanceEvent;
+import com.grievance.util.AppConfig;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tails the {@link EventOutbox} on a background thread and hands events to {@link EventSubscriber}s
+ * in batches.
+ * <p>
+ * Each subscriber has its own position, saved in the outbox after every batch it handles, so a slow
+ * or failing subscriber only holds up itself and a restart resumes where each one left off
+ * (at-least-once). A failing batch is retried with exponential back-off.
+ * <p>
+ * The write path never waits for delivery. Registered as a {@link GrievanceListener}, the dispatcher
+ * is woken by local commits; otherwise it polls every {@code events.pollMillis}, which also picks up
+ * events written by other processes.
+ * <p>
+ * Event IDs come from AUTO_INCREMENT, so a transaction still committing can leave a gap that fills in
+ * later. Delivery stops at a gap until it is {@code events.gapTimeoutMs} old; after that the missing
+ * IDs are assumed to belong to a rolled-back transaction and skipped.
+ */
+public class OutboxDispatcher implements GrievanceListener, Closeable {
+
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+
+    private final EventOutbox outbox;
+    private final List<Consumer> consumers = new ArrayList<>();
+    private final int batchSize;
+    private final long pollMillis;
+    private final long gapTimeoutMillis;
+    private final boolean purgeDelivered;
+    private final Thread thread;
+
+    private final Object lock = new Object();
+    private boolean wakeRequested;  // guarded by lock
+    private boolean closed;         // guarded by lock
+    private volatile long purgedUpTo;
+
+    public OutboxDispatcher(EventOutbox outbox, List<EventSubscriber> subscribers, int batchSize, long pollMillis,
+                            long gapTimeoutMillis, boolean purgeDelivered) {
+        if (batchSize < 1) throw new IllegalArgumentException("batchSize must be at least 1");
+        this.outbox = outbox;
+        for (EventSubscriber s : subscribers) consumers.add(new Consumer(s));
+        this.batchSize = batchSize;
+        this.pollMillis = pollMillis;
+        this.gapTimeoutMillis = gapTimeoutMillis;
+        this.purgeDelivered = purgeDelivered;
+        this.thread = new Thread(this::run, "outbox-dispatcher");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Builds a dispatcher for the subscribers named in {@code events.subscribers}
+     * ({@code file}, {@code notify}).
+     * @return the dispatcher (not yet started), or null if no subscribers are configured.
+     */
+    public static OutboxDispatcher fromConfig(EventOutbox outbox) throws IOException {
+        List<EventSubscriber> subscribers = new ArrayList<>();
+        for (String name : AppConfig.getString("events.subscribers", "").split(",")) {
+            switch (name.trim().toLowerCase(Locale.ROOT)) {
+                case "":
+                    break;
+                case "file":
+                    subscribers.add(new FileEventSink(Paths.get(AppConfig.getString("events.file.path", "data/events.jsonl"))));
+                    break;
+                case "notify":
+                    subscribers.add(new NotificationStub());
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown event subscriber '" + name.trim() + "' (expected file or notify)");
+            }
+        }
+        if (subscribers.isEmpty()) return null;
+        return new OutboxDispatcher(outbox, subscribers,
+                AppConfig.getInt("events.batchSize", 500),
+                AppConfig.getLong("events.pollMillis", 1000),
+                AppConfig.getLong("events.gapTimeoutMs", 5000),
+                AppConfig.getBoolean("events.purgeDelivered", true));
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    // --- GrievanceListener: wake up on local commits ---
+    @Override
+    public void onCreated(Grievance grievance) {
+        wake();
+    }
+
+    @Override
+    public void onStatusChanged(int grievanceId, String oldStatus, String newStatus) {
+        wake();
+    }
+
+    private void wake() {
+        synchronized (lock) {
+            wakeRequested = true;
+            lock.notifyAll();
+        }
+    }
+
+    // --- Delivery ---
+    private void run() {
+        while (true) {
+            boolean progressed = false;
+            long now = System.currentTimeMillis();
+            long nextRetry = Long.MAX_VALUE;
+            for (Consumer c : consumers) {
+                if (deliver(c, now)) progressed = true;
+                if (c.retryAt > now) nextRetry = Math.min(nextRetry, c.retryAt);
+            }
+            if (purgeDelivered) purge();
+            if (progressed) continue;
+
+            synchronized (lock) {
+                if (closed) return;
+                if (!wakeRequested) {
+                    long wait = Math.min(pollMillis, nextRetry - now);
+                    try {
+                        if (wait > 0) lock.wait(wait);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                wakeRequested = false;
+                if (closed) return;
+            }
+        }
+    }
+
+    /** @return true if a batch was delivered. */
+    private boolean deliver(Consumer c, long now) {
+        if (c.retryAt > now) return false;
+        if (c.offset < 0) {
+            c.offset = outbox.getOffset(c.subscriber.getName());
+            if (c.offset < 0) return false;
+        }
+        List<GrievanceEvent> batch = outbox.readAfter(c.offset, batchSize);
+        batch = upToGap(c, batch, now);
+        if (batch.isEmpty()) return false;
+
+        try {
+            c.subscriber.onEvents(batch);
+        } catch (Exception e) {
+            c.failures++;
+            c.failedBatches++;
+            c.retryAt = now + Math.min(MAX_BACKOFF_MILLIS, 100L << Math.min(c.failures, 20));
+            System.err.println("Event subscriber '" + c.subscriber.getName() + "' failed on events "
+                    + batch.get(0).getId() + ".." + batch.get(batch.size() - 1).getId() + ": " + e);
+            return false;
+        }
+        long last = batch.get(batch.size() - 1).getId();
+        // If saving fails the position is still advanced in memory; a restart redelivers from the saved one
+        outbox.saveOffset(c.subscriber.getName(), last);
+        c.offset = last;
+        c.failures = 0;
+        c.retryAt = 0;
+        c.delivered += batch.size();
+        c.lastDeliveredAt = System.currentTimeMillis();
+        return true;
+    }
+
+    /** @return the leading run of events with no unexplained gap before it. */
+    private List<GrievanceEvent> upToGap(Consumer c, List<GrievanceEvent> batch, long now) {
+        long expected = c.offset + 1;
+        for (int i = 0; i < batch.size(); i++) {
+            long id = batch.get(i).getId();
+            if (id == expected) {
+                expected++;
+                continue;
+            }
+            if (c.gapAt != expected) {
+                c.gapAt = expected;
+                c.gapSince = now;
+            }
+            if (now - c.gapSince < gapTimeoutMillis) return batch.subList(0, i);
+            // Old enough: the missing IDs will never commit
+            expected = id + 1;
+        }
+        return batch;
+    }
+
+    private void purge() {
+        long min = Long.MAX_VALUE;
+        for (Consumer c : consumers) {
+            if (c.offset < 0) return;
+            min = Math.min(min, c.offset);
+        }
+        if (min <= purgedUpTo) return;
+        outbox.purgeUpTo(min);
+        purgedUpTo = min;
+    }
+
+    /** Stops the dispatcher thread after the batch in progress and closes closeable subscribers. */
+    public void close(long timeout, TimeUnit unit) {
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            thread.join(unit.toMillis(timeout));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Consumer c : consumers) {
+            if (c.subscriber instanceof Closeable) {
+                try {
+                    ((Closeable) c.subscriber).close();
+                } catch (IOException e) {
+                    System.err.println("Error closing event subscriber '" + c.subscriber.getName() + "': " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        close(10, TimeUnit.SECONDS);
+    }
+
+    // --- Metrics ---
+    /** Per subscriber: position, how many events it is behind, and delivery counts. */
+    public Map<String, Object> getStats() {
+        long last = outbox.getLastEventId();
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("lastEventId", last);
+        for (Consumer c : consumers) {
+            Map<String, Object> s = new LinkedHashMap<>();
+            s.put("offset", c.offset);
+            s.put("lag", last >= 0 && c.offset >= 0 ? Math.max(0, last - c.offset) : null);
+            s.put("delivered", c.delivered);
+            s.put("failedBatches", c.failedBatches);
+            s.put("lastDeliveredAt", c.lastDeliveredAt == 0 ? null : new Timestamp(c.lastDeliveredAt));
+            m.put(c.subscriber.getName(), s);
+        }
+        return m;
+    }
+
+    /** A subscriber and its delivery state; only touched by the dispatcher thread except for stats. */
+    private static final class Consumer {
+        final EventSubscriber subscriber;
+        volatile long offset = -1;
+        volatile long delivered;
+        volatile long failedBatches;
+        volatile long lastDeliveredAt;
+        int failures;
+        long retryAt;
+        long gapAt = -1;
+        long gapSince;
+
+        Consumer(EventSubscriber subscriber) {
+            this.subscriber = subscriber;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.grievance.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Buffered UTF-8 text output to a {@link WritableByteChannel}.
+ * <p>
+ * Characters are encoded straight into one reusable byte buffer, which is written to the channel
+ * whenever it fills, so writing a row creates no intermediate strings or byte arrays.
+ */
+final class ChannelWriter implements Closeable {
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private long bytesWritten;
+
+    ChannelWriter(WritableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    /** Encodes the text into the buffer, writing the buffer out as often as it fills. */
+    void write(CharSequence text) throws IOException {
+        CharBuffer in = CharBuffer.wrap(text);
+        while (true) {
+            CoderResult result = encoder.encode(in, buffer, true);
+            if (result.isUnderflow()) break;
+            if (result.isOverflow()) {
+                drain();
+            } else {
+                result.throwException();
+            }
+        }
+        while (encoder.flush(buffer).isOverflow()) drain();
+        encoder.reset();
+    }
+
+    /** @return bytes handed to the channel so far (before any compression the channel applies). */
+    long getBytesWritten() {
+        return bytesWritten + buffer.position();
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        bytesWritten += buffer.remaining();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+
+    /** Writes out whatever is buffered and closes the channel. */
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.grievance.export;
+
+import com.grievance.dao.GrievanceRepository;
+import com.grievance.dao.UserRepository;
+import com.grievance.model.Grievance;
+import com.grievance.model.GrievanceStatus;
+import com.grievance.model.User;
+import com.grievance.util.Json;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes grievances or users to a CSV or JSON-lines file, straight from the repository's row stream.
+ * <p>
+ * Each row is formatted into one reused {@link StringBuilder} and encoded into a fixed-size buffer
+ * that is flushed to a {@link FileChannel}, so memory use does not depend on the number of rows.
+ * The format comes from the file name:
+ * <ul>
+ *   <li>{@code .csv}: a header row, then RFC 4180 quoting where needed.</li>
+ *   <li>{@code .jsonl} or {@code .ndjson}: one object per line.</li>
+ *   <li>either with {@code .gz} appended: the same, gzip-compressed.</li>
+ * </ul>
+ * Columns use the database names, so a grievance export can be read back by
+ * {@link com.grievance.ingest.GrievanceImporter}. Times are ISO-8601 instants; user exports never
+ * include password hashes. A failed export deletes the partly written file.
+ */
+public class ReportExporter {
+
+    public enum Format { CSV, JSONL }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String[] GRIEVANCE_COLUMNS = {
+            "id", "user_id", "title", "description", "status", "priority", "version", "created_at", "resolved_at"
+    };
+    private static final String[] USER_COLUMNS = { "id", "username", "role", "created_at" };
+
+    private final GrievanceRepository grievanceDAO;
+    private final UserRepository userDAO;
+
+    public ReportExporter(GrievanceRepository grievanceDAO, UserRepository userDAO) {
+        this.grievanceDAO = grievanceDAO;
+        this.userDAO = userDAO;
+    }
+
+    /**
+     * Exports grievances in ID order.
+     * @param status only grievances in this status, or null for any.
+     * @param createdFrom only grievances created at or after this time, or null.
+     * @param createdTo only grievances created before this time, or null.
+     * @throws IOException if the file cannot be written or its name has no supported extension.
+     * @throws SQLException if the grievances cannot be read.
+     */
+    public ExportResult exportGrievances(Path file, GrievanceStatus status, Timestamp createdFrom, Timestamp createdTo)
+            throws IOException, SQLException {
+        Format format = formatOf(file);
+        try (Stream<Grievance> rows = grievanceDAO.streamGrievances(status, createdFrom, createdTo)) {
+            return export(file, format, GRIEVANCE_COLUMNS, rows.iterator(), (out, g) -> {
+                out.value(g.getId());
+                out.value(g.getUserId());
+                out.value(g.getTitle());
+                out.value(g.getDescription());
+                out.value(g.getStatus());
+                out.value(g.getPriority());
+                out.value(g.getVersion());
+                out.value(g.getCreatedAt());
+                out.value(g.getResolvedAt());
+            });
+        }
+    }
+
+    /**
+     * Exports every user in ID order (ID, username, role, created_at).
+     * @throws IOException if the file cannot be written or its name has no supported extension.
+     * @throws SQLException if the users cannot be read.
+     */
+    public ExportResult exportUsers(Path file) throws IOException, SQLException {
+        Format format = formatOf(file);
+        try (Stream<User> rows = userDAO.streamUsers()) {
+            return export(file, format, USER_COLUMNS, rows.iterator(), (out, u) -> {
+                out.value(u.getId());
+                out.value(u.getUsername());
+                out.value(u.getRole());
+                out.value(u.getCreatedAt());
+            });
+        }
+    }
+
+    /**
+     * @return the format for the file name, ignoring a trailing {@code .gz}.
+     * @throws IOException if the extension is not supported.
+     */
+    public static Format formatOf(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".gz")) name = name.substring(0, name.length() - 3);
+        if (name.endsWith(".csv")) return Format.CSV;
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) return Format.JSONL;
+        throw new IOException("Unsupported file type (expected .csv, .jsonl or either with .gz): " + file);
+    }
+
+    private static boolean isGzip(Path file) {
+        return file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".gz");
+    }
+
+    // --- Writing ---
+    @FunctionalInterface
+    private interface RowFormatter<T> {
+        void format(RowBuilder out, T row);
+    }
+
+    private static <T> ExportResult export(Path file, Format format, String[] columns, Iterator<T> rows,
+                                           RowFormatter<T> formatter) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+
+        ExportResult result = new ExportResult(file);
+        long start = System.nanoTime();
+        boolean done = false;
+        try {
+            try (ChannelWriter writer = new ChannelWriter(open(file), BUFFER_SIZE)) {
+                RowBuilder out = new RowBuilder(format, columns);
+                if (format == Format.CSV) writer.write(out.header());
+                while (rows.hasNext()) {
+                    formatter.format(out.begin(), rows.next());
+                    writer.write(out.end());
+                    result.rows++;
+                }
+                result.bytesWritten = writer.getBytesWritten();
+            }
+            done = true;
+        } finally {
+            if (!done) Files.deleteIfExists(file);
+        }
+        result.fileSize = Files.size(file);
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    private static WritableByteChannel open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        if (!isGzip(file)) return channel;
+        try {
+            OutputStream gzip = new GZIPOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+            return Channels.newChannel(gzip);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** Formats one row at a time into a reused buffer. */
+    private static final class RowBuilder {
+        private final Format format;
+        private final String[] columns;
+        private final StringBuilder sb = new StringBuilder(512);
+        private int column;
+
+        RowBuilder(Format format, String[] columns) {
+            this.format = format;
+            this.columns = columns;
+        }
+
+        CharSequence header() {
+            sb.setLength(0);
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) sb.append(',');
+                sb.append(columns[i]);
+            }
+            return sb.append('\n');
+        }
+
+        RowBuilder begin() {
+            sb.setLength(0);
+            column = 0;
+            if (format == Format.JSONL) sb.append('{');
+            return this;
+        }
+
+        CharSequence end() {
+            if (format == Format.JSONL) sb.append('}');
+            return sb.append('\n');
+        }
+
+        void value(long value) {
+            separator();
+            sb.append(value);
+        }
+
+        void value(Timestamp value) {
+            value(value == null ? null : value.toInstant().toString());
+        }
+
+        void value(String value) {
+            separator();
+            if (format == Format.JSONL) {
+                if (value == null) {
+                    sb.append("null");
+                } else {
+                    Json.appendQuoted(sb, value);
+                }
+            } else if (value != null) {
+                appendCsv(value);
+            }
+        }
+
+        private void separator() {
+            if (column > 0) sb.append(',');
+            if (format == Format.JSONL) {
+                Json.appendQuoted(sb, columns[column]);
+                sb.append(':');
+            }
+            column++;
+        }
+
+        private void appendCsv(String value) {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                sb.append(value);
+                return;
+            }
+            sb.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') sb.append('"');
+                sb.append(c);
+            }
+            sb.append('"');
+        }
+    }
+
+    /**
+     * Outcome of an export.
+     */
+    public static class ExportResult {
+        private final Path file;
+        private long rows;
+        private long bytesWritten;
+        private long fileSize;
+        private long elapsedNanos;
+
+        ExportResult(Path file) {
+            this.file = file;
+        }
+
+        public Path getFile() { return file; }
+        public long getRows() { return rows; }
+        /** @return bytes of CSV or JSON produced, before compression. */
+        public long getBytesWritten() { return bytesWritten; }
+        public long getFileSize() { return fileSize; }
+        public long getElapsedNanos() { return elapsedNanos; }
+
+        public double getRowsPerSecond() {
+            return elapsedNanos == 0 ? 0 : rows / (elapsedNanos / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Exported %d rows to %s (%d bytes) in %.2fs (%.0f rows/sec)",
+                    rows, file, fileSize, elapsedNanos / 1e9, getRowsPerSecond());
+        }
+    }
+}
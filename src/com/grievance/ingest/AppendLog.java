@@ -0,0 +1,211 @@
+package com.grievance.ingest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.ObjLongConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead log with group commit and a checkpoint of how far it has been applied.
+ * <p>
+ * Records are framed as {@code [int length][int crc32][payload]} in {@code ingest.log}. Appends
+ * only write; {@link #syncTo} makes them durable, and one {@code force} covers every record written
+ * before it started, so concurrent writers share the cost of a sync. {@code ingest.checkpoint}
+ * holds the offset up to which records have been applied and need not be replayed.
+ */
+final class AppendLog implements Closeable {
+
+    private static final String LOG_FILE = "ingest.log";
+    private static final String CHECKPOINT_FILE = "ingest.checkpoint";
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final FileChannel checkpointChannel;
+    private final Object syncLock = new Object();
+    private final CRC32 crc = new CRC32();      // guarded by this
+
+    private long written;                        // guarded by this
+    private volatile long durable;
+    private volatile long checkpoint;
+    private long syncs;                          // guarded by syncLock
+
+    private AppendLog(FileChannel channel, FileChannel checkpointChannel, long written, long checkpoint) {
+        this.channel = channel;
+        this.checkpointChannel = checkpointChannel;
+        this.written = written;
+        this.durable = written;
+        this.checkpoint = checkpoint;
+    }
+
+    /**
+     * Opens the log in {@code dir}, truncating an incomplete tail left by a crash.
+     * @param replay receives each record past the checkpoint with the offset just after it.
+     */
+    static AppendLog open(Path dir, ObjLongConsumer<ByteBuffer> replay) throws IOException {
+        Files.createDirectories(dir);
+        FileChannel checkpointChannel = FileChannel.open(dir.resolve(CHECKPOINT_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(dir.resolve(LOG_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long checkpoint = readCheckpoint(checkpointChannel);
+            if (checkpoint > channel.size()) {
+                // The log was reset but the crash came before the checkpoint was rewritten. Rewrite it
+                // now, or it would hide the records appended next once the log grows past it
+                checkpoint = 0;
+                writeCheckpoint(checkpointChannel, 0);
+            }
+            long end = replay(channel, checkpoint, replay);
+            if (end < channel.size()) {
+                System.err.println("Discarding " + (channel.size() - end) + " bytes of incomplete ingest log tail");
+                channel.truncate(end);
+                channel.force(true);
+            }
+            channel.position(end);
+            return new AppendLog(channel, checkpointChannel, end, checkpoint);
+        } catch (IOException | RuntimeException e) {
+            if (channel != null) channel.close();
+            checkpointChannel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes a record without forcing it to disk.
+     * @return the offset just after the record; pass it to {@link #syncTo}.
+     */
+    synchronized long append(byte[] record) throws IOException {
+        crc.reset();
+        crc.update(record);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + record.length);
+        buffer.putInt(record.length).putInt((int) crc.getValue()).put(record).flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        written += HEADER_BYTES + record.length;
+        return written;
+    }
+
+    /**
+     * Returns once everything up to {@code offset} is on disk. If another thread is already syncing,
+     * waits for it and then syncs whatever has been written since, in one go.
+     */
+    void syncTo(long offset) throws IOException {
+        if (durable >= offset) return;
+        synchronized (syncLock) {
+            if (durable >= offset) return;
+            long target;
+            synchronized (this) {
+                target = written;
+            }
+            channel.force(false);
+            syncs++;
+            durable = target;
+        }
+    }
+
+    /** Records that everything up to {@code offset} has been applied, so it is not replayed on restart. */
+    void checkpoint(long offset) throws IOException {
+        writeCheckpoint(checkpointChannel, offset);
+        checkpoint = offset;
+    }
+
+    /**
+     * Empties the log if every record in it has been applied. The caller must make sure no
+     * append runs concurrently.
+     */
+    void resetIfApplied() throws IOException {
+        synchronized (syncLock) {
+            synchronized (this) {
+                if (checkpoint != written) return;
+                // Truncate first: a crash before the checkpoint is rewritten leaves a checkpoint
+                // past the end of the log, which open() treats as zero
+                channel.truncate(0);
+                channel.position(0);
+                channel.force(true);
+                written = 0;
+                durable = 0;
+                checkpoint(0);
+            }
+        }
+    }
+
+    synchronized long size() {
+        return written;
+    }
+
+    long getCheckpoint() {
+        return checkpoint;
+    }
+
+    long getSyncCount() {
+        synchronized (syncLock) {
+            return syncs;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            channel.close();
+        } finally {
+            checkpointChannel.close();
+        }
+    }
+
+    private static void writeCheckpoint(FileChannel channel, long offset) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES).putLong(offset);
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer, buffer.position());
+        channel.force(false);
+    }
+
+    private static long readCheckpoint(FileChannel channel) throws IOException {
+        if (channel.size() < Long.BYTES) return 0;
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, buffer.position()) < 0) return 0;
+        }
+        buffer.flip();
+        return Math.max(0, buffer.getLong());
+    }
+
+    /** @return the offset just past the last complete record. */
+    private static long replay(FileChannel channel, long from, ObjLongConsumer<ByteBuffer> consumer) throws IOException {
+        long size = channel.size();
+        long position = from;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        CRC32 crc = new CRC32();
+        while (position + HEADER_BYTES <= size) {
+            header.clear();
+            readFully(channel, header, position);
+            header.flip();
+            int length = header.getInt();
+            int checksum = header.getInt();
+            if (length < 0 || length > MAX_RECORD_BYTES || position + HEADER_BYTES + length > size) break;
+
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(channel, payload, position + HEADER_BYTES);
+            crc.reset();
+            crc.update(payload.array());
+            if ((int) crc.getValue() != checksum) break;
+
+            payload.flip();
+            position += HEADER_BYTES + length;
+            consumer.accept(payload, position);
+        }
+        return position;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position + buffer.position());
+            if (n < 0) throw new IOException("Unexpected end of ingest log");
+        }
+    }
+}
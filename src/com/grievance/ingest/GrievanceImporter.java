@@ -0,0 +1,236 @@
+package com.grievance.ingest;
+
+import com.grievance.dao.GrievanceRepository;
+import com.grievance.model.Grievance;
+import com.grievance.util.Json;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streams grievances from a CSV or JSON-lines file into {@link GrievanceRepository#createGrievances}.
+ * <p>
+ * The file is read one record at a time and handed to the DAO in chunks of {@code batchSize},
+ * so memory use is bounded by the chunk size, not the file size.
+ * <ul>
+ *   <li>CSV ({@code .csv}): a header row naming {@code user_id}, {@code title} and {@code description}
+ *       in any order; RFC 4180 quoting, including quoted fields that span lines.</li>
+ *   <li>JSON lines ({@code .jsonl}, {@code .ndjson}, {@code .json}): one object per line with
+ *       {@code user_id} (or {@code userId}), {@code title} and {@code description}.</li>
+ * </ul>
+ * Malformed records are reported with their line number and skipped.
+ */
+public class GrievanceImporter {
+
+    private final GrievanceRepository grievanceDAO;
+    private final int batchSize;
+
+    public GrievanceImporter(GrievanceRepository grievanceDAO, int batchSize) {
+        if (batchSize < 1) throw new IllegalArgumentException("batchSize must be at least 1");
+        this.grievanceDAO = grievanceDAO;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Imports the file, choosing the format from its extension.
+     * @return counts of what was read, inserted and skipped.
+     * @throws IOException if the file cannot be read.
+     */
+    public ImportResult importFile(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        boolean csv = name.endsWith(".csv");
+        if (!csv && !(name.endsWith(".jsonl") || name.endsWith(".ndjson") || name.endsWith(".json"))) {
+            throw new IOException("Unsupported file type (expected .csv or .jsonl): " + file);
+        }
+
+        ImportResult result = new ImportResult();
+        long start = System.nanoTime();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            if (csv) {
+                importCsv(reader, result);
+            } else {
+                importJsonLines(reader, result);
+            }
+        }
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    private void importJsonLines(BufferedReader reader, ImportResult result) throws IOException {
+        List<Grievance> chunk = new ArrayList<>(batchSize);
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty()) continue;
+            result.read++;
+            try {
+                Map<String, Object> obj = Json.parseObject(line);
+                Object userId = obj.containsKey("user_id") ? obj.get("user_id") : obj.get("userId");
+                chunk.add(toGrievance(userId == null ? null : userId.toString(),
+                        asString(obj.get("title")), asString(obj.get("description"))));
+            } catch (IllegalArgumentException e) {
+                skip(result, lineNumber, e.getMessage());
+                continue;
+            }
+            if (chunk.size() == batchSize) flush(chunk, result);
+        }
+        flush(chunk, result);
+    }
+
+    private void importCsv(BufferedReader reader, ImportResult result) throws IOException {
+        long[] lineNumber = { 0 };
+        List<String> header = readCsvRecord(reader, lineNumber);
+        if (header == null) return;
+
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        Integer userCol = columns.containsKey("user_id") ? columns.get("user_id") : columns.get("userid");
+        Integer titleCol = columns.get("title");
+        Integer descCol = columns.get("description");
+        if (userCol == null || titleCol == null || descCol == null) {
+            throw new IOException("CSV header must contain user_id, title and description columns.");
+        }
+
+        List<Grievance> chunk = new ArrayList<>(batchSize);
+        List<String> record;
+        while (true) {
+            long recordLine = lineNumber[0] + 1;
+            record = readCsvRecord(reader, lineNumber);
+            if (record == null) break;
+            if (record.size() == 1 && record.get(0).isEmpty()) continue;
+            result.read++;
+            try {
+                chunk.add(toGrievance(field(record, userCol), field(record, titleCol), field(record, descCol)));
+            } catch (IllegalArgumentException e) {
+                skip(result, recordLine, e.getMessage());
+                continue;
+            }
+            if (chunk.size() == batchSize) flush(chunk, result);
+        }
+        flush(chunk, result);
+    }
+
+    /**
+     * Reads one CSV record, following quoted fields across line breaks.
+     * @return the fields, or null at end of input.
+     */
+    static List<String> readCsvRecord(BufferedReader reader, long[] lineNumber) throws IOException {
+        String line = reader.readLine();
+        if (line == null) return null;
+        lineNumber[0]++;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i >= line.length()) {
+                if (!quoted) break;
+                // Quoted field continues on the next line
+                String next = reader.readLine();
+                if (next == null) throw new IOException("Unterminated quoted field at line " + lineNumber[0]);
+                lineNumber[0]++;
+                field.append('\n');
+                line = next;
+                i = 0;
+                continue;
+            }
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c == '"') {
+                    if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String field(List<String> record, int index) {
+        return index < record.size() ? record.get(index) : null;
+    }
+
+    private static String asString(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    private static Grievance toGrievance(String userId, String title, String description) {
+        if (userId == null || userId.trim().isEmpty()) throw new IllegalArgumentException("missing user_id");
+        if (title == null || title.trim().isEmpty()) throw new IllegalArgumentException("missing title");
+        if (description == null || description.trim().isEmpty()) throw new IllegalArgumentException("missing description");
+        if (title.length() > 255) throw new IllegalArgumentException("title longer than 255 characters");
+        int id;
+        try {
+            id = Integer.parseInt(userId.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid user_id '" + userId + "'");
+        }
+        return new Grievance(id, title, description);
+    }
+
+    private void flush(List<Grievance> chunk, ImportResult result) {
+        if (chunk.isEmpty()) return;
+        int[] ids = grievanceDAO.createGrievances(chunk, batchSize);
+        result.inserted += ids.length;
+        result.failed += chunk.size() - ids.length;
+        chunk.clear();
+    }
+
+    private static void skip(ImportResult result, long lineNumber, String reason) {
+        result.skipped++;
+        System.err.println("Skipping record at line " + lineNumber + ": " + reason);
+    }
+
+    /**
+     * Outcome of an import.
+     */
+    public static class ImportResult {
+        private long read;
+        private long inserted;
+        private long skipped;
+        private long failed;
+        private long elapsedNanos;
+
+        public long getRead() { return read; }
+        public long getInserted() { return inserted; }
+        /** @return records rejected as malformed before reaching the database. */
+        public long getSkipped() { return skipped; }
+        /** @return well-formed records whose chunk failed to insert. */
+        public long getFailed() { return failed; }
+        public long getElapsedNanos() { return elapsedNanos; }
+
+        public double getRowsPerSecond() {
+            return elapsedNanos == 0 ? 0 : inserted / (elapsedNanos / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Read %d, inserted %d, skipped %d, failed %d in %.2fs (%.0f rows/sec)",
+                    read, inserted, skipped, failed, elapsedNanos / 1e9, getRowsPerSecond());
+        }
+    }
+}
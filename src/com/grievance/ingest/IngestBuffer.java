@@ -0,0 +1,397 @@
+package com.grievance.ingest;
+
+import com.grievance.dao.BatchInsertException;
+import com.grievance.dao.GrievanceRepository;
+import com.grievance.model.Grievance;
+import com.grievance.util.AppConfig;
+import com.grievance.util.Json;
+import com.grievance.util.LogHistogram;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accepts grievance submissions faster than the database can commit them one by one.
+ * <p>
+ * {@link #submit} appends the grievance to a local write-ahead log and returns as soon as it is on
+ * disk; submitters arriving together share one sync. A background thread drains the log to the
+ * repository with {@link GrievanceRepository#createGrievances(java.util.Collection, int)}, one
+ * transaction per batch, and advances the log's checkpoint after each commit. On startup, records
+ * past the checkpoint are queued again, so nothing acknowledged is lost.
+ * <p>
+ * Delivery is at-least-once: if the process dies after a batch commits but before the checkpoint is
+ * written, that batch is inserted a second time on restart. The grievance keeps the time it was
+ * submitted as its {@code created_at}, not the time it reached the database.
+ * <p>
+ * A batch that fails because of a connection or server problem is retried with back-off. One that
+ * the database rejects for its data (e.g. a submitter deleted before the drain) is retried row by
+ * row; a row that is rejected on its own is appended to {@code dead-letter.jsonl} in the log
+ * directory, in the import file format, and skipped, so it cannot hold up the rows behind it.
+ */
+public class IngestBuffer implements Closeable {
+
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+    private static final String DEAD_LETTER_FILE = "dead-letter.jsonl";
+
+    private final GrievanceRepository grievanceDAO;
+    private final AppendLog log;
+    private final Path deadLetterFile;
+    private final int batchSize;
+    private final int maxPending;
+    private final long compactBytes;
+    private final Thread drainer;
+
+    private final Object lock = new Object();
+    private final ArrayDeque<Pending> pending = new ArrayDeque<>();   // guarded by lock, in log order
+    private boolean closed;                                           // guarded by lock
+
+    private final LogHistogram ackMicros = new LogHistogram();
+    private final LogHistogram lagMillis = new LogHistogram();
+    private volatile long submitted;
+    private volatile long replayed;
+    private volatile long drained;
+    private volatile long batches;
+    private volatile long failedBatches;
+    private volatile long deadLettered;
+    private final long startedAt = System.currentTimeMillis();
+
+    /**
+     * Opens (or creates) the log in {@code dir} and starts draining it, beginning with any records
+     * left over from the previous run.
+     * @param batchSize rows per database transaction.
+     * @param maxPending submissions that may wait for the database before {@link #submit} refuses more.
+     * @param compactBytes log size above which it is emptied once everything in it has been drained.
+     */
+    public IngestBuffer(GrievanceRepository grievanceDAO, Path dir, int batchSize, int maxPending, long compactBytes)
+            throws IOException {
+        if (batchSize < 1) throw new IllegalArgumentException("batchSize must be at least 1");
+        this.grievanceDAO = grievanceDAO;
+        this.batchSize = batchSize;
+        this.maxPending = Math.max(batchSize, maxPending);
+        this.compactBytes = compactBytes;
+        this.deadLetterFile = dir.resolve(DEAD_LETTER_FILE);
+        this.log = AppendLog.open(dir, (record, end) -> pending.addLast(new Pending(decode(record), end)));
+        this.replayed = pending.size();
+        if (replayed > 0) {
+            System.out.println("Re-queued " + replayed + " grievance submissions from the ingest log.");
+        }
+
+        drainer = new Thread(this::drainLoop, "ingest-drainer");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    /** Builds a buffer from the {@code ingest.buffer.*} settings. */
+    public static IngestBuffer fromConfig(GrievanceRepository grievanceDAO) throws IOException {
+        int batchSize = AppConfig.getInt("ingest.buffer.batchSize", AppConfig.getInt("db.batch.size", 500));
+        return new IngestBuffer(grievanceDAO,
+                Paths.get(AppConfig.getString("ingest.buffer.dir", "data/ingest")),
+                batchSize,
+                AppConfig.getInt("ingest.buffer.maxPending", 100_000),
+                AppConfig.getLong("ingest.buffer.compactBytes", 64L * 1024 * 1024));
+    }
+
+    /**
+     * Durably records a new grievance for insertion. Its ID is not known yet; the row appears in
+     * listings once the drainer has committed it.
+     * @return the submission's sequence number in this process.
+     * @throws RejectedExecutionException if {@code maxPending} submissions are already waiting, or the buffer is closed.
+     * @throws IOException if the log could not be written; the submission may or may not be stored.
+     */
+    public long submit(Grievance grievance) throws IOException {
+        long start = System.nanoTime();
+        Grievance copy = new Grievance(grievance.getUserId(), grievance.getTitle(), grievance.getDescription());
+        copy.setCreatedAt(new Timestamp(System.currentTimeMillis()));
+        byte[] record = encode(copy);
+
+        long end;
+        long sequence;
+        synchronized (lock) {
+            if (closed) throw new RejectedExecutionException("Ingest buffer is closed");
+            if (pending.size() >= maxPending) {
+                throw new RejectedExecutionException("Ingest buffer is full (" + maxPending + " pending)");
+            }
+            // Appending and queueing under one lock keeps the queue in log order
+            end = log.append(record);
+            pending.addLast(new Pending(copy, end));
+            sequence = ++submitted;
+            lock.notifyAll();
+        }
+        log.syncTo(end);
+        ackMicros.record((System.nanoTime() - start) / 1000);
+        return sequence;
+    }
+
+    /**
+     * Stops accepting submissions and waits up to {@code timeout} for the queue to drain. Whatever is
+     * left stays in the log and is drained on the next start.
+     */
+    public void close(long timeout, TimeUnit unit) throws IOException {
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            drainer.join(unit.toMillis(timeout));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drainer.interrupt();
+        try {
+            drainer.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.close();
+    }
+
+    @Override
+    public void close() throws IOException {
+        close(10, TimeUnit.SECONDS);
+    }
+
+    // --- Draining ---
+    private void drainLoop() {
+        long backoff = 100;
+        long isolateThrough = -1;   // rows up to this log offset are inserted one at a time
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (true) {
+            batch.clear();
+            synchronized (lock) {
+                while (pending.isEmpty() && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pending.isEmpty()) return;
+                int limit = pending.peekFirst().end <= isolateThrough ? 1 : batchSize;
+                Iterator<Pending> it = pending.iterator();
+                while (it.hasNext() && batch.size() < limit) batch.add(it.next());
+            }
+
+            int committed = 0;
+            int skipped = 0;
+            BatchInsertException failure = null;
+            try {
+                // Never insert a row whose submission is not yet durable
+                log.syncTo(batch.get(batch.size() - 1).end);
+                try {
+                    committed = insert(batch);
+                } catch (BatchInsertException e) {
+                    failure = e;
+                    committed = e.getCommittedIds().length;
+                    System.err.println("Error draining ingest buffer after " + committed + " rows: " + e.getMessage());
+                }
+                if (failure != null && failure.isPermanent() && batch.size() == 1) {
+                    deadLetter(batch.get(0), failure);
+                    skipped = 1;
+                }
+                if (committed + skipped > 0) log.checkpoint(batch.get(committed + skipped - 1).end);
+            } catch (IOException e) {
+                System.err.println("Ingest log error: " + e.getMessage());
+                failure = new BatchInsertException(new int[0], e, false);   // back off, whatever the insert did
+            }
+
+            long now = System.currentTimeMillis();
+            synchronized (lock) {
+                for (int i = 0; i < committed; i++) {
+                    Pending p = pending.removeFirst();
+                    lagMillis.record(now - p.grievance.getCreatedAt().getTime());
+                }
+                for (int i = 0; i < skipped; i++) pending.removeFirst();
+            }
+            drained += committed;
+            deadLettered += skipped;
+
+            if (failure == null || skipped > 0) {
+                if (failure == null) batches++;
+                backoff = 100;
+                compactIfIdle();
+                continue;
+            }
+            failedBatches++;
+            if (failure.isPermanent()) {
+                // Find the offending row(s): retry the rest of this batch one row at a time, right away
+                isolateThrough = batch.get(batch.size() - 1).end;
+                continue;
+            }
+            if (!sleep(backoff)) return;
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+        }
+    }
+
+    /** @return how many rows were committed (all of them). */
+    private int insert(List<Pending> batch) throws BatchInsertException {
+        List<Grievance> rows = new ArrayList<>(batch.size());
+        for (Pending p : batch) rows.add(p.grievance);
+        try {
+            return grievanceDAO.insertGrievances(rows, batchSize).length;
+        } catch (RuntimeException e) {
+            throw new BatchInsertException(new int[0], e, false);
+        }
+    }
+
+    /**
+     * Appends a submission the database will never accept to the dead-letter file, durably, before
+     * the log is checkpointed past it. Each line can be fixed up and loaded with {@code --import}.
+     */
+    private void deadLetter(Pending p, BatchInsertException cause) throws IOException {
+        Grievance g = p.grievance;
+        StringBuilder sb = new StringBuilder(256);
+        sb.append("{\"user_id\":").append(g.getUserId());
+        sb.append(",\"title\":");
+        Json.appendQuoted(sb, g.getTitle());
+        sb.append(",\"description\":");
+        Json.appendQuoted(sb, g.getDescription());
+        sb.append(",\"created_at\":");
+        Json.appendQuoted(sb, g.getCreatedAt().toInstant().toString());
+        sb.append(",\"error\":");
+        Json.appendQuoted(sb, cause.getMessage());
+        sb.append("}\n");
+
+        ByteBuffer bytes = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+        try (FileChannel out = FileChannel.open(deadLetterFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (bytes.hasRemaining()) out.write(bytes);
+            out.force(false);
+        }
+        System.err.println("Moved an undeliverable grievance submission from user " + g.getUserId()
+                + " to " + deadLetterFile + ": " + cause.getMessage());
+    }
+
+    private void compactIfIdle() {
+        synchronized (lock) {
+            if (!pending.isEmpty() || log.size() < compactBytes) return;
+            try {
+                log.resetIfApplied();
+            } catch (IOException e) {
+                System.err.println("Ingest log error while compacting: " + e.getMessage());
+            }
+        }
+    }
+
+    private boolean sleep(long millis) {
+        synchronized (lock) {
+            if (closed) return false;
+            try {
+                lock.wait(millis);
+            } catch (InterruptedException e) {
+                return false;
+            }
+            return true;
+        }
+    }
+
+    // --- Metrics ---
+    /**
+     * Lag and throughput figures: {@code pending} submissions and the age of the oldest one show how
+     * far the database is behind; {@code drainedPerSecond} is averaged since start.
+     */
+    public Map<String, Object> getStats() {
+        int queued;
+        long oldestMillis = 0;
+        synchronized (lock) {
+            queued = pending.size();
+            Pending head = pending.peekFirst();
+            if (head != null) oldestMillis = System.currentTimeMillis() - head.grievance.getCreatedAt().getTime();
+        }
+        double seconds = Math.max(1, System.currentTimeMillis() - startedAt) / 1000.0;
+        long logSyncs = log.getSyncCount();
+
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("submitted", submitted);
+        m.put("replayed", replayed);
+        m.put("drained", drained);
+        m.put("pending", queued);
+        m.put("oldestPendingMillis", oldestMillis);
+        m.put("deadLettered", deadLettered);
+        m.put("batches", batches);
+        m.put("failedBatches", failedBatches);
+        m.put("logBytes", log.size());
+        m.put("logSyncs", logSyncs);
+        m.put("submissionsPerSync", logSyncs == 0 ? 0 : submitted / (double) logSyncs);
+        m.put("submittedPerSecond", submitted / seconds);
+        m.put("drainedPerSecond", drained / seconds);
+        m.put("ackP50Micros", ackMicros.getValueAtPercentile(50));
+        m.put("ackP99Micros", ackMicros.getValueAtPercentile(99));
+        m.put("lagP50Millis", lagMillis.getValueAtPercentile(50));
+        m.put("lagP99Millis", lagMillis.getValueAtPercentile(99));
+        return m;
+    }
+
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    // --- Record format ---
+    private static byte[] encode(Grievance g) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(g.getUserId());
+            out.writeLong(g.getCreatedAt().getTime());
+            writeString(out, g.getTitle());
+            writeString(out, g.getDescription());
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // in-memory stream
+        }
+    }
+
+    private static Grievance decode(ByteBuffer in) {
+        int userId = in.getInt();
+        long createdAt = in.getLong();
+        Grievance g = new Grievance(userId, readString(in), readString(in));
+        g.setCreatedAt(new Timestamp(createdAt));
+        return g;
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) return null;
+        String s = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return s;
+    }
+
+    private static final class Pending {
+        final Grievance grievance;
+        final long end;
+
+        Pending(Grievance grievance, long end) {
+            this.grievance = grievance;
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.grievance.metrics;
+
+import com.grievance.util.AppConfig;
+import com.grievance.util.ConnectionPool;
+import com.grievance.util.DBUtil;
+import com.grievance.util.LogHistogram;
+import com.grievance.util.StatementCache;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Process-wide registry of repository call metrics.
+ * <p>
+ * {@link MetricsProxy} times every repository call and keeps track of the call running on each
+ * thread, so the JDBC statements opened during it ({@link JdbcMetrics}) can attribute rows, bytes
+ * and SQL errors to it. The figures are published as the MBean {@value #OBJECT_NAME} and in the
+ * Prometheus text format by {@link #prometheus()}.
+ */
+public final class DaoMetrics {
+
+    public static final String OBJECT_NAME = "com.grievance:type=DaoMetrics";
+
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.99, 0.999 };
+
+    private static final boolean ENABLED = AppConfig.getBoolean("metrics.enabled", true);
+    private static final ConcurrentHashMap<String, OperationStats> OPERATIONS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Call> CURRENT = new ThreadLocal<>();
+    private static final LongAdder SLOW_QUERIES = new LongAdder();
+    private static final long SLOW_QUERY_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(AppConfig.getLong("metrics.slowQueryMillis", 500));
+    private static boolean mbeanRegistered;
+
+    private DaoMetrics() {}
+
+    /** @return the stats for {@code repository.method}, created on first use. */
+    public static OperationStats operation(String repository, String method) {
+        return OPERATIONS.computeIfAbsent(repository + "." + method, k -> new OperationStats(repository, method));
+    }
+
+    /** @return every operation called so far, by name. */
+    public static List<OperationStats> operations() {
+        List<OperationStats> list = new ArrayList<>(OPERATIONS.values());
+        list.sort(Comparator.comparing(OperationStats::getName));
+        return list;
+    }
+
+    /** @return {@code metrics.enabled}: whether repositories and JDBC statements are instrumented. */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    public static long getSlowQueryCount() {
+        return SLOW_QUERIES.sum();
+    }
+
+    // --- Calls in progress ---
+    static Call begin(OperationStats stats) {
+        Call call = new Call(stats, CURRENT.get());
+        CURRENT.set(call);
+        return call;
+    }
+
+    static void end(Call call) {
+        if (call.previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(call.previous);
+        }
+    }
+
+    /** @return the operation running on this thread, or null outside a repository call. */
+    static OperationStats current() {
+        Call call = CURRENT.get();
+        return call == null ? null : call.stats;
+    }
+
+    /** Marks the call running on this thread as failed, even if the repository swallows the error. */
+    static void sqlFailed() {
+        Call call = CURRENT.get();
+        if (call != null) call.failed = true;
+    }
+
+    static boolean isSlow(long nanos) {
+        return nanos >= SLOW_QUERY_NANOS;
+    }
+
+    static void slowQuery() {
+        SLOW_QUERIES.increment();
+    }
+
+    // --- JMX ---
+    /** Registers the MBean with the platform MBean server; later calls do nothing. */
+    public static synchronized void registerMBean() {
+        if (mbeanRegistered || !AppConfig.getBoolean("metrics.jmx.enabled", true)) return;
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) server.registerMBean(new MetricsMBean(), name);
+            mbeanRegistered = true;
+        } catch (JMException e) {
+            System.err.println("Could not register metrics MBean: " + e.getMessage());
+        }
+    }
+
+    // --- Prometheus ---
+    /** @return all metrics in the Prometheus text exposition format (version 0.0.4). */
+    public static String prometheus() {
+        StringBuilder sb = new StringBuilder(4096);
+        List<OperationStats> ops = operations();
+
+        counter(sb, "grievance_dao_calls_total", "Repository method calls.", ops, OperationStats::getCalls);
+        counter(sb, "grievance_dao_errors_total", "Repository calls that threw or hit an SQL error.", ops,
+                OperationStats::getErrors);
+        counter(sb, "grievance_dao_rows_returned_total", "Rows returned by repository calls.", ops,
+                OperationStats::getRowsReturned);
+        counter(sb, "grievance_dao_rows_read_total", "Rows read from JDBC result sets.", ops,
+                OperationStats::getRowsRead);
+        counter(sb, "grievance_dao_bytes_read_total", "Approximate bytes of column values read.", ops,
+                OperationStats::getBytesRead);
+
+        header(sb, "grievance_dao_latency_seconds", "summary", "Repository call latency.");
+        for (OperationStats op : ops) {
+            summary(sb, "grievance_dao_latency_seconds", labels(op), op.getLatencyNanos());
+        }
+
+        header(sb, "grievance_db_slow_queries_total", "counter", "Statements slower than metrics.slowQueryMillis.");
+        sample(sb, "grievance_db_slow_queries_total", "", SLOW_QUERIES.sum());
+
+        if (DBUtil.isStarted()) {
+            header(sb, "grievance_db_connection_acquire_seconds", "summary", "Time to borrow a pooled connection.");
+            summary(sb, "grievance_db_connection_acquire_seconds", "", DBUtil.getConnectionWaitHistogram());
+
+            ConnectionPool.PoolStats pool = DBUtil.getPoolStats();
+            gauge(sb, "grievance_db_pool_active", "Connections lent out.", pool.getActive());
+            gauge(sb, "grievance_db_pool_idle", "Idle pooled connections.", pool.getIdle());
+            gauge(sb, "grievance_db_pool_max", "Pool size limit.", pool.getMaxSize());
+            gauge(sb, "grievance_db_pool_waiting", "Threads waiting for a connection.", pool.getWaiting());
+            header(sb, "grievance_db_pool_timeouts_total", "counter", "Borrows that timed out.");
+            sample(sb, "grievance_db_pool_timeouts_total", "", pool.getTimeoutCount());
+
+            StatementCache.Stats statements = DBUtil.getStatementCacheStats();
+            header(sb, "grievance_db_statement_cache_hits_total", "counter", "Prepared statements reused.");
+            sample(sb, "grievance_db_statement_cache_hits_total", "", statements.getHits());
+            header(sb, "grievance_db_statement_cache_misses_total", "counter", "Prepared statements parsed.");
+            sample(sb, "grievance_db_statement_cache_misses_total", "", statements.getMisses());
+        }
+        return sb.toString();
+    }
+
+    private interface Field {
+        long get(OperationStats op);
+    }
+
+    private static void counter(StringBuilder sb, String name, String help, List<OperationStats> ops, Field field) {
+        header(sb, name, "counter", help);
+        for (OperationStats op : ops) sample(sb, name, labels(op), field.get(op));
+    }
+
+    private static void gauge(StringBuilder sb, String name, String help, long value) {
+        header(sb, name, "gauge", help);
+        sample(sb, name, "", value);
+    }
+
+    private static void summary(StringBuilder sb, String name, String labels, LogHistogram nanos) {
+        String prefix = labels.isEmpty() ? "" : labels + ",";
+        for (double q : QUANTILES) {
+            sample(sb, name, prefix + "quantile=\"" + q + "\"", nanos.getValueAtPercentile(q * 100) / 1e9);
+        }
+        sample(sb, name + "_sum", labels, nanos.getSum() / 1e9);
+        sample(sb, name + "_count", labels, nanos.getCount());
+    }
+
+    private static void header(StringBuilder sb, String name, String type, String help) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder sb, String name, String labels, Object value) {
+        sb.append(name);
+        if (!labels.isEmpty()) sb.append('{').append(labels).append('}');
+        sb.append(' ');
+        if (value instanceof Double) {
+            sb.append(String.format(Locale.ROOT, "%.9g", (Double) value));
+        } else {
+            sb.append(value);
+        }
+        sb.append('\n');
+    }
+
+    private static String labels(OperationStats op) {
+        return "repository=\"" + op.getRepository() + "\",method=\"" + op.getMethod() + "\"";
+    }
+
+    /** A repository call in progress on one thread; calls made from inside it are nested. */
+    static final class Call {
+        final OperationStats stats;
+        final Call previous;
+        boolean failed;
+
+        Call(OperationStats stats, Call previous) {
+            this.stats = stats;
+            this.previous = previous;
+        }
+    }
+}
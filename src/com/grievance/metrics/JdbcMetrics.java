@@ -0,0 +1,228 @@
+package com.grievance.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * JDBC-level instrumentation, applied by the connection pool to every statement it hands out.
+ * <ul>
+ *   <li>Rows and approximate bytes read from result sets are added to the repository call that
+ *       created the statement, even when the rows are consumed later (streams).</li>
+ *   <li>An {@link SQLException} from an execute marks the current repository call as failed.</li>
+ *   <li>Executions slower than {@code metrics.slowQueryMillis} are logged with the SQL and the
+ *       types of the bound parameters; parameter values and SQL literals are never logged.</li>
+ * </ul>
+ */
+public final class JdbcMetrics {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.)*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private JdbcMetrics() {}
+
+    /** @return the statement instrumented, or unchanged if metrics are disabled. */
+    public static Statement wrap(Statement statement, String sql) {
+        if (!DaoMetrics.isEnabled() || statement == null) return statement;
+        Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+        return (Statement) Proxy.newProxyInstance(JdbcMetrics.class.getClassLoader(), new Class<?>[] { type },
+                new StatementHandler(statement, sql));
+    }
+
+    /** @return the SQL on one line, with string and number literals replaced by {@code ?}. */
+    static String redact(String sql) {
+        String s = STRING_LITERAL.matcher(sql).replaceAll("?");
+        s = NUMBER_LITERAL.matcher(s).replaceAll("?");
+        return WHITESPACE.matcher(s).replaceAll(" ").trim();
+    }
+
+    private static OperationStats owner() {
+        OperationStats op = DaoMetrics.current();
+        return op != null ? op : DaoMetrics.operation("jdbc", "unattributed");
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final String sql;
+        private final OperationStats owner = owner();
+        private Object[] params = new Object[8];
+        private int batchSize;
+
+        private StatementHandler(Statement statement, String sql) {
+            this.statement = statement;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "addBatch":
+                    batchSize++;
+                    break;
+                case "clearBatch":
+                    batchSize = 0;
+                    break;
+                case "clearParameters":
+                    Arrays.fill(params, null);
+                    break;
+                default:
+                    if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                        remember((Integer) args[0], "setNull".equals(name) ? null : args[1]);
+                    } else if (name.startsWith("execute")) {
+                        return execute(method, args);
+                    }
+                    break;
+            }
+            return JdbcMetrics.invoke(statement, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = JdbcMetrics.invoke(statement, method, args);
+            } catch (SQLException e) {
+                DaoMetrics.sqlFailed();
+                throw e;
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                if (DaoMetrics.isSlow(elapsed)) logSlow(elapsed, args);
+            }
+            if (result instanceof ResultSet) {
+                return Proxy.newProxyInstance(JdbcMetrics.class.getClassLoader(), new Class<?>[] { ResultSet.class },
+                        new ResultSetHandler((ResultSet) result, owner));
+            }
+            return result;
+        }
+
+        private void remember(int index, Object value) {
+            if (index < 1 || index > 1024) return;
+            if (index > params.length) params = Arrays.copyOf(params, Math.max(index, params.length * 2));
+            // Only the value's type and size are ever reported
+            params[index - 1] = value == null ? NullParam.INSTANCE : value;
+        }
+
+        private void logSlow(long nanos, Object[] args) {
+            DaoMetrics.slowQuery();
+            String text = sql != null ? sql : args != null && args.length > 0 && args[0] instanceof String
+                    ? (String) args[0] : "?";
+            StringBuilder sb = new StringBuilder();
+            sb.append("Slow query (").append(TimeUnit.NANOSECONDS.toMillis(nanos)).append(" ms, ")
+                    .append(owner.getName()).append("): ").append(redact(text));
+            if (batchSize > 0) sb.append(" [batch of ").append(batchSize).append(']');
+            sb.append(" params=").append(describeParams());
+            System.err.println(sb);
+        }
+
+        private String describeParams() {
+            int last = params.length;
+            while (last > 0 && params[last - 1] == null) last--;
+            StringBuilder sb = new StringBuilder("[");
+            for (int i = 0; i < last; i++) {
+                if (i > 0) sb.append(", ");
+                Object v = params[i];
+                if (v == null || v == NullParam.INSTANCE) {
+                    sb.append(v == null ? "unset" : "null");
+                } else if (v instanceof CharSequence) {
+                    sb.append("string(").append(((CharSequence) v).length()).append(')');
+                } else {
+                    sb.append(v.getClass().getSimpleName().toLowerCase());
+                }
+            }
+            return sb.append(']').toString();
+        }
+    }
+
+    private enum NullParam { INSTANCE }
+
+    /** Counts rows and column bytes locally and adds them to the owner when the result set is closed. */
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet resultSet;
+        private final OperationStats owner;
+        private long rows;
+        private long bytes;
+        private boolean flushed;
+
+        private ResultSetHandler(ResultSet resultSet, OperationStats owner) {
+            this.resultSet = resultSet;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "close":
+                    flush();
+                    break;
+                default:
+                    break;
+            }
+            Object value = JdbcMetrics.invoke(resultSet, method, args);
+            switch (method.getName()) {
+                case "next":
+                    if ((Boolean) value) {
+                        rows++;
+                    } else {
+                        flush();
+                    }
+                    break;
+                case "getString":
+                case "getNString":
+                    if (value != null) bytes += ((String) value).length();
+                    break;
+                case "getBytes":
+                    if (value != null) bytes += ((byte[]) value).length;
+                    break;
+                case "getInt":
+                case "getFloat":
+                    bytes += 4;
+                    break;
+                case "getLong":
+                case "getDouble":
+                case "getTimestamp":
+                case "getDate":
+                    bytes += 8;
+                    break;
+                default:
+                    break;
+            }
+            return value;
+        }
+
+        private void flush() {
+            if (flushed) return;
+            flushed = true;
+            owner.rowsRead.add(rows);
+            owner.bytesRead.add(bytes);
+        }
+    }
+}
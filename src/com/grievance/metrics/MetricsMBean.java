@@ -0,0 +1,90 @@
+package com.grievance.metrics;
+
+import com.grievance.util.LogHistogram;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.ReflectionException;
+
+/**
+ * Read-only MBean over {@link DaoMetrics}. Attributes are named {@code <Repository.method>.<figure>},
+ * e.g. {@code GrievanceDAO.searchGrievances.p99Millis}, and appear as operations are first called;
+ * the {@code prometheus} operation returns the full text dump.
+ */
+final class MetricsMBean implements DynamicMBean {
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        Object value = snapshot().get(attribute);
+        if (value == null) throw new AttributeNotFoundException(attribute);
+        return value;
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        Map<String, Object> snapshot = snapshot();
+        AttributeList list = new AttributeList();
+        for (String name : attributes) {
+            Object value = snapshot.get(name);
+            if (value != null) list.add(new Attribute(name, value));
+        }
+        return list;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Metrics are read-only: " + attribute.getName());
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+        if ("prometheus".equals(actionName)) return DaoMetrics.prometheus();
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        Map<String, Object> snapshot = snapshot();
+        MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[snapshot.size()];
+        int i = 0;
+        for (Map.Entry<String, Object> e : snapshot.entrySet()) {
+            attributes[i++] = new MBeanAttributeInfo(e.getKey(), e.getValue().getClass().getName(), e.getKey(),
+                    true, false, false);
+        }
+        MBeanOperationInfo[] operations = {
+            new MBeanOperationInfo("prometheus", "All metrics in Prometheus text format", null,
+                    String.class.getName(), MBeanOperationInfo.INFO)
+        };
+        return new MBeanInfo(getClass().getName(), "Repository call metrics", attributes, null, operations, null);
+    }
+
+    private static Map<String, Object> snapshot() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("slowQueries", DaoMetrics.getSlowQueryCount());
+        for (OperationStats op : DaoMetrics.operations()) {
+            String prefix = op.getName() + ".";
+            LogHistogram latency = op.getLatencyNanos();
+            m.put(prefix + "calls", op.getCalls());
+            m.put(prefix + "errors", op.getErrors());
+            m.put(prefix + "rowsReturned", op.getRowsReturned());
+            m.put(prefix + "rowsRead", op.getRowsRead());
+            m.put(prefix + "bytesRead", op.getBytesRead());
+            m.put(prefix + "meanMillis", latency.getMean() / 1e6);
+            m.put(prefix + "p50Millis", latency.getValueAtPercentile(50) / 1e6);
+            m.put(prefix + "p99Millis", latency.getValueAtPercentile(99) / 1e6);
+            m.put(prefix + "maxMillis", latency.getMax() / 1e6);
+        }
+        return m;
+    }
+}
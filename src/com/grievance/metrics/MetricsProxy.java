@@ -0,0 +1,75 @@
+package com.grievance.metrics;
+
+import com.grievance.model.Page;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wraps a repository so every call through its interface is timed and counted in {@link DaoMetrics}.
+ * <p>
+ * Calls the repository makes to itself are not intercepted, so an overload that delegates to another
+ * is counted once. Overloads share the stats of their method name.
+ */
+public final class MetricsProxy implements InvocationHandler {
+
+    private final Object target;
+    private final String repository;
+    private final Map<Method, OperationStats> stats = new ConcurrentHashMap<>();
+
+    private MetricsProxy(Object target) {
+        this.target = target;
+        this.repository = target.getClass().getSimpleName();
+    }
+
+    /** @return {@code target} seen through {@code type}, with every call recorded. */
+    public static <T> T wrap(Class<T> type, T target) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                new MetricsProxy(target)));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return "Metered[" + target + "]";
+            }
+        }
+
+        OperationStats op = stats.computeIfAbsent(method, m -> DaoMetrics.operation(repository, m.getName()));
+        DaoMetrics.Call call = DaoMetrics.begin(op);
+        long start = System.nanoTime();
+        boolean threw = true;
+        try {
+            Object result = method.invoke(target, args);
+            threw = false;
+            op.rowsReturned.add(rowCount(result));
+            return result;
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        } finally {
+            op.latencyNanos.record(System.nanoTime() - start);
+            op.calls.increment();
+            if (threw || call.failed) op.errors.increment();
+            DaoMetrics.end(call);
+        }
+    }
+
+    private static long rowCount(Object result) {
+        if (result == null || result instanceof Boolean || result instanceof Number) return 0;
+        if (result instanceof Collection) return ((Collection<?>) result).size();
+        if (result instanceof int[]) return ((int[]) result).length;
+        if (result instanceof Page) return ((Page<?>) result).getItems().size();
+        if (result instanceof Map || result instanceof java.util.stream.BaseStream) return 0;
+        return 1;
+    }
+}
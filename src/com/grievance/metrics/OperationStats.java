@@ -0,0 +1,46 @@
+package com.grievance.metrics;
+
+import com.grievance.util.LogHistogram;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histogram for one repository method, e.g. {@code GrievanceDAO.searchGrievances}.
+ * <p>
+ * {@code rowsReturned} is measured on the method's return value (list and page sizes, array lengths,
+ * 1 for a single object). {@code rowsRead} and {@code bytesRead} are counted on the JDBC result sets
+ * the method opened, so they are only filled in for the MySQL engine; bytes are the approximate size
+ * of the column values fetched.
+ */
+public final class OperationStats {
+
+    private final String repository;
+    private final String method;
+    final LongAdder calls = new LongAdder();
+    final LongAdder errors = new LongAdder();
+    final LongAdder rowsReturned = new LongAdder();
+    final LongAdder rowsRead = new LongAdder();
+    final LongAdder bytesRead = new LongAdder();
+    final LogHistogram latencyNanos = new LogHistogram();
+
+    OperationStats(String repository, String method) {
+        this.repository = repository;
+        this.method = method;
+    }
+
+    public String getRepository() { return repository; }
+    public String getMethod() { return method; }
+    public String getName() { return repository + "." + method; }
+
+    public long getCalls() { return calls.sum(); }
+    public long getErrors() { return errors.sum(); }
+    public long getRowsReturned() { return rowsReturned.sum(); }
+    public long getRowsRead() { return rowsRead.sum(); }
+    public long getBytesRead() { return bytesRead.sum(); }
+    public LogHistogram getLatencyNanos() { return latencyNanos; }
+
+    @Override
+    public String toString() {
+        return String.format("%s: calls=%d, errors=%d, p50=%.2fms, p99=%.2fms", getName(), getCalls(), getErrors(),
+                latencyNanos.getValueAtPercentile(50) / 1e6, latencyNanos.getValueAtPercentile(99) / 1e6);
+    }
+}
@@ -0,0 +1,11 @@
+package com.grievance.model;
+
+/**
+ * The order in which the work queue hands out OPEN grievances.
+ */
+public enum ClaimOrder {
+    /** Oldest first. */
+    OLDEST_FIRST,
+    /** Highest priority first, oldest first within a priority. */
+    PRIORITY
+}
@@ -13,6 +13,8 @@ public class Grievance {
     private String status; // ENUM: OPEN, IN_PROGRESS, RESOLVED
     private Timestamp createdAt;
     private Timestamp resolvedAt;
+    private int version; // bumped by every status change, for optimistic locking
+    private int priority; // higher is claimed first from the work queue
 
     // Default Constructor
     public Grievance() {}
@@ -47,6 +49,28 @@ public class Grievance {
     public Timestamp getResolvedAt() { return resolvedAt; }
     public void setResolvedAt(Timestamp resolvedAt) { this.resolvedAt = resolvedAt; }
 
+    public int getVersion() { return version; }
+    public void setVersion(int version) { this.version = version; }
+
+    public int getPriority() { return priority; }
+    public void setPriority(int priority) { this.priority = priority; }
+
+    /**
+     * @return the list projection of this grievance (everything except the description).
+     */
+    public GrievanceSummary toSummary() {
+        GrievanceSummary summary = new GrievanceSummary();
+        summary.setId(id);
+        summary.setUserId(userId);
+        summary.setTitle(title);
+        summary.setStatus(status);
+        summary.setCreatedAt(createdAt);
+        summary.setResolvedAt(resolvedAt);
+        summary.setVersion(version);
+        summary.setPriority(priority);
+        return summary;
+    }
+
     @Override
     public String toString() {
         return String.format(
@@ -0,0 +1,69 @@
+package com.grievance.model;
+
+import java.sql.Timestamp;
+
+/**
+ * A committed change to a grievance, as recorded in the event outbox (the {@code grievance_events} table).
+ * Events are numbered in the order they were recorded; the ID is assigned by the outbox.
+ */
+public class GrievanceEvent {
+
+    public enum Type {
+        CREATED,
+        STATUS_CHANGED
+    }
+
+    private final long id;
+    private final Type type;
+    private final int grievanceId;
+    private final int userId; // the user who raised the grievance
+    private final String oldStatus;
+    private final String newStatus;
+    private final Timestamp createdAt;
+
+    public GrievanceEvent(long id, Type type, int grievanceId, int userId, String oldStatus, String newStatus,
+                          Timestamp createdAt) {
+        this.id = id;
+        this.type = type;
+        this.grievanceId = grievanceId;
+        this.userId = userId;
+        this.oldStatus = oldStatus;
+        this.newStatus = newStatus;
+        this.createdAt = createdAt;
+    }
+
+    /** @return a CREATED event for a grievance that has just been given its ID. */
+    public static GrievanceEvent created(Grievance g) {
+        return new GrievanceEvent(0, Type.CREATED, g.getId(), g.getUserId(), null, g.getStatus(), g.getCreatedAt());
+    }
+
+    public static GrievanceEvent statusChanged(int grievanceId, int userId, String oldStatus, String newStatus,
+                                               Timestamp at) {
+        return new GrievanceEvent(0, Type.STATUS_CHANGED, grievanceId, userId, oldStatus, newStatus, at);
+    }
+
+    public GrievanceEvent withId(long id) {
+        return new GrievanceEvent(id, type, grievanceId, userId, oldStatus, newStatus, createdAt);
+    }
+
+    public long getId() { return id; }
+
+    public Type getType() { return type; }
+
+    public int getGrievanceId() { return grievanceId; }
+
+    public int getUserId() { return userId; }
+
+    /** @return the status before the change, or null for CREATED. */
+    public String getOldStatus() { return oldStatus; }
+
+    public String getNewStatus() { return newStatus; }
+
+    public Timestamp getCreatedAt() { return createdAt; }
+
+    @Override
+    public String toString() {
+        return "#" + id + " " + type + " grievance " + grievanceId
+                + (oldStatus != null ? " " + oldStatus + " -> " : " ") + newStatus;
+    }
+}
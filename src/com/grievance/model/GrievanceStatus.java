@@ -0,0 +1,35 @@
+package com.grievance.model;
+
+/**
+ * The values of the grievances.status ENUM column, in lifecycle order.
+ */
+public enum GrievanceStatus {
+    OPEN,
+    IN_PROGRESS,
+    RESOLVED;
+
+    private static final GrievanceStatus[] VALUES = values();
+
+    /**
+     * Grievances only move forward, one step at a time: OPEN to IN_PROGRESS to RESOLVED.
+     * @return the status a grievance must be in to move to this one, or null for OPEN.
+     */
+    public GrievanceStatus predecessor() {
+        return ordinal() == 0 ? null : VALUES[ordinal() - 1];
+    }
+
+    /** @return true if a grievance in this status may move to {@code next}. */
+    public boolean canTransitionTo(GrievanceStatus next) {
+        return next.predecessor() == this;
+    }
+
+    /**
+     * @param value a status as stored in the database (case-insensitive).
+     * @return the matching status.
+     * @throws IllegalArgumentException if the value is not a known status.
+     */
+    public static GrievanceStatus fromString(String value) {
+        if (value == null) throw new IllegalArgumentException("Status is required.");
+        return valueOf(value.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,55 @@
+package com.grievance.model;
+
+import java.sql.Timestamp;
+
+/**
+ * Lightweight projection of a grievance for list, search and report screens.
+ * It carries everything those screens print but not the description, which can be large;
+ * the full row is loaded on demand with {@code GrievanceDAO.getGrievanceById}.
+ */
+public class GrievanceSummary {
+    private int id;
+    private int userId;
+    private String title;
+    private String status; // ENUM: OPEN, IN_PROGRESS, RESOLVED
+    private Timestamp createdAt;
+    private Timestamp resolvedAt;
+    private int version; // bumped by every status change, for optimistic locking
+    private int priority; // higher is claimed first from the work queue
+
+    // Default Constructor
+    public GrievanceSummary() {}
+
+    // Getters and Setters
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+
+    public int getUserId() { return userId; }
+    public void setUserId(int userId) { this.userId = userId; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public Timestamp getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Timestamp createdAt) { this.createdAt = createdAt; }
+
+    public Timestamp getResolvedAt() { return resolvedAt; }
+    public void setResolvedAt(Timestamp resolvedAt) { this.resolvedAt = resolvedAt; }
+
+    public int getVersion() { return version; }
+    public void setVersion(int version) { this.version = version; }
+
+    public int getPriority() { return priority; }
+    public void setPriority(int priority) { this.priority = priority; }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "| ID: %-4d | Status: %-12s | Title: %-30s | Raised By User ID: %-4d | Created: %s |",
+            id, status, title, userId, createdAt.toString().substring(0, 16)
+        );
+    }
+}
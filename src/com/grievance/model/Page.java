@@ -0,0 +1,27 @@
+package com.grievance.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ * @param <T> the row type.
+ */
+public class Page<T> {
+    private final List<T> items;
+    private final PageCursor nextCursor;
+
+    public Page(List<T> items, PageCursor nextCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() { return items; }
+
+    /** @return the cursor for the following page, or null if this is the last page. */
+    public PageCursor getNextCursor() { return nextCursor; }
+
+    public boolean hasMore() { return nextCursor != null; }
+
+    public boolean isEmpty() { return items.isEmpty(); }
+}
@@ -0,0 +1,50 @@
+package com.grievance.model;
+
+import java.sql.Timestamp;
+
+/**
+ * Keyset position in a list ordered by (created_at DESC, id DESC).
+ * The next page starts strictly after the row this cursor points at.
+ */
+public class PageCursor {
+    private final Timestamp createdAt;
+    private final int id;
+
+    public PageCursor(Timestamp createdAt, int id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public Timestamp getCreatedAt() { return createdAt; }
+    public int getId() { return id; }
+
+    /**
+     * @return a compact token ("epochMillis:id") that can be handed to clients and parsed back.
+     */
+    public String encode() {
+        return createdAt.getTime() + ":" + id;
+    }
+
+    /**
+     * @param token a value produced by {@link #encode()}, or null/empty for the first page.
+     * @return the cursor, or null for the first page.
+     * @throws IllegalArgumentException if the token is malformed.
+     */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isEmpty()) return null;
+        int sep = token.indexOf(':');
+        if (sep <= 0) throw new IllegalArgumentException("Invalid page cursor: " + token);
+        try {
+            long millis = Long.parseLong(token.substring(0, sep));
+            int id = Integer.parseInt(token.substring(sep + 1));
+            return new PageCursor(new Timestamp(millis), id);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid page cursor: " + token, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return encode();
+    }
+}
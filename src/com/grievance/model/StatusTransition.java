@@ -0,0 +1,64 @@
+package com.grievance.model;
+
+/**
+ * The outcome of moving one grievance to a new status.
+ * <p>
+ * Unless the transition failed outright, the status and version are those of the row after
+ * the attempt, so a caller that lost a race can show what happened and retry with the new version.
+ */
+public class StatusTransition {
+
+    /** Passed instead of an expected version to skip the optimistic-locking check. */
+    public static final int ANY_VERSION = -1;
+
+    public enum Outcome {
+        /** The status was changed and the version bumped. */
+        APPLIED,
+        /** There is no grievance with this ID. */
+        NOT_FOUND,
+        /** The grievance is not in the status the target requires (see {@link GrievanceStatus#predecessor()}). */
+        ILLEGAL_TRANSITION,
+        /** The grievance has changed since the caller read the expected version. */
+        VERSION_CONFLICT,
+        /** The storage call failed; nothing is known about the row. */
+        FAILED
+    }
+
+    private final int grievanceId;
+    private final Outcome outcome;
+    private final String status;
+    private final int version;
+
+    public StatusTransition(int grievanceId, Outcome outcome, String status, int version) {
+        this.grievanceId = grievanceId;
+        this.outcome = outcome;
+        this.status = status;
+        this.version = version;
+    }
+
+    public static StatusTransition failed(int grievanceId) {
+        return new StatusTransition(grievanceId, Outcome.FAILED, null, ANY_VERSION);
+    }
+
+    public static StatusTransition notFound(int grievanceId) {
+        return new StatusTransition(grievanceId, Outcome.NOT_FOUND, null, ANY_VERSION);
+    }
+
+    public int getGrievanceId() { return grievanceId; }
+
+    public Outcome getOutcome() { return outcome; }
+
+    public boolean isApplied() { return outcome == Outcome.APPLIED; }
+
+    /** @return the grievance's current status, or null if it was not found or the call failed. */
+    public String getStatus() { return status; }
+
+    /** @return the grievance's current version, or {@link #ANY_VERSION} if unknown. */
+    public int getVersion() { return version; }
+
+    @Override
+    public String toString() {
+        return "Grievance " + grievanceId + ": " + outcome
+                + (status != null ? " (now " + status + ", version " + version + ")" : "");
+    }
+}
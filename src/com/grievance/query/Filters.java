@@ -0,0 +1,50 @@
+package com.grievance.query;
+
+import com.grievance.model.GrievanceStatus;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Predicates over {@link QueryRow}s, combined with {@link Predicate#and}, {@link Predicate#or} and
+ * {@link Predicate#negate}. Cheap column tests should come before {@link #titleContains}, which
+ * has to decode the title.
+ */
+public final class Filters {
+
+    private Filters() {}
+
+    public static Predicate<QueryRow> all() {
+        return r -> true;
+    }
+
+    public static Predicate<QueryRow> status(Set<GrievanceStatus> statuses) {
+        EnumSet<GrievanceStatus> wanted = EnumSet.copyOf(statuses);
+        return r -> wanted.contains(r.status());
+    }
+
+    /** Created before {@code millis}, e.g. {@code now - 14 days} for "older than 14 days". */
+    public static Predicate<QueryRow> createdBefore(long millis) {
+        return r -> r.createdAtMillis() < millis;
+    }
+
+    public static Predicate<QueryRow> createdAtOrAfter(long millis) {
+        return r -> r.createdAtMillis() >= millis;
+    }
+
+    /** Raised by a user whose ID is between {@code from} and {@code to}, inclusive. */
+    public static Predicate<QueryRow> userBetween(int from, int to) {
+        return r -> r.userId() >= from && r.userId() <= to;
+    }
+
+    public static Predicate<QueryRow> priorityAtLeast(int priority) {
+        return r -> r.priority() >= priority;
+    }
+
+    /** Case-insensitive substring match on the title. */
+    public static Predicate<QueryRow> titleContains(String text) {
+        String needle = text.toLowerCase(Locale.ROOT);
+        return r -> r.title() != null && r.title().toLowerCase(Locale.ROOT).contains(needle);
+    }
+}
@@ -0,0 +1,40 @@
+package com.grievance.query;
+
+import java.util.function.Predicate;
+
+/**
+ * An ad-hoc query: which grievances to include, how to group them and what to measure per group.
+ */
+public class GrievanceQuery {
+
+    public enum GroupBy { NONE, STATUS, USER, PRIORITY, DAY, WEEK, MONTH }
+
+    public enum Measure {
+        /** Only count the rows. */
+        NONE,
+        /** Seconds since the grievance was created. */
+        AGE,
+        /** Seconds from creation to resolution; unresolved rows are counted but not measured. */
+        RESOLUTION_TIME
+    }
+
+    private final Predicate<QueryRow> filter;
+    private final GroupBy groupBy;
+    private final Measure measure;
+
+    /**
+     * @param filter rows to include; see {@link Filters}.
+     * @param groupBy DAY, WEEK (starting Monday) and MONTH group by creation date in the server's time zone.
+     */
+    public GrievanceQuery(Predicate<QueryRow> filter, GroupBy groupBy, Measure measure) {
+        this.filter = filter;
+        this.groupBy = groupBy;
+        this.measure = measure;
+    }
+
+    public Predicate<QueryRow> getFilter() { return filter; }
+
+    public GroupBy getGroupBy() { return groupBy; }
+
+    public Measure getMeasure() { return measure; }
+}
@@ -0,0 +1,56 @@
+package com.grievance.query;
+
+import com.grievance.model.GrievanceStatus;
+import com.grievance.model.GrievanceSummary;
+import java.util.List;
+
+/**
+ * Rows a {@link QueryEngine} can scan in parallel: positions {@code 0..size()-1}, some of which may
+ * be empty, read through one {@link Cursor} per thread.
+ */
+public interface QueryDataset {
+
+    /** @return the number of positions, including empty ones. */
+    int size();
+
+    /** @return a new cursor; each scanning thread gets its own. */
+    Cursor cursor();
+
+    interface Cursor extends QueryRow {
+        /** Points the cursor at a position. @return false if there is no row there. */
+        boolean moveTo(int position);
+    }
+
+    /**
+     * A dataset over summaries already in memory. To query rows straight from the database, pass
+     * the stream to {@link QueryEngine#run(GrievanceQuery, java.util.stream.Stream)} instead.
+     */
+    static QueryDataset of(List<GrievanceSummary> rows) {
+        return new QueryDataset() {
+            @Override
+            public int size() {
+                return rows.size();
+            }
+
+            @Override
+            public Cursor cursor() {
+                SummaryRow row = new SummaryRow();
+                return new Cursor() {
+                    @Override
+                    public boolean moveTo(int position) {
+                        row.set(rows.get(position));
+                        return true;
+                    }
+
+                    @Override public int id() { return row.id(); }
+                    @Override public int userId() { return row.userId(); }
+                    @Override public GrievanceStatus status() { return row.status(); }
+                    @Override public int priority() { return row.priority(); }
+                    @Override public long createdAtMillis() { return row.createdAtMillis(); }
+                    @Override public long resolvedAtMillis() { return row.resolvedAtMillis(); }
+                    @Override public String title() { return row.title(); }
+                };
+            }
+        };
+    }
+}
@@ -0,0 +1,275 @@
+package com.grievance.query;
+
+import com.grievance.model.GrievanceStatus;
+import com.grievance.model.GrievanceSummary;
+import com.grievance.query.GrievanceQuery.GroupBy;
+import com.grievance.query.GrievanceQuery.Measure;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Runs {@link GrievanceQuery}s over a {@link QueryDataset} with a fork-join scan.
+ * <p>
+ * The position range is split in halves until pieces are {@link #LEAF_SIZE} long. Each leaf filters
+ * its rows and aggregates them into its own per-group state, which is merged on the way back up,
+ * so threads never share mutable state. Measured values are kept as {@code int} seconds per matched
+ * row, which makes the percentiles exact.
+ * <p>
+ * Rows that are not in memory can be scanned from a stream instead: its spliterator hands batches
+ * of rows to the pool as they are read, and each batch is aggregated the same way.
+ */
+public class QueryEngine {
+
+    static final int LEAF_SIZE = 16_384;
+
+    private static final GrievanceStatus[] STATUSES = GrievanceStatus.values();
+
+    private final ForkJoinPool pool;
+    private final ZoneRules zone;
+
+    /** Runs on the common fork-join pool, grouping dates in the server's time zone. */
+    public QueryEngine() {
+        this(ForkJoinPool.commonPool(), ZoneId.systemDefault());
+    }
+
+    public QueryEngine(ForkJoinPool pool, ZoneId zone) {
+        this.pool = pool;
+        this.zone = zone.getRules();
+    }
+
+    public QueryResult run(GrievanceQuery query, QueryDataset data) {
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        Partial total = pool.invoke(new Scan(query, data, 0, data.size(), now));
+        return result(query, total, start);
+    }
+
+    /**
+     * Runs the query over rows as they are read, e.g. from {@code streamSummaries()} when no column
+     * cache is loaded, so only the batches being scanned are held rather than every row. The caller
+     * closes the stream.
+     */
+    public QueryResult run(GrievanceQuery query, Stream<GrievanceSummary> rows) {
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        // A parallel stream started from inside a fork-join pool runs its tasks on that pool
+        Partial total = pool.submit(() -> rows.parallel().collect(
+                () -> new StreamScan(query, now), StreamScan::add, StreamScan::merge)).join().partial;
+        return result(query, total, start);
+    }
+
+    private QueryResult result(GrievanceQuery query, Partial total, long start) {
+        List<QueryResult.Group> groups = new ArrayList<>(total.groups.size());
+        for (Map.Entry<Long, Accumulator> e : new TreeMap<>(total.groups).entrySet()) {
+            groups.add(e.getValue().toGroup(label(query.getGroupBy(), e.getKey())));
+        }
+        return new QueryResult(groups, total.scanned, total.matched, (System.nanoTime() - start) / 1_000_000,
+                pool.getParallelism());
+    }
+
+    // --- Grouping ---
+    private long groupKey(GroupBy groupBy, QueryRow row) {
+        switch (groupBy) {
+            case STATUS:
+                return row.status().ordinal();
+            case USER:
+                return row.userId();
+            case PRIORITY:
+                return row.priority();
+            case DAY:
+            case WEEK:
+            case MONTH: {
+                long millis = row.createdAtMillis();
+                int offset = zone.getOffset(Instant.ofEpochMilli(millis)).getTotalSeconds();
+                long day = Math.floorDiv(Math.floorDiv(millis, 1000) + offset, 86_400);
+                if (groupBy == GroupBy.DAY) return day;
+                // 1970-01-01 was a Thursday; weeks start on Monday
+                if (groupBy == GroupBy.WEEK) return day - Math.floorMod(day + 3, 7);
+                return LocalDate.ofEpochDay(day).withDayOfMonth(1).toEpochDay();
+            }
+            default:
+                return 0;
+        }
+    }
+
+    private static String label(GroupBy groupBy, long key) {
+        switch (groupBy) {
+            case STATUS:
+                return STATUSES[(int) key].name();
+            case USER:
+            case PRIORITY:
+                return Long.toString(key);
+            case DAY:
+            case WEEK:
+                return LocalDate.ofEpochDay(key).toString();
+            case MONTH:
+                return LocalDate.ofEpochDay(key).toString().substring(0, 7);
+            default:
+                return "all";
+        }
+    }
+
+    /** @return the measure in seconds, or -1 if the row has none. */
+    private static long measure(Measure measure, QueryRow row, long now) {
+        switch (measure) {
+            case AGE:
+                return (now - row.createdAtMillis()) / 1000;
+            case RESOLUTION_TIME:
+                long resolved = row.resolvedAtMillis();
+                return resolved == QueryRow.NO_TIME ? -1 : (resolved - row.createdAtMillis()) / 1000;
+            default:
+                return -1;
+        }
+    }
+
+    // --- Fork-join scan ---
+    private final class Scan extends RecursiveTask<Partial> {
+        private static final long serialVersionUID = 1L;
+
+        private final GrievanceQuery query;
+        private final QueryDataset data;
+        private final int from;
+        private final int to;
+        private final long now;
+
+        Scan(GrievanceQuery query, QueryDataset data, int from, int to, long now) {
+            this.query = query;
+            this.data = data;
+            this.from = from;
+            this.to = to;
+            this.now = now;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from <= LEAF_SIZE) return scan();
+            int mid = (from + to) >>> 1;
+            Scan left = new Scan(query, data, from, mid, now);
+            left.fork();
+            Partial right = new Scan(query, data, mid, to, now).compute();
+            return left.join().merge(right);
+        }
+
+        private Partial scan() {
+            Partial partial = new Partial();
+            Predicate<QueryRow> filter = query.getFilter();
+            GroupBy groupBy = query.getGroupBy();
+            Measure measure = query.getMeasure();
+            QueryDataset.Cursor row = data.cursor();
+            // Consecutive rows usually share a group, so skip the map lookup when they do
+            long lastKey = 0;
+            Accumulator last = null;
+            for (int position = from; position < to; position++) {
+                if (!row.moveTo(position)) continue;
+                partial.scanned++;
+                if (!filter.test(row)) continue;
+                partial.matched++;
+                long key = groupKey(groupBy, row);
+                if (last == null || key != lastKey) {
+                    last = partial.groups.computeIfAbsent(key, k -> new Accumulator());
+                    lastKey = key;
+                }
+                last.add(measure(measure, row, now));
+            }
+            return partial;
+        }
+    }
+
+    /** Aggregates the rows of one stream batch, like a {@link Scan} leaf. */
+    private final class StreamScan {
+        final Partial partial = new Partial();
+        private final SummaryRow row = new SummaryRow();
+        private final GrievanceQuery query;
+        private final long now;
+        private long lastKey;
+        private Accumulator last;
+
+        StreamScan(GrievanceQuery query, long now) {
+            this.query = query;
+            this.now = now;
+        }
+
+        void add(GrievanceSummary summary) {
+            row.set(summary);
+            partial.scanned++;
+            if (!query.getFilter().test(row)) return;
+            partial.matched++;
+            long key = groupKey(query.getGroupBy(), row);
+            if (last == null || key != lastKey) {
+                last = partial.groups.computeIfAbsent(key, k -> new Accumulator());
+                lastKey = key;
+            }
+            last.add(measure(query.getMeasure(), row, now));
+        }
+
+        void merge(StreamScan other) {
+            partial.merge(other.partial);
+        }
+    }
+
+    private static final class Partial {
+        final Map<Long, Accumulator> groups = new HashMap<>();
+        long scanned;
+        long matched;
+
+        Partial merge(Partial other) {
+            scanned += other.scanned;
+            matched += other.matched;
+            for (Map.Entry<Long, Accumulator> e : other.groups.entrySet()) {
+                groups.merge(e.getKey(), e.getValue(), Accumulator::merge);
+            }
+            return this;
+        }
+    }
+
+    private static final class Accumulator {
+        long count;
+        int[] values = new int[0];
+        int measured;
+
+        void add(long value) {
+            count++;
+            if (value < 0) return;
+            if (measured == values.length) values = Arrays.copyOf(values, Math.max(16, measured * 2));
+            values[measured++] = (int) Math.min(Integer.MAX_VALUE, value);
+        }
+
+        Accumulator merge(Accumulator other) {
+            count += other.count;
+            if (other.measured > 0) {
+                if (measured + other.measured > values.length) values = Arrays.copyOf(values, measured + other.measured);
+                System.arraycopy(other.values, 0, values, measured, other.measured);
+                measured += other.measured;
+            }
+            return this;
+        }
+
+        QueryResult.Group toGroup(String key) {
+            if (measured == 0) return new QueryResult.Group(key, count, 0, 0, 0, 0, 0, 0, 0);
+            int[] sorted = Arrays.copyOf(values, measured);
+            Arrays.parallelSort(sorted);
+            long sum = 0;
+            for (int v : sorted) sum += v;
+            return new QueryResult.Group(key, count, measured, sorted[0], sorted[measured - 1], (double) sum / measured,
+                    percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99));
+        }
+
+        /** Nearest-rank percentile. */
+        private static long percentile(int[] sorted, double p) {
+            int rank = (int) Math.ceil(p / 100 * sorted.length);
+            return sorted[Math.max(0, rank - 1)];
+        }
+    }
+}
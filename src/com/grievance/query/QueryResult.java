@@ -0,0 +1,73 @@
+package com.grievance.query;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The groups produced by a {@link QueryEngine} run, in key order, with what the scan cost.
+ */
+public class QueryResult {
+
+    private final List<Group> groups;
+    private final long scanned;
+    private final long matched;
+    private final long elapsedMillis;
+    private final int parallelism;
+
+    public QueryResult(List<Group> groups, long scanned, long matched, long elapsedMillis, int parallelism) {
+        this.groups = Collections.unmodifiableList(groups);
+        this.scanned = scanned;
+        this.matched = matched;
+        this.elapsedMillis = elapsedMillis;
+        this.parallelism = parallelism;
+    }
+
+    public List<Group> getGroups() { return groups; }
+
+    /** @return rows looked at. */
+    public long getScanned() { return scanned; }
+
+    /** @return rows that passed the filter. */
+    public long getMatched() { return matched; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    /** @return worker threads available to the scan. */
+    public int getParallelism() { return parallelism; }
+
+    /** One group's count and, when the query has a measure, its distribution in seconds. */
+    public static class Group {
+        private final String key;
+        private final long count;
+        private final long measured;
+        private final long min;
+        private final long max;
+        private final double mean;
+        private final long p50;
+        private final long p90;
+        private final long p99;
+
+        public Group(String key, long count, long measured, long min, long max, double mean, long p50, long p90, long p99) {
+            this.key = key;
+            this.count = count;
+            this.measured = measured;
+            this.min = min;
+            this.max = max;
+            this.mean = mean;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p99 = p99;
+        }
+
+        public String getKey() { return key; }
+        public long getCount() { return count; }
+        /** @return rows that had a value for the measure (e.g. resolved ones for RESOLUTION_TIME). */
+        public long getMeasured() { return measured; }
+        public long getMin() { return min; }
+        public long getMax() { return max; }
+        public double getMean() { return mean; }
+        public long getP50() { return p50; }
+        public long getP90() { return p90; }
+        public long getP99() { return p99; }
+    }
+}
@@ -0,0 +1,28 @@
+package com.grievance.query;
+
+import com.grievance.model.GrievanceStatus;
+
+/**
+ * Read-only view of one grievance's summary columns during a scan. Scans reuse one instance per
+ * thread, so a predicate must not keep a reference to it.
+ */
+public interface QueryRow {
+
+    /** Returned by {@link #resolvedAtMillis()} for an unresolved grievance. */
+    long NO_TIME = Long.MIN_VALUE;
+
+    int id();
+
+    int userId();
+
+    GrievanceStatus status();
+
+    int priority();
+
+    long createdAtMillis();
+
+    /** @return the resolution time, or {@link #NO_TIME}. */
+    long resolvedAtMillis();
+
+    String title();
+}
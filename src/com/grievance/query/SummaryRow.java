@@ -0,0 +1,32 @@
+package com.grievance.query;
+
+import com.grievance.model.GrievanceStatus;
+import com.grievance.model.GrievanceSummary;
+
+/**
+ * A {@link QueryRow} over a {@link GrievanceSummary} object, pointed at one summary after another.
+ */
+final class SummaryRow implements QueryRow {
+
+    private GrievanceSummary row;
+    private GrievanceStatus status;
+
+    SummaryRow set(GrievanceSummary row) {
+        this.row = row;
+        this.status = GrievanceStatus.fromString(row.getStatus());
+        return this;
+    }
+
+    @Override public int id() { return row.getId(); }
+    @Override public int userId() { return row.getUserId(); }
+    @Override public GrievanceStatus status() { return status; }
+    @Override public int priority() { return row.getPriority(); }
+    @Override public long createdAtMillis() { return row.getCreatedAt().getTime(); }
+
+    @Override
+    public long resolvedAtMillis() {
+        return row.getResolvedAt() == null ? NO_TIME : row.getResolvedAt().getTime();
+    }
+
+    @Override public String title() { return row.getTitle(); }
+}
@@ -0,0 +1,262 @@
+package com.grievance.search;
+
+import com.grievance.dao.GrievanceListener;
+import com.grievance.dao.GrievanceRepository;
+import com.grievance.model.Grievance;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over grievance titles and descriptions.
+ * <p>
+ * Text is split on anything that is not a letter or digit and lower-cased. Each term maps to a
+ * sorted {@code int[]} of grievance IDs, so a query is a handful of array merges and the database
+ * is only needed to load the matched rows. The index is built by streaming the table once and then
+ * kept current by listening to {@link GrievanceRepository} inserts.
+ * <p>
+ * Query syntax: words are ANDed; {@code OR} between words unions them; {@code word*} matches every
+ * term starting with {@code word}; {@code -word} excludes matches.
+ */
+public class InvertedIndex implements GrievanceListener {
+
+    private static final int MIN_TOKEN_LENGTH = 2;
+
+    // Sorted so prefix queries are a range scan over the term dictionary
+    private final TreeMap<String, Postings> postings = new TreeMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int documentCount = 0;
+
+    /**
+     * Builds an index from every grievance in the database and registers it with the DAO so
+     * that later inserts are indexed as they happen.
+     * @param dao the DAO to stream from and listen to.
+     * @return the populated index.
+     * @throws SQLException if the grievances could not be read.
+     */
+    public static InvertedIndex build(GrievanceRepository dao) throws SQLException {
+        InvertedIndex index = new InvertedIndex();
+        // Listen first so nothing inserted while we stream is missed; adding twice is harmless
+        dao.addListener(index);
+        try (Stream<Grievance> all = dao.streamAllGrievances()) {
+            all.forEach(index::add);
+        } catch (SQLException | RuntimeException e) {
+            dao.removeListener(index);
+            throw e;
+        }
+        return index;
+    }
+
+    @Override
+    public void onCreated(Grievance grievance) {
+        add(grievance);
+    }
+
+    /**
+     * Indexes the title and description of a grievance.
+     */
+    public void add(Grievance grievance) {
+        List<String> terms = new ArrayList<>();
+        tokenize(grievance.getTitle(), terms);
+        tokenize(grievance.getDescription(), terms);
+
+        int id = grievance.getId();
+        lock.writeLock().lock();
+        try {
+            boolean added = false;
+            for (String term : terms) {
+                added |= postings.computeIfAbsent(term, t -> new Postings()).add(id);
+            }
+            if (added) documentCount++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a query against the index.
+     * @param query the query text (see class documentation for syntax).
+     * @return matching grievance IDs, highest (newest) first.
+     */
+    public int[] search(String query) {
+        List<List<String>> orGroups = new ArrayList<>();
+        List<String> excluded = new ArrayList<>();
+        List<String> current = new ArrayList<>();
+        orGroups.add(current);
+
+        for (String word : query.trim().split("\\s+")) {
+            if (word.isEmpty()) continue;
+            if (word.equals("OR")) {
+                if (!current.isEmpty()) {
+                    current = new ArrayList<>();
+                    orGroups.add(current);
+                }
+                continue;
+            }
+            boolean exclude = word.startsWith("-");
+            boolean prefix = word.endsWith("*");
+            List<String> tokens = new ArrayList<>();
+            tokenize(word, tokens);
+            for (int i = 0; i < tokens.size(); i++) {
+                // Only the last token of a word keeps the wildcard ("follow-up*" -> follow AND up*)
+                String token = prefix && i == tokens.size() - 1 ? tokens.get(i) + "*" : tokens.get(i);
+                (exclude ? excluded : current).add(token);
+            }
+        }
+
+        lock.readLock().lock();
+        try {
+            int[] result = null;
+            for (List<String> group : orGroups) {
+                if (group.isEmpty()) continue;
+                int[] groupResult = null;
+                for (String term : group) {
+                    int[] ids = lookup(term);
+                    groupResult = groupResult == null ? ids : intersect(groupResult, ids);
+                    if (groupResult.length == 0) break;
+                }
+                result = result == null ? groupResult : union(result, groupResult);
+            }
+            if (result == null) return new int[0];
+            for (String term : excluded) {
+                result = subtract(result, lookup(term));
+            }
+            return reverse(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getDocumentCount() {
+        lock.readLock().lock();
+        try {
+            return documentCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getTermCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- Helpers (callers hold the read lock) ---
+
+    private int[] lookup(String term) {
+        if (!term.endsWith("*")) {
+            Postings p = postings.get(term);
+            return p == null ? new int[0] : p.toArray();
+        }
+        String prefix = term.substring(0, term.length() - 1);
+        int[] result = new int[0];
+        // Every term in [prefix, prefix + Character.MAX_VALUE) starts with prefix
+        for (Map.Entry<String, Postings> e : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).entrySet()) {
+            result = union(result, e.getValue().toArray());
+        }
+        return result;
+    }
+
+    static void tokenize(String text, List<String> out) {
+        if (text == null) return;
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                if (i - start >= MIN_TOKEN_LENGTH) {
+                    out.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                }
+                start = -1;
+            }
+        }
+    }
+
+    static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else { out[n++] = a[i]; i++; j++; }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    static int[] union(int[] a, int[] b) {
+        if (a.length == 0) return b;
+        if (b.length == 0) return a;
+        int[] out = new int[a.length + b.length];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length || j < b.length) {
+            if (j >= b.length || (i < a.length && a[i] < b[j])) out[n++] = a[i++];
+            else if (i >= a.length || b[j] < a[i]) out[n++] = b[j++];
+            else { out[n++] = a[i]; i++; j++; }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    static int[] subtract(int[] a, int[] b) {
+        int[] out = new int[a.length];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length) {
+            if (j >= b.length || a[i] < b[j]) out[n++] = a[i++];
+            else if (a[i] > b[j]) j++;
+            else { i++; j++; }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static int[] reverse(int[] ids) {
+        for (int i = 0, j = ids.length - 1; i < j; i++, j--) {
+            int tmp = ids[i];
+            ids[i] = ids[j];
+            ids[j] = tmp;
+        }
+        return ids;
+    }
+
+    /**
+     * Sorted, duplicate-free list of IDs for one term, stored in a growable primitive array.
+     * New grievances get increasing IDs, so adds are almost always appends.
+     */
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size = 0;
+
+        boolean add(int id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                int pos = Arrays.binarySearch(ids, 0, size, id);
+                if (pos >= 0) return false;
+                insertAt(-pos - 1, id);
+                return true;
+            }
+            if (size == ids.length) ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            ids[size++] = id;
+            return true;
+        }
+
+        private void insertAt(int pos, int id) {
+            if (size == ids.length) ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            ids[pos] = id;
+            size++;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
@@ -0,0 +1,737 @@
+package com.grievance.server;
+
+import com.grievance.cache.StatusCounterCache;
+import com.grievance.dao.AsyncGrievanceRepository;
+import com.grievance.dao.AsyncUserRepository;
+import com.grievance.dao.DaoExecutor;
+import com.grievance.dao.DaoSession;
+import com.grievance.dao.GrievanceRepository;
+import com.grievance.dao.Storage;
+import com.grievance.dao.UserRepository;
+import com.grievance.ingest.IngestBuffer;
+import com.grievance.model.ClaimOrder;
+import com.grievance.model.Grievance;
+import com.grievance.model.GrievanceStatus;
+import com.grievance.model.GrievanceSummary;
+import com.grievance.model.Page;
+import com.grievance.model.PageCursor;
+import com.grievance.model.StatusTransition;
+import com.grievance.model.User;
+import com.grievance.util.AppConfig;
+import com.grievance.util.Json;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * JSON API over the repositories, with the same operations and role rules as the CLI menus.
+ * <pre>
+ * POST   /api/login                    {username, password} -> {token, user}
+ * POST   /api/logout
+ * POST   /api/register                 {username, password}
+ * GET    /api/grievances?cursor=&amp;limit=   all grievances, newest first
+ * POST   /api/grievances               {title, description}        (USER; 202 {accepted} when buffered)
+ * GET    /api/grievances/mine?cursor=&amp;limit=                      (USER)
+ * GET    /api/grievances/search?q=&amp;offset=&amp;limit=
+ * GET    /api/grievances/{id}
+ * PUT    /api/grievances/{id}/status   {status, version?}          (GRIEVANCE_MANAGER, ADMINISTRATOR; 409 if stale)
+ * POST   /api/grievances/status        {ids, versions?, status}    (GRIEVANCE_MANAGER, ADMINISTRATOR; per-ID results)
+ * PUT    /api/grievances/{id}/priority {priority}                  (GRIEVANCE_MANAGER, ADMINISTRATOR)
+ * POST   /api/queue/claim              {count?, order?}            claim the next OPEN grievances (GRIEVANCE_MANAGER)
+ * GET    /api/queue                    grievances currently claimed by the caller          (GRIEVANCE_MANAGER)
+ * POST   /api/queue/renew              {ids}                       extend the caller's claims  (GRIEVANCE_MANAGER)
+ * POST   /api/queue/release            {ids}                       hand claims back            (GRIEVANCE_MANAGER)
+ * GET    /api/reports/status                                       (GRIEVANCE_MANAGER, ADMINISTRATOR)
+ * GET    /api/reports/dashboard        status counts, latest grievances, user count (admin)
+ * GET    /api/users                                                (ADMINISTRATOR)
+ * POST   /api/users                    {username, password, role}  (ADMINISTRATOR)
+ * PUT    /api/users/{id}/role          {role}                      (ADMINISTRATOR)
+ * DELETE /api/users/{id}                                           (ADMINISTRATOR)
+ * GET    /api/health                   {status} only, no login needed
+ * GET    /api/health/details           workers, pool, caches, ingest, events  (GRIEVANCE_MANAGER, ADMINISTRATOR)
+ * </pre>
+ * Authenticated calls send {@code Authorization: Bearer <token>}. Errors are {@code {"error": "..."}}.
+ * The handler keeps no per-user state of its own, so any worker thread can serve any request.
+ */
+class ApiHandler implements HttpHandler {
+
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_TRANSITION_IDS = 1000;
+    private static final int LEASE_SECONDS = Math.max(1, AppConfig.getInt("queue.leaseSeconds", 900));
+    private static final int MAX_CLAIM = Math.max(1, AppConfig.getInt("queue.maxClaim", 50));
+
+    private final GrievanceServer server;
+    private final UserRepository userDAO;
+    private final GrievanceRepository grievanceDAO;
+    private final AsyncGrievanceRepository asyncGrievances;
+    private final AsyncUserRepository asyncUsers;
+    private final SessionManager sessions;
+    private final StatusCounterCache statusCounters;
+    private final IngestBuffer ingestBuffer;
+    private final int defaultPageSize;
+    // One pooled connection per request (MySQL engine), so its DAO calls reuse that connection's statements
+    private final boolean daoSessions;
+
+    ApiHandler(GrievanceServer server, UserRepository userDAO, GrievanceRepository grievanceDAO, SessionManager sessions,
+               StatusCounterCache statusCounters, IngestBuffer ingestBuffer, int defaultPageSize) {
+        this.server = server;
+        this.userDAO = userDAO;
+        this.grievanceDAO = grievanceDAO;
+        this.asyncGrievances = new AsyncGrievanceRepository(grievanceDAO, DaoExecutor.shared());
+        this.asyncUsers = new AsyncUserRepository(userDAO, DaoExecutor.shared());
+        this.sessions = sessions;
+        this.statusCounters = statusCounters;
+        this.ingestBuffer = ingestBuffer;
+        this.defaultPageSize = defaultPageSize;
+        this.daoSessions = Storage.jdbcGrievances() != null && AppConfig.getBoolean("server.daoSessions", true);
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (GrievanceServer.isShedding()) {
+                // Worker queue is full; answer cheaply on the dispatcher thread
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                send(exchange, 503, error("Server busy, retry shortly."));
+                return;
+            }
+            Request req = new Request(exchange);
+            Object body;
+            DaoSession session = openSession(req);
+            try {
+                body = route(req);
+            } finally {
+                if (session != null) session.close();
+            }
+            send(exchange, req.status, body);
+        } catch (ApiException e) {
+            send(exchange, e.status, error(e.getMessage()));
+        } catch (RuntimeException e) {
+            System.err.println("Error handling " + exchange.getRequestMethod() + " "
+                    + exchange.getRequestURI().getPath() + ": " + e);
+            send(exchange, 500, error("Internal server error."));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Pins one connection to the request so that all of its DAO calls share it. Health checks need no
+     * database, and the dashboard fans out to the DAO executor, whose threads borrow connections of
+     * their own; pinning one while waiting for them would only tie it up.
+     * @return the session, or null if the request runs without one.
+     */
+    private DaoSession openSession(Request req) {
+        String[] p = req.path;
+        if (!daoSessions || p.length < 2 || "health".equals(p[1])) return null;
+        if (p.length == 3 && "reports".equals(p[1]) && "dashboard".equals(p[2])) return null;
+        try {
+            return DaoSession.open();
+        } catch (SQLException e) {
+            throw new ApiException(503, "Database unavailable, retry shortly.");
+        }
+    }
+
+    private Object route(Request req) throws IOException {
+        String[] p = req.path;
+        if (p.length < 2 || !"api".equals(p[0])) throw new ApiException(404, "Not found.");
+
+        switch (p[1]) {
+            case "health":
+                req.requireMethod("GET");
+                if (p.length == 2) return Map.of("status", "UP");
+                if (p.length == 3 && "details".equals(p[2])) {
+                    requireRole(authenticate(req), "GRIEVANCE_MANAGER", "ADMINISTRATOR");
+                    return server.getHealth();
+                }
+                break;
+            case "login":
+                req.requireMethod("POST");
+                return login(req);
+            case "logout":
+                req.requireMethod("POST");
+                sessions.invalidate(req.token());
+                return ok();
+            case "register":
+                req.requireMethod("POST");
+                return register(req);
+            case "grievances":
+                return grievances(req, authenticate(req));
+            case "reports":
+                if (p.length == 3 && "status".equals(p[2])) {
+                    req.requireMethod("GET");
+                    requireRole(authenticate(req), "GRIEVANCE_MANAGER", "ADMINISTRATOR");
+                    return statusReport();
+                }
+                if (p.length == 3 && "dashboard".equals(p[2])) {
+                    req.requireMethod("GET");
+                    User user = authenticate(req);
+                    requireRole(user, "GRIEVANCE_MANAGER", "ADMINISTRATOR");
+                    return dashboard(user);
+                }
+                if (p.length == 3 && "aging".equals(p[2])) {
+                    req.requireMethod("GET");
+                    requireRole(authenticate(req), "GRIEVANCE_MANAGER", "ADMINISTRATOR");
+                    return agingReport(req);
+                }
+                break;
+            case "queue":
+                return queue(req, authenticate(req));
+            case "users":
+                return users(req, authenticate(req));
+            default:
+                break;
+        }
+        throw new ApiException(404, "Not found.");
+    }
+
+    // --- Authentication ---
+    private Object login(Request req) throws IOException {
+        Map<String, Object> body = req.json();
+        User user = userDAO.login(req.string(body, "username"), req.string(body, "password"));
+        if (user == null) throw new ApiException(401, "Invalid username or password.");
+
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("token", sessions.create(user));
+        out.put("user", toJson(user));
+        return out;
+    }
+
+    private Object register(Request req) throws IOException {
+        Map<String, Object> body = req.json();
+        User created = userDAO.register(req.string(body, "username"), req.string(body, "password"));
+        if (created == null) throw new ApiException(409, "Registration failed; the username may be taken.");
+        return toJson(created);
+    }
+
+    private User authenticate(Request req) {
+        int userId = sessions.resolve(req.token());
+        if (userId < 0) throw new ApiException(401, "Login required.");
+        // Cached lookup; reflects role changes and deletions since login
+        User user = userDAO.getUserById(userId);
+        if (user == null) throw new ApiException(401, "Login required.");
+        return user;
+    }
+
+    private static void requireRole(User user, String... roles) {
+        if (!Arrays.asList(roles).contains(user.getRole())) {
+            throw new ApiException(403, "Not permitted for role " + user.getRole() + ".");
+        }
+    }
+
+    // --- Grievances ---
+    private Object grievances(Request req, User user) throws IOException {
+        String[] p = req.path;
+        if (p.length == 2) {
+            if ("POST".equals(req.method)) {
+                requireRole(user, "USER");
+                return raise(req, user);
+            }
+            req.requireMethod("GET");
+            return toJson(grievanceDAO.getGrievancesPage(req.cursor(), req.limit(defaultPageSize)));
+        }
+        if (p.length == 3 && "mine".equals(p[2])) {
+            req.requireMethod("GET");
+            requireRole(user, "USER");
+            return toJson(grievanceDAO.getGrievancesPageByUserId(user.getId(), req.cursor(), req.limit(defaultPageSize)));
+        }
+        if (p.length == 3 && "search".equals(p[2])) {
+            req.requireMethod("GET");
+            String q = req.query("q");
+            if (q == null || q.trim().isEmpty()) throw new ApiException(400, "Parameter 'q' is required.");
+            List<Object> items = new ArrayList<>();
+            for (GrievanceSummary g : grievanceDAO.searchGrievances(q.trim(), req.intQuery("offset", 0),
+                    req.limit(defaultPageSize))) {
+                items.add(toJson(g));
+            }
+            return Map.of("items", items);
+        }
+        if (p.length == 3 && "status".equals(p[2])) {
+            req.requireMethod("POST");
+            requireRole(user, "GRIEVANCE_MANAGER", "ADMINISTRATOR");
+            return transitionMany(req);
+        }
+
+        int id = parseId(p[2]);
+        if (p.length == 3) {
+            req.requireMethod("GET");
+            Grievance g = grievanceDAO.getGrievanceById(id);
+            // Regular users may only read the full text of their own grievances
+            if (g == null || ("USER".equals(user.getRole()) && g.getUserId() != user.getId())) {
+                throw new ApiException(404, "No grievance found with ID " + id + ".");
+            }
+            return toJson(g);
+        }
+        if (p.length == 4 && "status".equals(p[3])) {
+            req.requireMethod("PUT");
+            requireRole(user, "GRIEVANCE_MANAGER", "ADMINISTRATOR");
+            Map<String, Object> body = req.json();
+            GrievanceStatus target = parseStatus(req.string(body, "status"));
+            int version = body.get("version") == null ? StatusTransition.ANY_VERSION : req.integer(body, "version");
+            StatusTransition result = grievanceDAO.transitionStatus(id, target, version);
+            switch (result.getOutcome()) {
+                case APPLIED:
+                    return toJson(result);
+                case NOT_FOUND:
+                    throw new ApiException(404, "No grievance found with ID " + id + ".");
+                case VERSION_CONFLICT:
+                    throw new ApiException(409, "Grievance " + id + " was changed by someone else; it is now "
+                            + result.getStatus() + " at version " + result.getVersion() + ".");
+                case ILLEGAL_TRANSITION:
+                    throw new ApiException(409, "Grievance " + id + " is " + result.getStatus()
+                            + "; it cannot move to " + target + ".");
+                default:
+                    throw new ApiException(500, "Failed to update grievance ID " + id + ".");
+            }
+        }
+        if (p.length == 4 && "priority".equals(p[3])) {
+            req.requireMethod("PUT");
+            requireRole(user, "GRIEVANCE_MANAGER", "ADMINISTRATOR");
+            int priority = req.integer(req.json(), "priority");
+            if (priority < -128 || priority > 127) throw new ApiException(400, "Priority must be between -128 and 127.");
+            if (!grievanceDAO.setPriority(id, priority)) {
+                throw new ApiException(404, "Failed to update grievance ID " + id + ".");
+            }
+            return ok();
+        }
+        throw new ApiException(404, "Not found.");
+    }
+
+    private Object transitionMany(Request req) throws IOException {
+        Map<String, Object> body = req.json();
+        GrievanceStatus target = parseStatus(req.string(body, "status"));
+        int[] ids = req.integers(body, "ids");
+        if (ids == null || ids.length == 0) throw new ApiException(400, "Field 'ids' is required.");
+        if (ids.length > MAX_TRANSITION_IDS) {
+            throw new ApiException(400, "At most " + MAX_TRANSITION_IDS + " IDs per request.");
+        }
+        int[] versions = req.integers(body, "versions");
+        if (versions != null && versions.length != ids.length) {
+            throw new ApiException(400, "Field 'versions' must have one entry per ID.");
+        }
+
+        List<Object> results = new ArrayList<>(ids.length);
+        int applied = 0;
+        for (StatusTransition result : grievanceDAO.transitionStatuses(ids, versions, target)) {
+            if (result.isApplied()) applied++;
+            results.add(toJson(result));
+        }
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("applied", applied);
+        out.put("results", results);
+        return out;
+    }
+
+    private static GrievanceStatus parseStatus(String status) {
+        try {
+            return GrievanceStatus.fromString(status);
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(400, "Unknown status '" + status + "'.");
+        }
+    }
+
+    private Object raise(Request req, User user) throws IOException {
+        Map<String, Object> body = req.json();
+        String title = req.string(body, "title");
+        String description = req.string(body, "description");
+        if (title.length() > 255) throw new ApiException(400, "Title must be at most 255 characters.");
+
+        if (ingestBuffer != null) {
+            // Durable in the ingest log; the row gets its ID when the buffer drains to storage
+            try {
+                long sequence = ingestBuffer.submit(new Grievance(user.getId(), title, description));
+                req.status = 202;
+                return Map.of("accepted", true, "sequence", sequence);
+            } catch (RejectedExecutionException e) {
+                req.exchange.getResponseHeaders().set("Retry-After", "1");
+                throw new ApiException(503, "Too many submissions waiting, retry shortly.");
+            }
+        }
+        Grievance created = grievanceDAO.createGrievance(new Grievance(user.getId(), title, description));
+        if (created == null) throw new ApiException(500, "Failed to submit grievance.");
+        return toJson(created);
+    }
+
+    private Object statusReport() {
+        Map<GrievanceStatus, Integer> summary = statusCounters != null
+                ? statusCounters.getStatusSummary()
+                : grievanceDAO.getStatusSummary();
+        Map<String, Object> out = new LinkedHashMap<>();
+        for (Map.Entry<GrievanceStatus, Integer> e : summary.entrySet()) {
+            out.put(e.getKey().name(), e.getValue());
+        }
+        return out;
+    }
+
+    /** Oldest grievances in a status, e.g. {@code ?status=OPEN&olderThanHours=72}. */
+    private Object agingReport(Request req) {
+        String status = req.query("status");
+        GrievanceStatus target = parseStatus(status == null ? GrievanceStatus.OPEN.name() : status);
+        int hours = req.intQuery("olderThanHours", 0);
+        if (hours < 0) throw new ApiException(400, "Parameter 'olderThanHours' must not be negative.");
+        Timestamp before = hours == 0 ? null : new Timestamp(System.currentTimeMillis() - hours * 3_600_000L);
+
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("status", target.name());
+        out.put("createdBefore", before);
+        out.put("items", toJson(grievanceDAO.getGrievancesByStatus(target, before, req.limit(defaultPageSize))));
+        return out;
+    }
+
+    /**
+     * The dashboard's queries are independent, so they run in parallel on the DAO executor and the
+     * response takes as long as the slowest one rather than the sum.
+     */
+    private Object dashboard(User user) {
+        CompletableFuture<Map<GrievanceStatus, Integer>> status = statusCounters != null
+                ? CompletableFuture.completedFuture(statusCounters.getStatusSummary())
+                : asyncGrievances.getStatusSummary();
+        CompletableFuture<Page<GrievanceSummary>> latest = asyncGrievances.getGrievancesPage(null, 5);
+        CompletableFuture<List<User>> users = "ADMINISTRATOR".equals(user.getRole())
+                ? asyncUsers.getAllUsers()
+                : CompletableFuture.completedFuture(null);
+
+        try {
+            CompletableFuture.allOf(status, latest, users).join();
+        } catch (CompletionException e) {
+            status.cancel(true);
+            latest.cancel(true);
+            users.cancel(true);
+            Throwable cause = e.getCause();
+            if (cause instanceof TimeoutException) throw new ApiException(504, "Dashboard queries timed out.");
+            if (cause instanceof RejectedExecutionException) throw new ApiException(503, "Server busy, retry shortly.");
+            throw e;
+        }
+
+        Map<String, Object> out = new LinkedHashMap<>();
+        Map<String, Object> counts = new LinkedHashMap<>();
+        for (Map.Entry<GrievanceStatus, Integer> e : status.join().entrySet()) {
+            counts.put(e.getKey().name(), e.getValue());
+        }
+        out.put("status", counts);
+        out.put("latest", toJson(latest.join()).get("items"));
+        if (users.join() != null) out.put("users", users.join().size());
+        return out;
+    }
+
+    // --- Work queue ---
+    private Object queue(Request req, User manager) throws IOException {
+        requireRole(manager, "GRIEVANCE_MANAGER");
+        String[] p = req.path;
+        if (p.length == 2) {
+            req.requireMethod("GET");
+            return Map.of("items", toJson(grievanceDAO.getClaimedBy(manager.getId())));
+        }
+        if (p.length != 3) throw new ApiException(404, "Not found.");
+        req.requireMethod("POST");
+        Map<String, Object> body = req.json();
+        switch (p[2]) {
+            case "claim": {
+                int count = body.get("count") == null ? 1 : req.integer(body, "count");
+                if (count < 1 || count > MAX_CLAIM) throw new ApiException(400, "Count must be between 1 and " + MAX_CLAIM + ".");
+                ClaimOrder order;
+                try {
+                    order = body.get("order") == null ? ClaimOrder.OLDEST_FIRST
+                            : ClaimOrder.valueOf(body.get("order").toString().trim().toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    throw new ApiException(400, "Order must be OLDEST_FIRST or PRIORITY.");
+                }
+                Map<String, Object> out = new LinkedHashMap<>();
+                out.put("items", toJson(grievanceDAO.claimNext(manager.getId(), count, order, LEASE_SECONDS)));
+                out.put("leaseSeconds", LEASE_SECONDS);
+                return out;
+            }
+            case "renew": {
+                Map<String, Object> out = new LinkedHashMap<>();
+                out.put("renewed", grievanceDAO.renewClaims(manager.getId(), claimIds(req, body), LEASE_SECONDS));
+                out.put("leaseSeconds", LEASE_SECONDS);
+                return out;
+            }
+            case "release":
+                return Map.of("released", grievanceDAO.releaseClaims(manager.getId(), claimIds(req, body)));
+            default:
+                throw new ApiException(404, "Not found.");
+        }
+    }
+
+    private static int[] claimIds(Request req, Map<String, Object> body) {
+        int[] ids = req.integers(body, "ids");
+        if (ids == null || ids.length == 0) throw new ApiException(400, "Field 'ids' is required.");
+        if (ids.length > MAX_TRANSITION_IDS) throw new ApiException(400, "At most " + MAX_TRANSITION_IDS + " IDs per request.");
+        return ids;
+    }
+
+    // --- User administration ---
+    private Object users(Request req, User admin) throws IOException {
+        requireRole(admin, "ADMINISTRATOR");
+        String[] p = req.path;
+        if (p.length == 2) {
+            if ("POST".equals(req.method)) {
+                Map<String, Object> body = req.json();
+                User created = userDAO.registerWithRole(req.string(body, "username"), req.string(body, "password"),
+                        role(req.string(body, "role")));
+                if (created == null) throw new ApiException(409, "Failed to create user; the username may be taken.");
+                return toJson(created);
+            }
+            req.requireMethod("GET");
+            List<Object> items = new ArrayList<>();
+            for (User u : userDAO.getAllUsers()) items.add(toJson(u));
+            return Map.of("items", items);
+        }
+        int id = parseId(p[2]);
+        if (p.length == 3) {
+            req.requireMethod("DELETE");
+            if (!userDAO.deleteUser(id)) throw new ApiException(404, "Failed to delete user ID " + id + ".");
+            sessions.invalidateUser(id);
+            return ok();
+        }
+        if (p.length == 4 && "role".equals(p[3])) {
+            req.requireMethod("PUT");
+            if (!userDAO.updateUserRole(id, role(req.string(req.json(), "role")))) {
+                throw new ApiException(404, "Failed to update role of user ID " + id + ".");
+            }
+            return ok();
+        }
+        throw new ApiException(404, "Not found.");
+    }
+
+    private static String role(String role) {
+        String r = role.toUpperCase();
+        if (!r.equals("USER") && !r.equals("GRIEVANCE_MANAGER") && !r.equals("ADMINISTRATOR")) {
+            throw new ApiException(400, "Role must be USER, GRIEVANCE_MANAGER or ADMINISTRATOR.");
+        }
+        return r;
+    }
+
+    // --- JSON mapping ---
+    private static Map<String, Object> toJson(User u) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("id", u.getId());
+        m.put("username", u.getUsername());
+        m.put("role", u.getRole());
+        m.put("createdAt", u.getCreatedAt());
+        return m;
+    }
+
+    private static Map<String, Object> toJson(GrievanceSummary g) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("id", g.getId());
+        m.put("userId", g.getUserId());
+        m.put("title", g.getTitle());
+        m.put("status", g.getStatus());
+        m.put("createdAt", g.getCreatedAt());
+        m.put("resolvedAt", g.getResolvedAt());
+        m.put("version", g.getVersion());
+        m.put("priority", g.getPriority());
+        return m;
+    }
+
+    private static List<Object> toJson(List<GrievanceSummary> grievances) {
+        List<Object> items = new ArrayList<>(grievances.size());
+        for (GrievanceSummary g : grievances) items.add(toJson(g));
+        return items;
+    }
+
+    private static Map<String, Object> toJson(StatusTransition t) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("id", t.getGrievanceId());
+        m.put("outcome", t.getOutcome().name());
+        m.put("status", t.getStatus());
+        m.put("version", t.getVersion() == StatusTransition.ANY_VERSION ? null : t.getVersion());
+        return m;
+    }
+
+    private static Map<String, Object> toJson(Grievance g) {
+        Map<String, Object> m = toJson(g.toSummary());
+        m.put("description", g.getDescription());
+        return m;
+    }
+
+    private static Map<String, Object> toJson(Page<GrievanceSummary> page) {
+        List<Object> items = new ArrayList<>(page.getItems().size());
+        for (GrievanceSummary g : page.getItems()) items.add(toJson(g));
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("items", items);
+        m.put("nextCursor", page.hasMore() ? page.getNextCursor().encode() : null);
+        m.put("hasMore", page.hasMore());
+        return m;
+    }
+
+    private static Map<String, Object> ok() {
+        return Map.of("ok", true);
+    }
+
+    private static Map<String, Object> error(String message) {
+        return Map.of("error", message);
+    }
+
+    private static int parseId(String s) {
+        try {
+            return Integer.parseInt(s);
+        } catch (NumberFormatException e) {
+            throw new ApiException(404, "Not found.");
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = Json.write(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * The parts of an exchange the routes need, parsed once.
+     */
+    private static final class Request {
+        private final HttpExchange exchange;
+        private final String method;
+        private final String[] path;
+        private Map<String, String> query;
+        private int status = 200;
+
+        private Request(HttpExchange exchange) {
+            this.exchange = exchange;
+            this.method = exchange.getRequestMethod().toUpperCase();
+            String raw = exchange.getRequestURI().getPath();
+            String trimmed = raw.replaceAll("^/+|/+$", "");
+            this.path = trimmed.isEmpty() ? new String[0] : trimmed.split("/+");
+        }
+
+        private void requireMethod(String expected) {
+            if (!expected.equals(method)) throw new ApiException(405, "Method " + method + " not allowed.");
+        }
+
+        private String token() {
+            String auth = exchange.getRequestHeaders().getFirst("Authorization");
+            if (auth == null || !auth.regionMatches(true, 0, "Bearer ", 0, 7)) return null;
+            return auth.substring(7).trim();
+        }
+
+        private Map<String, Object> json() throws IOException {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            try (InputStream in = exchange.getRequestBody()) {
+                byte[] chunk = new byte[8192];
+                int n;
+                while ((n = in.read(chunk)) != -1) {
+                    if (buffer.size() + n > MAX_BODY_BYTES) throw new ApiException(413, "Request body too large.");
+                    buffer.write(chunk, 0, n);
+                }
+            }
+            try {
+                return Json.parseObject(buffer.toString(StandardCharsets.UTF_8));
+            } catch (IllegalArgumentException e) {
+                throw new ApiException(400, "Invalid JSON body: " + e.getMessage());
+            }
+        }
+
+        /** @return a required, non-blank string field of the body. */
+        private String string(Map<String, Object> body, String field) {
+            Object value = body.get(field);
+            if (value == null || value.toString().trim().isEmpty()) {
+                throw new ApiException(400, "Field '" + field + "' is required.");
+            }
+            return value.toString();
+        }
+
+        /** @return a required whole-number field of the body. */
+        private int integer(Map<String, Object> body, String field) {
+            Object value = body.get(field);
+            if (!(value instanceof Long) || (Long) value != ((Long) value).intValue()) {
+                throw new ApiException(400, "Field '" + field + "' must be a whole number.");
+            }
+            return ((Long) value).intValue();
+        }
+
+        /** @return an optional array of whole numbers, or null if the field is absent. */
+        private int[] integers(Map<String, Object> body, String field) {
+            Object value = body.get(field);
+            if (value == null) return null;
+            if (!(value instanceof List)) throw new ApiException(400, "Field '" + field + "' must be an array.");
+            List<?> list = (List<?>) value;
+            int[] out = new int[list.size()];
+            for (int i = 0; i < out.length; i++) {
+                Object item = list.get(i);
+                if (!(item instanceof Long) || (Long) item != ((Long) item).intValue()) {
+                    throw new ApiException(400, "Field '" + field + "' must contain whole numbers.");
+                }
+                out[i] = ((Long) item).intValue();
+            }
+            return out;
+        }
+
+        private String query(String name) {
+            if (query == null) {
+                query = new HashMap<>();
+                String raw = exchange.getRequestURI().getRawQuery();
+                if (raw != null) {
+                    for (String pair : raw.split("&")) {
+                        int eq = pair.indexOf('=');
+                        String key = eq < 0 ? pair : pair.substring(0, eq);
+                        String value = eq < 0 ? "" : pair.substring(eq + 1);
+                        query.put(URLDecoder.decode(key, StandardCharsets.UTF_8),
+                                URLDecoder.decode(value, StandardCharsets.UTF_8));
+                    }
+                }
+            }
+            return query.get(name);
+        }
+
+        private int intQuery(String name, int defaultValue) {
+            String value = query(name);
+            if (value == null || value.isEmpty()) return defaultValue;
+            try {
+                return Math.max(0, Integer.parseInt(value));
+            } catch (NumberFormatException e) {
+                throw new ApiException(400, "Parameter '" + name + "' must be a number.");
+            }
+        }
+
+        private int limit(int defaultValue) {
+            return Math.max(1, Math.min(MAX_PAGE_SIZE, intQuery("limit", defaultValue)));
+        }
+
+        private PageCursor cursor() {
+            String value = query("cursor");
+            if (value == null || value.isEmpty()) return null;
+            try {
+                return PageCursor.decode(value);
+            } catch (IllegalArgumentException e) {
+                throw new ApiException(400, "Invalid cursor.");
+            }
+        }
+    }
+
+    /**
+     * An error that maps straight to an HTTP status.
+     */
+    static final class ApiException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        private final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
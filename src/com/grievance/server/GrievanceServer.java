@@ -0,0 +1,223 @@
+package com.grievance.server;
+
+import com.grievance.archive.GrievanceArchiver;
+import com.grievance.cache.GrievanceColumnCache;
+import com.grievance.cache.StatusCounterCache;
+import com.grievance.dao.GrievanceDAO;
+import com.grievance.dao.GrievanceRepository;
+import com.grievance.dao.Storage;
+import com.grievance.events.OutboxDispatcher;
+import com.grievance.ingest.IngestBuffer;
+import com.grievance.metrics.DaoMetrics;
+import com.grievance.util.AppConfig;
+import com.grievance.util.ConnectionPool;
+import com.grievance.util.DBUtil;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.sql.SQLException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Long-running HTTP/JSON front-end, so many users can work against one instance at once.
+ * <p>
+ * Connections are accepted and parsed by the JDK HTTP server's dispatcher thread and handed to a
+ * fixed pool of workers with a bounded queue ({@code server.workers}, {@code server.queueCapacity}).
+ * When the queue is full the request is not queued or dropped: it is answered on the dispatcher
+ * thread with {@code 503} and {@code Retry-After}, which keeps latency bounded for the requests that
+ * were admitted. Workers should outnumber the database pool only modestly, since every request
+ * that touches the database waits for a pooled connection.
+ * <p>
+ * {@code GET /metrics} serves {@link DaoMetrics} in the Prometheus text format, unauthenticated so a
+ * scraper can reach it; restrict it at the network level if the figures are sensitive.
+ * <pre>
+ * java com.grievance.server.GrievanceServer [port]
+ * </pre>
+ */
+public class GrievanceServer {
+
+    // Set while a rejected request runs on the dispatcher thread; ApiHandler answers 503
+    private static final ThreadLocal<Boolean> SHEDDING = new ThreadLocal<>();
+
+    private final HttpServer http;
+    private final ThreadPoolExecutor workers;
+    private final SessionManager sessions;
+    private final StatusCounterCache statusCounters;
+    private final GrievanceColumnCache columnCache;
+    private final IngestBuffer ingestBuffer;
+    private final OutboxDispatcher events;
+    private final GrievanceArchiver archiver;
+    private final ScheduledExecutorService housekeeper;
+    private final LongAdder shed = new LongAdder();
+
+    public GrievanceServer(int port) throws IOException {
+        int threads = Math.max(1, AppConfig.getInt("server.workers", 32));
+        int queueCapacity = Math.max(1, AppConfig.getInt("server.queueCapacity", 1000));
+
+        AtomicInteger threadId = new AtomicInteger();
+        workers = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "http-worker-" + threadId.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                (task, executor) -> {
+                    if (executor.isShutdown()) return;
+                    shed.increment();
+                    SHEDDING.set(Boolean.TRUE);
+                    try {
+                        task.run();
+                    } finally {
+                        SHEDDING.remove();
+                    }
+                });
+
+        sessions = new SessionManager(AppConfig.getLong("server.session.idleMinutes", 30));
+        GrievanceRepository grievanceDAO = Storage.grievances();
+        columnCache = AppConfig.getBoolean("reports.columnCache.enabled", false) ? loadColumnCache(Storage.jdbcGrievances()) : null;
+        if (AppConfig.getBoolean("reports.counterCache.enabled", false)) {
+            statusCounters = new StatusCounterCache(grievanceDAO);
+            statusCounters.start(AppConfig.getLong("reports.counterCache.reconcileSeconds", 60));
+        } else {
+            statusCounters = null;
+        }
+        ingestBuffer = AppConfig.getBoolean("ingest.buffer.enabled", false) ? IngestBuffer.fromConfig(grievanceDAO) : null;
+        events = AppConfig.getBoolean("events.outbox.enabled", true) ? OutboxDispatcher.fromConfig(Storage.events()) : null;
+        if (events != null) {
+            grievanceDAO.addListener(events);
+            events.start();
+        }
+        // The embedded engine keeps every grievance in memory, so there is nothing to archive
+        archiver = GrievanceDAO.isArchiveEnabled() && Storage.jdbcGrievances() != null
+                ? GrievanceArchiver.fromConfig(Storage.jdbcGrievances()) : null;
+        if (archiver != null) archiver.start();
+
+        http = HttpServer.create(new InetSocketAddress(port), AppConfig.getInt("server.backlog", 1024));
+        http.createContext("/api", new ApiHandler(this, Storage.users(), grievanceDAO, sessions, statusCounters, ingestBuffer,
+                Math.max(1, AppConfig.getInt("cli.page.size", 20))));
+        http.createContext("/metrics", GrievanceServer::serveMetrics);
+        http.setExecutor(workers);
+
+        housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "session-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(sessions::evictExpired, 1, 1, TimeUnit.MINUTES);
+    }
+
+    /** @return the cache now serving the DAO, or null (embedded engine, or the load failed). */
+    private static GrievanceColumnCache loadColumnCache(GrievanceDAO dao) {
+        if (dao == null) return null; // the embedded engine already answers from memory
+        long start = System.currentTimeMillis();
+        try {
+            GrievanceColumnCache cache = GrievanceColumnCache.build(dao);
+            dao.setColumnCache(cache);
+            System.out.println("Cached " + cache.size() + " grievances in " + (System.currentTimeMillis() - start) + "ms.");
+            return cache;
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Could not load column cache, querying the database instead: " + e.getMessage());
+            return null;
+        }
+    }
+
+    static boolean isShedding() {
+        return SHEDDING.get() != null;
+    }
+
+    public void start() {
+        http.start();
+    }
+
+    /**
+     * Stops accepting requests, waits briefly for in-flight ones and shuts the worker pool down.
+     */
+    public void stop(int graceSeconds) {
+        http.stop(graceSeconds);
+        workers.shutdown();
+        housekeeper.shutdownNow();
+        if (statusCounters != null) statusCounters.stop();
+        if (ingestBuffer != null) {
+            try {
+                ingestBuffer.close();
+            } catch (IOException e) {
+                System.err.println("Error closing ingest buffer: " + e.getMessage());
+            }
+        }
+        // Undelivered events stay in the outbox for the next start
+        if (events != null) events.close(graceSeconds, TimeUnit.SECONDS);
+        if (archiver != null) archiver.close(graceSeconds, TimeUnit.SECONDS);
+    }
+
+    public int getPort() {
+        return http.getAddress().getPort();
+    }
+
+    /** Worker, session, ingest buffer, event delivery, archive, cache and connection pool figures for {@code GET /api/health/details}. */
+    Map<String, Object> getHealth() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("status", "UP");
+        m.put("activeWorkers", workers.getActiveCount());
+        m.put("queuedRequests", workers.getQueue().size());
+        m.put("completedRequests", workers.getCompletedTaskCount());
+        m.put("shedRequests", shed.sum());
+        m.put("sessions", sessions.size());
+        m.put("storage", Storage.getEngine());
+        if (ingestBuffer != null) m.put("ingest", ingestBuffer.getStats());
+        if (events != null) m.put("events", events.getStats());
+        if (archiver != null) m.put("archive", archiver.getStats());
+        if (columnCache != null) m.put("columnCache", columnCache.getStats());
+        if (Storage.isEmbedded()) return m;
+
+        ConnectionPool.PoolStats pool = DBUtil.getPoolStats();
+        Map<String, Object> db = new LinkedHashMap<>();
+        db.put("active", pool.getActive());
+        db.put("idle", pool.getIdle());
+        db.put("maxSize", pool.getMaxSize());
+        db.put("waiting", pool.getWaiting());
+        db.put("timeouts", pool.getTimeoutCount());
+        db.put("avgWaitMillis", pool.getAvgWaitNanos() / 1_000_000.0);
+        db.put("statementCacheHitRatio", DBUtil.getStatementCacheStats().getHitRatio());
+        m.put("dbPool", db);
+        return m;
+    }
+
+    private static void serveMetrics(HttpExchange exchange) throws IOException {
+        try {
+            if (isShedding()) {
+                // Same answer as the API: scraping must not add to an overload
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            byte[] body = DaoMetrics.prometheus().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : AppConfig.getInt("server.port", 8080);
+        GrievanceServer server = new GrievanceServer(port);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(2), "http-server-shutdown"));
+        server.start();
+        System.out.println("Grievance server listening on port " + server.getPort());
+    }
+}
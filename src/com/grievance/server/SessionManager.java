@@ -0,0 +1,83 @@
+package com.grievance.server;
+
+import com.grievance.model.User;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bearer-token sessions for the HTTP server.
+ * <p>
+ * A session only remembers who logged in; the user's current role is re-read (through the user cache)
+ * on every request, so role changes and deletions take effect immediately. Sessions expire after
+ * a period without requests.
+ */
+public class SessionManager {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final long idleTimeoutNanos;
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+
+    public SessionManager(long idleTimeoutMinutes) {
+        this.idleTimeoutNanos = TimeUnit.MINUTES.toNanos(Math.max(1, idleTimeoutMinutes));
+    }
+
+    /** @return a new token for the user. */
+    public String create(User user) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessions.put(token, new Session(user.getId()));
+        return token;
+    }
+
+    /**
+     * @return the ID of the user the token belongs to, or -1 if it is unknown or expired.
+     */
+    public int resolve(String token) {
+        if (token == null) return -1;
+        Session session = sessions.get(token);
+        if (session == null) return -1;
+        long now = System.nanoTime();
+        if (now - session.lastSeen > idleTimeoutNanos) {
+            sessions.remove(token, session);
+            return -1;
+        }
+        session.lastSeen = now;
+        return session.userId;
+    }
+
+    public void invalidate(String token) {
+        if (token != null) sessions.remove(token);
+    }
+
+    /** Drops every session belonging to a user (e.g. when the user is deleted). */
+    public void invalidateUser(int userId) {
+        sessions.values().removeIf(s -> s.userId == userId);
+    }
+
+    /** Removes expired sessions; called periodically by the server. */
+    public void evictExpired() {
+        long now = System.nanoTime();
+        Iterator<Session> it = sessions.values().iterator();
+        while (it.hasNext()) {
+            if (now - it.next().lastSeen > idleTimeoutNanos) it.remove();
+        }
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    private static final class Session {
+        private final int userId;
+        private volatile long lastSeen = System.nanoTime();
+
+        private Session(int userId) {
+            this.userId = userId;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.grievance.util;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * Application configuration loaded from a properties file.
+ * <p>
+ * Lookup order: the file named by the {@code grievance.config} system property,
+ * then {@code grievance.properties} in the working directory, then
+ * {@code grievance.properties} on the classpath. System properties with the
+ * same key always win, so a single value can be overridden with {@code -Dkey=value}.
+ */
+public class AppConfig {
+
+    public static final String CONFIG_FILE = "grievance.properties";
+
+    private static final Properties PROPERTIES = load();
+
+    private AppConfig() {}
+
+    private static Properties load() {
+        Properties props = new Properties();
+        String explicit = System.getProperty("grievance.config");
+        Path local = Paths.get(CONFIG_FILE);
+
+        try {
+            if (explicit != null) {
+                try (InputStream in = new FileInputStream(explicit)) {
+                    props.load(in);
+                }
+            } else if (Files.isRegularFile(local)) {
+                try (InputStream in = Files.newInputStream(local)) {
+                    props.load(in);
+                }
+            } else {
+                try (InputStream in = AppConfig.class.getClassLoader().getResourceAsStream(CONFIG_FILE)) {
+                    if (in != null) props.load(in);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Could not read configuration, using defaults: " + e.getMessage());
+        }
+        return props;
+    }
+
+    public static String getString(String key, String defaultValue) {
+        String value = System.getProperty(key, PROPERTIES.getProperty(key));
+        return value == null ? defaultValue : value.trim();
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        if (value == null || value.isEmpty()) return defaultValue;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid integer for '" + key + "': " + value + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        String value = getString(key, null);
+        if (value == null || value.isEmpty()) return defaultValue;
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid number for '" + key + "': " + value + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key, null);
+        if (value == null || value.isEmpty()) return defaultValue;
+        return Boolean.parseBoolean(value);
+    }
+}
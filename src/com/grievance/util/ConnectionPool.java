@@ -0,0 +1,411 @@
+package com.grievance.util;
+
+import com.grievance.metrics.JdbcMetrics;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.SQLTransientConnectionException;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A small bounded JDBC connection pool.
+ * <p>
+ * Physical connections are kept between {@code minSize} and {@code maxSize}. Callers get a
+ * proxy whose {@code close()} hands the physical connection back to the pool instead of
+ * closing it, so the existing DAO code (which always closes what it borrows) works unchanged.
+ * Each physical connection also keeps a {@link StatementCache} of its prepared statements.
+ * A background housekeeper evicts connections idle longer than {@code idleTimeoutMs}, tops the
+ * pool back up to {@code minSize} and reports connections held longer than the leak threshold
+ * together with the stack trace of the code that borrowed them.
+ */
+public class ConnectionPool {
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutMs;
+    private final long idleTimeoutMs;
+    private final long leakThresholdMs;
+    private final long validationIntervalMs;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+
+    // Most recently returned connection sits at the head, so hot connections are reused first
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> leased = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed = false;
+
+    // Metrics
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LogHistogram waitHistogram = new LogHistogram();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder destroyedCount = new LongAdder();
+    private final LongAdder leakCount = new LongAdder();
+
+    public ConnectionPool(String url, String user, String password, int minSize, int maxSize,
+                          long borrowTimeoutMs, long idleTimeoutMs, long leakThresholdMs,
+                          long validationIntervalMs, int validationTimeoutSeconds, int statementCacheSize) {
+        if (maxSize < 1) throw new IllegalArgumentException("maxSize must be at least 1");
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = Math.max(0, Math.min(minSize, maxSize));
+        this.maxSize = maxSize;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.leakThresholdMs = leakThresholdMs;
+        this.validationIntervalMs = validationIntervalMs;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, Math.min(30_000, idleTimeoutMs / 2));
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection, waiting up to the configured borrow timeout if the pool is exhausted.
+     * @return a pooled connection; closing it returns it to the pool.
+     * @throws SQLException if no connection became available in time or the database is unreachable.
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) throw new SQLException("Connection pool has been shut down.");
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+                timeoutCount.increment();
+                throw new SQLTransientConnectionException("Timed out after " + borrowTimeoutMs
+                        + "ms waiting for a database connection (active=" + leased.size()
+                        + ", idle=" + idle.size() + ", max=" + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        }
+
+        try {
+            PooledConnection pooled = takeIdleOrCreate();
+            long waited = System.nanoTime() - start;
+            recordWait(waited);
+
+            pooled.borrowedAt = System.currentTimeMillis();
+            pooled.borrowTrace = leakThresholdMs > 0 ? new Throwable("Connection borrowed here") : null;
+            pooled.leakReported = false;
+            leased.add(pooled);
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledConnection takeIdleOrCreate() throws SQLException {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isUsable(pooled)) return pooled;
+            destroy(pooled);
+        }
+        return create();
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        try {
+            if (pooled.physical.isClosed()) return false;
+            long idleFor = System.currentTimeMillis() - pooled.lastReturnedAt;
+            if (idleFor < validationIntervalMs) return true;
+            return pooled.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection create() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, user, password);
+        totalConnections.incrementAndGet();
+        createdCount.increment();
+        return new PooledConnection(physical);
+    }
+
+    private void destroy(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        destroyedCount.increment();
+        pooled.statements.closeAll();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    private void release(PooledConnection pooled) {
+        if (!leased.remove(pooled)) return;
+        pooled.borrowTrace = null;
+        try {
+            if (closed || pooled.physical.isClosed()) {
+                destroy(pooled);
+                return;
+            }
+            // Leave the connection in the state the next borrower expects
+            if (!pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            pooled.physical.clearWarnings();
+            pooled.lastReturnedAt = System.currentTimeMillis();
+            idle.offerFirst(pooled);
+        } catch (SQLException e) {
+            destroy(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void recordWait(long nanos) {
+        borrowCount.increment();
+        totalWaitNanos.add(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+        waitHistogram.record(nanos);
+    }
+
+    // --- Housekeeping ---
+
+    private void housekeep() {
+        try {
+            evictIdle();
+            fillToMinimum();
+            detectLeaks();
+        } catch (RuntimeException e) {
+            System.err.println("Connection pool housekeeping failed: " + e.getMessage());
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        Iterator<PooledConnection> it = idle.descendingIterator();
+        while (it.hasNext() && totalConnections.get() > minSize) {
+            PooledConnection pooled = it.next();
+            if (now - pooled.lastReturnedAt > idleTimeoutMs && idle.remove(pooled)) {
+                destroy(pooled);
+            }
+        }
+    }
+
+    /** Opens connections until the pool holds at least {@code minSize}; failures are retried on the next run. */
+    public void fillToMinimum() {
+        while (!closed && totalConnections.get() < minSize && permits.tryAcquire()) {
+            try {
+                PooledConnection pooled = create();
+                pooled.lastReturnedAt = System.currentTimeMillis();
+                idle.offerLast(pooled);
+            } catch (SQLException e) {
+                System.err.println("Could not pre-open database connection: " + e.getMessage());
+                return;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    private void detectLeaks() {
+        if (leakThresholdMs <= 0) return;
+        long now = System.currentTimeMillis();
+        for (PooledConnection pooled : leased) {
+            Throwable trace = pooled.borrowTrace;
+            if (!pooled.leakReported && trace != null && now - pooled.borrowedAt > leakThresholdMs) {
+                pooled.leakReported = true;
+                leakCount.increment();
+                System.err.println("Possible connection leak: connection held for "
+                        + (now - pooled.borrowedAt) + "ms without being closed.");
+                trace.printStackTrace();
+            }
+        }
+    }
+
+    /** Closes all idle connections and rejects further borrows; leased connections are closed on return. */
+    public void shutdown() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+    }
+
+    public PoolStats getStats() {
+        long borrows = borrowCount.sum();
+        return new PoolStats(
+                leased.size(), idle.size(), totalConnections.get(), maxSize,
+                permits.getQueueLength(), borrows, timeoutCount.sum(),
+                borrows == 0 ? 0 : totalWaitNanos.sum() / borrows, maxWaitNanos.get(),
+                createdCount.sum(), destroyedCount.sum(), leakCount.sum());
+    }
+
+    /** @return distribution of the time {@link #getConnection()} took, in nanoseconds. */
+    public LogHistogram getWaitHistogram() {
+        return waitHistogram;
+    }
+
+    // --- Pooled connection & handle ---
+
+    private final class PooledConnection {
+        private final Connection physical;
+        private final StatementCache statements;
+        private volatile long lastReturnedAt;
+        private volatile long borrowedAt;
+        private volatile Throwable borrowTrace;
+        private volatile boolean leakReported;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statements = new StatementCache(physical, statementCacheSize);
+        }
+
+        private Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[] { Connection.class },
+                    new Handle(this));
+        }
+    }
+
+    /**
+     * One handle per borrow, so a caller that keeps a reference after closing cannot
+     * touch a connection that has since been lent to someone else.
+     */
+    private final class Handle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean returned = false;
+
+        private Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + (returned ? ", returned" : "") + "]";
+                default:
+                    break;
+            }
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the pool.");
+            }
+            // prepareStatement(sql) and prepareStatement(sql, autoGeneratedKeys) are served from the cache
+            if ("prepareStatement".equals(method.getName()) && args.length <= 2
+                    && (args.length == 1 || args[1] instanceof Integer)) {
+                int keys = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+                return JdbcMetrics.wrap(pooled.statements.prepare((String) args[0], keys), (String) args[0]);
+            }
+            Object result;
+            try {
+                result = method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof Statement) {
+                // Other prepareStatement/prepareCall overloads and createStatement
+                return JdbcMetrics.wrap((Statement) result, args != null && args.length > 0 && args[0] instanceof String
+                        ? (String) args[0] : null);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Point-in-time snapshot of pool usage.
+     */
+    public static class PoolStats {
+        private final int active;
+        private final int idle;
+        private final int total;
+        private final int maxSize;
+        private final int waiting;
+        private final long borrowCount;
+        private final long timeoutCount;
+        private final long avgWaitNanos;
+        private final long maxWaitNanos;
+        private final long createdCount;
+        private final long destroyedCount;
+        private final long leakCount;
+
+        public PoolStats(int active, int idle, int total, int maxSize, int waiting, long borrowCount,
+                         long timeoutCount, long avgWaitNanos, long maxWaitNanos,
+                         long createdCount, long destroyedCount, long leakCount) {
+            this.active = active;
+            this.idle = idle;
+            this.total = total;
+            this.maxSize = maxSize;
+            this.waiting = waiting;
+            this.borrowCount = borrowCount;
+            this.timeoutCount = timeoutCount;
+            this.avgWaitNanos = avgWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+            this.createdCount = createdCount;
+            this.destroyedCount = destroyedCount;
+            this.leakCount = leakCount;
+        }
+
+        public int getActive() { return active; }
+        public int getIdle() { return idle; }
+        public int getTotal() { return total; }
+        public int getMaxSize() { return maxSize; }
+        public int getWaiting() { return waiting; }
+        public long getBorrowCount() { return borrowCount; }
+        public long getTimeoutCount() { return timeoutCount; }
+        public long getAvgWaitNanos() { return avgWaitNanos; }
+        public long getMaxWaitNanos() { return maxWaitNanos; }
+        public long getCreatedCount() { return createdCount; }
+        public long getDestroyedCount() { return destroyedCount; }
+        public long getLeakCount() { return leakCount; }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "Pool [active=%d, idle=%d, total=%d/%d, waiting=%d, borrows=%d, timeouts=%d, avgWait=%.3fms, maxWait=%.3fms, created=%d, destroyed=%d, leaks=%d]",
+                active, idle, total, maxSize, waiting, borrowCount, timeoutCount,
+                avgWaitNanos / 1_000_000.0, maxWaitNanos / 1_000_000.0, createdCount, destroyedCount, leakCount);
+        }
+    }
+}
@@ -1,56 +1,227 @@
 package com.grievance.util;
 
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.List;
 
 /**
  * Utility class for managing and establishing database connections.
  * This uses the JDBC driver for MySQL.
+ * <p>
+ * Connections are served from a shared {@link ConnectionPool}. Connection details and pool
+ * sizing are read from {@code grievance.properties} (see {@link AppConfig}). When the pool is first
+ * created, pending schema migrations are applied (see {@link SchemaMigrator}).
  */
 public class DBUtil {
 
-    // JDBC driver name and database URL
-    private static final String JDBC_DRIVER = "com.mysql.cj.jdbc.Driver";
-    // *** IMPORTANT: Change the following to match your local MySQL configuration ***
-    private static final String DB_URL = "jdbc:mysql://localhost:3306/grievance_system?serverTimezone=UTC";
+    // Defaults used when a key is missing from grievance.properties
+    private static final String DEFAULT_DRIVER = "com.mysql.cj.jdbc.Driver";
+    private static final String DEFAULT_URL = "jdbc:mysql://localhost:3306/grievance_system?serverTimezone=UTC";
+    private static final String DEFAULT_USER = "root";
 
-    // Database credentials
-    private static final String USER = "root"; // <-- CHANGE THIS
-    private static final String PASS = "Nagu@2563"; // <-- CHANGE THIS
+    private static volatile ConnectionPool pool;
+    // One hook for the JVM; a pool re-created after shutdown() reuses it
+    private static boolean shutdownHookRegistered;  // guarded by DBUtil.class
+
+    // Connection shared by every DAO call on this thread while a session is open
+    private static final ThreadLocal<Connection> SESSION_CONNECTION = new ThreadLocal<>();
 
     /**
-     * Establishes a connection to the database.
+     * Borrows a connection from the pool. Closing the returned connection hands it back.
+     * If a session is bound to the current thread (see {@link #bindSession}), its connection is
+     * returned instead and closing it has no effect.
      * @return Connection object to the database.
-     * @throws SQLException if a database access error occurs.
+     * @throws SQLException if a database access error occurs or the pool is exhausted.
      */
     public static Connection getConnection() throws SQLException {
-        try {
-            // Register JDBC driver (optional for modern JDBC, but good practice)
-            Class.forName(JDBC_DRIVER);
-        } catch (ClassNotFoundException e) {
-            System.err.println("MySQL JDBC Driver not found. Ensure the Connector/J JAR is in your build path.");
-            throw new SQLException("JDBC Driver not found.", e);
+        Connection session = SESSION_CONNECTION.get();
+        if (session != null) {
+            return nonClosing(session);
         }
+        return getPool().getConnection();
+    }
 
-        System.out.println("Connecting to database...");
-        // Establish the connection
-        return DriverManager.getConnection(DB_URL, USER, PASS);
+    /**
+     * Borrows a connection straight from the pool, ignoring any session on this thread.
+     * Used for long-lived streaming reads, which cannot share a connection with other queries.
+     */
+    public static Connection getDedicatedConnection() throws SQLException {
+        return getPool().getConnection();
     }
 
     /**
-     * Closes the database connection.
+     * Makes every {@link #getConnection()} on the current thread return {@code connection}
+     * until {@link #unbindSession()} is called.
+     */
+    public static void bindSession(Connection connection) {
+        if (SESSION_CONNECTION.get() != null) {
+            throw new IllegalStateException("A session is already open on this thread.");
+        }
+        SESSION_CONNECTION.set(connection);
+    }
+
+    public static void unbindSession() {
+        SESSION_CONNECTION.remove();
+    }
+
+    private static Connection nonClosing(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(DBUtil.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            return null; // the session owns the connection
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            try {
+                                return method.invoke(connection, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                    }
+                });
+    }
+
+    /**
+     * Starts a transaction. Pair with {@link #endTransaction} in a {@code finally} block, because a
+     * session connection is not reset between DAO calls the way a pooled one is on release.
+     * @return the autocommit mode to pass to {@link #endTransaction}.
+     */
+    public static boolean beginTransaction(Connection connection) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        return autoCommit;
+    }
+
+    /**
+     * Ends a transaction started with {@link #beginTransaction}: whatever was not committed is rolled
+     * back and autocommit is turned back on, so the next call on a shared session connection does not
+     * run inside a transaction it never commits. Does nothing if the caller's transaction was
+     * already open when {@code beginTransaction} was called.
+     */
+    public static void endTransaction(Connection connection, boolean autoCommit) {
+        try {
+            if (autoCommit && !connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error ending the database transaction: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the connection to the pool.
      * @param connection The connection to close.
      */
     public static void closeConnection(Connection connection) {
         if (connection != null) {
             try {
                 connection.close();
-                System.out.println("Connection closed.");
             } catch (SQLException e) {
                 System.err.println("Error closing the database connection: " + e.getMessage());
             }
         }
     }
+
+    /**
+     * @return a snapshot of the pool's active/idle counts and wait times.
+     */
+    public static ConnectionPool.PoolStats getPoolStats() {
+        return getPool().getStats();
+    }
+
+    /**
+     * @return distribution of connection borrow times, in nanoseconds.
+     */
+    public static LogHistogram getConnectionWaitHistogram() {
+        return getPool().getWaitHistogram();
+    }
+
+    /**
+     * @return whether the pool has been created, i.e. something has used the database.
+     */
+    public static boolean isStarted() {
+        return pool != null;
+    }
+
+    /**
+     * @return prepared-statement cache hit/miss counts across all pooled connections.
+     */
+    public static StatementCache.Stats getStatementCacheStats() {
+        return StatementCache.getStats();
+    }
+
+    /**
+     * Closes every pooled connection. Called automatically on JVM shutdown.
+     */
+    public static synchronized void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    private static ConnectionPool getPool() throws IllegalStateException {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DBUtil.class) {
+                if (pool == null) {
+                    pool = createPool();
+                }
+                current = pool;
+            }
+        }
+        return current;
+    }
+
+    private static ConnectionPool createPool() {
+        String driver = AppConfig.getString("db.driver", DEFAULT_DRIVER);
+        try {
+            // Register JDBC driver once (optional for modern JDBC, but good practice)
+            Class.forName(driver);
+        } catch (ClassNotFoundException e) {
+            System.err.println("MySQL JDBC Driver not found. Ensure the Connector/J JAR is in your build path.");
+        }
+
+        ConnectionPool created = new ConnectionPool(
+                AppConfig.getString("db.url", DEFAULT_URL),
+                AppConfig.getString("db.user", DEFAULT_USER),
+                AppConfig.getString("db.password", ""),
+                AppConfig.getInt("db.pool.minSize", 2),
+                AppConfig.getInt("db.pool.maxSize", 10),
+                AppConfig.getLong("db.pool.borrowTimeoutMs", 5_000),
+                AppConfig.getLong("db.pool.idleTimeoutMs", 600_000),
+                AppConfig.getLong("db.pool.leakDetectionThresholdMs", 30_000),
+                AppConfig.getLong("db.pool.validationIntervalMs", 30_000),
+                AppConfig.getInt("db.pool.validationTimeoutSeconds", 2),
+                AppConfig.getInt("db.statementCache.size", 64));
+        created.fillToMinimum();
+        if (AppConfig.getBoolean("db.migrate.onStartup", true)) {
+            migrateSchema(created);
+        }
+
+        if (!shutdownHookRegistered) {
+            Runtime.getRuntime().addShutdownHook(new Thread(DBUtil::shutdown, "db-pool-shutdown"));
+            shutdownHookRegistered = true;
+        }
+        return created;
+    }
+
+    /** Applies pending {@link SchemaMigrator} scripts; a failure is reported but does not stop startup. */
+    private static void migrateSchema(ConnectionPool created) {
+        try (Connection conn = created.getConnection()) {
+            List<Integer> applied = SchemaMigrator.migrate(conn);
+            if (!applied.isEmpty()) {
+                System.out.println("Applied schema migrations " + applied);
+            }
+        } catch (SQLException | IOException e) {
+            System.err.println("Schema migration failed: " + e.getMessage());
+        }
+    }
 }
-	
\ No newline at end of file
@@ -0,0 +1,270 @@
+package com.grievance.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON reader and writer, enough for JSON-lines imports and simple request/response bodies
+ * without pulling a JSON library onto the classpath.
+ * <p>
+ * Objects parse to {@code LinkedHashMap<String, Object>}, arrays to {@code List<Object>}, numbers to
+ * {@code Long} or {@code Double}, and {@code true}/{@code false}/{@code null} to their Java values.
+ */
+public final class Json {
+
+    private final String text;
+    private int pos;
+
+    private Json(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Parses a complete JSON document.
+     * @throws IllegalArgumentException if the text is not valid JSON.
+     */
+    public static Object parse(String text) {
+        Json parser = new Json(text);
+        parser.skipWhitespace();
+        Object value = parser.readValue();
+        parser.skipWhitespace();
+        if (parser.pos != text.length()) throw parser.error("Unexpected trailing characters");
+        return value;
+    }
+
+    /**
+     * Parses a JSON object.
+     * @throws IllegalArgumentException if the text is not a JSON object.
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> parseObject(String text) {
+        Object value = parse(text);
+        if (!(value instanceof Map)) throw new IllegalArgumentException("Expected a JSON object");
+        return (Map<String, Object>) value;
+    }
+
+    /**
+     * @return the value as a quoted, escaped JSON string, or {@code null} for null.
+     */
+    public static String quote(String value) {
+        if (value == null) return "null";
+        StringBuilder sb = new StringBuilder(value.length() + 2);
+        appendQuoted(sb, value);
+        return sb.toString();
+    }
+
+    public static void appendQuoted(StringBuilder sb, String value) {
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                case '\b': sb.append("\\b"); break;
+                case '\f': sb.append("\\f"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+
+    /**
+     * Serialises maps, lists of values, strings, numbers, booleans, null, and dates
+     * (as ISO-8601 instants) to JSON.
+     * @throws IllegalArgumentException for any other type.
+     */
+    public static String write(Object value) {
+        StringBuilder sb = new StringBuilder();
+        appendValue(sb, value);
+        return sb.toString();
+    }
+
+    public static void appendValue(StringBuilder sb, Object value) {
+        if (value == null) {
+            sb.append("null");
+        } else if (value instanceof String) {
+            appendQuoted(sb, (String) value);
+        } else if (value instanceof Number || value instanceof Boolean) {
+            sb.append(value);
+        } else if (value instanceof java.util.Date) {
+            appendQuoted(sb, ((java.util.Date) value).toInstant().toString());
+        } else if (value instanceof Map) {
+            sb.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) value).entrySet()) {
+                if (!first) sb.append(',');
+                first = false;
+                appendQuoted(sb, String.valueOf(e.getKey()));
+                sb.append(':');
+                appendValue(sb, e.getValue());
+            }
+            sb.append('}');
+        } else if (value instanceof Iterable) {
+            sb.append('[');
+            boolean first = true;
+            for (Object item : (Iterable<?>) value) {
+                if (!first) sb.append(',');
+                first = false;
+                appendValue(sb, item);
+            }
+            sb.append(']');
+        } else if (value instanceof Enum) {
+            appendQuoted(sb, ((Enum<?>) value).name());
+        } else {
+            throw new IllegalArgumentException("Cannot write " + value.getClass().getName() + " as JSON");
+        }
+    }
+
+    // --- Parser ---
+
+    private Object readValue() {
+        if (pos >= text.length()) throw error("Unexpected end of input");
+        char c = text.charAt(pos);
+        switch (c) {
+            case '{': return readObject();
+            case '[': return readArray();
+            case '"': return readString();
+            case 't': expect("true"); return Boolean.TRUE;
+            case 'f': expect("false"); return Boolean.FALSE;
+            case 'n': expect("null"); return null;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) return readNumber();
+                throw error("Unexpected character '" + c + "'");
+        }
+    }
+
+    private Map<String, Object> readObject() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        pos++; // {
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+            return map;
+        }
+        while (true) {
+            skipWhitespace();
+            if (peek() != '"') throw error("Expected a field name");
+            String key = readString();
+            skipWhitespace();
+            if (peek() != ':') throw error("Expected ':'");
+            pos++;
+            skipWhitespace();
+            map.put(key, readValue());
+            skipWhitespace();
+            char c = peek();
+            pos++;
+            if (c == '}') return map;
+            if (c != ',') throw error("Expected ',' or '}'");
+        }
+    }
+
+    private List<Object> readArray() {
+        List<Object> list = new ArrayList<>();
+        pos++; // [
+        skipWhitespace();
+        if (peek() == ']') {
+            pos++;
+            return list;
+        }
+        while (true) {
+            skipWhitespace();
+            list.add(readValue());
+            skipWhitespace();
+            char c = peek();
+            pos++;
+            if (c == ']') return list;
+            if (c != ',') throw error("Expected ',' or ']'");
+        }
+    }
+
+    private String readString() {
+        pos++; // opening quote
+        StringBuilder sb = new StringBuilder();
+        while (pos < text.length()) {
+            char c = text.charAt(pos++);
+            if (c == '"') return sb.toString();
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (pos >= text.length()) break;
+            char esc = text.charAt(pos++);
+            switch (esc) {
+                case '"': sb.append('"'); break;
+                case '\\': sb.append('\\'); break;
+                case '/': sb.append('/'); break;
+                case 'n': sb.append('\n'); break;
+                case 'r': sb.append('\r'); break;
+                case 't': sb.append('\t'); break;
+                case 'b': sb.append('\b'); break;
+                case 'f': sb.append('\f'); break;
+                case 'u':
+                    if (pos + 4 > text.length()) throw error("Truncated unicode escape");
+                    try {
+                        sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("Invalid unicode escape");
+                    }
+                    pos += 4;
+                    break;
+                default:
+                    throw error("Invalid escape '\\" + esc + "'");
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    private Object readNumber() {
+        int start = pos;
+        boolean decimal = false;
+        while (pos < text.length()) {
+            char c = text.charAt(pos);
+            if ((c >= '0' && c <= '9') || c == '-' || c == '+') {
+                pos++;
+            } else if (c == '.' || c == 'e' || c == 'E') {
+                decimal = true;
+                pos++;
+            } else {
+                break;
+            }
+        }
+        String number = text.substring(start, pos);
+        try {
+            return decimal ? (Object) Double.parseDouble(number) : (Object) Long.parseLong(number);
+        } catch (NumberFormatException e) {
+            throw error("Invalid number '" + number + "'");
+        }
+    }
+
+    private void expect(String literal) {
+        if (!text.startsWith(literal, pos)) throw error("Expected '" + literal + "'");
+        pos += literal.length();
+    }
+
+    private char peek() {
+        if (pos >= text.length()) throw error("Unexpected end of input");
+        return text.charAt(pos);
+    }
+
+    private void skipWhitespace() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) pos++;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + pos);
+    }
+}
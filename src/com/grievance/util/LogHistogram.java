@@ -0,0 +1,146 @@
+package com.grievance.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-memory histogram of non-negative long values with bounded relative error, in the style of
+ * HdrHistogram.
+ * <p>
+ * Values are bucketed by their power of two and then split linearly into {@code 2^precisionBits}
+ * sub-buckets, so every reported quantile is within {@code 1 / 2^precisionBits} of the true value
+ * (about 0.8% with the default 7 bits) no matter how many values are recorded. Memory is
+ * {@code 64 * 2^precisionBits} counters, independent of the number of values. Recording is
+ * lock-free and safe from multiple threads.
+ */
+public class LogHistogram {
+
+    public static final int DEFAULT_PRECISION_BITS = 7;
+
+    private final int precisionBits;
+    private final int subBuckets;
+    private final AtomicLongArray counts;
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    public LogHistogram() {
+        this(DEFAULT_PRECISION_BITS);
+    }
+
+    /**
+     * @param precisionBits sub-bucket bits per power of two (1..10); higher is more precise and larger.
+     */
+    public LogHistogram(int precisionBits) {
+        if (precisionBits < 1 || precisionBits > 10) {
+            throw new IllegalArgumentException("precisionBits must be between 1 and 10");
+        }
+        this.precisionBits = precisionBits;
+        this.subBuckets = 1 << precisionBits;
+        // Values below subBuckets get exact buckets; each higher power of two gets subBuckets more
+        this.counts = new AtomicLongArray((64 - precisionBits + 1) * subBuckets);
+    }
+
+    /**
+     * Records a value. Negative values are recorded as 0.
+     */
+    public void record(long value) {
+        recordCount(value, 1);
+    }
+
+    public void recordCount(long value, long count) {
+        if (count <= 0) return;
+        long v = Math.max(0, value);
+        counts.addAndGet(indexOf(v), count);
+        totalCount.addAndGet(count);
+        sum.addAndGet(v * count);
+        min.accumulateAndGet(v, Math::min);
+        max.accumulateAndGet(v, Math::max);
+    }
+
+    /**
+     * Adds every value recorded in {@code other} to this histogram.
+     * @throws IllegalArgumentException if the histograms have different precision.
+     */
+    public void merge(LogHistogram other) {
+        if (other.precisionBits != precisionBits) {
+            throw new IllegalArgumentException("Cannot merge histograms with different precision");
+        }
+        for (int i = 0; i < other.counts.length(); i++) {
+            long c = other.counts.get(i);
+            if (c != 0) counts.addAndGet(i, c);
+        }
+        totalCount.addAndGet(other.totalCount.get());
+        sum.addAndGet(other.sum.get());
+        if (other.getCount() > 0) {
+            min.accumulateAndGet(other.min.get(), Math::min);
+            max.accumulateAndGet(other.max.get(), Math::max);
+        }
+    }
+
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) counts.set(i, 0);
+        totalCount.set(0);
+        sum.set(0);
+        min.set(Long.MAX_VALUE);
+        max.set(Long.MIN_VALUE);
+    }
+
+    public long getCount() { return totalCount.get(); }
+
+    public long getSum() { return sum.get(); }
+
+    public long getMin() { return getCount() == 0 ? 0 : min.get(); }
+
+    public long getMax() { return getCount() == 0 ? 0 : max.get(); }
+
+    public double getMean() {
+        long n = getCount();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    /**
+     * @param percentile a value between 0 and 100.
+     * @return an estimate of the value at that percentile, or 0 if nothing has been recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long n = getCount();
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100.0 * n));
+        if (rank >= n) return getMax();
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                // Report the bucket midpoint, clamped to what was actually observed
+                long value = (lowerBound(i) + upperBound(i)) >>> 1;
+                return Math.max(getMin(), Math.min(getMax(), value));
+            }
+        }
+        return getMax();
+    }
+
+    // --- Bucket arithmetic ---
+
+    private int indexOf(long value) {
+        if (value < subBuckets) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value); // >= precisionBits
+        int shift = exponent - precisionBits;
+        int mantissa = (int) (value >>> shift) - subBuckets; // 0 .. subBuckets-1
+        return (shift + 1) * subBuckets + mantissa;
+    }
+
+    private long lowerBound(int index) {
+        if (index < subBuckets) return index;
+        int shift = index / subBuckets - 1;
+        long mantissa = (index % subBuckets) + subBuckets;
+        return mantissa << shift;
+    }
+
+    private long upperBound(int index) {
+        if (index < subBuckets) return index;
+        int shift = index / subBuckets - 1;
+        return lowerBound(index) + (1L << shift) - 1;
+    }
+}
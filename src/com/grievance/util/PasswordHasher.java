@@ -0,0 +1,107 @@
+package com.grievance.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.security.spec.InvalidKeySpecException;
+import java.util.Base64;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Salted, adaptive password hashing (PBKDF2 with HMAC-SHA256).
+ * <p>
+ * Hashes are stored as {@code pbkdf2_sha256$<iterations>$<salt>$<hash>} (Base64 salt and hash), so each
+ * stored value carries its own cost and can still be verified after the configured cost changes.
+ * The cost is the iteration count, {@code auth.hash.iterations} in grievance.properties.
+ */
+public class PasswordHasher {
+
+    public static final String PREFIX = "pbkdf2_sha256";
+    public static final int DEFAULT_ITERATIONS = 600_000;
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final int iterations;
+
+    public PasswordHasher(int iterations) {
+        if (iterations < 1) throw new IllegalArgumentException("iterations must be at least 1");
+        this.iterations = iterations;
+    }
+
+    /** A hasher using the cost configured in grievance.properties. */
+    public static PasswordHasher fromConfig() {
+        return new PasswordHasher(AppConfig.getInt("auth.hash.iterations", DEFAULT_ITERATIONS));
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * @return the encoded hash of {@code password} with a fresh random salt.
+     */
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        byte[] hash = derive(password, salt, iterations);
+        Base64.Encoder b64 = Base64.getEncoder().withoutPadding();
+        return PREFIX + "$" + iterations + "$" + b64.encodeToString(salt) + "$" + b64.encodeToString(hash);
+    }
+
+    /**
+     * Checks a password against a stored value in constant time.
+     * Values that are not in the encoded format are treated as legacy plaintext passwords.
+     */
+    public boolean verify(String password, String stored) {
+        if (password == null || stored == null) return false;
+        if (!isHashed(stored)) {
+            return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8),
+                    stored.getBytes(StandardCharsets.UTF_8));
+        }
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) return false;
+        try {
+            int storedIterations = Integer.parseInt(parts[1]);
+            byte[] salt = Base64.getDecoder().decode(parts[2]);
+            byte[] expected = Base64.getDecoder().decode(parts[3]);
+            byte[] actual = derive(password, salt, storedIterations);
+            return MessageDigest.isEqual(expected, actual);
+        } catch (IllegalArgumentException e) {
+            return false; // corrupt value
+        }
+    }
+
+    /**
+     * @return true if the stored value is plaintext or was hashed with a different cost,
+     *         i.e. it should be replaced with {@link #hash} after a successful login.
+     */
+    public boolean needsRehash(String stored) {
+        if (!isHashed(stored)) return true;
+        String[] parts = stored.split("\\$");
+        try {
+            return parts.length != 4 || Integer.parseInt(parts[1]) != iterations;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    public static boolean isHashed(String stored) {
+        return stored != null && stored.startsWith(PREFIX + "$");
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
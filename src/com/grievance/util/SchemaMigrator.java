@@ -0,0 +1,273 @@
+package com.grievance.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Brings the MySQL schema up to date by running numbered SQL scripts.
+ * <p>
+ * Scripts are named {@code V<version>__<description>.sql} and read from {@code db/migration} on the
+ * classpath, or from the directory named by {@code db.migrate.dir}. Each one that is not yet recorded
+ * in the {@code schema_version} table is run in version order and then recorded, under a MySQL
+ * named lock so that two instances starting together do not both apply it.
+ * <p>
+ * MySQL commits every DDL statement on its own, so a script cannot be rolled back as a whole.
+ * Instead, statements that fail only because their table, column, key or constraint already exists
+ * (or an index to drop is already gone) are skipped, which makes every script safe to run again
+ * after a partial failure and on databases created from {@code grievance.sql}. Any other error stops
+ * the run without recording the script.
+ * <p>
+ * Scripts are split into statements at a {@code ;} that ends a line; lines starting with {@code --}
+ * are comments.
+ */
+public class SchemaMigrator {
+
+    private static final String LOCATION = "db/migration";
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    private static final String LOCK_NAME = "grievance_system.schema_migration";
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+
+    private static final String CREATE_VERSION_TABLE = "CREATE TABLE IF NOT EXISTS schema_version ("
+            + " version INT NOT NULL PRIMARY KEY,"
+            + " description VARCHAR(200) NOT NULL,"
+            + " checksum BIGINT NOT NULL,"
+            + " execution_ms INT NOT NULL,"
+            + " applied_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3))";
+    private static final String SELECT_APPLIED = "SELECT version, checksum FROM schema_version";
+    private static final String INSERT_APPLIED = "INSERT INTO schema_version (version, description, checksum, execution_ms)"
+            + " VALUES (?, ?, ?, ?)";
+
+    // MySQL errors meaning the statement's change is already in place
+    private static final int ER_TABLE_EXISTS = 1050;
+    private static final int ER_DUP_FIELDNAME = 1060;
+    private static final int ER_DUP_KEYNAME = 1061;
+    private static final int ER_CANT_DROP_FIELD_OR_KEY = 1091;
+    private static final int ER_DUP_KEY = 1022;       // duplicate foreign key name on older servers
+    private static final int ER_FK_DUP_NAME = 1826;
+
+    private SchemaMigrator() {}
+
+    /**
+     * Runs every pending script on the connection.
+     * @return the versions applied, in order; empty if the schema was already current.
+     * @throws SQLException if a script fails or the migration lock cannot be taken.
+     * @throws IOException if the scripts cannot be read.
+     */
+    public static List<Integer> migrate(Connection conn) throws SQLException, IOException {
+        List<Script> scripts = findScripts();
+        List<Integer> applied = new ArrayList<>();
+        if (scripts.isEmpty()) return applied;
+
+        lock(conn);
+        try (Statement st = conn.createStatement()) {
+            st.execute(CREATE_VERSION_TABLE);
+            Map<Integer, Long> done = appliedVersions(conn);
+            for (Script script : scripts) {
+                Long checksum = done.get(script.version);
+                if (checksum != null) {
+                    if (checksum != script.checksum) {
+                        System.err.println("Migration " + script.name + " has changed since it was applied; the change is ignored.");
+                    }
+                    continue;
+                }
+                long start = System.currentTimeMillis();
+                for (String sql : script.statements()) {
+                    execute(st, script, sql);
+                }
+                record(conn, script, System.currentTimeMillis() - start);
+                applied.add(script.version);
+            }
+        } finally {
+            unlock(conn);
+        }
+        return applied;
+    }
+
+    /**
+     * @return every script found, in version order, and whether it has been applied.
+     */
+    public static Map<String, Boolean> status(Connection conn) throws SQLException, IOException {
+        Map<Integer, Long> done;
+        try (Statement st = conn.createStatement()) {
+            st.execute(CREATE_VERSION_TABLE);
+            done = appliedVersions(conn);
+        }
+        Map<String, Boolean> status = new LinkedHashMap<>();
+        for (Script script : findScripts()) {
+            status.put(script.name, done.containsKey(script.version));
+        }
+        return status;
+    }
+
+    private static void execute(Statement st, Script script, String sql) throws SQLException {
+        try {
+            st.execute(sql);
+        } catch (SQLException e) {
+            switch (e.getErrorCode()) {
+                case ER_TABLE_EXISTS:
+                case ER_DUP_FIELDNAME:
+                case ER_DUP_KEYNAME:
+                case ER_CANT_DROP_FIELD_OR_KEY:
+                case ER_DUP_KEY:
+                case ER_FK_DUP_NAME:
+                    return; // already in place
+                default:
+                    throw new SQLException("Migration " + script.name + " failed on: " + firstLine(sql)
+                            + " (" + e.getMessage() + ")", e.getSQLState(), e.getErrorCode(), e);
+            }
+        }
+    }
+
+    private static Map<Integer, Long> appliedVersions(Connection conn) throws SQLException {
+        Map<Integer, Long> done = new HashMap<>();
+        try (PreparedStatement ps = conn.prepareStatement(SELECT_APPLIED);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                done.put(rs.getInt(1), rs.getLong(2));
+            }
+        }
+        return done;
+    }
+
+    private static void record(Connection conn, Script script, long elapsedMillis) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(INSERT_APPLIED)) {
+            ps.setInt(1, script.version);
+            ps.setString(2, script.description);
+            ps.setLong(3, script.checksum);
+            ps.setInt(4, (int) Math.min(Integer.MAX_VALUE, elapsedMillis));
+            ps.executeUpdate();
+        }
+    }
+
+    private static void lock(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new SQLException("Timed out waiting for another instance to finish migrating the schema.");
+                }
+            }
+        }
+    }
+
+    private static void unlock(Connection conn) {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.executeQuery().close();
+        } catch (SQLException e) {
+            System.err.println("Error releasing the schema migration lock: " + e.getMessage());
+        }
+    }
+
+    private static String firstLine(String sql) {
+        int end = sql.indexOf('\n');
+        return end < 0 ? sql : sql.substring(0, end) + " ...";
+    }
+
+    // --- Finding scripts ---
+    private static List<Script> findScripts() throws IOException {
+        String dir = AppConfig.getString("db.migrate.dir", "");
+        if (!dir.isEmpty()) return readScripts(Paths.get(dir));
+
+        URL url = SchemaMigrator.class.getClassLoader().getResource(LOCATION);
+        if (url == null) return Collections.emptyList();
+        URI uri;
+        try {
+            uri = url.toURI();
+        } catch (URISyntaxException e) {
+            throw new IOException("Bad migration location: " + url, e);
+        }
+        if (!"jar".equals(uri.getScheme())) return readScripts(Paths.get(uri));
+
+        try (FileSystem jar = FileSystems.newFileSystem(uri, Collections.emptyMap())) {
+            return readScripts(jar.getPath(LOCATION));
+        } catch (FileSystemAlreadyExistsException e) {
+            return readScripts(FileSystems.getFileSystem(uri).getPath(LOCATION));
+        }
+    }
+
+    private static List<Script> readScripts(Path dir) throws IOException {
+        List<Script> scripts = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Matcher m = SCRIPT_NAME.matcher(file.getFileName().toString());
+                if (!m.matches()) continue;
+                byte[] bytes;
+                try (InputStream in = Files.newInputStream(file)) {
+                    bytes = in.readAllBytes();
+                }
+                scripts.add(new Script(file.getFileName().toString(), Integer.parseInt(m.group(1)),
+                        m.group(2).replace('_', ' '), bytes));
+            }
+        }
+        scripts.sort((a, b) -> Integer.compare(a.version, b.version));
+        for (int i = 1; i < scripts.size(); i++) {
+            if (scripts.get(i).version == scripts.get(i - 1).version) {
+                throw new IOException("Two migrations with version " + scripts.get(i).version + " in " + dir);
+            }
+        }
+        return scripts;
+    }
+
+    private static final class Script {
+        final String name;
+        final int version;
+        final String description;
+        final String text;
+        final long checksum;
+
+        Script(String name, int version, String description, byte[] bytes) {
+            this.name = name;
+            this.version = version;
+            this.description = description;
+            this.text = new String(bytes, StandardCharsets.UTF_8);
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+            this.checksum = crc.getValue();
+        }
+
+        List<String> statements() {
+            List<String> statements = new ArrayList<>();
+            StringBuilder sb = new StringBuilder();
+            for (String line : text.split("\r?\n")) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("--")) continue;
+                if (sb.length() > 0) sb.append('\n');
+                sb.append(line);
+                if (trimmed.endsWith(";")) {
+                    sb.setLength(sb.length() - (line.length() - line.lastIndexOf(';')));
+                    statements.add(sb.toString().trim());
+                    sb.setLength(0);
+                }
+            }
+            if (sb.toString().trim().length() > 0) statements.add(sb.toString().trim());
+            return statements;
+        }
+    }
+}
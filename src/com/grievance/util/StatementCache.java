@@ -0,0 +1,202 @@
+package com.grievance.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LRU cache of prepared statements for one physical connection.
+ * <p>
+ * With {@code useServerPrepStmts=true} every {@code prepareStatement} is a parse round-trip to the
+ * server and every {@code close()} deallocates the statement again. The pool routes
+ * {@code prepareStatement(sql)} and {@code prepareStatement(sql, autoGeneratedKeys)} through this cache
+ * instead: callers get a handle whose {@code close()} clears the parameters and returns the statement
+ * to the cache, so the next call with the same SQL skips the parse. Hit/miss counters are shared by
+ * all caches so the saving can be observed across the pool.
+ */
+public class StatementCache {
+
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+    private static final LongAdder EVICTIONS = new LongAdder();
+
+    private final Connection physical;
+    private final int maxSize;
+    private final LinkedHashMap<String, Entry> entries;
+
+    StatementCache(Connection physical, int maxSize) {
+        this.physical = physical;
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns a cached statement for the SQL, preparing it on a miss.
+     * If the cached statement is already checked out, a separate uncached statement is returned.
+     */
+    synchronized PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys + ":" + sql;
+        Entry entry = entries.get(key);
+        if (entry != null && !entry.inUse) {
+            HITS.increment();
+            entry.inUse = true;
+            return entry.newHandle();
+        }
+
+        MISSES.increment();
+        PreparedStatement ps = physical.prepareStatement(sql, autoGeneratedKeys);
+        if (entry != null || maxSize <= 0) {
+            // Same SQL already checked out (e.g. nested use); hand out a plain statement
+            return ps;
+        }
+
+        entry = new Entry(ps);
+        entry.inUse = true;
+        entries.put(key, entry);
+        evictOverflow();
+        return entry.newHandle();
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (entries.size() > maxSize && it.hasNext()) {
+            Entry eldest = it.next().getValue();
+            it.remove();
+            EVICTIONS.increment();
+            if (eldest.inUse) {
+                eldest.evicted = true; // closed when its current user is done with it
+            } else {
+                closeQuietly(eldest.statement);
+            }
+        }
+    }
+
+    private synchronized void checkIn(Entry entry) {
+        entry.inUse = false;
+        try {
+            entry.statement.clearParameters();
+            entry.statement.clearBatch();
+        } catch (SQLException e) {
+            entry.evicted = true;
+        }
+        if (entry.evicted) {
+            entries.values().remove(entry);
+            closeQuietly(entry.statement);
+        }
+    }
+
+    /** Closes every cached statement; called when the physical connection is closed. */
+    synchronized void closeAll() {
+        for (Entry entry : entries.values()) {
+            closeQuietly(entry.statement);
+        }
+        entries.clear();
+    }
+
+    private static void closeQuietly(PreparedStatement ps) {
+        try {
+            ps.close();
+        } catch (SQLException e) {
+            // The connection is usually going away too; nothing useful to report
+        }
+    }
+
+    static Stats getStats() {
+        return new Stats(HITS.sum(), MISSES.sum(), EVICTIONS.sum());
+    }
+
+    private final class Entry {
+        private final PreparedStatement statement;
+        private boolean inUse;
+        private boolean evicted;
+
+        private Entry(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        private PreparedStatement newHandle() {
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    StatementCache.class.getClassLoader(),
+                    new Class<?>[] { PreparedStatement.class },
+                    new Handle(this));
+        }
+    }
+
+    /**
+     * One handle per checkout; after close() it refuses further use.
+     */
+    private final class Handle implements InvocationHandler {
+        private final Entry entry;
+        private boolean closed = false;
+
+        private Handle(Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        checkIn(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || entry.statement.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + entry.statement + "]";
+                default:
+                    break;
+            }
+            if (closed) throw new SQLException("Statement has been closed.");
+            try {
+                return method.invoke(entry.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Hit/miss counters across every connection's cache.
+     */
+    public static class Stats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+
+        public Stats(long hits, long misses, long evictions) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+        }
+
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+
+        public double getHitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Statement cache [hits=%d, misses=%d, evictions=%d, hitRatio=%.1f%%]",
+                    hits, misses, evictions, getHitRatio() * 100);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+-- Schema as of the grievance.sql dump. Every statement is safe on a database that was created
+-- from the dump, so an existing installation simply records this version as applied.
+
+CREATE TABLE IF NOT EXISTS users (
+  id int NOT NULL AUTO_INCREMENT,
+  username varchar(50) NOT NULL,
+  password varchar(255) NOT NULL,
+  role enum('ADMINISTRATOR','USER','GRIEVANCE_MANAGER') NOT NULL,
+  created_at timestamp NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (id),
+  UNIQUE KEY username (username)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS grievances (
+  id int NOT NULL AUTO_INCREMENT,
+  user_id int NOT NULL,
+  title varchar(255) NOT NULL,
+  description text NOT NULL,
+  status enum('OPEN','IN_PROGRESS','RESOLVED') DEFAULT 'OPEN',
+  created_at timestamp NULL DEFAULT CURRENT_TIMESTAMP,
+  resolved_at timestamp NULL DEFAULT NULL,
+  PRIMARY KEY (id),
+  KEY user_id (user_id),
+  CONSTRAINT grievances_ibfk_1 FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- First administrator; the plaintext password is replaced with a hash on first login
+INSERT IGNORE INTO users (id, username, password, role) VALUES (1, 'admin', 'admin123', 'ADMINISTRATOR');
@@ -0,0 +1,51 @@
+-- Columns, keys and tables added since the original dump (previously applied by hand from the README).
+-- Statements that find their column, key or table already present are skipped by the runner.
+
+ALTER TABLE grievances ADD FULLTEXT KEY ft_title_description (title, description);
+ALTER TABLE grievances ADD KEY idx_status (status);
+ALTER TABLE grievances ADD KEY idx_resolved_at (resolved_at);
+ALTER TABLE grievances ADD COLUMN version INT NOT NULL DEFAULT 0 AFTER resolved_at;
+ALTER TABLE grievances ADD COLUMN priority TINYINT NOT NULL DEFAULT 0 AFTER version;
+ALTER TABLE grievances ADD COLUMN assigned_to INT NULL AFTER priority;
+ALTER TABLE grievances ADD COLUMN lease_expires_at TIMESTAMP NULL AFTER assigned_to;
+ALTER TABLE grievances ADD KEY idx_queue_oldest (status, created_at);
+ALTER TABLE grievances ADD KEY idx_queue_priority (status, priority DESC, created_at);
+ALTER TABLE grievances ADD KEY idx_assigned_to (assigned_to);
+ALTER TABLE grievances ADD CONSTRAINT grievances_ibfk_2 FOREIGN KEY (assigned_to) REFERENCES users (id) ON DELETE SET NULL;
+
+CREATE TABLE IF NOT EXISTS grievance_events (
+  id bigint NOT NULL AUTO_INCREMENT,
+  event_type enum('CREATED','STATUS_CHANGED') NOT NULL,
+  grievance_id int NOT NULL,
+  user_id int NOT NULL,
+  old_status enum('OPEN','IN_PROGRESS','RESOLVED') DEFAULT NULL,
+  new_status enum('OPEN','IN_PROGRESS','RESOLVED') NOT NULL,
+  created_at timestamp(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+  PRIMARY KEY (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS event_offsets (
+  consumer varchar(64) NOT NULL,
+  last_event_id bigint NOT NULL,
+  PRIMARY KEY (consumer)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS grievances_archive (
+  id int NOT NULL,
+  user_id int NOT NULL,
+  title varchar(255) NOT NULL,
+  description text NOT NULL,
+  status enum('OPEN','IN_PROGRESS','RESOLVED') DEFAULT 'RESOLVED',
+  created_at timestamp NULL DEFAULT NULL,
+  resolved_at timestamp NOT NULL,
+  version int NOT NULL DEFAULT 0,
+  priority tinyint NOT NULL DEFAULT 0,
+  assigned_to int DEFAULT NULL,
+  PRIMARY KEY (id, resolved_at),
+  KEY idx_user_created (user_id, created_at),
+  KEY idx_created (created_at),
+  KEY idx_resolved_at (resolved_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4
+PARTITION BY RANGE (unix_timestamp(resolved_at))
+(PARTITION p2025 VALUES LESS THAN (1767225600),
+ PARTITION p_future VALUES LESS THAN MAXVALUE);
@@ -0,0 +1,26 @@
+-- Composite keys matching the DAO's WHERE and ORDER BY clauses, so listings read an index range in
+-- order instead of filesorting. InnoDB appends the primary key (id) to every secondary key, which
+-- supplies the id tie-breaker of "ORDER BY created_at DESC, id DESC".
+
+-- My grievances / user pages: WHERE user_id = ? ORDER BY created_at DESC, id DESC.
+-- Also serves the user_id foreign key, so the single-column key goes.
+ALTER TABLE grievances ADD KEY idx_user_created (user_id, created_at);
+ALTER TABLE grievances DROP KEY user_id;
+
+-- All grievances / keyset pages: ORDER BY created_at DESC, id DESC LIMIT ?
+ALTER TABLE grievances ADD KEY idx_created (created_at, id);
+
+-- Status listings and counts use idx_queue_oldest (status, created_at), which makes idx_status redundant
+ALTER TABLE grievances DROP KEY idx_status;
+
+-- Claimed work: WHERE assigned_to = ? AND status = 'OPEN' ORDER BY created_at, id.
+-- Also serves the assigned_to foreign key.
+ALTER TABLE grievances ADD KEY idx_assigned_queue (assigned_to, status, created_at);
+ALTER TABLE grievances DROP KEY idx_assigned_to;
+
+-- Resolved-since timeline and archiving: a range on resolved_at that reads every selected column
+-- from the index (id comes with the key)
+ALTER TABLE grievances ADD KEY idx_resolved_timeline (resolved_at, status, user_id, created_at);
+ALTER TABLE grievances DROP KEY idx_resolved_at;
+
+ANALYZE TABLE grievances;
@@ -0,0 +1,148 @@
+package com.grievance.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.grievance.embedded.EmbeddedGrievanceRepository;
+import com.grievance.embedded.EmbeddedStore;
+import com.grievance.embedded.EmbeddedUserRepository;
+import com.grievance.model.Grievance;
+import com.grievance.model.GrievanceStatus;
+import com.grievance.model.GrievanceSummary;
+import com.grievance.model.Page;
+import com.grievance.model.PageCursor;
+import com.grievance.util.PasswordHasher;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Checks the cache's answers against the embedded repository it was built from. */
+class GrievanceColumnCacheTest {
+
+    private static final int USERS = 20;
+    private static final long NOW = 1_790_000_000_000L;
+
+    @TempDir
+    Path dir;
+
+    private EmbeddedStore store;
+    private EmbeddedGrievanceRepository repository;
+    private final SplittableRandom random = new SplittableRandom(7);
+
+    @BeforeEach
+    void openStore() throws IOException {
+        store = EmbeddedStore.open(dir, false, 1L << 40);
+        repository = new EmbeddedGrievanceRepository(store);
+        // Grievances need an owner; these get IDs 1..USERS
+        EmbeddedUserRepository users = new EmbeddedUserRepository(store, PasswordHasher.fromConfig());
+        for (int i = 1; i <= USERS; i++) users.register("user" + i, "password" + i);
+    }
+
+    @AfterEach
+    void closeStore() throws IOException {
+        store.close();
+    }
+
+    /** Creates grievances with whole-second times (the cache's resolution) and moves some along. */
+    private void write(int count) {
+        List<Grievance> batch = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Grievance g = new Grievance(1 + random.nextInt(USERS), "title " + random.nextInt(50), "description");
+            // Plenty of equal timestamps, so ties are broken by ID
+            g.setCreatedAt(new Timestamp(NOW - random.nextInt(5_000) * 1000L));
+            batch.add(g);
+        }
+        int[] ids = repository.createGrievances(batch);
+        for (int id : ids) {
+            int step = random.nextInt(4);
+            if (step >= 1) repository.updateGrievanceStatus(id, GrievanceStatus.IN_PROGRESS.name());
+            if (step >= 2) repository.updateGrievanceStatus(id, GrievanceStatus.RESOLVED.name());
+            if (random.nextInt(10) == 0) repository.setPriority(id, random.nextInt(4));
+        }
+    }
+
+    private static String describe(List<GrievanceSummary> rows) {
+        StringBuilder sb = new StringBuilder();
+        for (GrievanceSummary g : rows) {
+            sb.append(g.getId()).append(':').append(g.getUserId()).append(':').append(g.getTitle()).append(':')
+                    .append(g.getStatus()).append(':').append(g.getCreatedAt().getTime()).append(':')
+                    .append(g.getPriority()).append(':').append(g.getVersion()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private void assertMatchesRepository(GrievanceColumnCache cache) {
+        assertEquals(repository.getStatusSummary(), cache.getStatusSummary());
+        for (GrievanceStatus status : GrievanceStatus.values()) {
+            assertEquals(repository.countByStatus(status.name()), cache.countByStatus(status));
+            Timestamp cutoff = new Timestamp(NOW - 2_000_000);
+            assertEquals(describe(repository.getGrievancesByStatus(status, cutoff, 25)),
+                    describe(cache.getByStatus(status, cutoff, 25)), status.name());
+            assertEquals(describe(repository.getGrievancesByStatus(status, null, 40)),
+                    describe(cache.getByStatus(status, null, 40)), status.name());
+        }
+        for (int user = 1; user <= USERS; user++) {
+            assertEquals(describe(repository.getGrievancesByUserId(user)), describe(cache.getByUser(user)), "user " + user);
+        }
+    }
+
+    @Test
+    void answersLikeTheRepositoryItWasBuiltFrom() throws SQLException {
+        write(2_000);
+        GrievanceColumnCache cache = GrievanceColumnCache.build(repository);
+        assertEquals(2_000, cache.size());
+        assertMatchesRepository(cache);
+    }
+
+    @Test
+    void followsWritesMadeAfterItWasBuilt() throws SQLException {
+        write(500);
+        GrievanceColumnCache cache = GrievanceColumnCache.build(repository);
+        write(500);
+        assertEquals(1_000, cache.size());
+        assertMatchesRepository(cache);
+    }
+
+    @Test
+    void pagesThroughAUserInTheSameOrderAsTheFullList() throws SQLException {
+        write(1_000);
+        GrievanceColumnCache cache = GrievanceColumnCache.build(repository);
+        List<GrievanceSummary> paged = new ArrayList<>();
+        PageCursor cursor = null;
+        do {
+            Page<GrievanceSummary> page = cache.getPageByUser(3, cursor, 7);
+            paged.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertEquals(describe(cache.getByUser(3)), describe(paged));
+    }
+
+    @Test
+    void ignoresAnOlderStatusArrivingLate() throws SQLException {
+        write(10);
+        GrievanceColumnCache cache = GrievanceColumnCache.build(repository);
+        int id = repository.createGrievance(new Grievance(1, "late", "d")).getId();
+        repository.updateGrievanceStatus(id, GrievanceStatus.IN_PROGRESS.name());
+        repository.updateGrievanceStatus(id, GrievanceStatus.RESOLVED.name());
+
+        cache.onStatusChanged(id, GrievanceStatus.OPEN.name(), GrievanceStatus.IN_PROGRESS.name());
+        GrievanceSummary stale = new GrievanceSummary();
+        stale.setId(id);
+        stale.setUserId(1);
+        stale.setTitle("late");
+        stale.setStatus(GrievanceStatus.OPEN.name());
+        stale.setCreatedAt(new Timestamp(NOW));
+        cache.put(stale);
+
+        assertEquals(repository.getStatusSummary(), cache.getStatusSummary());
+        assertEquals(GrievanceStatus.RESOLVED.name(), cache.getByUser(1).stream()
+                .filter(g -> g.getId() == id).findFirst().orElseThrow().getStatus());
+    }
+}
@@ -0,0 +1,185 @@
+package com.grievance.embedded;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.grievance.dao.BatchInsertException;
+import com.grievance.model.ClaimOrder;
+import com.grievance.model.Grievance;
+import com.grievance.model.GrievanceStatus;
+import com.grievance.util.PasswordHasher;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class EmbeddedStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private final List<EmbeddedStore> open = new ArrayList<>();
+
+    @AfterEach
+    void closeStores() throws IOException {
+        for (EmbeddedStore store : open) store.close();
+    }
+
+    private EmbeddedStore open(Path path) throws IOException {
+        EmbeddedStore store = EmbeddedStore.open(path, true, 1L << 40);
+        open.add(store);
+        return store;
+    }
+
+    /**
+     * Copies the store's files as they are on disk, without closing it (which would snapshot), so
+     * opening the copy has to replay the journal as after a crash.
+     */
+    private Path crashCopy(String name) throws IOException {
+        Path copy = dir.resolve(name);
+        Files.createDirectories(copy);
+        try (Stream<Path> files = Files.list(dir.resolve("live"))) {
+            for (Path file : (Iterable<Path>) files::iterator) Files.copy(file, copy.resolve(file.getFileName()));
+        }
+        return copy;
+    }
+
+    @Test
+    void replaysEveryAcknowledgedWriteAfterACrash() throws IOException {
+        EmbeddedStore store = open(dir.resolve("live"));
+        EmbeddedGrievanceRepository grievances = new EmbeddedGrievanceRepository(store);
+        EmbeddedUserRepository users = new EmbeddedUserRepository(store, PasswordHasher.fromConfig());
+
+        int alice = users.register("alice", "alice-password").getId();
+        int bob = users.register("bob", "bob-password").getId();
+        Grievance first = grievances.createGrievance(new Grievance(alice, "Broken heater", "Room 12"));
+        Grievance second = grievances.createGrievance(new Grievance(alice, "Wifi outage", "Library"));
+        grievances.updateGrievanceStatus(first.getId(), GrievanceStatus.IN_PROGRESS.name());
+        grievances.setPriority(second.getId(), 3);
+        users.deleteUser(bob);
+
+        EmbeddedStore replayed = open(crashCopy("after-crash"));
+        EmbeddedGrievanceRepository replayedGrievances = new EmbeddedGrievanceRepository(replayed);
+        EmbeddedUserRepository replayedUsers = new EmbeddedUserRepository(replayed, PasswordHasher.fromConfig());
+
+        assertEquals(GrievanceStatus.IN_PROGRESS.name(), replayedGrievances.getGrievanceById(first.getId()).getStatus());
+        assertEquals(3, replayedGrievances.getGrievanceById(second.getId()).getPriority());
+        assertEquals("Library", replayedGrievances.getGrievanceById(second.getId()).getDescription());
+        assertEquals(2, replayedGrievances.getGrievancesByUserId(alice).size());
+        assertEquals(1, replayedGrievances.countByStatus(GrievanceStatus.OPEN.name()));
+        assertNotNull(replayedUsers.login("alice", "alice-password"));
+        assertNull(replayedUsers.getUserById(bob));
+
+        // New IDs continue after the replayed ones
+        Grievance third = replayedGrievances.createGrievance(new Grievance(alice, "Leak", "Kitchen"));
+        assertEquals(second.getId() + 1, third.getId());
+    }
+
+    @Test
+    void replaysTheJournalOnTopOfASnapshot() throws IOException {
+        EmbeddedStore store = open(dir.resolve("live"));
+        EmbeddedGrievanceRepository grievances = new EmbeddedGrievanceRepository(store);
+        int owner = new EmbeddedUserRepository(store, PasswordHasher.fromConfig()).register("owner", "owner-password").getId();
+        Grievance before = grievances.createGrievance(new Grievance(owner, "Before snapshot", "a"));
+        store.snapshot();
+        grievances.updateGrievanceStatus(before.getId(), GrievanceStatus.IN_PROGRESS.name());
+        Grievance after = grievances.createGrievance(new Grievance(owner, "After snapshot", "b"));
+
+        EmbeddedGrievanceRepository replayed = new EmbeddedGrievanceRepository(open(crashCopy("after-crash")));
+        assertEquals(GrievanceStatus.IN_PROGRESS.name(), replayed.getGrievanceById(before.getId()).getStatus());
+        assertEquals("After snapshot", replayed.getGrievanceById(after.getId()).getTitle());
+        assertEquals(2, replayed.getAllGrievances().size());
+    }
+
+    @Test
+    void dropsATornJournalTail() throws IOException {
+        EmbeddedStore store = open(dir.resolve("live"));
+        EmbeddedGrievanceRepository grievances = new EmbeddedGrievanceRepository(store);
+        int owner = new EmbeddedUserRepository(store, PasswordHasher.fromConfig()).register("owner", "owner-password").getId();
+        Grievance kept = grievances.createGrievance(new Grievance(owner, "Complete record", "a"));
+
+        Path copy = crashCopy("after-crash");
+        // A crash mid-write: a header promising more bytes than follow it
+        try (FileChannel journal = FileChannel.open(copy.resolve("journal.log"), StandardOpenOption.APPEND)) {
+            journal.write(ByteBuffer.allocate(10).putInt(500).putInt(0).put((byte) 1).put((byte) 2).flip());
+        }
+        long intact = Files.size(dir.resolve("live").resolve("journal.log"));
+
+        EmbeddedStore replayed = open(copy);
+        EmbeddedGrievanceRepository replayedGrievances = new EmbeddedGrievanceRepository(replayed);
+        assertEquals(intact, Files.size(copy.resolve("journal.log")));
+        assertEquals(1, replayedGrievances.getAllGrievances().size());
+        assertEquals("Complete record", replayedGrievances.getGrievanceById(kept.getId()).getTitle());
+
+        Grievance next = replayedGrievances.createGrievance(new Grievance(owner, "Written after recovery", "b"));
+        assertEquals(kept.getId() + 1, next.getId());
+    }
+
+    @Test
+    void refusesToDeleteAUserWhoOwnsGrievances() throws IOException {
+        EmbeddedStore store = open(dir.resolve("live"));
+        EmbeddedGrievanceRepository grievances = new EmbeddedGrievanceRepository(store);
+        EmbeddedUserRepository users = new EmbeddedUserRepository(store, PasswordHasher.fromConfig());
+        int alice = users.register("alice", "alice-password").getId();
+        grievances.createGrievance(new Grievance(alice, "Broken heater", "Room 12"));
+
+        assertFalse(users.deleteUser(alice));
+        assertNotNull(users.getUserById(alice));
+        assertEquals(1, grievances.getGrievancesByUserId(alice).size());
+    }
+
+    @Test
+    void deletingAManagerReleasesTheirClaims() throws IOException {
+        EmbeddedStore store = open(dir.resolve("live"));
+        EmbeddedGrievanceRepository grievances = new EmbeddedGrievanceRepository(store);
+        EmbeddedUserRepository users = new EmbeddedUserRepository(store, PasswordHasher.fromConfig());
+        int alice = users.register("alice", "alice-password").getId();
+        int manager = users.register("manager", "manager-password").getId();
+        int other = users.register("other", "other-password").getId();
+        grievances.createGrievance(new Grievance(alice, "Broken heater", "Room 12"));
+        grievances.createGrievance(new Grievance(alice, "Wifi outage", "Library"));
+        assertEquals(2, grievances.claimNext(manager, 2, ClaimOrder.OLDEST_FIRST, 900).size());
+
+        assertTrue(users.deleteUser(manager));
+        store.afterId(0).forEach(row -> assertEquals(0, row.assignedTo));
+        // Released outright, so another manager can take them before the old lease would have run out
+        assertEquals(2, grievances.claimNext(other, 2, ClaimOrder.OLDEST_FIRST, 900).size());
+
+        EmbeddedStore replayed = open(crashCopy("after-crash"));
+        replayed.afterId(0).forEach(row -> assertEquals(other, row.assignedTo));
+        assertNull(new EmbeddedUserRepository(replayed, PasswordHasher.fromConfig()).getUserById(manager));
+    }
+
+    @Test
+    void rejectsGrievancesForAnUnknownUserPermanently() throws IOException {
+        EmbeddedStore store = open(dir.resolve("live"));
+        EmbeddedGrievanceRepository grievances = new EmbeddedGrievanceRepository(store);
+        int alice = new EmbeddedUserRepository(store, PasswordHasher.fromConfig()).register("alice", "alice-password").getId();
+        List<Grievance> first = List.of(new Grievance(alice, "Broken heater", "Room 12"),
+                new Grievance(alice, "Wifi outage", "Library"));
+        List<Grievance> batch = new ArrayList<>(first);
+        batch.add(new Grievance(alice, "Leak", "Kitchen"));
+        batch.add(new Grievance(alice + 100, "No such user", "x"));
+
+        BatchInsertException e = assertThrows(BatchInsertException.class, () -> grievances.insertGrievances(batch, 2));
+        assertTrue(e.isPermanent());
+        // The first chunk stays committed; the whole second chunk is rejected
+        assertArrayEquals(new int[] {first.get(0).getId(), first.get(1).getId()}, e.getCommittedIds());
+        assertEquals(2, grievances.getAllGrievances().size());
+        assertNull(grievances.createGrievance(new Grievance(alice + 100, "No such user", "y")));
+        assertEquals(2, grievances.getAllGrievances().size());
+    }
+}
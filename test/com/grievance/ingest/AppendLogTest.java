@@ -0,0 +1,136 @@
+package com.grievance.ingest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AppendLogTest {
+
+    @TempDir
+    Path dir;
+
+    private final List<String> replayed = new ArrayList<>();
+    private final List<Long> offsets = new ArrayList<>();
+
+    private AppendLog open() throws IOException {
+        replayed.clear();
+        offsets.clear();
+        return AppendLog.open(dir, (record, offset) -> {
+            replayed.add(StandardCharsets.UTF_8.decode(record).toString());
+            offsets.add(offset);
+        });
+    }
+
+    private static long append(AppendLog log, String record) throws IOException {
+        long offset = log.append(record.getBytes(StandardCharsets.UTF_8));
+        log.syncTo(offset);
+        return offset;
+    }
+
+    @Test
+    void replaysEveryRecordAfterReopening() throws IOException {
+        long first;
+        long end;
+        try (AppendLog log = open()) {
+            first = append(log, "one");
+            append(log, "two");
+            end = append(log, "three");
+        }
+        try (AppendLog log = open()) {
+            assertEquals(List.of("one", "two", "three"), replayed);
+            assertEquals(first, offsets.get(0));
+            assertEquals(end, offsets.get(2));
+            assertEquals(end, log.size());
+        }
+    }
+
+    @Test
+    void skipsRecordsBeforeTheCheckpoint() throws IOException {
+        try (AppendLog log = open()) {
+            append(log, "one");
+            log.checkpoint(append(log, "two"));
+            append(log, "three");
+        }
+        try (AppendLog log = open()) {
+            assertEquals(List.of("three"), replayed);
+        }
+    }
+
+    @Test
+    void truncatesATornTailAndKeepsAppending() throws IOException {
+        long end;
+        try (AppendLog log = open()) {
+            append(log, "one");
+            end = append(log, "two");
+        }
+        // A crash mid-write: a header promising 100 bytes followed by only a few of them
+        try (FileChannel raw = FileChannel.open(dir.resolve("ingest.log"), StandardOpenOption.APPEND)) {
+            raw.write(ByteBuffer.allocate(12).putInt(100).putInt(0).put("par".getBytes(StandardCharsets.UTF_8)).flip());
+        }
+        try (AppendLog log = open()) {
+            assertEquals(List.of("one", "two"), replayed);
+            assertEquals(end, Files.size(dir.resolve("ingest.log")));
+            append(log, "three");
+        }
+        try (AppendLog log = open()) {
+            assertEquals(List.of("one", "two", "three"), replayed);
+        }
+    }
+
+    @Test
+    void stopsAtARecordWithABadChecksum() throws IOException {
+        long end;
+        try (AppendLog log = open()) {
+            end = append(log, "one");
+            append(log, "two");
+        }
+        // Flip the last payload byte
+        try (FileChannel raw = FileChannel.open(dir.resolve("ingest.log"), StandardOpenOption.WRITE)) {
+            raw.write(ByteBuffer.wrap(new byte[] { 'x' }), raw.size() - 1);
+        }
+        try (AppendLog log = open()) {
+            assertEquals(List.of("one"), replayed);
+            assertEquals(end, log.size());
+        }
+    }
+
+    @Test
+    void resetEmptiesAFullyAppliedLog() throws IOException {
+        try (AppendLog log = open()) {
+            log.checkpoint(append(log, "one"));
+            log.resetIfApplied();
+            assertEquals(0, log.size());
+            append(log, "two");
+        }
+        try (AppendLog log = open()) {
+            assertEquals(List.of("two"), replayed);
+        }
+    }
+
+    @Test
+    void treatsACheckpointPastTheEndAsZero() throws IOException {
+        try (AppendLog log = open()) {
+            log.checkpoint(append(log, "one"));
+        }
+        // As if the log was truncated by a reset and the crash came before the checkpoint was rewritten
+        try (FileChannel raw = FileChannel.open(dir.resolve("ingest.log"), StandardOpenOption.WRITE)) {
+            raw.truncate(0);
+        }
+        try (AppendLog log = open()) {
+            append(log, "two");
+        }
+        try (AppendLog log = open()) {
+            assertEquals(List.of("two"), replayed);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.grievance.ingest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.grievance.dao.BatchInsertException;
+import com.grievance.dao.GrievanceRepository;
+import com.grievance.model.Grievance;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class IngestBufferTest {
+
+    private static final int DELETED_USER = 99;
+
+    @TempDir
+    Path dir;
+
+    private final List<Integer> stored = Collections.synchronizedList(new ArrayList<>());
+
+    /** Stores rows by user ID and rejects any batch holding a row of {@link #DELETED_USER}, as a foreign key would. */
+    private GrievanceRepository repository() {
+        return (GrievanceRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { GrievanceRepository.class }, (proxy, method, args) -> {
+                    if (!"insertGrievances".equals(method.getName())) throw new UnsupportedOperationException(method.getName());
+                    @SuppressWarnings("unchecked")
+                    Collection<Grievance> rows = (Collection<Grievance>) args[0];
+                    for (Grievance g : rows) {
+                        if (g.getUserId() == DELETED_USER) {
+                            throw new BatchInsertException(new int[0],
+                                    new SQLIntegrityConstraintViolationException("foreign key fails", "23000", 1452), true);
+                        }
+                    }
+                    int[] ids = new int[rows.size()];
+                    int i = 0;
+                    for (Grievance g : rows) {
+                        stored.add(g.getUserId());
+                        ids[i++] = g.getUserId();
+                    }
+                    return ids;
+                });
+    }
+
+    private static void awaitDrained(IngestBuffer buffer) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (buffer.getPendingCount() > 0 && System.currentTimeMillis() < deadline) Thread.sleep(10);
+        assertEquals(0, buffer.getPendingCount(), "buffer did not drain");
+    }
+
+    @Test
+    void deadLettersRejectedRowsAndStoresTheRest() throws Exception {
+        GrievanceRepository repository = repository();
+        try (IngestBuffer buffer = new IngestBuffer(repository, dir, 4, 1000, 1 << 20)) {
+            for (int user = 1; user <= 20; user++) {
+                buffer.submit(new Grievance(user == 7 || user == 15 ? DELETED_USER : user, "title " + user, "description"));
+            }
+            awaitDrained(buffer);
+            assertEquals(2L, buffer.getStats().get("deadLettered"));
+        }
+        assertEquals(18, stored.size());
+        List<String> lines = Files.readAllLines(dir.resolve("dead-letter.jsonl"));
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).contains("\"title 7\""), lines.get(0));
+        assertTrue(lines.get(1).contains("\"title 15\""), lines.get(1));
+
+        // Neither the stored nor the dead-lettered rows come back after a restart
+        try (IngestBuffer buffer = new IngestBuffer(repository, dir, 4, 1000, 1 << 20)) {
+            assertEquals(0L, buffer.getStats().get("replayed"));
+        }
+        assertEquals(18, stored.size());
+    }
+}
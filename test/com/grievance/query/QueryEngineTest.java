@@ -0,0 +1,221 @@
+package com.grievance.query;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.grievance.cache.GrievanceColumnCache;
+import com.grievance.dao.GrievanceRepository;
+import com.grievance.model.GrievanceStatus;
+import com.grievance.model.GrievanceSummary;
+import com.grievance.query.GrievanceQuery.GroupBy;
+import com.grievance.query.GrievanceQuery.Measure;
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * Runs queries through the fork-join engine, over a list, a stream and the column cache, and checks
+ * every group against a plain sequential computation over the same rows.
+ */
+class QueryEngineTest {
+
+    private static final int ROWS = 3 * QueryEngine.LEAF_SIZE + 123;   // several leaves
+    private static final long NOW = 1_790_000_000_000L;
+    private static final String[] WORDS = { "Water", "leak", "heater", "wifi", "exam", "fees" };
+
+    private static List<GrievanceSummary> rows;
+    private static GrievanceColumnCache cache;
+    private static ForkJoinPool pool;
+    private static QueryEngine engine;
+
+    @BeforeAll
+    static void generate() throws SQLException {
+        SplittableRandom random = new SplittableRandom(11);
+        rows = new ArrayList<>(ROWS);
+        for (int id = 1; id <= ROWS; id++) {
+            GrievanceSummary g = new GrievanceSummary();
+            g.setId(id);
+            g.setUserId(1 + random.nextInt(300));
+            g.setTitle(WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]);
+            GrievanceStatus status = GrievanceStatus.values()[random.nextInt(3)];
+            g.setStatus(status.name());
+            g.setPriority(random.nextInt(4));
+            // Whole seconds over about two years, as the column cache stores them
+            long created = NOW - random.nextLong(2L * 365 * 86_400) * 1000;
+            g.setCreatedAt(new Timestamp(created));
+            if (status == GrievanceStatus.RESOLVED) g.setResolvedAt(new Timestamp(created + random.nextLong(30L * 86_400) * 1000));
+            rows.add(g);
+        }
+        cache = GrievanceColumnCache.build(repositoryOf(rows));
+        pool = new ForkJoinPool(4);
+        engine = new QueryEngine(pool, ZoneOffset.UTC);
+    }
+
+    @AfterAll
+    static void shutDown() {
+        pool.shutdown();
+    }
+
+    /** Just enough of a repository to build the column cache from. */
+    private static GrievanceRepository repositoryOf(List<GrievanceSummary> rows) {
+        return (GrievanceRepository) Proxy.newProxyInstance(QueryEngineTest.class.getClassLoader(),
+                new Class<?>[] { GrievanceRepository.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "streamSummaries": return rows.stream();
+                        case "addListener":
+                        case "removeListener": return null;
+                        default: throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private static List<Function<GrievanceQuery, QueryResult>> sources() {
+        return List.of(
+                q -> engine.run(q, QueryDataset.of(rows)),
+                q -> engine.run(q, rows.stream()),
+                q -> cache.query(data -> engine.run(q, data)));
+    }
+
+    // --- Sequential reference ---
+    private static long groupKey(GroupBy groupBy, GrievanceSummary g) {
+        LocalDate day = g.getCreatedAt().toInstant().atZone(ZoneOffset.UTC).toLocalDate();
+        switch (groupBy) {
+            case STATUS: return GrievanceStatus.valueOf(g.getStatus()).ordinal();
+            case USER: return g.getUserId();
+            case PRIORITY: return g.getPriority();
+            case DAY: return day.toEpochDay();
+            case WEEK: return day.with(DayOfWeek.MONDAY).toEpochDay();
+            case MONTH: return day.withDayOfMonth(1).toEpochDay();
+            default: return 0;
+        }
+    }
+
+    private static String label(GroupBy groupBy, long key) {
+        switch (groupBy) {
+            case STATUS: return GrievanceStatus.values()[(int) key].name();
+            case USER:
+            case PRIORITY: return Long.toString(key);
+            case DAY:
+            case WEEK: return LocalDate.ofEpochDay(key).toString();
+            case MONTH: return LocalDate.ofEpochDay(key).toString().substring(0, 7);
+            default: return "all";
+        }
+    }
+
+    private static String reference(Predicate<GrievanceSummary> filter, GroupBy groupBy) {
+        Map<Long, List<Long>> values = new TreeMap<>();
+        Map<Long, Long> counts = new TreeMap<>();
+        for (GrievanceSummary g : rows) {
+            if (!filter.test(g)) continue;
+            long key = groupKey(groupBy, g);
+            counts.merge(key, 1L, Long::sum);
+            List<Long> v = values.computeIfAbsent(key, k -> new ArrayList<>());
+            if (g.getResolvedAt() != null) v.add((g.getResolvedAt().getTime() - g.getCreatedAt().getTime()) / 1000);
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<Long, Long> e : counts.entrySet()) {
+            long[] sorted = values.get(e.getKey()).stream().mapToLong(Long::longValue).sorted().toArray();
+            sb.append(label(groupBy, e.getKey())).append(" count=").append(e.getValue()).append(" measured=").append(sorted.length);
+            if (sorted.length > 0) {
+                double mean = Arrays.stream(sorted).sum() / (double) sorted.length;
+                sb.append(" min=").append(sorted[0]).append(" max=").append(sorted[sorted.length - 1])
+                        .append(String.format(Locale.ROOT, " mean=%.6f", mean))
+                        .append(" p50=").append(nearestRank(sorted, 50))
+                        .append(" p90=").append(nearestRank(sorted, 90))
+                        .append(" p99=").append(nearestRank(sorted, 99));
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static long nearestRank(long[] sorted, double p) {
+        int rank = (int) Math.ceil(p / 100 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static String describe(QueryResult result) {
+        StringBuilder sb = new StringBuilder();
+        for (QueryResult.Group g : result.getGroups()) {
+            sb.append(g.getKey()).append(" count=").append(g.getCount()).append(" measured=").append(g.getMeasured());
+            if (g.getMeasured() > 0) {
+                sb.append(" min=").append(g.getMin()).append(" max=").append(g.getMax())
+                        .append(String.format(Locale.ROOT, " mean=%.6f", g.getMean()))
+                        .append(" p50=").append(g.getP50())
+                        .append(" p90=").append(g.getP90())
+                        .append(" p99=").append(g.getP99());
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    // --- Tests ---
+    @ParameterizedTest
+    @EnumSource(GroupBy.class)
+    void matchesTheSequentialReferenceForEveryGrouping(GroupBy groupBy) {
+        GrievanceQuery query = new GrievanceQuery(Filters.all(), groupBy, Measure.RESOLUTION_TIME);
+        String expected = reference(g -> true, groupBy);
+        for (Function<GrievanceQuery, QueryResult> source : sources()) {
+            QueryResult result = source.apply(query);
+            assertEquals(expected, describe(result));
+            assertEquals(ROWS, result.getScanned());
+            assertEquals(ROWS, result.getMatched());
+        }
+    }
+
+    @Test
+    void appliesCombinedFilters() {
+        long cutoff = NOW - 200L * 86_400 * 1000;
+        Predicate<QueryRow> filter = Filters.status(EnumSet.of(GrievanceStatus.OPEN, GrievanceStatus.RESOLVED))
+                .and(Filters.userBetween(50, 120))
+                .and(Filters.createdBefore(cutoff))
+                .and(Filters.titleContains("WATER"));
+        Predicate<GrievanceSummary> expectedFilter = g -> !GrievanceStatus.IN_PROGRESS.name().equals(g.getStatus())
+                && g.getUserId() >= 50 && g.getUserId() <= 120
+                && g.getCreatedAt().getTime() < cutoff
+                && g.getTitle().toLowerCase(Locale.ROOT).contains("water");
+
+        String expected = reference(expectedFilter, GroupBy.MONTH);
+        long matched = rows.stream().filter(expectedFilter).count();
+        assertTrue(matched > 0);
+        for (Function<GrievanceQuery, QueryResult> source : sources()) {
+            QueryResult result = source.apply(new GrievanceQuery(filter, GroupBy.MONTH, Measure.RESOLUTION_TIME));
+            assertEquals(expected, describe(result));
+            assertEquals(matched, result.getMatched());
+        }
+    }
+
+    @Test
+    void measuresAgeOfEveryMatchedRow() {
+        long[] ages = rows.stream().mapToLong(g -> (System.currentTimeMillis() - g.getCreatedAt().getTime()) / 1000).sorted().toArray();
+        for (Function<GrievanceQuery, QueryResult> source : sources()) {
+            QueryResult.Group all = source.apply(new GrievanceQuery(Filters.all(), GroupBy.NONE, Measure.AGE)).getGroups().get(0);
+            assertEquals(ROWS, all.getCount());
+            assertEquals(ROWS, all.getMeasured());
+            // The engine reads the clock a moment later than this test did
+            assertTrue(Math.abs(all.getMin() - ages[0]) <= 2, "min age");
+            assertTrue(Math.abs(all.getMax() - ages[ages.length - 1]) <= 2, "max age");
+            assertTrue(Math.abs(all.getP50() - nearestRank(ages, 50)) <= 2, "median age");
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.grievance.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.grievance.util.FakeJdbc.FakeConnection;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ConnectionPoolTest {
+
+    private FakeJdbc driver;
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void registerDriver() throws SQLException {
+        driver = FakeJdbc.register();
+    }
+
+    @AfterEach
+    void shutDown() throws SQLException {
+        if (pool != null) pool.shutdown();
+        driver.deregister();
+    }
+
+    /** No minimum, a long idle timeout and no leak reports, so the housekeeper stays out of the way. */
+    private ConnectionPool pool(int maxSize, long borrowTimeoutMs, long validationIntervalMs) {
+        pool = new ConnectionPool(driver.url, "user", "password", 0, maxSize, borrowTimeoutMs, 600_000, 0,
+                validationIntervalMs, 1, 10);
+        return pool;
+    }
+
+    @Test
+    void timesOutWhenExhaustedAndRecoversOnReturn() throws SQLException {
+        pool(2, 100, 60_000);
+        Connection first = pool.getConnection();
+        Connection second = pool.getConnection();
+
+        long start = System.nanoTime();
+        assertThrows(SQLTransientConnectionException.class, pool::getConnection);
+        assertTrue(System.nanoTime() - start >= 90_000_000L, "gave up before the borrow timeout");
+        assertEquals(1, pool.getStats().getTimeoutCount());
+        assertEquals(2, pool.getStats().getActive());
+
+        first.close();
+        try (Connection third = pool.getConnection()) {
+            assertFalse(third.isClosed());
+        }
+        second.close();
+        assertEquals(2, driver.connections.size(), "returned connections are reused, not reopened");
+        assertEquals(0, pool.getStats().getActive());
+    }
+
+    @Test
+    void waitingBorrowerGetsTheNextReturnedConnection() throws Exception {
+        pool(1, 5_000, 60_000);
+        Connection held = pool.getConnection();
+        Thread returner = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+                held.close();
+            } catch (InterruptedException | SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        returner.start();
+        try (Connection next = pool.getConnection()) {
+            assertFalse(next.isClosed());
+        }
+        returner.join();
+        assertEquals(1, driver.connections.size());
+        assertEquals(0, pool.getStats().getTimeoutCount());
+    }
+
+    @Test
+    void replacesAConnectionThatFailsValidation() throws SQLException {
+        pool(1, 1_000, 0); // validate on every borrow
+        pool.getConnection().close();
+        FakeConnection broken = driver.connections.get(0);
+        broken.valid = false;
+
+        try (Connection c = pool.getConnection()) {
+            assertFalse(c.isClosed());
+        }
+        assertEquals(2, driver.connections.size());
+        assertTrue(broken.closed, "the invalid connection is closed");
+        assertEquals(1, pool.getStats().getDestroyedCount());
+    }
+
+    @Test
+    void failedConnectDoesNotLeakAPermit() throws SQLException {
+        pool(1, 100, 60_000);
+        driver.refuseConnections = true;
+        assertThrows(SQLException.class, pool::getConnection);
+        driver.refuseConnections = false;
+        try (Connection c = pool.getConnection()) {
+            assertFalse(c.isClosed());
+        }
+    }
+
+    @Test
+    void rollsBackAndRestoresAutoCommitOnReturn() throws SQLException {
+        pool(1, 1_000, 60_000);
+        Connection c = pool.getConnection();
+        c.setAutoCommit(false);
+        c.close();
+        FakeConnection physical = driver.connections.get(0);
+        assertEquals(1, physical.rollbacks);
+        assertTrue(physical.autoCommit);
+
+        assertThrows(SQLException.class, () -> c.prepareStatement("SELECT 1"), "a returned handle is unusable");
+    }
+}
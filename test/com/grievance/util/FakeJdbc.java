@@ -0,0 +1,127 @@
+package com.grievance.util;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * A JDBC driver whose connections and statements only record what was done to them, so the pool
+ * and the statement cache can be tested without a database. Register one per test and deregister it after.
+ */
+final class FakeJdbc implements Driver {
+
+    private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+    final String url = "jdbc:fake:" + INSTANCES.incrementAndGet();
+    final List<FakeConnection> connections = new CopyOnWriteArrayList<>();
+    volatile boolean refuseConnections;
+
+    static FakeJdbc register() throws SQLException {
+        FakeJdbc driver = new FakeJdbc();
+        DriverManager.registerDriver(driver);
+        return driver;
+    }
+
+    void deregister() throws SQLException {
+        DriverManager.deregisterDriver(this);
+    }
+
+    /** A physical connection: open until closed, valid until told otherwise. */
+    static final class FakeConnection {
+        final Connection connection;
+        final List<FakeStatement> statements = new CopyOnWriteArrayList<>();
+        volatile boolean closed;
+        volatile boolean valid = true;
+        volatile boolean autoCommit = true;
+        volatile int rollbacks;
+
+        FakeConnection() {
+            connection = (Connection) Proxy.newProxyInstance(FakeJdbc.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "close": closed = true; return null;
+                            case "isClosed": return closed;
+                            case "isValid": return valid && !closed;
+                            case "getAutoCommit": return autoCommit;
+                            case "setAutoCommit": autoCommit = (Boolean) args[0]; return null;
+                            case "rollback": rollbacks++; return null;
+                            case "prepareStatement":
+                                FakeStatement statement = new FakeStatement((String) args[0]);
+                                statements.add(statement);
+                                return statement.statement;
+                            case "equals": return proxy == args[0];
+                            case "hashCode": return System.identityHashCode(proxy);
+                            case "toString": return "FakeConnection";
+                            default: return defaultValue(method.getReturnType());
+                        }
+                    });
+        }
+    }
+
+    /** A prepared statement that only knows its SQL and whether it was closed. */
+    static final class FakeStatement {
+        final String sql;
+        final PreparedStatement statement;
+        volatile boolean closed;
+
+        FakeStatement(String sql) {
+            this.sql = sql;
+            statement = (PreparedStatement) Proxy.newProxyInstance(FakeJdbc.class.getClassLoader(),
+                    new Class<?>[] { PreparedStatement.class }, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "close": closed = true; return null;
+                            case "isClosed": return closed;
+                            case "equals": return proxy == args[0];
+                            case "hashCode": return System.identityHashCode(proxy);
+                            case "toString": return "FakeStatement[" + sql + "]";
+                            default: return defaultValue(method.getReturnType());
+                        }
+                    });
+        }
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        return null;
+    }
+
+    @Override
+    public Connection connect(String url, Properties info) throws SQLException {
+        if (!acceptsURL(url)) return null;
+        if (refuseConnections) throw new SQLException("Connection refused");
+        FakeConnection connection = new FakeConnection();
+        connections.add(connection);
+        return connection.connection;
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+        return this.url.equals(url);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+        return new DriverPropertyInfo[0];
+    }
+
+    @Override public int getMajorVersion() { return 1; }
+    @Override public int getMinorVersion() { return 0; }
+    @Override public boolean jdbcCompliant() { return false; }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+}
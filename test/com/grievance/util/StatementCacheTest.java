@@ -0,0 +1,83 @@
+package com.grievance.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.grievance.util.FakeJdbc.FakeConnection;
+import com.grievance.util.FakeJdbc.FakeStatement;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.junit.jupiter.api.Test;
+
+class StatementCacheTest {
+
+    private final FakeConnection physical = new FakeConnection();
+
+    private PreparedStatement prepare(StatementCache cache, String sql) throws SQLException {
+        return cache.prepare(sql, Statement.NO_GENERATED_KEYS);
+    }
+
+    private FakeStatement prepared(String sql) {
+        return physical.statements.stream().filter(s -> s.sql.equals(sql)).findFirst().orElseThrow();
+    }
+
+    @Test
+    void reusesAReturnedStatement() throws SQLException {
+        StatementCache cache = new StatementCache(physical.connection, 2);
+        prepare(cache, "A").close();
+        prepare(cache, "A").close();
+        assertEquals(1, physical.statements.size());
+        assertFalse(prepared("A").closed);
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedStatement() throws SQLException {
+        StatementCache cache = new StatementCache(physical.connection, 2);
+        prepare(cache, "A").close();
+        prepare(cache, "B").close();
+        prepare(cache, "A").close();   // A is now the most recently used
+        prepare(cache, "C").close();   // evicts B
+
+        assertTrue(prepared("B").closed);
+        assertFalse(prepared("A").closed);
+        assertFalse(prepared("C").closed);
+        prepare(cache, "A").close();
+        assertEquals(3, physical.statements.size(), "A is still cached");
+        prepare(cache, "B").close();
+        assertEquals(4, physical.statements.size(), "B has to be prepared again");
+    }
+
+    @Test
+    void closesAnEvictedStatementOnlyWhenItsUserIsDone() throws SQLException {
+        StatementCache cache = new StatementCache(physical.connection, 1);
+        PreparedStatement a = prepare(cache, "A");
+        prepare(cache, "B").close();   // evicts A while it is checked out
+        assertFalse(prepared("A").closed);
+        a.close();
+        assertTrue(prepared("A").closed);
+    }
+
+    @Test
+    void handsOutAPlainStatementWhenTheCachedOneIsCheckedOut() throws SQLException {
+        StatementCache cache = new StatementCache(physical.connection, 2);
+        PreparedStatement outer = prepare(cache, "A");
+        PreparedStatement nested = prepare(cache, "A");
+        assertEquals(2, physical.statements.size());
+        nested.close();
+        assertTrue(physical.statements.get(1).closed, "the uncached statement is really closed");
+        outer.close();
+        assertFalse(physical.statements.get(0).closed);
+    }
+
+    @Test
+    void closeAllClosesEveryCachedStatement() throws SQLException {
+        StatementCache cache = new StatementCache(physical.connection, 4);
+        prepare(cache, "A").close();
+        prepare(cache, "B").close();
+        cache.closeAll();
+        assertTrue(prepared("A").closed);
+        assertTrue(prepared("B").closed);
+    }
+}